@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# =======================================================================================
+# Mide cuánto tarda la aplicación en atender su primera petición, con y sin las optimizaciones
+# de arranque del perfil Maven "produccion" (AOT + AppCDS + inicialización perezosa).
+#
+# Uso:   ./mvnw -Pproduccion package && scripts/medir-arranque.sh [repeticiones]
+#
+# Las dos variantes usan el MISMO jar (target/aplicacion), así que la diferencia se debe solo a las opciones
+# de arranque:
+#   - base:       java -jar ...
+#   - optimizado: java -XX:SharedArchiveFile=aplicacion.jsa -Dspring.aot.enabled=true
+#                      -Dspring.profiles.active=produccion -jar ...
+# El tiempo se mide desde que se lanza la JVM hasta que GET /vacantes/index responde 200 (incluye, por tanto,
+# lo que la inicialización perezosa deja para la primera petición). Si no responde 200 en TIEMPO_MAXIMO segundos
+# (por defecto 60), o la JVM termina antes, se detiene y el script falla en lugar de esperar para siempre.
+# =======================================================================================
+set -euo pipefail
+
+REPETICIONES=${1:-5}
+PUERTO=${PUERTO:-18080}
+TIEMPO_MAXIMO=${TIEMPO_MAXIMO:-60}
+DIRECTORIO=$(cd "$(dirname "$0")/../target/aplicacion" && pwd)
+JAR=$(ls "$DIRECTORIO"/*.jar | head -n 1)
+
+if [[ ! -f "$DIRECTORIO/aplicacion.jsa" ]]; then
+	echo "No existe $DIRECTORIO/aplicacion.jsa: ejecuta antes ./mvnw -Pproduccion package" >&2
+	exit 1
+fi
+
+# Lanza la aplicación con las opciones dadas y escribe los milisegundos hasta la primera respuesta 200.
+# Devuelve un código distinto de 0 si no llega a responder (se ejecuta dentro de $(...): "exit" solo sale de ahí).
+medir() {
+	local inicio fin limite pid
+	if curl -s -o /dev/null "http://localhost:$PUERTO/"; then
+		echo "Ya hay algo escuchando en el puerto $PUERTO: se mediría eso y no la aplicación" >&2
+		return 1
+	fi
+	inicio=$(date +%s%N)
+	limite=$((inicio + TIEMPO_MAXIMO * 1000000000))
+	(cd "$DIRECTORIO" && exec java "$@" -Dserver.port="$PUERTO" -jar "$JAR" > /dev/null 2>&1) &
+	pid=$!
+	until curl -fs -o /dev/null --max-time 5 "http://localhost:$PUERTO/vacantes/index"; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "La aplicación terminó antes de responder" >&2
+			return 1
+		fi
+		if (($(date +%s%N) > limite)); then
+			echo "Sin respuesta 200 de /vacantes/index en $TIEMPO_MAXIMO s" >&2
+			kill "$pid"
+			wait "$pid" 2> /dev/null || true
+			return 1
+		fi
+		sleep 0.02
+	done
+	fin=$(date +%s%N)
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+	echo $(((fin - inicio) / 1000000))
+}
+
+# Ejecuta una variante varias veces y muestra la mediana y el mínimo.
+variante() {
+	local nombre=$1
+	shift
+	local tiempos=() tiempo
+	for ((i = 0; i < REPETICIONES; i++)); do
+		tiempo=$(medir "$@") || exit 1
+		tiempos+=("$tiempo")
+	done
+	local ordenados
+	ordenados=$(printf '%s\n' "${tiempos[@]}" | sort -n)
+	printf '%-11s mediana %6s ms   mínimo %6s ms   (%s)\n' "$nombre" \
+		"$(sed -n "$(((REPETICIONES + 1) / 2))p" <<< "$ordenados")" "$(head -n 1 <<< "$ordenados")" \
+		"$(tr '\n' ' ' <<< "$ordenados")"
+}
+
+variante base
+variante optimizado -XX:SharedArchiveFile=aplicacion.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=produccion
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# =======================================================================================
+# Prueba de carga: HTTP/1.1 sin compresión (la configuración anterior) frente a HTTP/2 en claro (h2c) con gzip.
+#
+# Uso:   ./mvnw package && scripts/medir-http.sh [peticiones] [clientes]
+# Necesita h2load (paquete nghttp2-client), que sabe hablar HTTP/1.1 (--h1) y HTTP/2.
+#
+# Para cada variante se carga el listado de vacantes y una página con sus CSS y JS, como haría un navegador,
+# y se muestran las peticiones por segundo, la latencia y los bytes transferidos que informa h2load.
+# =======================================================================================
+set -euo pipefail
+
+PETICIONES=${1:-20000}
+CLIENTES=${2:-50}
+PUERTO=${PUERTO:-18082}
+RAIZ=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$RAIZ"/target/empleos-*.jar | grep -v original | head -n 1)
+URLS=("/vacantes/index" "/css/bootstrap.min.css" "/js/bootstrap.bundle.min.js")
+
+command -v h2load > /dev/null || { echo "Falta h2load (nghttp2-client)" >&2; exit 1; }
+
+# El control de admisión se relaja para medir el servidor y no el límite por IP.
+arrancar() {
+	java "$@" -Dserver.port="$PUERTO" -Dempleos.admision.concurrencia-maxima=10000 \
+		-Dempleos.admision.listado.por-segundo=1000000 -Dempleos.admision.listado.rafaga=1000000 \
+		-jar "$JAR" > /dev/null 2>&1 &
+	PID=$!
+	until curl -fs -o /dev/null "http://localhost:$PUERTO/"; do
+		sleep 0.2
+	done
+}
+
+detener() {
+	kill "$PID"
+	wait "$PID" 2> /dev/null || true
+}
+
+# h2load reparte las peticiones entre todas las URL dadas.
+cargar() {
+	local nombre=$1
+	shift
+	echo "== $nombre"
+	h2load "$@" -n "$PETICIONES" -c "$CLIENTES" -H 'accept-encoding: gzip' \
+		"${URLS[@]/#/http://localhost:$PUERTO}" | grep -E '^(finished in|requests:|traffic:|time for request:)'
+}
+
+arrancar -Dserver.http2.enabled=false -Dserver.compression.enabled=false
+cargar "HTTP/1.1 sin compresión" --h1
+detener
+
+arrancar
+cargar "HTTP/1.1 con gzip" --h1
+cargar "HTTP/2 (h2c) con gzip" -m 10
+detener
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# =======================================================================================
+# Compara el coste por petición de las páginas con las plantillas "como hoy" (con comentarios y releídas del
+# disco en cada petición, como con devtools) y con las de producción (sin comentarios, analizadas una vez y
+# guardadas en la caché de Thymeleaf).
+#
+# Uso:   ./mvnw -Pproduccion package && scripts/medir-plantillas.sh [peticiones-por-pagina]
+#
+#   - hoy:        plantillas de src/main/resources/templates, spring.thymeleaf.cache=false
+#   - produccion: plantillas del jar (sin comentarios), caché activa y precalentada
+# Para cada página se muestra el tiempo medio de respuesta (curl, en local) y los bytes enviados.
+# =======================================================================================
+set -euo pipefail
+
+PETICIONES=${1:-200}
+PUERTO=${PUERTO:-18081}
+RAIZ=$(cd "$(dirname "$0")/.." && pwd)
+DIRECTORIO="$RAIZ/target/aplicacion"
+JAR=$(ls "$DIRECTORIO"/*.jar | head -n 1)
+PAGINAS=(/ /vacantes/index /vacantes/crear /vacantes/view-path/1)
+
+# Arranca la aplicación con las opciones dadas y espera a que responda.
+arrancar() {
+	(cd "$DIRECTORIO" && exec java "$@" -Dserver.port="$PUERTO" -Dempleos.admision.concurrencia-maxima=1000 \
+		-Dempleos.admision.listado.por-segundo=100000 -Dempleos.admision.detalle.por-segundo=100000 \
+		-jar "$JAR" > /dev/null 2>&1) &
+	PID=$!
+	until curl -fs -o /dev/null "http://localhost:$PUERTO/"; do
+		sleep 0.1
+	done
+}
+
+# Pide cada página PETICIONES veces (tras 20 de calentamiento) y muestra la media.
+medir() {
+	local nombre=$1 pagina url total bytes
+	for pagina in "${PAGINAS[@]}"; do
+		url="http://localhost:$PUERTO$pagina"
+		for ((i = 0; i < 20; i++)); do curl -fs -o /dev/null "$url"; done
+		total=0
+		for ((i = 0; i < PETICIONES; i++)); do
+			read -r tiempo bytes < <(curl -fs -o /dev/null -w '%{time_total} %{size_download}\n' "$url")
+			total=$(awk -v a="$total" -v b="$tiempo" 'BEGIN { print a + b }')
+		done
+		printf '%-11s %-22s %8.3f ms/petición   %6d bytes\n' "$nombre" "$pagina" \
+			"$(awk -v t="$total" -v n="$PETICIONES" 'BEGIN { print t * 1000 / n }')" "$bytes"
+	done
+	kill "$PID"
+	wait "$PID" 2> /dev/null || true
+}
+
+arrancar -Dspring.thymeleaf.cache=false -Dspring.thymeleaf.prefix="file:$RAIZ/src/main/resources/templates/"
+medir hoy
+arrancar -Dspring.aot.enabled=true -Dspring.profiles.active=produccion
+medir produccion
@@ -0,0 +1,32 @@
+package net.itinajero.config;
+
+import net.itinajero.service.Itf_VacanteObservador;
+import net.itinajero.service.Itf_VacanteService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ============ QUÉ SE CREA AL ARRANCAR Y QUÉ SE DEJA PARA DESPUÉS ============
+ * <p>
+ * ¿Qué es esta clase? Una configuración que solo importa cuando la inicialización perezosa está activa
+ * (`spring.main.lazy-initialization=true`, en el perfil "produccion").
+ * <p>
+ * ¿Cómo funciona? Con inicialización perezosa, Spring no crea ningún bean hasta que alguien lo pide. El
+ * `LazyInitializationExcludeFilter` declarado aquí marca las excepciones: los beans de estos tipos se siguen
+ * creando al arrancar.
+ * <p>
+ * ¿Por qué estos? El almacén de vacantes y sus observadores (facetas, índices ordenados, novedades...) se
+ * construyen juntos: al registrarse, cada observador recibe todas las vacantes existentes. Si se dejaran para la
+ * primera petición, esa petición pagaría la carga de los datos y de todos los índices. El resto (controladores de
+ * categorías y métricas, idempotencia, escritura...) cuesta poco crearlo y puede esperar a que se use.
+ */
+@Configuration
+public class ConfiguracionArranque {
+
+@Bean
+public static LazyInitializationExcludeFilter beansCriticosAlArrancar() {
+	return LazyInitializationExcludeFilter.forBeanTypes(Itf_VacanteService.class, Itf_VacanteObservador.class,
+			FiltroAdmision.class);
+}
+}
@@ -0,0 +1,43 @@
+package net.itinajero.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ============ IDIOMAS ADMITIDOS ============
+ * <p>
+ * ¿Qué es esta clase? Declara el `LocaleResolver` de la aplicación: el que decide con qué idioma se renderiza cada
+ * página (por ejemplo, el formato de moneda de los salarios).
+ * <p>
+ * ¿Cómo funciona? Sigue leyendo la cabecera `Accept-Language`, pero solo devuelve uno de los idiomas de
+ * `empleos.idiomas`: el pedido si está en la lista; si no, una entrada de la lista sin país con el mismo idioma
+ * (`en` para `en-GB`), y si tampoco hay, el primero de la lista (`es-AR` → `es-MX`).
+ * <p>
+ * ¿Por qué se implementa así? Sin lista, cada variante que envía un navegador (`es-AR`, `es-CO`, `fr-CA`...) es
+ * una página distinta para `FiltroCacheDetalle`: la misma vacante ocuparía la caché una vez por variante. Con
+ * unos pocos idiomas, cada vacante tiene como mucho unas pocas páginas, y la caché y la vista usan el mismo
+ * idioma porque salen del mismo resolver.
+ */
+@Configuration
+public class ConfiguracionIdiomas {
+
+@Bean
+public LocaleResolver localeResolver(@Value("${empleos.idiomas:es-MX,es-ES,en-US}") String idiomas) {
+	List<Locale> admitidos = Arrays.stream(idiomas.split(","))
+			.map(String::strip)
+			.filter(idioma -> !idioma.isEmpty())
+			.map(Locale::forLanguageTag)
+			.toList();
+	AcceptHeaderLocaleResolver resolver = new AcceptHeaderLocaleResolver();
+	resolver.setSupportedLocales(admitidos);
+	resolver.setDefaultLocale(admitidos.get(0));
+	return resolver;
+}
+}
@@ -0,0 +1,56 @@
+package net.itinajero.config;
+
+import net.itinajero.model.Categoria;
+import net.itinajero.model.ConteoFaceta;
+import net.itinajero.model.EstadisticasSalario;
+import net.itinajero.model.EstadisticasVacantes;
+import net.itinajero.model.FiltroVacantes;
+import net.itinajero.model.ResumenVacante;
+import net.itinajero.model.Vacante;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.web.servlet.FlashMap;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * ============ PISTAS PARA LA IMAGEN NATIVA (GRAALVM) ============
+ * <p>
+ * ¿Qué es esta clase? La lista de lo que la aplicación usa "por reflexión" y que, por tanto, el compilador nativo
+ * no puede descubrir solo (ver el perfil Maven `native` en pom.xml).
+ * <p>
+ * ¿Cómo funciona? Una imagen nativa solo contiene las clases, métodos y recursos que se alcanzan desde `main`
+ * siguiendo el código. Lo que se busca por nombre al ejecutar queda fuera salvo que se declare aquí: - El
+ * enlace de datos del formulario (`guardar(Vacante vacante)`) y las expresiones de Thymeleaf
+ * (`${vacante.nombre}`) llaman a getters y setters por reflexión: se registran con
+ * `BindingReflectionHintsRegistrar`, que recorre también los tipos de las propiedades (los enums, `Date`...).
+ * El mismo registro sirve para el JSON de las novedades (`ResumenVacante`). - Las plantillas y los archivos
+ * estáticos se leen como recursos del classpath. - Con sesiones compartidas, los mensajes flash se guardan con
+ * serialización de Java ({@link net.itinajero.service.CodecSesion}).
+ * <p>
+ * ¿Por qué se implementa así? Spring AOT genera casi todas las pistas (beans, controladores, configuración); solo
+ * faltan las de nuestros propios modelos. Sin ellas, la aplicación nativa compila pero falla al mostrar o
+ * guardar una vacante.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(ConfiguracionNativa.PistasEmpleos.class)
+public class ConfiguracionNativa {
+
+static class PistasEmpleos implements RuntimeHintsRegistrar {
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Vacante.class,
+				Categoria.class, FiltroVacantes.class, ConteoFaceta.class, ResumenVacante.class,
+				EstadisticasVacantes.class, EstadisticasSalario.class);
+		hints.resources().registerPattern("templates/**").registerPattern("static/**");
+		hints.serialization().registerType(ArrayList.class).registerType(FlashMap.class)
+				.registerType(HashMap.class).registerType(String.class).registerType(Date.class);
+	}
+}
+}
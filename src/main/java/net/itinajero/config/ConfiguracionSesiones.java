@@ -0,0 +1,53 @@
+package net.itinajero.config;
+
+import net.itinajero.service.Impl_RepositorioSesionesCompartido;
+import net.itinajero.service.Itf_AlmacenCompartido;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+
+/**
+ * ============ CONFIGURACIÓN DE LAS SESIONES HTTP ============
+ * <p>
+ * ¿Qué es esta clase? Una clase de configuración de Spring (`@Configuration`): en lugar de controladores o
+ * servicios, declara "beans" con métodos anotados con `@Bean`.
+ * <p>
+ * ¿Cómo funciona? La propiedad `empleos.sesion.almacen` elige dónde viven las sesiones:
+ * <ul>
+ * <li>`memoria` (por defecto): la sesión normal de Tomcat, en la memoria del nodo. Caduca tras
+ * `server.servlet.session.timeout` sin uso y Tomcat la borra en segundo plano. Suficiente para desarrollo.</li>
+ * <li>`compartido`: `@EnableSpringHttpSession` sustituye el `HttpSession` de Tomcat por el de Spring Session,
+ * que delega en {@link Impl_RepositorioSesionesCompartido}: las sesiones se guardan en el almacén compartido
+ * entre nodos, con la inactividad máxima como caducidad.</li>
+ * </ul>
+ * <p>
+ * ¿Por qué se implementa así? Los controladores siguen usando la sesión (mensajes flash, en el futuro el
+ * usuario autenticado) sin saber dónde vive; pasar a varios nodos es solo cambiar una propiedad. Y en un solo
+ * nodo no se sustituye nada: el gestor de sesiones de Tomcat ya sabe caducarlas.
+ */
+@Configuration
+public class ConfiguracionSesiones {
+
+private static final Logger log = LoggerFactory.getLogger(ConfiguracionSesiones.class);
+
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "empleos.sesion.almacen", havingValue = "compartido")
+static class SesionesCompartidas {
+
+	@Value("${empleos.sesion.inactividad-maxima:30m}")
+	private Duration inactividadMaxima;
+
+	@Bean
+	public Impl_RepositorioSesionesCompartido sessionRepository(Itf_AlmacenCompartido almacen) {
+		log.info("-> Sesiones HTTP en el almacén compartido entre nodos.");
+		return new Impl_RepositorioSesionesCompartido(almacen, inactividadMaxima);
+	}
+}
+}
@@ -0,0 +1,80 @@
+package net.itinajero.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * ¿Qué es? El filtro que protege las operaciones de administración: los `POST` que recorren o rehacen todo el
+ * catálogo (`/trabajos/...`) o una proyección de lectura entera (`/proyecciones/{nombre}/reconstruir`). Cualquiera
+ * que llegue al servidor podría lanzarlas una y otra vez.
+ * <p>
+ * ¿Cómo funciona? La petición tiene que traer la cabecera {@value #CABECERA} con el valor de
+ * `empleos.administracion.token`; si no, se responde 403. Si la propiedad está vacía, estas operaciones quedan
+ * deshabilitadas para todos. La comparación es de tiempo constante (`MessageDigest.isEqual`), para no dar pistas
+ * del token por lo que tarda en fallar. Además, {@link FiltroAdmision} les aplica su propio límite por IP (grupo
+ * `ADMINISTRACION`), que se comprueba antes.
+ * <p>
+ * ¿Por qué un token y no usuarios con roles? La aplicación no tiene autenticación; un secreto compartido basta
+ * para que solo quien despliega (scripts, cron) lance estas operaciones, sin traer un módulo de seguridad entero.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15) // Después de FiltroAdmision: una IP que insiste recibe 429 sin llegar aquí.
+public class FiltroAdministracion extends OncePerRequestFilter {
+
+private static final Logger log = LoggerFactory.getLogger(FiltroAdministracion.class);
+
+static final String CABECERA = "X-Token-Administracion";
+
+private final byte[] token;
+
+public FiltroAdministracion(@Value("${empleos.administracion.token:}") String token) {
+	this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+}
+
+/**
+ * @param ruta
+ * 		La ruta normalizada con {@link FiltroAdmision#ruta(HttpServletRequest)}: comparar la URI tal cual dejaría
+ * 		pasar sin token `/%74rabajos/caducar` o `/trabajos;x=1/caducar`, que Spring MVC lleva al mismo controlador.
+ * @return `true` si la petición es una operación de administración.
+ */
+static boolean protegida(String metodo, String ruta) {
+	return "POST".equals(metodo) && (ruta.startsWith("/trabajos/") || ruta.startsWith("/proyecciones/"));
+}
+
+@Override
+protected boolean shouldNotFilter(HttpServletRequest request) {
+	return !protegida(request.getMethod(), FiltroAdmision.ruta(request));
+}
+
+@Override
+protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+	String recibido = request.getHeader(CABECERA);
+	if (token == null || recibido == null
+			|| !MessageDigest.isEqual(token, recibido.getBytes(StandardCharsets.UTF_8))){
+		log.warn("403: {} {} desde {} sin un token de administración válido.", request.getMethod(),
+				request.getRequestURI(), request.getRemoteAddr());
+		response.setStatus(HttpStatus.FORBIDDEN.value());
+		response.setContentType("text/plain");
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(token == null ? "Las operaciones de administración están deshabilitadas."
+				: "Falta el token de administración o no es válido.");
+		return;
+	}
+	chain.doFilter(request, response);
+}
+}
@@ -0,0 +1,183 @@
+package net.itinajero.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.itinajero.service.Itf_FuenteMetricas;
+import net.itinajero.service.LimitadorTasa;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============ CONTROL DE ADMISIÓN: LÍMITE POR CLIENTE Y LÍMITE GLOBAL ============
+ * <p>
+ * ¿Qué es esta clase? Un filtro de servlets que decide, ANTES de que la petición llegue a un controlador (e incluso
+ * antes de cargar la sesión), si se atiende o se rechaza.
+ * <p>
+ * ¿Cómo funciona? Dos comprobaciones, de la más barata a la más cara: 1. Límite por cliente: las rutas se
+ * agrupan (detalle de vacante, listado, guardar, administración) y cada grupo tiene un {@link LimitadorTasa} por IP. Si la IP
+ * agotó sus fichas en ese grupo, se responde 429 (Demasiadas peticiones) con `Retry-After`. 2. Límite global: un
+ * `Semaphore` con tantos permisos como peticiones simultáneas se admiten. Si no queda ninguno, no se espera: se
+ * responde 503 con `Retry-After`.
+ * <p>
+ * ¿Por qué se implementa así? - Un robot que recorre `/vacantes/view-path/1, 2, 3...` o que envía formularios
+ * sin parar gasta sus fichas y deja de costar nada; los demás clientes no lo notan. - Cuando llega más trabajo
+ * del que el servidor puede hacer, es mejor rechazar rápido lo que sobra que aceptarlo todo y responder tarde a
+ * todos. Un 503 inmediato cuesta casi nada; una petición encolada ocupa un hilo y memoria.
+ * <p>
+ * La IP es `getRemoteAddr()`. Detrás de un proxy hay que activar `server.forward-headers-strategy` para que sea
+ * la del cliente y no la del proxy.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // Antes que el filtro de Spring Session: una petición rechazada no carga sesión.
+public class FiltroAdmision extends OncePerRequestFilter implements Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(FiltroAdmision.class);
+
+/**
+ * Los grupos de rutas con límite por cliente. Cada uno tiene su propio ritmo (ver application.properties).
+ */
+enum Grupo {
+	DETALLE, LISTADO, ESCRITURA, ADMINISTRACION
+}
+
+private final Map<Grupo, LimitadorTasa> limitadores = new LinkedHashMap<>();
+private final Semaphore enCurso;
+private final int concurrenciaMaxima;
+
+private final AtomicLong admitidas = new AtomicLong();
+private final AtomicLong rechazadasPorTasa = new AtomicLong();
+private final AtomicLong rechazadasPorCarga = new AtomicLong();
+
+public FiltroAdmision(@Value("${empleos.admision.concurrencia-maxima:160}") int concurrenciaMaxima,
+		@Value("${empleos.admision.clientes-maximos:100000}") int clientesMaximos,
+		@Value("${empleos.admision.detalle.por-segundo:10}") double detallePorSegundo,
+		@Value("${empleos.admision.detalle.rafaga:20}") int detalleRafaga,
+		@Value("${empleos.admision.listado.por-segundo:5}") double listadoPorSegundo,
+		@Value("${empleos.admision.listado.rafaga:20}") int listadoRafaga,
+		@Value("${empleos.admision.escritura.por-segundo:0.5}") double escrituraPorSegundo,
+		@Value("${empleos.admision.escritura.rafaga:5}") int escrituraRafaga,
+		@Value("${empleos.admision.administracion.por-segundo:0.1}") double administracionPorSegundo,
+		@Value("${empleos.admision.administracion.rafaga:3}") int administracionRafaga) {
+	this.concurrenciaMaxima = concurrenciaMaxima;
+	this.enCurso = new Semaphore(concurrenciaMaxima);
+	limitadores.put(Grupo.DETALLE, new LimitadorTasa(detallePorSegundo, detalleRafaga, clientesMaximos));
+	limitadores.put(Grupo.LISTADO, new LimitadorTasa(listadoPorSegundo, listadoRafaga, clientesMaximos));
+	limitadores.put(Grupo.ESCRITURA, new LimitadorTasa(escrituraPorSegundo, escrituraRafaga, clientesMaximos));
+	limitadores.put(Grupo.ADMINISTRACION,
+			new LimitadorTasa(administracionPorSegundo, administracionRafaga, clientesMaximos));
+}
+
+@Override
+protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+	Grupo grupo = clasificar(request.getMethod(), ruta(request));
+	if (grupo != null){
+		long espera = limitadores.get(grupo).intentar(request.getRemoteAddr());
+		if (espera > 0){
+			rechazadasPorTasa.incrementAndGet();
+			log.debug("429 para {} en el grupo {}", request.getRemoteAddr(), grupo);
+			rechazar(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(espera) + 1,
+					"Demasiadas peticiones. Espera un momento antes de volver a intentarlo.");
+			return;
+		}
+	}
+	if (!enCurso.tryAcquire()){
+		rechazadasPorCarga.incrementAndGet();
+		log.warn("503: hay {} peticiones en curso, el máximo admitido.", concurrenciaMaxima);
+		rechazar(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+				"El servidor está atendiendo demasiadas peticiones. Inténtalo de nuevo en unos segundos.");
+		return;
+	}
+	admitidas.incrementAndGet();
+	try{
+		chain.doFilter(request, response);
+	} finally{
+		enCurso.release();
+	}
+}
+
+/**
+ * Las métricas son justamente lo que hay que poder consultar cuando el servidor está saturado.
+ */
+@Override
+protected boolean shouldNotFilter(HttpServletRequest request) {
+	return ruta(request).startsWith("/metricas");
+}
+
+/**
+ * La ruta con la que Spring MVC elige el controlador: sin el contexto, decodificada (`%76` → `v`), sin parámetros
+ * de segmento (`;x=1`) y sin barras repetidas. Con `getRequestURI()` tal cual, `/vacantes/save;x` o
+ * `/%76acantes/save` llegarían al mismo controlador pero escaparían de su grupo.
+ */
+static String ruta(HttpServletRequest request) {
+	return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+}
+
+/**
+ * @param ruta
+ * 		La ruta ya normalizada con {@link #ruta(HttpServletRequest)}, por ejemplo `/vacantes/view-path/3`.
+ * @return El grupo con límite por cliente al que pertenece la petición, o null si solo cuenta el límite global.
+ */
+static Grupo clasificar(String metodo, String ruta) {
+	if (FiltroAdministracion.protegida(metodo, ruta)){
+		return Grupo.ADMINISTRACION;
+	}
+	if ("POST".equals(metodo) && (ruta.equals("/vacantes/save") || ruta.equals("/categorias/save"))){
+		return Grupo.ESCRITURA;
+	}
+	if (ruta.startsWith("/vacantes/view-path/") || ruta.equals("/vacantes/view-request")){
+		return Grupo.DETALLE;
+	}
+	if (ruta.equals("/vacantes/index") || ruta.equals("/cambios/instantanea")){
+		return Grupo.LISTADO;
+	}
+	return null;
+}
+
+@Override
+public String nombreMetricas() {
+	return "admision";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	Map<String, Number> metricas = new LinkedHashMap<>();
+	metricas.put("admitidas", admitidas.get());
+	metricas.put("rechazadasPorTasa", rechazadasPorTasa.get());
+	metricas.put("rechazadasPorCarga", rechazadasPorCarga.get());
+	metricas.put("enCurso", concurrenciaMaxima - enCurso.availablePermits());
+	limitadores.forEach((grupo, limitador) -> {
+		String prefijo = grupo.name().toLowerCase();
+		metricas.put(prefijo + ".admitidas", limitador.getAdmitidas());
+		metricas.put(prefijo + ".rechazadas", limitador.getRechazadas());
+		metricas.put(prefijo + ".clientes", limitador.clientes());
+	});
+	return metricas;
+}
+
+private static void rechazar(HttpServletResponse response, HttpStatus estado, long segundosReintento, String mensaje)
+		throws IOException {
+	response.setStatus(estado.value());
+	response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundosReintento));
+	response.setContentType("text/plain");
+	response.setCharacterEncoding("UTF-8");
+	response.getWriter().write(mensaje);
+}
+}
@@ -0,0 +1,96 @@
+package net.itinajero.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.itinajero.service.Itf_CachePaginasDetalle;
+import net.itinajero.service.Itf_CachePaginasDetalle.Clave;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * ============ RESPUESTAS DE DETALLE DESDE LA CACHÉ DE PÁGINAS ============
+ * <p>
+ * ¿Qué es esta clase? Un filtro que se pone delante de las dos páginas de detalle de vacante
+ * (`/vacantes/view-path/{id}` y `/vacantes/view-request?idVacante=`) y las sirve desde
+ * {@link Itf_CachePaginasDetalle} cuando puede.
+ * <p>
+ * ¿Cómo funciona? - Si la página está en caché, escribe sus bytes y termina: la petición no llega a Spring MVC,
+ * no carga la sesión ni procesa la plantilla. - Si no, deja pasar la petición con la respuesta envuelta en un
+ * `ContentCachingResponseWrapper`, que se queda con una copia de lo que escribe la vista. Si la respuesta fue un
+ * 200 con HTML, se guarda esa copia y después se envía al cliente.
+ * <p>
+ * ¿Por qué se implementa así? Cachear en un filtro no cambia el controlador ni las plantillas. Va después del
+ * {@link FiltroAdmision}, así que los robots siguen sujetos a su límite de peticiones, y antes del filtro de
+ * sesiones, que una página en caché no necesita.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class FiltroCacheDetalle extends OncePerRequestFilter {
+
+private static final String RUTA_PATH = "/vacantes/view-path/";
+private static final String RUTA_REQUEST = "/vacantes/view-request";
+private static final String TIPO_HTML = "text/html;charset=UTF-8";
+
+private final Itf_CachePaginasDetalle cache;
+private final LocaleResolver idiomas;
+
+public FiltroCacheDetalle(Itf_CachePaginasDetalle cache, LocaleResolver idiomas) {
+	this.cache = cache;
+	this.idiomas = idiomas;
+}
+
+@Override
+protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+	Clave clave = "GET".equals(request.getMethod()) ? clave(request) : null;
+	if (clave == null){
+		chain.doFilter(request, response);
+		return;
+	}
+	byte[] html = cache.obtener(clave);
+	if (html != null){
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(TIPO_HTML);
+		response.setContentLength(html.length);
+		response.getOutputStream().write(html);
+		return;
+	}
+	long version = cache.version();
+	ContentCachingResponseWrapper copia = new ContentCachingResponseWrapper(response);
+	chain.doFilter(request, copia);
+	if (copia.getStatus() == HttpServletResponse.SC_OK && copia.getContentType() != null
+			&& copia.getContentType().startsWith("text/html")){
+		cache.guardar(clave, copia.getContentAsByteArray(), version);
+	}
+	copia.copyBodyToResponse();
+}
+
+/**
+ * @return La clave de la página pedida, o null si la petición no es de una página de detalle con un id válido.
+ */
+private Clave clave(HttpServletRequest request) {
+	String ruta = request.getRequestURI().substring(request.getContextPath().length());
+	String id;
+	if (ruta.startsWith(RUTA_PATH)){
+		id = ruta.substring(RUTA_PATH.length());
+		ruta = RUTA_PATH;
+	} else if (ruta.equals(RUTA_REQUEST)){
+		id = request.getParameter("idVacante");
+	} else{
+		return null;
+	}
+	if (id == null || id.isEmpty() || id.length() > 9 || !id.chars().allMatch(Character::isDigit)){
+		return null;
+	}
+	// El idioma con el que se renderizará la página, ya reducido a uno de los admitidos (ver ConfiguracionIdiomas).
+	return new Clave(ruta, Integer.parseInt(id), idiomas.resolveLocale(request));
+}
+}
@@ -0,0 +1,39 @@
+package net.itinajero.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.itinajero.service.VersionPeticion;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * ¿Qué es? El filtro que abre y cierra la {@link VersionPeticion} de cada petición, para que todas las lecturas de
+ * vacantes que haga (el controlador, la vista, los fragmentos) vean la misma versión del catálogo.
+ * <p>
+ * ¿Cómo funciona? Solo abre el contexto y lo cierra en un `finally`, también si la petición falla: el hilo vuelve
+ * al pool de Tomcat y la siguiente petición que atienda no debe heredar la versión de esta. La versión no se
+ * fija aquí, sino con la primera lectura, así que las peticiones que no leen vacantes no pagan nada.
+ * <p>
+ * Va después de {@link FiltroCacheDetalle}: una página servida desde esa caché no lee vacantes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class FiltroVersionPeticion extends OncePerRequestFilter {
+
+@Override
+protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+	VersionPeticion.abrir();
+	try{
+		chain.doFilter(request, response);
+	} finally{
+		VersionPeticion.cerrar();
+	}
+}
+}
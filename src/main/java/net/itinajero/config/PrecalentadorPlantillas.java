@@ -0,0 +1,111 @@
+package net.itinajero.config;
+
+import net.itinajero.service.Itf_VacanteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============ PRECALENTAMIENTO DE LAS PLANTILLAS AL ARRANCAR ============
+ * <p>
+ * ¿Qué es esta clase? Un componente que, justo cuando la aplicación termina de arrancar, pide una vez cada página
+ * principal a su propio servidor.
+ * <p>
+ * ¿Cómo funciona? Con `spring.thymeleaf.cache=true`, Thymeleaf guarda en memoria cada plantilla ya leída y
+ * analizada (y cada fragmento, como `fragments/menu :: menu-principal`) y no vuelve a tocar el disco. Al pedir
+ * las páginas aquí, esa caché se llena antes de que llegue el primer usuario; de paso se crean los beans perezosos
+ * (ver ConfiguracionArranque) y se compilan las expresiones de las plantillas.
+ * <p>
+ * ¿Por qué se implementa así? Se pasa por HTTP, y no llamando a Thymeleaf directamente, porque las plantillas
+ * usan enlaces `@{...}` y objetos de la petición que solo existen en una petición web real. El evento
+ * `ApplicationReadyEvent` se procesa antes de que la aplicación se declare lista para recibir tráfico, así que
+ * el balanceador no le envía usuarios hasta que termina el precalentamiento.
+ * <p>
+ * Si alguna página no responde 2xx, el arranque FALLA: una plantilla que no se puede renderizar (por ejemplo, un
+ * fragmento que se encuentra en disco pero no dentro del jar) daría un 500 en cada visita, y es mejor que el
+ * despliegue se detenga aquí a que el balanceador envíe usuarios a esta instancia.
+ * <p>
+ * Se activa con `empleos.plantillas.precalentar=true` (perfil "produccion").
+ */
+@Component
+@ConditionalOnProperty(name = "empleos.plantillas.precalentar", havingValue = "true")
+public class PrecalentadorPlantillas {
+
+private static final Logger log = LoggerFactory.getLogger(PrecalentadorPlantillas.class);
+
+/**
+ * Una página por plantilla principal. Los fragmentos (menú, pie) se incluyen en todas. Las de detalle se añaden
+ * en `paginas()` con una vacante que exista.
+ */
+private static final List<String> PAGINAS = List.of("/", "/vacantes/index", "/vacantes/crear", "/categorias/index",
+		"/categorias/crear", "/vacantes/estadisticas");
+
+@Value("${server.servlet.context-path:}")
+private String contexto;
+
+private final Itf_VacanteService serviceVacantes;
+
+public PrecalentadorPlantillas(Itf_VacanteService serviceVacantes) {
+	this.serviceVacantes = serviceVacantes;
+}
+
+@EventListener(ApplicationReadyEvent.class)
+public void precalentar(ApplicationReadyEvent evento) {
+	Environment entorno = evento.getApplicationContext().getEnvironment();
+	String puerto = entorno.getProperty("local.server.port");
+	if (puerto == null){
+		return; // Sin servidor web (por ejemplo, en las pruebas).
+	}
+	HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+	List<String> paginas = paginas();
+	List<String> fallidas = new ArrayList<>();
+	long inicio = System.nanoTime();
+	for (String pagina : paginas){
+		URI uri = URI.create("http://localhost:" + puerto + contexto + pagina);
+		try{
+			HttpResponse<Void> respuesta = cliente.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10))
+					.build(), HttpResponse.BodyHandlers.discarding());
+			if (respuesta.statusCode() / 100 != 2){
+				fallidas.add(pagina + " (" + respuesta.statusCode() + ")");
+			}
+		} catch (IOException e){
+			fallidas.add(pagina + " (" + e.getMessage() + ")");
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Precalentamiento interrumpido", e);
+		}
+	}
+	if (!fallidas.isEmpty()){
+		// Una excepción en un oyente de ApplicationReadyEvent detiene la aplicación: nunca llega a estar lista.
+		throw new IllegalStateException("Precalentamiento: no se pudieron renderizar " + fallidas);
+	}
+	log.info("Plantillas precalentadas: {} páginas en {} ms", paginas.size(), (System.nanoTime() - inicio) / 1_000_000);
+}
+
+/**
+ * Las páginas fijas y, si hay alguna vacante, sus dos páginas de detalle. Con un id fijo, un catálogo en el que
+ * esa vacante ya caducó daría un 404 y detendría el arranque sin motivo.
+ */
+private List<String> paginas() {
+	List<String> paginas = new ArrayList<>(PAGINAS);
+	serviceVacantes.buscarTodas().stream().findFirst().ifPresent(vacante -> {
+		paginas.add("/vacantes/view-path/" + vacante.getId());
+		paginas.add("/vacantes/view-request?idVacante=" + vacante.getId());
+	});
+	return paginas;
+}
+}
@@ -0,0 +1,62 @@
+package net.itinajero.controller;
+
+import net.itinajero.service.Itf_FlujoCambiosVacantes;
+import net.itinajero.service.LoteCambios;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ============ FLUJO DE CAMBIOS (LECTURA POR OFFSETS) ============
+ * <p>
+ * ¿Qué es esta clase? El punto de lectura del flujo de cambios del catálogo para otros sistemas.
+ * `GET /cambios?desde=0&max=500` devuelve, como `application/octet-stream`, los cambios codificados con
+ * `CodecCambios` a partir de ese offset, y en las cabeceras lo necesario para seguir: - `X-Cambios-Siguiente`: el
+ * `desde` de la próxima petición. - `X-Cambios-Cantidad`: cuántos cambios trae el cuerpo. -
+ * `X-Cambios-Primer-Disponible`: si es mayor que el `desde` pedido, se perdieron cambios. -
+ * `X-Cambios-Generacion`: si cambia, la aplicación se reinició (o respondió otra instancia) y los offsets ya no
+ * valen.
+ * <p>
+ * Un consumidor empieza por `GET /cambios/instantanea`: todas las vacantes actuales en el mismo formato, con las
+ * mismas cabeceras, y en `X-Cambios-Siguiente` el `desde` para seguir. Después repite `GET /cambios` con el nuevo
+ * `desde`; cuando la cantidad es 0 ya está al día y puede esperar unos segundos antes de preguntar otra vez. Si
+ * se perdieron cambios o cambió la generación, vuelve a pedir la instantánea. Los offsets son de cada instancia:
+ * detrás de un balanceador, el consumidor debe hablar siempre con la misma.
+ */
+@RestController
+@RequestMapping("/cambios")
+public class CambiosController {
+
+private static final String SIGUIENTE = "X-Cambios-Siguiente";
+private static final String CANTIDAD = "X-Cambios-Cantidad";
+private static final String PRIMER_DISPONIBLE = "X-Cambios-Primer-Disponible";
+private static final String GENERACION = "X-Cambios-Generacion";
+
+@Autowired
+private Itf_FlujoCambiosVacantes serviceCambios;
+
+@GetMapping
+public ResponseEntity<byte[]> leer(@RequestParam(name = "desde", defaultValue = "0") long desde,
+		@RequestParam(name = "max", defaultValue = "500") int maximo) {
+	return responder(serviceCambios.leer(desde, maximo));
+}
+
+@GetMapping("/instantanea")
+public ResponseEntity<byte[]> instantanea() {
+	return responder(serviceCambios.instantanea());
+}
+
+private static ResponseEntity<byte[]> responder(LoteCambios lote) {
+	return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_OCTET_STREAM)
+			.header(SIGUIENTE, Long.toString(lote.siguiente()))
+			.header(CANTIDAD, Integer.toString(lote.cantidad()))
+			.header(PRIMER_DISPONIBLE, Long.toString(lote.primerDisponible()))
+			.header(GENERACION, Long.toString(lote.generacion()))
+			.body(lote.datos());
+}
+}
@@ -13,6 +13,9 @@ package net.itinajero.controller;
  * ¿Por qué se usan? Para reutilizar código y hacerlo más legible y conciso.
  */
 
+import net.itinajero.model.Categoria;
+import net.itinajero.service.CategoriaInvalidaException;
+import net.itinajero.service.Itf_CategoriaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
@@ -20,6 +23,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
  * ============ SECCIÓN 3: LA DECLARACIÓN DE LA CLASE (EL EDIFICIO DE OFICINAS) ============ ¿Qué es esta clase? Es un Controlador de Spring MVC. Su responsabilidad es
@@ -47,6 +51,16 @@ public class CategoriaController {
 	 */
 	private static final Logger log = LoggerFactory.getLogger(CategoriaController.class);
 
+	/**
+	 * ¿Qué es? El servicio de categorías, inyectado por constructor como en `HomeController`. Guarda las categorías y
+	 * lleva la cuenta de cuántas vacantes tiene cada una.
+	 */
+	private final Itf_CategoriaService serviceCategorias;
+
+	public CategoriaController(Itf_CategoriaService serviceCategorias) {
+		this.serviceCategorias = serviceCategorias;
+	}
+
 	/*
 	 * =======================================================================================
 	 * SECCIÓN 5: MÉTODOS DEL CONTROLADOR (LAS OFICINAS Y SUS FUNCIONES)
@@ -60,11 +74,15 @@ public class CategoriaController {
 	 * String mostrarIndex(Model model)`: Define el método. Recibe un objeto `Model` que sirve como puente para pasar datos del controlador a la vista. - `return
 	 * "categorias/listCategorias"`: Devuelve el nombre lógico de la vista. Spring buscará un archivo `listCategorias.html` dentro de la carpeta `templates/categorias/`.
 	 *
-	 * ¿Por qué se implementa así? - **Patrón MVC**: Separa la lógica de navegación (controlador) de la presentación (vista). - **Preparado para el futuro**: Aunque ahora no
-	 * se pasan datos, el `Model` está listo para cuando necesitemos enviar una lista de categorías desde la base de datos a la vista.
+	 * - `model.addAttribute("categorias", ...)` y `model.addAttribute("conteos", ...)`: Pasan a la vista las categorías y el número de vacantes de cada una.
+	 * Los conteos ya vienen calculados por el servicio, así que esta página no recorre las vacantes.
+	 *
+	 * ¿Por qué se implementa así? - **Patrón MVC**: Separa la lógica de navegación (controlador) de la presentación (vista).
 	 */
 	@RequestMapping(value = "/index", method = RequestMethod.GET)
 	public String mostrarIndex(Model model) {
+		model.addAttribute("categorias", serviceCategorias.buscarTodas());
+		model.addAttribute("conteos", serviceCategorias.contarVacantesPorCategoria());
 		return "categorias/listCategorias";
 
 	}
@@ -90,27 +108,39 @@ public class CategoriaController {
 	 * seguridad y las buenas prácticas, ya que las operaciones que modifican datos no deben ser GET. - `@RequestParam("var_nombre") String var_nombre`: Esta anotación extrae
 	 * los datos enviados en el cuerpo de la petición POST. Busca un parámetro llamado `var_nombre` (que corresponde al atributo `name` de un campo `<input>` en el formulario
 	 * HTML) y lo asigna a la variable `String var_nombre`. - `log.info(...)`: Registra los valores recibidos en el log del servidor. Esto es extremadamente útil para depurar
-	 * y verificar qué datos están llegando al controlador. - `System.out.println(...)`: Una forma más simple (pero menos recomendada que el logging) de ver una salida en la
-	 * consola. - `return "categorias/formCategoria"`: Después de procesar los datos, devuelve al usuario a la vista del formulario. (Nota: Una mejor práctica sería usar
-	 * `redirect`, como se explica abajo).
+	 * y verificar qué datos están llegando al controlador. - `serviceCategorias.guardar(...)`: Guarda la nueva categoría. - `return "redirect:/categorias/index"`:
+	 * Después de guardar, redirige al listado con un mensaje flash.
 	 *
 	 * ¿Por qué se implementa así? - **Procesamiento de Formularios**: Es el patrón estándar para recibir y manejar datos enviados por el usuario. - **Seguridad**: Usar POST
 	 * previene que los datos se envíen como parte de la URL y protege contra ciertos tipos de ataques. - **Depuración**: El logging permite a los desarrolladores rastrear el
-	 * flujo de datos y diagnosticar problemas sin interrumpir la ejecución. - **Patrón Post-Redirect-Get (PRG) - (Mejora Sugerida)**: En una aplicación real, en lugar de
-	 * `return "categorias/formCategoria";`, se usaría `return "redirect:/categorias/index";`. Esto redirige al usuario a la página de la lista después de guardar, evitando
-	 * reenvíos accidentales del formulario si el usuario refresca la página. La implementación actual es más simple para fines de demostración inicial.
+	 * flujo de datos y diagnosticar problemas sin interrumpir la ejecución. - **Patrón Post-Redirect-Get (PRG)**: Redirigir al listado después de guardar evita
+	 * reenvíos accidentales del formulario si el usuario refresca la página.
+	 *
+	 * Si el servicio rechaza la categoría (nombre vacío o repetido), no se redirige: se vuelve a mostrar el formulario con lo
+	 * que escribió el usuario y el motivo en `error`.
 	 */
 	@RequestMapping(value = "/save", method = RequestMethod.POST)
-	public String guardar(@RequestParam("var_nombre") String var_nombre, @RequestParam("var_descripcion") String var_descripcion) {
+	public String guardar(@RequestParam("var_nombre") String var_nombre, @RequestParam("var_descripcion") String var_descripcion,
+			RedirectAttributes atributos, Model model) {
 
 		log.info("Handler 'guardar': Procesando datos del formulario para nueva categoría.");
 		log.info("Nombre recibido: {}", var_nombre);
 		log.info("Descripción recibida: {}", var_descripcion);
 
-		// Aquí iría la lógica para llamar a un servicio y guardar la categoría en la base de datos.
-		System.out.println("Guardando la categoría...");
+		Categoria categoria = new Categoria();
+		categoria.setNombre(var_nombre.trim());
+		categoria.setDescripcion(var_descripcion);
+		try{
+			serviceCategorias.guardar(categoria);
+		} catch (CategoriaInvalidaException e){
+			log.warn("Categoría rechazada: {}", e.getMessage());
+			model.addAttribute("error", e.getMessage());
+			model.addAttribute("nombre", var_nombre);
+			model.addAttribute("descripcion", var_descripcion);
+			return "categorias/formCategoria";
+		}
 
-		// Se devuelve al usuario a la vista del formulario.
-		return "categorias/formCategoria";
+		atributos.addFlashAttribute("msg", "Categoría guardada");
+		return "redirect:/categorias/index";
 	}
 }
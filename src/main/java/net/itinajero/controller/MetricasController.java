@@ -0,0 +1,36 @@
+package net.itinajero.controller;
+
+import net.itinajero.service.Itf_FuenteMetricas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ============ MÉTRICAS DE LA APLICACIÓN ============
+ * <p>
+ * ¿Qué es esta clase? Un controlador que responde JSON en lugar de una vista (`@RestController`). `GET /metricas`
+ * devuelve los contadores de todos los componentes que implementan {@link Itf_FuenteMetricas}, agrupados por su
+ * nombre: `{"admision": {"admitidas": 120, "rechazadasPorTasa": 3, ...}, ...}`.
+ * <p>
+ * ¿Por qué así? Cada componente conoce sus propios contadores; este controlador solo los reúne. Un componente
+ * nuevo con métricas no necesita tocar esta clase.
+ */
+@RestController
+public class MetricasController {
+
+@Autowired
+private List<Itf_FuenteMetricas> fuentes;
+
+@GetMapping("/metricas")
+public Map<String, Map<String, Number>> metricas() {
+	Map<String, Map<String, Number>> todas = new TreeMap<>();
+	for (Itf_FuenteMetricas fuente : fuentes){
+		todas.put(fuente.nombreMetricas(), fuente.metricas());
+	}
+	return todas;
+}
+}
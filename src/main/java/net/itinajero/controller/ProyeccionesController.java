@@ -0,0 +1,44 @@
+package net.itinajero.controller;
+
+import net.itinajero.service.EstadoProyeccion;
+import net.itinajero.service.Itf_RegistroEventosVacantes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * ============ PROYECCIONES DE LECTURA ============
+ * <p>
+ * ¿Qué es esta clase? Un controlador JSON para vigilar y reparar las proyecciones que alimenta el registro de
+ * eventos. - `GET /proyecciones` devuelve, por cada una, hasta qué evento va y cuántos le faltan. -
+ * `POST /proyecciones/{nombre}/reconstruir` la vuelve a calcular desde el registro en una copia aparte, que
+ * sustituye a la actual al terminar; responde enseguida con un 202 (Aceptado), y el avance se sigue con el GET.
+ * <p>
+ * Reconstruir recorre todo el catálogo, así que es una operación de administración: exige el token de
+ * {@link net.itinajero.config.FiltroAdministracion} y tiene su propio límite por IP en
+ * {@link net.itinajero.config.FiltroAdmision}. Las peticiones repetidas se juntan: como mucho hay una
+ * reconstrucción en curso y otra pendiente por proyección.
+ */
+@RestController
+@RequestMapping("/proyecciones")
+public class ProyeccionesController {
+
+@Autowired
+private Itf_RegistroEventosVacantes serviceRegistro;
+
+@GetMapping
+public List<EstadoProyeccion> estado() {
+	return serviceRegistro.proyecciones();
+}
+
+@PostMapping("/{nombre}/reconstruir")
+public ResponseEntity<Void> reconstruir(@PathVariable("nombre") String nombre) {
+	return serviceRegistro.reconstruir(nombre) ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+}
+}
@@ -0,0 +1,71 @@
+package net.itinajero.controller;
+
+import net.itinajero.service.Itf_TrabajosLoteService;
+import net.itinajero.service.TrabajoLote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * ============ TRABAJOS POR LOTES ============
+ * <p>
+ * ¿Qué es esta clase? Un controlador JSON para lanzar los trabajos que recorren todo el catálogo y seguir su
+ * avance. - `POST /trabajos/caducar?dias=90` lanza el trabajo y responde enseguida con un 202 (Aceptado) y la
+ * cabecera `Location` donde consultar su estado. - `GET /trabajos/{id}` devuelve el estado: fase, porcentaje,
+ * vacantes modificadas...
+ * <p>
+ * ¿Por qué 202 y no esperar al resultado? Con un catálogo grande el trabajo puede tardar más que el tiempo
+ * máximo de una petición; así la petición no ocupa un hilo del servidor mientras tanto.
+ * <p>
+ * Lanzar un trabajo es una operación de administración: {@link net.itinajero.config.FiltroAdministracion} exige
+ * el token y {@link net.itinajero.config.FiltroAdmision} limita cuántas veces lo intenta cada IP.
+ */
+@RestController
+@RequestMapping("/trabajos")
+public class TrabajosController {
+
+@Autowired
+private Itf_TrabajosLoteService serviceTrabajos;
+
+@PostMapping("/caducar")
+public ResponseEntity<TrabajoLote> caducar(@RequestParam("dias") int dias) {
+	TrabajoLote trabajo = serviceTrabajos.caducarAnterioresA(dias);
+	return ResponseEntity.accepted().header(HttpHeaders.LOCATION, "/trabajos/" + trabajo.getId()).body(trabajo);
+}
+
+@GetMapping
+public List<TrabajoLote> recientes() {
+	return serviceTrabajos.recientes();
+}
+
+@GetMapping("/{id}")
+public ResponseEntity<TrabajoLote> estado(@PathVariable("id") String idTrabajo) {
+	return ResponseEntity.of(serviceTrabajos.buscar(idTrabajo));
+}
+
+/**
+ * `dias` debe ser positivo: cualquier otro valor responde 400 (Petición incorrecta).
+ */
+@ExceptionHandler(IllegalArgumentException.class)
+public ResponseEntity<String> parametroInvalido(IllegalArgumentException e) {
+	return ResponseEntity.badRequest().body(e.getMessage());
+}
+
+/**
+ * Solo hay un trabajo en curso a la vez: lanzar otro responde 409 (Conflicto).
+ */
+@ExceptionHandler(IllegalStateException.class)
+public ResponseEntity<String> trabajoEnCurso(IllegalStateException e) {
+	return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+}
+}
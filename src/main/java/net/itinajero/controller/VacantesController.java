@@ -4,7 +4,7 @@
  * ¿Cómo funciona? `package net.itinajero.controller;` ubica esta clase dentro del paquete `controller`.
  * ¿Por qué se usa? Para organizar el código, evitar conflictos de nombres y controlar el acceso a las clases.
  */
-//package net.itinajero.controller;
+package net.itinajero.controller;
 
 /*
  * === SECCIÓN 2: LAS IMPORTACIONES (LA CAJA DE HERRAMIENTAS) ===
@@ -14,21 +14,46 @@
  */
 
 
+import java.beans.PropertyEditorSupport;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.itinajero.model.Categoria;
+import net.itinajero.model.FiltroVacantes;
 import net.itinajero.model.Vacante;
+import net.itinajero.service.ColaEscrituraLlenaException;
+import net.itinajero.service.Itf_ArchivoVacantes;
+import net.itinajero.service.Itf_CategoriaService;
+import net.itinajero.service.Itf_EscrituraVacantesService;
+import net.itinajero.service.Itf_EstadisticasService;
+import net.itinajero.service.Itf_FacetasService;
+import net.itinajero.service.Itf_IdempotenciaService;
+import net.itinajero.service.Itf_IndicesOrdenadosService;
+import net.itinajero.service.Itf_NovedadesVacantesService;
 import net.itinajero.service.Itf_VacanteService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
  * ============ SECCIÓN 3: LA DECLARACIÓN DE LA CLASE (EL EDIFICIO DE OFICINAS) ============ ¿Qué es esta clase?
@@ -66,6 +91,55 @@ public class VacantesController {
 @Autowired
 private Itf_VacanteService serviceVacantes;
 
+/**
+ * El servicio de categorías, necesario para llenar la lista desplegable "Categoría" del formulario.
+ */
+@Autowired
+private Itf_CategoriaService serviceCategorias;
+
+/**
+ * Los índices de bits que resuelven los filtros y conteos de la barra de facetas del listado.
+ */
+@Autowired
+private Itf_FacetasService serviceFacetas;
+
+/**
+ * Los índices ordenados por salario y por fecha, para "ordenar por salario" y "últimos N días".
+ */
+@Autowired
+private Itf_IndicesOrdenadosService serviceIndices;
+
+/**
+ * Recibe las vacantes del formulario y las guarda directamente o a través de una cola, según
+ * `empleos.vacantes.escritura`.
+ */
+@Autowired
+private Itf_EscrituraVacantesService serviceEscritura;
+
+/**
+ * Recuerda las claves de los formularios ya guardados para que un doble envío no cree dos vacantes.
+ */
+@Autowired
+private Itf_IdempotenciaService serviceIdempotencia;
+
+/**
+ * El aviso en tiempo real de vacantes nuevas que usa el listado.
+ */
+@Autowired
+private Itf_NovedadesVacantesService serviceNovedades;
+
+/**
+ * Los salarios y publicaciones acumulados para el panel de estadísticas.
+ */
+@Autowired
+private Itf_EstadisticasService serviceEstadisticas;
+
+/**
+ * Las vacantes que ya salieron del catálogo; su detalle se sigue pudiendo ver.
+ */
+@Autowired
+private Itf_ArchivoVacantes serviceArchivo;
+
 /**
  * ¿Qué es? Un objeto para registrar mensajes de log (informativos, de error, etc.). Es el estándar profesional
  * para el seguimiento de la aplicación. ¿Cómo funciona? `LoggerFactory.getLogger(...)` crea un logger asociado
@@ -82,16 +156,133 @@ private static final Logger log = LoggerFactory.getLogger(VacantesController.cla
  */
 
 /**
- * Muestra todas las vacantes en una tabla.
+ * Muestra las vacantes en una tabla, junto con la barra de facetas. ¿Cómo? - Spring llena `filtro` con los
+ * parámetros de la URL (`?categoria=...&nivelSalarial=...&orden=salario&dias=30`). - Sin filtros se muestran
+ * todas; con filtros, los índices devuelven los ids que los cumplen (ver `buscarIds()`) y solo se buscan esas
+ * vacantes. - Los conteos de la barra se calculan siempre dentro del filtro actual.
+ * <p>
+ * Coherencia: las vacantes se leen de la versión fijada por la petición
+ * ({@link net.itinajero.service.VersionPeticion}), pero los índices y las facetas son proyecciones que se ponen al
+ * día en segundo plano y no tienen versión. Por eso cada vacante se vuelve a comprobar contra el filtro con los
+ * datos de la versión fijada y la lista se ordena con esos mismos datos: lo que se muestra siempre cumple el
+ * filtro y está bien ordenado. Lo que la proyección aún no ha visto (una vacante guardada hace unos milisegundos)
+ * puede faltar en la lista filtrada y en los conteos hasta que se ponga al día; la lista sin filtros no depende de
+ * las proyecciones.
+ * <p>
+ * Un parámetro no válido (`dias=0`, una categoría que no existe) no da un error 400: el binder lo rechaza, el
+ * filtro se queda sin ese criterio y la página lo avisa en `erroresFiltro`, como un error de formulario.
  */
 @GetMapping("/index")
-public String mostrarIndexVacante(Model modelo) {
-	List<Vacante> listaDeVacantes = serviceVacantes.buscarTodas();
+public String mostrarIndexVacante(@ModelAttribute("filtro") FiltroVacantes filtro, BindingResult resultado,
+		Model modelo) {
+	if (resultado.hasErrors()){
+		List<String> errores = new ArrayList<>();
+		for (FieldError error : resultado.getFieldErrors()){
+			log.warn("Filtro ignorado: {}={}", error.getField(), error.getRejectedValue());
+			errores.add("Se ignoró el filtro \"" + error.getField() + "\": el valor \"" + error.getRejectedValue()
+					+ "\" no es válido.");
+		}
+		modelo.addAttribute("erroresFiltro", errores);
+	}
+	List<Vacante> listaDeVacantes;
+	int[] ids = buscarIds(filtro);
+	if (ids == null){
+		listaDeVacantes = serviceVacantes.buscarTodas();
+	} else{
+		listaDeVacantes = enVersionFijada(ids, filtro);
+	}
 	modelo.addAttribute("vacantes", listaDeVacantes);
-	log.info("Enviando {} vacantes a la vista 'tabla'.", listaDeVacantes.size());
+	modelo.addAttribute("facetas", serviceFacetas.contarFacetas(filtro));
+	log.info("Enviando {} vacantes a la vista 'tabla' ({}).", listaDeVacantes.size(), filtro);
 	return "vacantes/listVacante";
 }
 
+/**
+ * ¿Qué hace? Abre un canal Server-Sent Events por el que el navegador recibe las vacantes nuevas (ver el script
+ * al final de `listVacante.html`). ¿Cómo? Devuelve un `SseEmitter`: Spring deja la respuesta abierta y el
+ * servicio de novedades escribe en ella cada vez que se guarda una vacante. Al reconectarse, el navegador envía
+ * `Last-Event-ID` con el último evento que recibió para no perderse los intermedios.
+ */
+@GetMapping(value = "/novedades", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+@ResponseBody
+public SseEmitter novedades(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoRecibido) {
+	return serviceNovedades.suscribir(ultimoEventoRecibido);
+}
+
+/**
+ * ¿Qué hace? Muestra el panel de estadísticas: salario promedio, mediana y percentiles por categoría y por nivel
+ * salarial, y vacantes publicadas por mes. ¿Por qué no las calcula aquí? Porque el servicio ya las tiene al día
+ * (se actualizan con cada vacante guardada); el controlador solo las pasa a la vista.
+ */
+@GetMapping("/estadisticas")
+public String mostrarEstadisticas(Model modelo) {
+	modelo.addAttribute("estadisticas", serviceEstadisticas.obtener());
+	return "vacantes/estadisticas";
+}
+
+/**
+ * Resuelve el filtro con los índices, sin recorrer las vacantes. - El orden lo da el índice ordenado (salario o
+ * fecha, de mayor a menor); sin orden, los ids quedan de menor a mayor. - Cada criterio adicional (facetas,
+ * últimos N días) solo conserva los ids que también lo cumplen. - Índices y facetas son proyecciones asíncronas:
+ * una vacante recién guardada puede no estar aún (ver la coherencia en `mostrarIndexVacante()`).
+ * @return Los ids a mostrar, en orden, o `null` si no hay ningún filtro (se muestran todas).
+ */
+private int[] buscarIds(FiltroVacantes filtro) {
+	Date desde = filtro.getDias() == null ? null
+			: new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(filtro.getDias()));
+	int[] ids = null;
+	if ("salario".equals(filtro.getOrden())){
+		ids = serviceIndices.idsPorSalario(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true,
+				Itf_IndicesOrdenadosService.SIN_LIMITE);
+		if (desde != null){
+			ids = conservar(ids, serviceIndices.idsPublicadasDesde(desde, true, Itf_IndicesOrdenadosService.SIN_LIMITE));
+		}
+	} else if ("fecha".equals(filtro.getOrden()) || desde != null){
+		ids = serviceIndices.idsPublicadasDesde(desde, true, Itf_IndicesOrdenadosService.SIN_LIMITE);
+	}
+	if (!filtro.estaVacio()){
+		int[] idsFacetas = serviceFacetas.buscarIds(filtro);
+		ids = ids == null ? idsFacetas : conservar(ids, idsFacetas);
+	}
+	return ids;
+}
+
+/**
+ * Busca los `ids` que dieron las proyecciones en la versión fijada y conserva solo las vacantes que, con SUS
+ * datos, cumplen el filtro; después las ordena también con esos datos. Los ids que no pasan (eliminadas o
+ * editadas después de que la proyección las viera) se cuentan en el log.
+ */
+private List<Vacante> enVersionFijada(int[] ids, FiltroVacantes filtro) {
+	Date desde = filtro.getDias() == null ? null
+			: new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(filtro.getDias()));
+	List<Vacante> vacantes = new ArrayList<>(ids.length);
+	for (int idVacante : ids){
+		serviceVacantes.buscarPorId(idVacante)
+				.filter(filtro::admite)
+				.filter(vacante -> desde == null || vacante.getFecha() != null && !vacante.getFecha().before(desde))
+				.ifPresent(vacantes::add);
+	}
+	if ("salario".equals(filtro.getOrden())){
+		vacantes.sort(Comparator.comparingDouble(Vacante::getSalario).reversed());
+	} else if ("fecha".equals(filtro.getOrden())){
+		vacantes.sort(Comparator.comparing(Vacante::getFecha, Comparator.nullsLast(Comparator.reverseOrder())));
+	}
+	if (vacantes.size() < ids.length){
+		log.debug("{} ids de las proyecciones no coinciden con la versión fijada ({}).", ids.length - vacantes.size(),
+				filtro);
+	}
+	return vacantes;
+}
+
+/**
+ * @return Los `ids` (en su orden) que también están en `permitidos`.
+ */
+private static int[] conservar(int[] ids, int[] permitidos) {
+	int[] ordenados = permitidos.clone();
+	Arrays.sort(ordenados);
+	return Arrays.stream(ids).filter(id -> Arrays.binarySearch(ordenados, id) >= 0).toArray();
+}
+
 
 
 
@@ -111,12 +302,9 @@ public String mostrarIndexVacante(Model modelo) {
  * controlador.
  */
 @RequestMapping(value = "/view-path/{id}", method = RequestMethod.GET)
-public String verDetallesPathVariable(@PathVariable("id") int idVacante, Model model) {
+public ModelAndView verDetallesPathVariable(@PathVariable("id") int idVacante) {
 	log.info("Handler 'verDetallesPathVariable': Recibido ID de la URL (PathVariable): {}", idVacante);
-	List<Vacante> objeto_Vacante = serviceVacantes.buscarPorId(idVacante);
-	log.info("Vacante encontrada servicio: {}", objeto_Vacante);
-	model.addAttribute("vacante", objeto_Vacante.get(0));
-	return "vacantes/detallePathVariable";
+	return detalle(idVacante, "vacantes/detallePathVariable");
 }
 
 /**
@@ -135,13 +323,27 @@ public String verDetallesPathVariable(@PathVariable("id") int idVacante, Model m
  * ID, usa el servicio para buscar el objeto completo y pasa ese objeto a la vista para su visualización.
  */
 @GetMapping("/view-request")
-public String verDatalleRequestParam(@RequestParam("idVacante") int idVacante, Model model) {
+public ModelAndView verDatalleRequestParam(@RequestParam("idVacante") int idVacante) {
 	log.info("Handler 'verDatalleRequestParam': Recibido ID como parámetro de URL (RequestParam): {}",
 			idVacante);
-	List<Vacante> objeto_IdVacante = serviceVacantes.buscarPorId(idVacante);
-	log.info("Vacante encontrada en el servicio: {}", objeto_IdVacante);
-	model.addAttribute("vacante", objeto_IdVacante.get(0)); // Se pasa el objeto vacante, no la lista
-	return "vacantes/detalleRequestParam";
+	return detalle(idVacante, "vacantes/detalleRequestParam");
+}
+
+/**
+ * ¿Qué hace? Busca la vacante y elige la vista. ¿Por qué devuelve un `ModelAndView` y no el nombre de la
+ * plantilla? Porque cuando el id no existe no hay plantilla que renderizar: se devuelve la
+ * {@link VistaNoEncontrada}, un 404 ya preparado, sin lanzar ninguna excepción. Un id inexistente cuesta lo mismo
+ * que uno existente (una consulta al índice, o a la caché de ids ausentes) y menos que renderizar el detalle.
+ * Si no está en el catálogo se busca en el archivo, por si es una vacante caducada.
+ */
+private ModelAndView detalle(int idVacante, String plantilla) {
+	Optional<Vacante> vacante = serviceVacantes.buscarPorId(idVacante).or(() -> serviceArchivo.buscarPorId(idVacante));
+	if (vacante.isEmpty()){
+		log.debug("Vacante {} no encontrada: 404.", idVacante);
+		return new ModelAndView(VistaNoEncontrada.INSTANCIA);
+	}
+	log.info("Vacante encontrada en el servicio: {}", vacante.get());
+	return new ModelAndView(plantilla).addObject("vacante", vacante.get());
 }
 
 /**
@@ -180,9 +382,12 @@ public String eliminar(@RequestParam("id") int idVacante, Model model) {
  */
 /* Prueba creada por Mi Alex */
 @GetMapping("/crear")
-public String crear(Vacante vacante) {
+public String crear(Vacante vacante, Model model) {
 	//	List<Vacante> crear_TodasVacante = serviceVacantes.buscarTodas();
 	//	model.addAttribute("vacante", crear_TodasVacante);
+	// Cada formulario lleva su propia clave; el campo oculto la devuelve al guardar (ver guardar()). Ver el
+	// formulario no crea sesión: la clave no depende de ella.
+	model.addAttribute("claveIdempotencia", serviceIdempotencia.nuevaClave());
 	log.info("Contenido del Objeto Vacante: {}", vacante);
 	return "vacantes/formVacante";
 }
@@ -203,31 +408,125 @@ public String crear(Vacante vacante) {
  * este método es un "esqueleto". Recibe  un objeto `Vacante` como parámetro y llamarás a
  * `service.guardar(vacante)`. ¿Por qué se usa? Para separar la acción de "ver el formulario" (GET) de la acción
  * de "procesar el formulario" (POST).
+ * <p>
+ * Envíos repetidos: la clave de idempotencia llega en el campo oculto `claveIdempotencia` o, para clientes que
+ * no usan el formulario, en la cabecera `Idempotency-Key`. Si esa clave ya se guardó, no se vuelve a guardar
+ * nada y la respuesta es la misma que la primera vez (la misma redirección, con el mismo id). La clave se
+ * recuerda en el almacén compartido, así que vale aunque el reintento lo atienda otro nodo. Las claves del
+ * formulario las genera el servidor (UUID aleatorios) y no dependen de la sesión; las de la cabecera las elige
+ * el cliente y van en su propio ámbito, para que nunca choquen con las del formulario.
  */
 @PostMapping("/save")
-public String guardar(Vacante vacante, BindingResult resultado, Model model) {
+public String guardar(Vacante vacante, BindingResult resultado, RedirectAttributes atributos, Model model,
+		@RequestParam(value = "claveIdempotencia", required = false) String claveFormulario,
+		@RequestHeader(value = "Idempotency-Key", required = false) String claveCabecera) {
+	String clave = claveCabecera != null ? claveCabecera : claveFormulario;
+	String ambito = claveCabecera != null ? "cabecera" : "formulario";
 	if (resultado.hasErrors()){
 		for (ObjectError error : resultado.getAllErrors()){
 			log.error("Error en el formulario: {}", error.getDefaultMessage());
 		}
-
+		// Se conserva la clave: el formulario corregido sigue siendo el mismo envío.
+		model.addAttribute("claveIdempotencia", clave != null ? clave : serviceIdempotencia.nuevaClave());
 		return "vacantes/formVacante";
 	}
-	model.addAttribute("TodasVacantes", vacante);
+	// Según la configuración, se guarda ya o se encola (ver Itf_EscrituraVacantesService); en ambos casos hay id.
+	int idVacante = serviceIdempotencia.ejecutarUnaVez(ambito, clave, () -> serviceEscritura.guardar(vacante));
 	log.info("Vacantes : {}", vacante);
+	// El mensaje flash sobrevive a la redirección porque viaja en la sesión (ver ConfiguracionSesiones).
+	atributos.addFlashAttribute("msg", "Registro Guardado (id " + idVacante + ")");
 
-	return "/vacantes/index";
-//	return "redirect:/vacantes/index";
+	return "redirect:/vacantes/index";
+}
+
+/**
+ * ¿Qué hace? Responde cuando la escritura asíncrona no admite más vacantes por ahora. ¿Cómo? Devuelve un 503
+ * (Servicio no disponible) con la cabecera `Retry-After`, que indica en cuántos segundos conviene reintentar.
+ * ¿Por qué no se encola igualmente? Porque la cola acotada es precisamente lo que impide que una ráfaga de
+ * escrituras acapare memoria y retrase a todos los demás.
+ */
+@ExceptionHandler(ColaEscrituraLlenaException.class)
+public ResponseEntity<String> colaLlena(ColaEscrituraLlenaException e) {
+	log.warn("{}: se pide reintentar en {} s", e.getMessage(), e.getSegundosReintento());
+	return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, Long.toString(e.getSegundosReintento()))
+			.body("Hay demasiadas vacantes pendientes de guardar. Inténtalo de nuevo en unos segundos.");
 }
 
 //log.error("Error en el formulario: {}", resultado.getAllErrors());
 
+/**
+ * ¿Qué hace? Añade al modelo la lista de categorías antes de CADA petición de este controlador. ¿Por qué? Un
+ * método con `@ModelAttribute` evita repetir la misma línea en `crear()` y en `guardar()`, que vuelve a mostrar
+ * el formulario cuando hay errores.
+ */
+@ModelAttribute
+public void setGenericos(Model model) {
+	model.addAttribute("categorias", serviceCategorias.buscarTodas());
+}
+
 @InitBinder
 public void miInitBinder(WebDataBinder miWebDataBinder) {
 
 	SimpleDateFormat miDateFormat = new SimpleDateFormat("dd-MM-yyyy");
 
 	miWebDataBinder.registerCustomEditor(Date.class, new CustomDateEditor(miDateFormat, false));
+
+	// El formulario envía el texto visible ("Aprobada"); este editor lo convierte en la constante Vacante.Estatus.
+	miWebDataBinder.registerCustomEditor(Vacante.Estatus.class, new PropertyEditorSupport() {
+		@Override
+		public void setAsText(String texto) {
+			setValue(Vacante.Estatus.desdeTexto(texto));
+		}
+	});
+
+	// El salario llega como texto y Double.parseDouble acepta "Infinity", "NaN" o "-5": se rechazan aquí (error de
+	// formulario) para que no lleguen a las estadísticas ni a los índices ordenados por salario.
+	miWebDataBinder.registerCustomEditor(double.class, "salario", new PropertyEditorSupport() {
+		@Override
+		public void setAsText(String texto) {
+			double salario = Double.parseDouble(texto == null ? "" : texto.strip());
+			if (!Double.isFinite(salario) || salario < 0){
+				throw new IllegalArgumentException("Salario no válido: " + texto);
+			}
+			setValue(salario);
+		}
+	});
+
+	// Filtro del listado "publicadas en los últimos N días": 0 o un número negativo no tienen sentido (y un
+	// negativo daría una fecha futura). Se rechaza aquí y el listado lo muestra como error del filtro.
+	miWebDataBinder.registerCustomEditor(Integer.class, "dias", new PropertyEditorSupport() {
+		@Override
+		public void setAsText(String texto) {
+			if (texto == null || texto.isBlank()){
+				setValue(null);
+				return;
+			}
+			int dias = Integer.parseInt(texto.strip());
+			if (dias <= 0){
+				throw new IllegalArgumentException("Número de días no válido: " + texto);
+			}
+			setValue(dias);
+		}
+	});
+
+	// Solo se admiten categorías registradas: cada nombre distinto se queda para siempre en el diccionario de
+	// categorías de Vacante, así que un nombre inventado se rechaza aquí, antes de llegar a setCategoria().
+	miWebDataBinder.registerCustomEditor(String.class, "categoria", new PropertyEditorSupport() {
+		@Override
+		public void setAsText(String texto) {
+			if (texto == null || texto.isBlank()){
+				setValue(null);
+				return;
+			}
+			setValue(serviceCategorias.buscarTodas()
+					.stream()
+					.map(Categoria::getNombre)
+					.filter(nombre -> nombre.equalsIgnoreCase(texto.strip()))
+					.findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("Categoría desconocida: " + texto)));
+		}
+	});
 }
 
 
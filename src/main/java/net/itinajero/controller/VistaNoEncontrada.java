@@ -0,0 +1,77 @@
+package net.itinajero.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.View;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * ============ RESPUESTA 404 YA PREPARADA ============
+ * <p>
+ * ¿Qué es esta clase? Una vista de Spring MVC que no usa plantilla: escribe siempre la misma página corta de
+ * "vacante no encontrada" con el estado 404.
+ * <p>
+ * ¿Cómo funciona? La página se convierte a bytes UNA vez, al crear la vista, y cada respuesta solo copia esos
+ * bytes. Hay una única instancia ({@link #INSTANCIA}) que comparten todas las peticiones. El enlace al listado
+ * depende del `contextPath` de la aplicación, que solo se conoce con la petición: la página se prepara la primera
+ * vez y se reutiliza mientras el `contextPath` sea el mismo (en la práctica, siempre).
+ * <p>
+ * ¿Por qué se implementa así? Antes un id desconocido lanzaba una excepción (`get(0)` sobre una lista vacía) que
+ * recorría toda la maquinaria de errores de Spring hasta la página de error. Los robots que prueban ids lo
+ * convertían en la petición más cara del sitio; ahora es la más barata.
+ */
+public final class VistaNoEncontrada implements View {
+
+public static final VistaNoEncontrada INSTANCIA = new VistaNoEncontrada();
+
+private static final String TIPO = "text/html;charset=UTF-8";
+
+private static final String PAGINA = """
+		<!doctype html>
+		<html lang="es"><head><meta charset="utf-8"><title>Vacante no encontrada</title></head>
+		<body><h1>Vacante no encontrada</h1><p>La vacante que buscas no existe o ya no está publicada.</p>
+		<p><a href="%s/vacantes/index">Ver todas las vacantes</a></p></body></html>
+		""";
+
+/**
+ * La página ya convertida a bytes y el `contextPath` con el que se preparó.
+ */
+private record Preparada(String contextPath, byte[] bytes) {
+}
+
+private volatile Preparada preparada = new Preparada("", preparar(""));
+
+private VistaNoEncontrada() {
+}
+
+@Override
+public String getContentType() {
+	return TIPO;
+}
+
+@Override
+public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+	response.setStatus(HttpStatus.NOT_FOUND.value());
+	response.setContentType(TIPO);
+	byte[] pagina = pagina(request.getContextPath());
+	response.setContentLength(pagina.length);
+	response.getOutputStream().write(pagina);
+}
+
+private byte[] pagina(String contextPath) {
+	Preparada actual = preparada;
+	if (!actual.contextPath().equals(contextPath)){
+		actual = new Preparada(contextPath, preparar(contextPath));
+		preparada = actual;
+	}
+	return actual.bytes();
+}
+
+private static byte[] preparar(String contextPath) {
+	String escapado = contextPath.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+	return PAGINA.formatted(escapado).getBytes(StandardCharsets.UTF_8);
+}
+}
@@ -0,0 +1,54 @@
+package net.itinajero.model;
+
+/**
+ * ¿Qué es esta clase? El modelo de una categoría de ofertas de trabajo (Ventas, Contabilidad, Informática...).
+ * Igual que `Vacante`, es un POJO con atributos privados, un constructor vacío y sus getters/setters.
+ * <p>
+ * ¿Cómo se relaciona con `Vacante`? Cada vacante guarda en su atributo `categoria` el NOMBRE de una de estas
+ * categorías, que es el valor que envía el formulario `formVacante.html`.
+ */
+public class Categoria {
+
+private Integer id;
+private String nombre;
+private String descripcion;
+
+public Categoria() {
+
+}
+
+public Categoria(Integer id, String nombre, String descripcion) {
+	this.id = id;
+	this.nombre = nombre;
+	this.descripcion = descripcion;
+}
+
+public Integer getId() {
+	return id;
+}
+
+public void setId(Integer id) {
+	this.id = id;
+}
+
+public String getNombre() {
+	return nombre;
+}
+
+public void setNombre(String nombre) {
+	this.nombre = nombre;
+}
+
+public String getDescripcion() {
+	return descripcion;
+}
+
+public void setDescripcion(String descripcion) {
+	this.descripcion = descripcion;
+}
+
+@Override
+public String toString() {
+	return "Categoria{" + "id=" + id + ", nombre='" + nombre + '\'' + ", descripcion='" + descripcion + '\'' + '}';
+}
+}
@@ -0,0 +1,41 @@
+package net.itinajero.model;
+
+/**
+ * Una línea de la barra de facetas: un valor de un criterio (por ejemplo la categoría "Informática"), el texto
+ * que se muestra y cuántas vacantes lo cumplen dentro del filtro actual.
+ */
+public class ConteoFaceta {
+
+private final String valor;
+private final String etiqueta;
+private final int cantidad;
+
+public ConteoFaceta(String valor, String etiqueta, int cantidad) {
+	this.valor = valor;
+	this.etiqueta = etiqueta;
+	this.cantidad = cantidad;
+}
+
+/**
+ * @return El valor que se envía en la URL (por ejemplo "ALTO").
+ */
+public String getValor() {
+	return valor;
+}
+
+/**
+ * @return El texto que ve el usuario (por ejemplo "Buen sueldo").
+ */
+public String getEtiqueta() {
+	return etiqueta;
+}
+
+public int getCantidad() {
+	return cantidad;
+}
+
+@Override
+public String toString() {
+	return etiqueta + " (" + cantidad + ")";
+}
+}
@@ -0,0 +1,95 @@
+package net.itinajero.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ¿Qué es esta clase? Un "diccionario" que asigna a cada texto distinto un número pequeño (su código) y guarda
+ * una única copia de ese texto.
+ * <p>
+ * ¿Cómo funciona? - `codificar("Informática")` devuelve siempre el mismo código para el mismo texto; la primera
+ * vez que ve un texto nuevo le asigna el siguiente número libre (0, 1, 2...). - `texto(codigo)` hace el camino
+ * inverso leyendo una posición de un arreglo. - Las lecturas no usan cerrojos: el mapa es concurrente, y el
+ * arreglo tiene sitio de sobra; cuando se llena se reemplaza por uno del doble de tamaño, así que añadir n
+ * textos cuesta O(n) en total y no una copia por cada uno.
+ * <p>
+ * Nunca olvida un texto, así que tiene un máximo: quien lo alimenta con textos que llegan de fuera (un
+ * formulario) debe filtrarlos antes, y si aun así se llena, `codificar()` falla en lugar de crecer sin límite.
+ * <p>
+ * ¿Por qué se usa? Valores como la categoría de una vacante se repiten miles de veces pero solo hay unas
+ * decenas distintos. Si cada `Vacante` guarda su propio `String` (cada formulario enviado crea uno nuevo), el
+ * mismo texto se repite en memoria una y otra vez. Guardando solo el código, el texto existe una única vez.
+ */
+public final class DiccionarioTextos {
+
+/**
+ * Código reservado para "sin valor" (`null`).
+ */
+public static final int SIN_VALOR = -1;
+
+private final Map<String, Integer> codigos = new ConcurrentHashMap<>();
+private final int maximo;
+private volatile String[] textos = new String[8];
+private volatile int tamanio;
+
+/**
+ * @param maximo
+ * 		Cuántos textos distintos admite como mucho.
+ */
+public DiccionarioTextos(int maximo) {
+	this.maximo = maximo;
+}
+
+/**
+ * @param texto
+ * 		El texto a codificar; puede ser null.
+ * @return El código del texto, o {@link #SIN_VALOR} si el texto es null.
+ * @throws IllegalStateException
+ * 		Si el texto es nuevo y el diccionario ya tiene el máximo de textos.
+ */
+public int codificar(String texto) {
+	if (texto == null){
+		return SIN_VALOR;
+	}
+	Integer codigo = codigos.get(texto);
+	return codigo != null ? codigo : registrar(texto);
+}
+
+/**
+ * @param codigo
+ * 		Un código devuelto por {@link #codificar(String)}.
+ * @return La copia única del texto, o `null` para {@link #SIN_VALOR}.
+ */
+public String texto(int codigo) {
+	return codigo == SIN_VALOR ? null : textos[codigo];
+}
+
+/**
+ * @return Cuántos textos distintos tiene el diccionario.
+ */
+public int tamanio() {
+	return tamanio;
+}
+
+private synchronized int registrar(String texto) {
+	Integer existente = codigos.get(texto);
+	if (existente != null){
+		return existente; // Otro hilo lo registró mientras esperábamos el cerrojo.
+	}
+	int codigo = tamanio;
+	if (codigo >= maximo){
+		throw new IllegalStateException("El diccionario ya tiene " + maximo + " textos distintos");
+	}
+	String[] actual = textos;
+	if (codigo == actual.length){
+		actual = Arrays.copyOf(actual, (int) Math.min(actual.length * 2L, maximo));
+	}
+	actual[codigo] = texto;
+	textos = actual;
+	tamanio = codigo + 1;
+	// Se publica el código después del texto: quien lo obtenga de `codigos` ya ve el texto en su posición.
+	codigos.put(texto, codigo);
+	return codigo;
+}
+}
@@ -0,0 +1,57 @@
+package net.itinajero.model;
+
+/**
+ * Una fila del panel de estadísticas: cuántas vacantes tiene un grupo (una categoría, un nivel salarial o el
+ * total) y cómo se reparten sus salarios. Los percentiles son aproximados, con un error menor del 1 %.
+ */
+public class EstadisticasSalario {
+
+private final String etiqueta;
+private final long cantidad;
+private final double promedio;
+private final double percentil25;
+private final double mediana;
+private final double percentil90;
+
+public EstadisticasSalario(String etiqueta, long cantidad, double promedio, double percentil25, double mediana,
+		double percentil90) {
+	this.etiqueta = etiqueta;
+	this.cantidad = cantidad;
+	this.promedio = promedio;
+	this.percentil25 = percentil25;
+	this.mediana = mediana;
+	this.percentil90 = percentil90;
+}
+
+/**
+ * @return El nombre del grupo que ve el usuario (por ejemplo "Informática" o "Buen sueldo").
+ */
+public String getEtiqueta() {
+	return etiqueta;
+}
+
+public long getCantidad() {
+	return cantidad;
+}
+
+public double getPromedio() {
+	return promedio;
+}
+
+public double getPercentil25() {
+	return percentil25;
+}
+
+public double getMediana() {
+	return mediana;
+}
+
+public double getPercentil90() {
+	return percentil90;
+}
+
+@Override
+public String toString() {
+	return etiqueta + " (" + cantidad + " vacantes, mediana " + mediana + ")";
+}
+}
@@ -0,0 +1,51 @@
+package net.itinajero.model;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Todo lo que muestra la página `/vacantes/estadisticas`, calculado de una vez: el resumen de salarios de todas
+ * las vacantes, el de cada categoría y nivel salarial, y cuántas vacantes se publicaron cada mes.
+ */
+public class EstadisticasVacantes {
+
+private final EstadisticasSalario general;
+private final List<EstadisticasSalario> porCategoria;
+private final List<EstadisticasSalario> porNivelSalarial;
+private final Map<YearMonth, Long> publicadasPorMes;
+
+public EstadisticasVacantes(EstadisticasSalario general, List<EstadisticasSalario> porCategoria,
+		List<EstadisticasSalario> porNivelSalarial, Map<YearMonth, Long> publicadasPorMes) {
+	this.general = general;
+	this.porCategoria = List.copyOf(porCategoria);
+	this.porNivelSalarial = List.copyOf(porNivelSalarial);
+	this.publicadasPorMes = publicadasPorMes;
+}
+
+public EstadisticasSalario getGeneral() {
+	return general;
+}
+
+/**
+ * @return Una fila por categoría con vacantes, en orden alfabético.
+ */
+public List<EstadisticasSalario> getPorCategoria() {
+	return porCategoria;
+}
+
+/**
+ * @return Una fila por nivel salarial con vacantes, de BAJO a ALTO.
+ */
+public List<EstadisticasSalario> getPorNivelSalarial() {
+	return porNivelSalarial;
+}
+
+/**
+ * @return Mes de publicación → número de vacantes, del mes más antiguo al más reciente. Las vacantes sin fecha no
+ * cuentan.
+ */
+public Map<YearMonth, Long> getPublicadasPorMes() {
+	return publicadasPorMes;
+}
+}
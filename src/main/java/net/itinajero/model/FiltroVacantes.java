@@ -0,0 +1,128 @@
+package net.itinajero.model;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * ¿Qué es esta clase? Los filtros que el usuario puede aplicar al listado de vacantes desde la barra de facetas
+ * de `listVacante.html`. Cada atributo es opcional: `null` significa "sin filtrar por este criterio".
+ * <p>
+ * ¿Cómo se llena? Spring la construye a partir de los parámetros de la URL
+ * (`/vacantes/index?categoria=Informática&nivelSalarial=ALTO`), igual que hace con `Vacante` al enviar el
+ * formulario. Los nombres de los atributos son los nombres de los parámetros.
+ * <p>
+ * `orden` ("salario" o "fecha") y `dias` (publicadas en los últimos N días) no son facetas: no cambian los
+ * conteos de la barra, solo qué vacantes se muestran y en qué orden.
+ */
+public class FiltroVacantes {
+
+private String categoria;
+private Vacante.Estatus estatus;
+private Integer destacado;
+private Vacante.NivelSalarial nivelSalarial;
+private String orden;
+private Integer dias;
+
+public String getCategoria() {
+	return categoria;
+}
+
+public void setCategoria(String categoria) {
+	this.categoria = categoria == null || categoria.isBlank() ? null : categoria;
+}
+
+public Vacante.Estatus getEstatus() {
+	return estatus;
+}
+
+public void setEstatus(Vacante.Estatus estatus) {
+	this.estatus = estatus;
+}
+
+public Integer getDestacado() {
+	return destacado;
+}
+
+public void setDestacado(Integer destacado) {
+	this.destacado = destacado;
+}
+
+public Vacante.NivelSalarial getNivelSalarial() {
+	return nivelSalarial;
+}
+
+public void setNivelSalarial(Vacante.NivelSalarial nivelSalarial) {
+	this.nivelSalarial = nivelSalarial;
+}
+
+public String getOrden() {
+	return orden;
+}
+
+public void setOrden(String orden) {
+	this.orden = orden == null || orden.isBlank() ? null : orden;
+}
+
+public Integer getDias() {
+	return dias;
+}
+
+public void setDias(Integer dias) {
+	this.dias = dias;
+}
+
+/**
+ * @return `true` si no hay ningún filtro de facetas aplicado (no tiene en cuenta `orden` ni `dias`).
+ */
+public boolean estaVacio() {
+	return categoria == null && estatus == null && destacado == null && nivelSalarial == null;
+}
+
+/**
+ * @return `true` si `vacante` cumple los filtros de facetas, comprobados sobre sus propios datos (no tiene en
+ * cuenta `orden` ni `dias`).
+ */
+public boolean admite(Vacante vacante) {
+	return (categoria == null || categoria.equals(vacante.getCategoria()))
+			&& (estatus == null || estatus == vacante.getEstatus())
+			&& (destacado == null || destacado.equals(vacante.getDestacado()))
+			&& (nivelSalarial == null || nivelSalarial == vacante.getNivelSalarial());
+}
+
+/**
+ * Construye la cadena de consulta de un enlace de faceta: conserva los filtros actuales y cambia (o añade) el
+ * de `parametro`.
+ * @param parametro
+ * 		Nombre del parámetro: "categoria", "estatus", "destacado", "nivelSalarial", "orden" o "dias".
+ * @param valor
+ * 		Valor del parámetro, tal como lo enviaría la URL.
+ * @return Por ejemplo `categoria=Inform%C3%A1tica&nivelSalarial=ALTO`.
+ */
+public String consultaCon(String parametro, String valor) {
+	Map<String, String> parametros = new LinkedHashMap<>();
+	parametros.put("categoria", categoria);
+	parametros.put("estatus", estatus == null ? null : estatus.name());
+	parametros.put("destacado", destacado == null ? null : destacado.toString());
+	parametros.put("nivelSalarial", nivelSalarial == null ? null : nivelSalarial.name());
+	parametros.put("orden", orden);
+	parametros.put("dias", dias == null ? null : dias.toString());
+	parametros.put(parametro, valor);
+
+	StringJoiner consulta = new StringJoiner("&");
+	parametros.forEach((nombre, valorParametro) -> {
+		if (valorParametro != null){
+			consulta.add(nombre + "=" + URLEncoder.encode(valorParametro, StandardCharsets.UTF_8));
+		}
+	});
+	return consulta.toString();
+}
+
+@Override
+public String toString() {
+	return "FiltroVacantes [categoria=" + categoria + ", estatus=" + estatus + ", destacado=" + destacado
+			+ ", nivelSalarial=" + nivelSalarial + ", orden=" + orden + ", dias=" + dias + "]";
+}
+}
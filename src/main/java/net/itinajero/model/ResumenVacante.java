@@ -0,0 +1,54 @@
+package net.itinajero.model;
+
+/**
+ * Los datos de una vacante que se envían a los navegadores conectados al aviso de vacantes nuevas: solo las
+ * columnas de la tabla de `listVacante.html`, ya convertidas a texto, sin la descripción ni los detalles.
+ */
+public class ResumenVacante {
+
+private final Integer id;
+private final String nombre;
+private final String categoria;
+private final String fecha;
+private final String estatus;
+private final double salario;
+private final Integer destacado;
+
+public ResumenVacante(Vacante vacante) {
+	this.id = vacante.getId();
+	this.nombre = vacante.getNombre();
+	this.categoria = vacante.getCategoria();
+	this.fecha = vacante.getFecha() == null ? null : vacante.getFecha().toString(); // El mismo texto que muestra la tabla.
+	this.estatus = vacante.getEstatus() == null ? null : vacante.getEstatus().getTexto();
+	this.salario = vacante.getSalario();
+	this.destacado = vacante.getDestacado();
+}
+
+public Integer getId() {
+	return id;
+}
+
+public String getNombre() {
+	return nombre;
+}
+
+public String getCategoria() {
+	return categoria;
+}
+
+public String getFecha() {
+	return fecha;
+}
+
+public String getEstatus() {
+	return estatus;
+}
+
+public double getSalario() {
+	return salario;
+}
+
+public Integer getDestacado() {
+	return destacado;
+}
+}
@@ -69,13 +69,13 @@ public class Vacante {
 
 private Integer id; // ¿Qué? Identificador único de la vacante. ¿Por qué? Para diferenciar una vacante de otra.
 private String nombre; // ¿Qué? Título o nombre del puesto de trabajo. ¿Por qué? Para describir el puesto.
-private String categoria;
+private int codigoCategoria = DiccionarioTextos.SIN_VALOR; // ¿Qué? Código de la categoría en DICCIONARIO_CATEGORIAS. ¿Por qué? Para no repetir el mismo texto en cada vacante.
 private String descripcion; // ¿Qué? Descripción detallada de las responsabilidades y requisitos. ¿Por qué? Para informar al candidato.
 private Date fecha; // ¿Qué? Fecha de publicación de la vacante. ¿Por qué? Para saber cuándo fue publicada.
 private double salario; // ¿Qué? Salario ofrecido para el puesto. ¿Por qué? Información clave para el candidato.
 private Integer destacado; // ¿Qué? Indicador si la vacante es destacada (1) o no (0). ¿Por qué? Para darle mayor visibilidad.
 private String imagen = "no-image.png"; // ¿Qué? Nombre del archivo de imagen asociado a la vacante. ¿Por qué? Para mostrar un logo o imagen representativa. ¿Cómo? Valor por defecto si no se asigna una imagen.
-private String estatus;
+private Estatus estatus; // ¿Qué? Estado de la vacante. ¿Por qué un enum? Solo hay tres valores posibles y cada uno existe una sola vez en memoria.
 private String detalles;
 
 
@@ -99,6 +99,14 @@ private static final double UMBRAL_SALARIO_BAJO = 2000.0;
 private static final double UMBRAL_SALARIO_NORMAL = 8000.0;
 private static final Logger log = LoggerFactory.getLogger(Vacante.class);
 
+/**
+ * ¿Qué es? El diccionario compartido por TODAS las vacantes para sus categorías. ¿Por qué es `static`? Porque su
+ * objetivo es justamente que el texto de cada categoría exista una sola vez para toda la aplicación, y no una
+ * vez por vacante. ¿Por qué con máximo? Nunca olvida un nombre: el formulario solo admite categorías registradas
+ * (ver `VacantesController`), y el máximo es la última defensa si otra vía le hiciera llegar nombres arbitrarios.
+ */
+private static final DiccionarioTextos DICCIONARIO_CATEGORIAS = new DiccionarioTextos(4096);
+
 // =======================================================================================
 // SECCIÓN 6: CONSTRUCTOR (CÓMO CREAR UN OBJETO VACANTE)
 // =======================================================================================
@@ -176,12 +184,36 @@ public void setNombre(String nombre) {
 }
 
 
+/**
+ * Obtiene el nombre de la categoría de la vacante.
+ * @return La copia única del nombre, guardada en el diccionario de categorías.
+ */
 public String getCategoria() {
-	return categoria;
+	return DICCIONARIO_CATEGORIAS.texto(codigoCategoria);
 }
 
+/**
+ * Establece la categoría de la vacante. Solo se guarda su código en el diccionario compartido, así que el
+ * `String` recibido (por ejemplo, el que crea Spring al leer el formulario) no se queda retenido en memoria.
+ * @param categoria
+ * 		El nombre de la categoría.
+ */
 public void setCategoria(String categoria) {
-	this.categoria = categoria;
+	this.codigoCategoria = DICCIONARIO_CATEGORIAS.codificar(categoria);
+}
+
+/**
+ * @return El código de la categoría en {@link #diccionarioCategorias()}, o `DiccionarioTextos.SIN_VALOR`.
+ */
+public int getCodigoCategoria() {
+	return codigoCategoria;
+}
+
+/**
+ * @return El diccionario compartido de nombres de categoría.
+ */
+public static DiccionarioTextos diccionarioCategorias() {
+	return DICCIONARIO_CATEGORIAS;
 }
 
 
@@ -283,11 +315,11 @@ public void setDetalles(String detalles) {
 	this.detalles = detalles;
 }
 
-public String getEstatus() {
+public Estatus getEstatus() {
 	return estatus;
 }
 
-public void setEstatus(String estatus) {
+public void setEstatus(Estatus estatus) {
 	this.estatus = estatus;
 }
 
@@ -310,20 +342,80 @@ public void setEstatus(String estatus) {
  * comportamiento (métodos) directamente a cada constante de la enumeración.
  */
 public enum NivelSalarial {
-	// Cada constante tiene su propio texto descriptivo
-	BAJO("Sueldo malo"), NORMAL("Sueldo normal"), ALTO("Buen sueldo");
+	// Cada constante tiene su propio texto descriptivo y su banda de salarios: (salarioDesde, salarioHasta]
+	BAJO("Sueldo malo", Double.NEGATIVE_INFINITY, UMBRAL_SALARIO_BAJO),
+	NORMAL("Sueldo normal", UMBRAL_SALARIO_BAJO, UMBRAL_SALARIO_NORMAL),
+	ALTO("Buen sueldo", UMBRAL_SALARIO_NORMAL, Double.POSITIVE_INFINITY);
 
 	private final String textoDescriptivo;
+	private final double salarioDesde;
+	private final double salarioHasta;
 
-	// Constructor para inicializar el texto
-	NivelSalarial(String texto) {
+	// Constructor para inicializar el texto y la banda
+	NivelSalarial(String texto, double salarioDesde, double salarioHasta) {
 		this.textoDescriptivo = texto;
+		this.salarioDesde = salarioDesde;
+		this.salarioHasta = salarioHasta;
 	}
 
 	// Getter para que Thymeleaf pueda acceder al texto
 	public String getTextoDescriptivo() {
 		return textoDescriptivo;
 	}
+
+	/**
+	 * @return El límite inferior de la banda, EXCLUIDO (un salario igual pertenece al nivel anterior).
+	 */
+	public double getSalarioDesde() {
+		return salarioDesde;
+	}
+
+	/**
+	 * @return El límite superior de la banda, INCLUIDO.
+	 */
+	public double getSalarioHasta() {
+		return salarioHasta;
+	}
+}
+
+/**
+ * ¿Qué es esta enumeración? Los estados por los que pasa una vacante. Igual que `NivelSalarial`, cada constante
+ * lleva el texto que se muestra al usuario, que es también el valor que envía el formulario `formVacante.html`.
+ * ¿Por qué un enum y no un `String`? Con un `String` cada vacante guardaría su propia copia de "Aprobada"; con
+ * el enum todas apuntan a la misma constante y, además, no se puede guardar un estado que no exista.
+ */
+public enum Estatus {
+	CREADA("Creada"), APROBADA("Aprobada"), ELIMINADA("Eliminada");
+
+	private final String texto;
+
+	Estatus(String texto) {
+		this.texto = texto;
+	}
+
+	public String getTexto() {
+		return texto;
+	}
+
+	/**
+	 * Convierte el texto del formulario ("Aprobada") o el nombre de la constante ("APROBADA") en un `Estatus`.
+	 * @param texto
+	 * 		El texto recibido; puede ser null o vacío.
+	 * @return El estatus correspondiente, o `null` si el texto está vacío.
+	 * @throws IllegalArgumentException
+	 * 		si el texto no corresponde a ningún estatus.
+	 */
+	public static Estatus desdeTexto(String texto) {
+		if (texto == null || texto.isBlank()){
+			return null;
+		}
+		for (Estatus estatus : values()){
+			if (estatus.texto.equalsIgnoreCase(texto.trim()) || estatus.name().equalsIgnoreCase(texto.trim())){
+				return estatus;
+			}
+		}
+		throw new IllegalArgumentException("Estatus de vacante desconocido: " + texto);
+	}
 }
 
 /**
@@ -369,8 +461,8 @@ public NivelSalarial getNivelSalarial() {
  */
 @Override
 public String toString() {
-	return "Vacante{" + "descripcion='" + descripcion + '\'' + ", destacado=" + destacado + ", detalles='"
-			+ detalles + '\'' + ", estatus='" + estatus + '\'' + ", fecha=" + fecha + ", id=" + id
+	return "Vacante{" + "categoria='" + getCategoria() + '\'' + ", descripcion='" + descripcion + '\'' + ", destacado="
+			+ destacado + ", detalles='" + detalles + '\'' + ", estatus=" + estatus + ", fecha=" + fecha + ", id=" + id
 			+ ", imagen='" + imagen + '\'' + ", nombre='" + nombre + '\'' + ", salario=" + salario + '}';
 }
 }
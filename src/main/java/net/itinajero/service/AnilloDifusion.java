@@ -0,0 +1,76 @@
+package net.itinajero.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ¿Qué es? Un búfer circular ("anillo") de eventos con número de secuencia, pensado para UN escritor y MUCHOS
+ * lectores que leen a su propio ritmo.
+ * <p>
+ * ¿Cómo funciona? - Cada evento publicado recibe la siguiente secuencia (1, 2, 3...) y se guarda en la ranura
+ * `secuencia % capacidad`, pisando al evento de hace `capacidad` publicaciones. - El anillo no sabe nada de sus
+ * lectores: cada lector solo recuerda la última secuencia que leyó y pide las siguientes. - Si un lector se
+ * queda tan atrás que sus eventos ya fueron pisados, {@link #leer(long)} devuelve null y el lector salta a
+ * {@link #primeraDisponible()}.
+ * <p>
+ * ¿Por qué se usa? Para difundir cada vacante nueva a miles de conexiones: el evento se guarda UNA vez y cada
+ * conexión solo cuesta un número (su cursor), sin una cola propia que crezca si la conexión está parada.
+ * @param <T>
+ * 		El tipo de dato de los eventos.
+ */
+public final class AnilloDifusion<T> {
+
+/**
+ * Un dato junto con la secuencia con la que se publicó.
+ */
+public record Evento<T>(long secuencia, T dato) {
+}
+
+private final AtomicReferenceArray<Evento<T>> ranuras;
+private volatile long ultimaSecuencia;
+
+public AnilloDifusion(int capacidad) {
+	if (capacidad < 1){
+		throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+	}
+	ranuras = new AtomicReferenceArray<>(capacidad);
+}
+
+/**
+ * @return La secuencia asignada al evento.
+ */
+public synchronized long publicar(T dato) {
+	long secuencia = ultimaSecuencia + 1;
+	ranuras.set(ranura(secuencia), new Evento<>(secuencia, dato));
+	ultimaSecuencia = secuencia; // Se publica después de escribir la ranura: quien la vea, ya puede leerla.
+	return secuencia;
+}
+
+/**
+ * @return El evento con esa secuencia, o `null` si todavía no se ha publicado o ya fue pisado.
+ */
+public Evento<T> leer(long secuencia) {
+	if (secuencia < 1 || secuencia > ultimaSecuencia){
+		return null;
+	}
+	Evento<T> evento = ranuras.get(ranura(secuencia));
+	return evento != null && evento.secuencia() == secuencia ? evento : null;
+}
+
+/**
+ * @return La secuencia del último evento publicado (0 si no hay ninguno).
+ */
+public long ultimaSecuencia() {
+	return ultimaSecuencia;
+}
+
+/**
+ * @return La secuencia del evento más antiguo que todavía se puede leer.
+ */
+public long primeraDisponible() {
+	return Math.max(1, ultimaSecuencia - ranuras.length() + 1);
+}
+
+private int ranura(long secuencia) {
+	return (int) (secuencia % ranuras.length());
+}
+}
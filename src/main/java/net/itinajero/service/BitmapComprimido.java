@@ -0,0 +1,375 @@
+package net.itinajero.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * ¿Qué es? Un conjunto de números enteros no negativos (ids de vacantes) guardado como un mapa de bits
+ * comprimido, al estilo de los "Roaring bitmaps".
+ * <p>
+ * ¿Cómo funciona? Cada número se parte en dos mitades de 16 bits. La mitad alta elige un "contenedor" y la baja
+ * es el valor dentro de él. Cada contenedor guarda hasta 65.536 valores de una de dos formas:
+ * <ul>
+ * <li>Arreglo ordenado de `char` (2 bytes por valor), mientras tenga como mucho {@value #LIMITE_ARREGLO}
+ * valores.</li>
+ * <li>Mapa de bits de 8 KB (un bit por valor posible), cuando tiene más.</li>
+ * </ul>
+ * Las operaciones AND/OR se hacen contenedor a contenedor, eligiendo el algoritmo según la forma de cada uno (por
+ * ejemplo, dos mapas de bits se combinan de 64 en 64 bits con un solo `&`).
+ * <p>
+ * ¿Por qué se usa? Para contar facetas ("Informática (120)") sin recorrer las vacantes: el conteo de
+ * "Informática Y Buen sueldo" es la cardinalidad de la intersección de dos bitmaps, que con un millón de
+ * vacantes se calcula en microsegundos y ocupa una fracción de lo que ocuparía un `Set<Integer>`.
+ * <p>
+ * No es seguro para hilos: quien lo use debe protegerlo con su propio cerrojo.
+ */
+public final class BitmapComprimido {
+
+private static final int LIMITE_ARREGLO = 4096;
+private static final int PALABRAS = 1024; // 65.536 bits / 64
+
+private char[] claves = new char[0];
+private Contenedor[] contenedores = new Contenedor[0];
+private int usados;
+
+/**
+ * @param valor
+ * 		Un entero no negativo.
+ */
+public void agregar(int valor) {
+	comprobar(valor);
+	int i = buscarClave((char) (valor >>> 16));
+	if (i < 0){
+		i = -i - 1;
+		insertarContenedor(i, (char) (valor >>> 16), new Contenedor());
+	}
+	contenedores[i].agregar((char) valor);
+}
+
+public void quitar(int valor) {
+	if (valor < 0){
+		return;
+	}
+	int i = buscarClave((char) (valor >>> 16));
+	if (i >= 0){
+		contenedores[i].quitar((char) valor);
+		if (contenedores[i].cardinalidad == 0){
+			eliminarContenedor(i);
+		}
+	}
+}
+
+public boolean contiene(int valor) {
+	if (valor < 0){
+		return false;
+	}
+	int i = buscarClave((char) (valor >>> 16));
+	return i >= 0 && contenedores[i].contiene((char) valor);
+}
+
+public int cardinalidad() {
+	int total = 0;
+	for (int i = 0; i < usados; i++){
+		total += contenedores[i].cardinalidad;
+	}
+	return total;
+}
+
+public boolean estaVacio() {
+	return usados == 0;
+}
+
+/**
+ * Recorre los valores en orden ascendente.
+ */
+public void paraCada(IntConsumer accion) {
+	for (int i = 0; i < usados; i++){
+		int alta = claves[i] << 16;
+		contenedores[i].paraCada(baja -> accion.accept(alta | baja));
+	}
+}
+
+public int[] aArreglo() {
+	int[] valores = new int[cardinalidad()];
+	int[] siguiente = { 0 };
+	paraCada(valor -> valores[siguiente[0]++] = valor);
+	return valores;
+}
+
+/**
+ * @return Un bitmap nuevo con los valores que están en `a` Y en `b`.
+ */
+public static BitmapComprimido y(BitmapComprimido a, BitmapComprimido b) {
+	BitmapComprimido resultado = new BitmapComprimido();
+	int i = 0, j = 0;
+	while (i < a.usados && j < b.usados){
+		if (a.claves[i] < b.claves[j]){
+			i++;
+		} else if (a.claves[i] > b.claves[j]){
+			j++;
+		} else{
+			Contenedor interseccion = Contenedor.y(a.contenedores[i], b.contenedores[j]);
+			if (interseccion.cardinalidad > 0){
+				resultado.insertarContenedor(resultado.usados, a.claves[i], interseccion);
+			}
+			i++;
+			j++;
+		}
+	}
+	return resultado;
+}
+
+/**
+ * Equivale a `y(a, b).cardinalidad()` pero sin construir el bitmap intermedio.
+ */
+public static int cardinalidadY(BitmapComprimido a, BitmapComprimido b) {
+	int total = 0;
+	int i = 0, j = 0;
+	while (i < a.usados && j < b.usados){
+		if (a.claves[i] < b.claves[j]){
+			i++;
+		} else if (a.claves[i] > b.claves[j]){
+			j++;
+		} else{
+			total += Contenedor.cardinalidadY(a.contenedores[i], b.contenedores[j]);
+			i++;
+			j++;
+		}
+	}
+	return total;
+}
+
+/**
+ * @return Un bitmap nuevo con los valores que están en `a` O en `b`.
+ */
+public static BitmapComprimido o(BitmapComprimido a, BitmapComprimido b) {
+	BitmapComprimido resultado = new BitmapComprimido();
+	int i = 0, j = 0;
+	while (i < a.usados || j < b.usados){
+		if (j >= b.usados || (i < a.usados && a.claves[i] < b.claves[j])){
+			resultado.insertarContenedor(resultado.usados, a.claves[i], a.contenedores[i].copiar());
+			i++;
+		} else if (i >= a.usados || a.claves[i] > b.claves[j]){
+			resultado.insertarContenedor(resultado.usados, b.claves[j], b.contenedores[j].copiar());
+			j++;
+		} else{
+			resultado.insertarContenedor(resultado.usados, a.claves[i], Contenedor.o(a.contenedores[i], b.contenedores[j]));
+			i++;
+			j++;
+		}
+	}
+	return resultado;
+}
+
+private static void comprobar(int valor) {
+	if (valor < 0){
+		throw new IllegalArgumentException("Solo se admiten valores no negativos: " + valor);
+	}
+}
+
+private int buscarClave(char clave) {
+	return Arrays.binarySearch(claves, 0, usados, clave);
+}
+
+private void insertarContenedor(int posicion, char clave, Contenedor contenedor) {
+	if (usados == claves.length){
+		int capacidad = Math.max(4, usados * 2);
+		claves = Arrays.copyOf(claves, capacidad);
+		contenedores = Arrays.copyOf(contenedores, capacidad);
+	}
+	System.arraycopy(claves, posicion, claves, posicion + 1, usados - posicion);
+	System.arraycopy(contenedores, posicion, contenedores, posicion + 1, usados - posicion);
+	claves[posicion] = clave;
+	contenedores[posicion] = contenedor;
+	usados++;
+}
+
+private void eliminarContenedor(int posicion) {
+	System.arraycopy(claves, posicion + 1, claves, posicion, usados - posicion - 1);
+	System.arraycopy(contenedores, posicion + 1, contenedores, posicion, usados - posicion - 1);
+	usados--;
+	contenedores[usados] = null;
+}
+
+/**
+ * Los valores de 16 bits de un contenedor. Usa `valores` (arreglo ordenado) o `bits` (mapa de bits); el otro es
+ * null.
+ */
+private static final class Contenedor {
+
+	private char[] valores = new char[4];
+	private long[] bits;
+	private int cardinalidad;
+
+	void agregar(char valor) {
+		if (bits != null){
+			long mascara = 1L << valor;
+			if ((bits[valor >>> 6] & mascara) == 0){
+				bits[valor >>> 6] |= mascara;
+				cardinalidad++;
+			}
+			return;
+		}
+		int i = Arrays.binarySearch(valores, 0, cardinalidad, valor);
+		if (i >= 0){
+			return;
+		}
+		if (cardinalidad == LIMITE_ARREGLO){
+			aBits();
+			agregar(valor);
+			return;
+		}
+		i = -i - 1;
+		if (cardinalidad == valores.length){
+			valores = Arrays.copyOf(valores, Math.min(LIMITE_ARREGLO, cardinalidad * 2));
+		}
+		System.arraycopy(valores, i, valores, i + 1, cardinalidad - i);
+		valores[i] = valor;
+		cardinalidad++;
+	}
+
+	void quitar(char valor) {
+		if (bits != null){
+			long mascara = 1L << valor;
+			if ((bits[valor >>> 6] & mascara) != 0){
+				bits[valor >>> 6] &= ~mascara;
+				cardinalidad--;
+				if (cardinalidad <= LIMITE_ARREGLO){
+					aArreglo();
+				}
+			}
+			return;
+		}
+		int i = Arrays.binarySearch(valores, 0, cardinalidad, valor);
+		if (i >= 0){
+			System.arraycopy(valores, i + 1, valores, i, cardinalidad - i - 1);
+			cardinalidad--;
+		}
+	}
+
+	boolean contiene(char valor) {
+		return bits != null ? (bits[valor >>> 6] & 1L << valor) != 0
+				: Arrays.binarySearch(valores, 0, cardinalidad, valor) >= 0;
+	}
+
+	void paraCada(IntConsumer accion) {
+		if (bits == null){
+			for (int i = 0; i < cardinalidad; i++){
+				accion.accept(valores[i]);
+			}
+			return;
+		}
+		for (int palabra = 0; palabra < PALABRAS; palabra++){
+			long resto = bits[palabra];
+			while (resto != 0){
+				accion.accept(palabra << 6 | Long.numberOfTrailingZeros(resto));
+				resto &= resto - 1;
+			}
+		}
+	}
+
+	Contenedor copiar() {
+		Contenedor copia = new Contenedor();
+		copia.cardinalidad = cardinalidad;
+		copia.valores = valores == null ? null : valores.clone();
+		copia.bits = bits == null ? null : bits.clone();
+		return copia;
+	}
+
+	static Contenedor y(Contenedor a, Contenedor b) {
+		Contenedor resultado = new Contenedor();
+		if (a.bits != null && b.bits != null){
+			resultado.bits = new long[PALABRAS];
+			for (int i = 0; i < PALABRAS; i++){
+				resultado.bits[i] = a.bits[i] & b.bits[i];
+				resultado.cardinalidad += Long.bitCount(resultado.bits[i]);
+			}
+			if (resultado.cardinalidad <= LIMITE_ARREGLO){
+				resultado.aArreglo();
+			}
+			return resultado;
+		}
+		// Al menos uno es un arreglo: se recorre el arreglo más pequeño y se consulta el otro.
+		Contenedor pequenio = menorArreglo(a, b);
+		Contenedor otro = pequenio == a ? b : a;
+		resultado.valores = new char[Math.max(1, pequenio.cardinalidad)];
+		for (int i = 0; i < pequenio.cardinalidad; i++){
+			if (otro.contiene(pequenio.valores[i])){
+				resultado.valores[resultado.cardinalidad++] = pequenio.valores[i];
+			}
+		}
+		return resultado;
+	}
+
+	static int cardinalidadY(Contenedor a, Contenedor b) {
+		int total = 0;
+		if (a.bits != null && b.bits != null){
+			for (int i = 0; i < PALABRAS; i++){
+				total += Long.bitCount(a.bits[i] & b.bits[i]);
+			}
+			return total;
+		}
+		Contenedor pequenio = menorArreglo(a, b);
+		Contenedor otro = pequenio == a ? b : a;
+		for (int i = 0; i < pequenio.cardinalidad; i++){
+			if (otro.contiene(pequenio.valores[i])){
+				total++;
+			}
+		}
+		return total;
+	}
+
+	static Contenedor o(Contenedor a, Contenedor b) {
+		Contenedor resultado = new Contenedor();
+		resultado.bits = new long[PALABRAS];
+		resultado.valores = null;
+		for (Contenedor origen : new Contenedor[] { a, b }){
+			if (origen.bits != null){
+				for (int i = 0; i < PALABRAS; i++){
+					resultado.bits[i] |= origen.bits[i];
+				}
+			} else{
+				for (int i = 0; i < origen.cardinalidad; i++){
+					resultado.bits[origen.valores[i] >>> 6] |= 1L << origen.valores[i];
+				}
+			}
+		}
+		for (long palabra : resultado.bits){
+			resultado.cardinalidad += Long.bitCount(palabra);
+		}
+		if (resultado.cardinalidad <= LIMITE_ARREGLO){
+			resultado.aArreglo();
+		}
+		return resultado;
+	}
+
+	private static Contenedor menorArreglo(Contenedor a, Contenedor b) {
+		if (a.bits != null){
+			return b;
+		}
+		return b.bits != null || a.cardinalidad <= b.cardinalidad ? a : b;
+	}
+
+	private void aBits() {
+		bits = new long[PALABRAS];
+		for (int i = 0; i < cardinalidad; i++){
+			bits[valores[i] >>> 6] |= 1L << valores[i];
+		}
+		valores = null;
+	}
+
+	private void aArreglo() {
+		char[] nuevos = new char[Math.max(1, cardinalidad)];
+		int n = 0;
+		for (int palabra = 0; palabra < PALABRAS; palabra++){
+			long resto = bits[palabra];
+			while (resto != 0){
+				nuevos[n++] = (char) (palabra << 6 | Long.numberOfTrailingZeros(resto));
+				resto &= resto - 1;
+			}
+		}
+		valores = nuevos;
+		bits = null;
+	}
+}
+}
@@ -0,0 +1,91 @@
+package net.itinajero.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ¿Qué es? Una caché en memoria de tamaño limitado que expulsa el elemento "menos usado recientemente" (LRU,
+ * Least Recently Used) cuando se llena.
+ * <p>
+ * ¿Cómo funciona? Se apoya en un `LinkedHashMap` creado con `accessOrder = true`: cada lectura mueve la entrada
+ * al final de la lista interna, así que la primera entrada siempre es la más antigua. El método
+ * `removeEldestEntry` la elimina en cuanto se supera la capacidad. Todos los accesos están sincronizados porque
+ * una lectura en modo "orden de acceso" también modifica la estructura.
+ * <p>
+ * ¿Por qué se usa? Es la caché local (L1) de cada nodo: rápida, sin dependencias externas y con un consumo de
+ * memoria acotado. Los contadores de aciertos y fallos permiten medir si la caché está siendo útil.
+ * @param <K>
+ * 		Tipo de la clave.
+ * @param <V>
+ * 		Tipo del valor.
+ */
+public class CacheLRU<K, V> {
+
+private final Map<K, V> entradas;
+private final int capacidad;
+private final AtomicLong aciertos = new AtomicLong();
+private final AtomicLong fallos = new AtomicLong();
+
+/**
+ * Crea una caché vacía.
+ * @param capacidad
+ * 		Número máximo de entradas antes de empezar a expulsar las menos usadas.
+ */
+public CacheLRU(int capacidad) {
+	if (capacidad <= 0){
+		throw new IllegalArgumentException("La capacidad de la caché debe ser positiva: " + capacidad);
+	}
+	this.capacidad = capacidad;
+	this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> masAntigua) {
+			return size() > CacheLRU.this.capacidad;
+		}
+	};
+}
+
+/**
+ * Busca un valor y actualiza los contadores de aciertos/fallos.
+ * @param clave
+ * 		La clave a buscar.
+ * @return El valor asociado o `null` si no está en caché.
+ */
+public synchronized V obtener(K clave) {
+	V valor = entradas.get(clave);
+	if (valor != null){
+		aciertos.incrementAndGet();
+	} else{
+		fallos.incrementAndGet();
+	}
+	return valor;
+}
+
+public synchronized void poner(K clave, V valor) {
+	entradas.put(clave, valor);
+}
+
+public synchronized void invalidar(K clave) {
+	entradas.remove(clave);
+}
+
+public synchronized void invalidarTodo() {
+	entradas.clear();
+}
+
+public synchronized int tamanio() {
+	return entradas.size();
+}
+
+public int getCapacidad() {
+	return capacidad;
+}
+
+public long getAciertos() {
+	return aciertos.get();
+}
+
+public long getFallos() {
+	return fallos.get();
+}
+}
@@ -0,0 +1,190 @@
+package net.itinajero.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * ¿Qué es? Una caché de tamaño limitado que, a diferencia de {@link CacheLRU}, no deja entrar a cualquiera: un
+ * elemento nuevo solo ocupa el sitio de otro si se ha pedido MÁS veces que él (política W-TinyLFU).
+ * <p>
+ * ¿Cómo funciona? - Todo elemento nuevo entra primero en una "ventana" LRU pequeña (1 % de la capacidad). - El
+ * que sale de la ventana es un candidato para la zona principal. Si hay sitio, entra; si no, se compara cuántas
+ * veces se han pedido el candidato y la "víctima" (el menos reciente de la zona de prueba) y se queda el más
+ * pedido. - La zona principal es un LRU segmentado: lo que se vuelve a pedir estando "a prueba" pasa a la zona
+ * "protegida" (80 %), de la que solo sale degradado de nuevo a prueba. - Las veces que se ha pedido cada clave
+ * se aproximan con un {@link SketchFrecuencias}, que ocupa unos pocos bytes por entrada aunque se cuenten
+ * millones de claves distintas.
+ * <p>
+ * ¿Por qué se usa? Un robot que recorre todas las vacantes una vez pide cada página UNA sola vez. En una LRU, ese
+ * recorrido expulsa las páginas que de verdad se repiten; aquí, esas páginas de una sola visita no superan a las
+ * populares y se descartan al salir de la ventana.
+ * @param <K>
+ * 		Tipo de la clave.
+ * @param <V>
+ * 		Tipo del valor.
+ */
+public class CacheTinyLFU<K, V> {
+
+private final LinkedHashMap<K, V> ventana = new LinkedHashMap<>(16, 0.75f, true);
+private final LinkedHashMap<K, V> aPrueba = new LinkedHashMap<>(16, 0.75f, true);
+private final LinkedHashMap<K, V> protegida = new LinkedHashMap<>(16, 0.75f, true);
+private final SketchFrecuencias frecuencias;
+private final int capacidad;
+private final int capacidadVentana;
+private final int capacidadPrincipal;
+private final int capacidadProtegida;
+
+private final AtomicLong aciertos = new AtomicLong();
+private final AtomicLong fallos = new AtomicLong();
+private final AtomicLong admitidas = new AtomicLong();
+private final AtomicLong rechazadas = new AtomicLong();
+
+/**
+ * @param capacidad
+ * 		Número máximo de entradas (ventana + principal).
+ */
+public CacheTinyLFU(int capacidad) {
+	if (capacidad < 2){
+		throw new IllegalArgumentException("La capacidad de la caché debe ser al menos 2: " + capacidad);
+	}
+	this.capacidad = capacidad;
+	this.capacidadVentana = Math.max(1, capacidad / 100);
+	this.capacidadPrincipal = capacidad - capacidadVentana;
+	this.capacidadProtegida = Math.max(1, capacidadPrincipal * 8 / 10);
+	this.frecuencias = new SketchFrecuencias(capacidad);
+}
+
+/**
+ * Busca un valor. Cada búsqueda, acierte o no, cuenta como un uso de la clave.
+ * @return El valor o `null` si no está en caché.
+ */
+public synchronized V obtener(K clave) {
+	frecuencias.incrementar(clave);
+	V valor = ventana.get(clave);
+	if (valor == null){
+		valor = protegida.get(clave);
+	}
+	if (valor == null){
+		valor = aPrueba.remove(clave);
+		if (valor != null){
+			proteger(clave, valor);
+		}
+	}
+	if (valor != null){
+		aciertos.incrementAndGet();
+	} else{
+		fallos.incrementAndGet();
+	}
+	return valor;
+}
+
+/**
+ * Guarda un valor. Si la clave ya estaba, se reemplaza en su sitio; si no, entra en la ventana.
+ */
+public synchronized void poner(K clave, V valor) {
+	if (ventana.containsKey(clave)){
+		ventana.put(clave, valor);
+	} else if (protegida.containsKey(clave)){
+		protegida.put(clave, valor);
+	} else if (aPrueba.containsKey(clave)){
+		aPrueba.put(clave, valor);
+	} else{
+		ventana.put(clave, valor);
+		if (ventana.size() > capacidadVentana){
+			Map.Entry<K, V> candidato = quitarMasAntigua(ventana);
+			admitir(candidato.getKey(), candidato.getValue());
+		}
+	}
+}
+
+public synchronized void invalidar(K clave) {
+	if (ventana.remove(clave) == null && protegida.remove(clave) == null){
+		aPrueba.remove(clave);
+	}
+}
+
+/**
+ * Quita todas las entradas cuya clave cumple `condicion` (por ejemplo, todas las de un mismo id).
+ */
+public synchronized void invalidarSi(Predicate<K> condicion) {
+	ventana.keySet().removeIf(condicion);
+	aPrueba.keySet().removeIf(condicion);
+	protegida.keySet().removeIf(condicion);
+}
+
+public synchronized void invalidarTodo() {
+	ventana.clear();
+	aPrueba.clear();
+	protegida.clear();
+}
+
+public synchronized int tamanio() {
+	return ventana.size() + aPrueba.size() + protegida.size();
+}
+
+public int getCapacidad() {
+	return capacidad;
+}
+
+public long getAciertos() {
+	return aciertos.get();
+}
+
+public long getFallos() {
+	return fallos.get();
+}
+
+/**
+ * @return Cuántos candidatos salidos de la ventana entraron en la zona principal.
+ */
+public long getAdmitidas() {
+	return admitidas.get();
+}
+
+/**
+ * @return Cuántos candidatos se descartaron por ser menos pedidos que la víctima.
+ */
+public long getRechazadas() {
+	return rechazadas.get();
+}
+
+private void admitir(K clave, V valor) {
+	if (aPrueba.size() + protegida.size() < capacidadPrincipal){
+		aPrueba.put(clave, valor);
+		admitidas.incrementAndGet();
+		return;
+	}
+	LinkedHashMap<K, V> zonaVictima = aPrueba.isEmpty() ? protegida : aPrueba;
+	K victima = zonaVictima.keySet().iterator().next();
+	if (frecuencias.frecuencia(clave) > frecuencias.frecuencia(victima)){
+		zonaVictima.remove(victima);
+		aPrueba.put(clave, valor);
+		admitidas.incrementAndGet();
+	} else{
+		rechazadas.incrementAndGet();
+	}
+}
+
+/**
+ * Pasa a la zona protegida una entrada que se volvió a pedir. Si la zona protegida se llena, su entrada menos
+ * reciente vuelve a prueba (como la más reciente de esa zona).
+ */
+private void proteger(K clave, V valor) {
+	protegida.put(clave, valor);
+	if (protegida.size() > capacidadProtegida){
+		Map.Entry<K, V> degradada = quitarMasAntigua(protegida);
+		aPrueba.put(degradada.getKey(), degradada.getValue());
+	}
+}
+
+private static <K, V> Map.Entry<K, V> quitarMasAntigua(LinkedHashMap<K, V> zona) {
+	Iterator<Map.Entry<K, V>> it = zona.entrySet().iterator();
+	Map.Entry<K, V> entrada = it.next();
+	Map.Entry<K, V> masAntigua = Map.entry(entrada.getKey(), entrada.getValue());
+	it.remove();
+	return masAntigua;
+}
+}
@@ -0,0 +1,21 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+/**
+ * Un cambio del catálogo tal como lo recibe un consumidor del flujo de cambios ({@link Itf_FlujoCambiosVacantes}),
+ * una vez decodificado con {@link CodecCambios#leerLote(byte[])}.
+ * @param offset
+ * 		Su posición en el flujo: la secuencia de su evento en el registro, consecutiva. En una instantánea, todas
+ * 		las vacantes llevan el offset hasta el que llega.
+ * @param tipo
+ * 		Si la vacante se guardó (nueva o editada) o se quitó del catálogo.
+ * @param marcaTiempo
+ * 		Cuándo se publicó, en milisegundos desde 1970.
+ * @param idVacante
+ * 		El id de la vacante.
+ * @param vacante
+ * 		La versión guardada, o `null` en un cambio ELIMINADA (solo viaja el id).
+ */
+public record CambioVacante(long offset, EventoVacante.Tipo tipo, long marcaTiempo, int idVacante, Vacante vacante) {
+}
@@ -0,0 +1,14 @@
+package net.itinajero.service;
+
+/**
+ * Se lanza cuando no se puede guardar una categoría: nombre vacío, nombre ya usado por otra categoría (sin
+ * distinguir mayúsculas) o ya no se admiten más categorías.
+ * <p>
+ * Es un error del usuario: el controlador vuelve a mostrar el formulario con {@link #getMessage()} como aviso.
+ */
+public class CategoriaInvalidaException extends RuntimeException {
+
+public CategoriaInvalidaException(String mensaje) {
+	super(mensaje);
+}
+}
@@ -0,0 +1,85 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ¿Qué es? El formato binario de los cambios del flujo ({@link Itf_FlujoCambiosVacantes}): cómo se escribe cada
+ * uno y cómo se lee un lote.
+ * <p>
+ * ¿Cómo funciona? Cada cambio es un registro con su longitud delante, para que un lote sea simplemente varios
+ * registros seguidos:
+ * <pre>
+ * [int longitud del resto][byte formato = 1][long offset][byte tipo: 1 GUARDADA, 2 ELIMINADA]
+ * [long marca de tiempo][int id de la vacante][bytes de CodecVacante, solo en GUARDADA]
+ * </pre>
+ * Los números van en big-endian, como los escribe `DataOutputStream`. Un consumidor que encuentre un `formato`
+ * que no conoce puede saltarse el registro gracias a la longitud.
+ * <p>
+ * ¿Por qué un formato propio? Una vacante ocupa aquí unos cientos de bytes, frente a los varios KB que cuesta
+ * sacarla del HTML del listado; y un cambio ELIMINADA son 26 bytes.
+ */
+public final class CodecCambios {
+
+static final byte FORMATO = 1;
+private static final int CABECERA = 1 + 8 + 1 + 8 + 4;
+
+private CodecCambios() {
+}
+
+/**
+ * @param vacante
+ * 		La vacante guardada o, en un cambio ELIMINADA, la eliminada (solo se escribe su id).
+ * @return El registro completo, con su longitud delante.
+ */
+public static byte[] codificar(long offset, EventoVacante.Tipo tipo, long marcaTiempo, Vacante vacante) {
+	byte[] datos = tipo == EventoVacante.Tipo.GUARDADA ? CodecVacante.codificar(vacante) : new byte[0];
+	ByteBuffer registro = ByteBuffer.allocate(4 + CABECERA + datos.length);
+	registro.putInt(CABECERA + datos.length)
+			.put(FORMATO)
+			.putLong(offset)
+			.put((byte) (tipo.ordinal() + 1))
+			.putLong(marcaTiempo)
+			.putInt(vacante.getId())
+			.put(datos);
+	return registro.array();
+}
+
+/**
+ * Decodifica todos los registros de un lote. Se salta los de un formato desconocido.
+ * @throws IllegalArgumentException
+ * 		Si el lote está cortado o corrupto.
+ */
+public static List<CambioVacante> leerLote(byte[] lote) {
+	List<CambioVacante> cambios = new ArrayList<>();
+	ByteBuffer entrada = ByteBuffer.wrap(lote);
+	try{
+		while (entrada.hasRemaining()){
+			int longitud = entrada.getInt();
+			int fin = entrada.position() + longitud;
+			if (longitud < CABECERA || fin > lote.length){
+				throw new IllegalArgumentException("Registro de cambio con longitud inválida: " + longitud);
+			}
+			if (entrada.get() == FORMATO){
+				long offset = entrada.getLong();
+				EventoVacante.Tipo tipo = EventoVacante.Tipo.values()[entrada.get() - 1];
+				long marcaTiempo = entrada.getLong();
+				int idVacante = entrada.getInt();
+				Vacante vacante = tipo == EventoVacante.Tipo.GUARDADA
+						? CodecVacante.decodificar(Arrays.copyOfRange(lote, entrada.position(), fin))
+						: null;
+				cambios.add(new CambioVacante(offset, tipo, marcaTiempo, idVacante, vacante));
+			}
+			entrada.position(fin);
+		}
+	} catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e){
+		throw new IllegalArgumentException("Lote de cambios cortado o corrupto", e);
+	}
+	return cambios;
+}
+}
@@ -0,0 +1,243 @@
+package net.itinajero.service;
+
+import org.springframework.web.servlet.FlashMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ¿Qué es? El formato binario con el que se guardan las {@link SesionCompartida} en el almacén compartido.
+ * <p>
+ * ¿Cómo funciona? Una sesión se escribe como: versión del formato, id, fechas de creación y último acceso,
+ * inactividad máxima y, por cada atributo, su nombre seguido de su valor ya codificado (longitud + bytes). Cada
+ * valor empieza con un byte de "etiqueta" y se escribe a mano en pocos bytes. Solo se admiten los tipos que la
+ * aplicación guarda en sesión: `String`, `Integer`, `Long`, `Boolean`, listas de ellos y los mensajes flash de
+ * Spring (`FlashMap`); cualquier otro se rechaza al guardar.
+ * <p>
+ * ¿Por qué no la serialización estándar de Java para el resto? Porque los bytes vienen de un almacén compartido:
+ * quien pueda escribir en él podría hacer que `ObjectInputStream` construya objetos arbitrarios al leer una
+ * sesión. Con tipos cerrados, leer una sesión nunca ejecuta más código que este.
+ * <p>
+ * ¿Por qué se implementa así? Porque la sesión se lee y se escribe en CADA petición: cuantos menos bytes, menos
+ * tráfico hacia el almacén. Y como cada valor va delimitado por su longitud, la sesión se puede leer sin
+ * decodificar sus valores (ver la carga perezosa en {@link SesionCompartida#getAttribute(String)}).
+ */
+final class CodecSesion {
+
+private static final byte VERSION_FORMATO = 1;
+
+private static final byte TIPO_TEXTO = 0;
+private static final byte TIPO_ENTERO = 1;
+private static final byte TIPO_LARGO = 2;
+private static final byte TIPO_BOOLEANO = 3;
+/**
+ * Valores escritos con la serialización de Java por versiones anteriores. Ya no se leen: se descartan.
+ */
+private static final byte TIPO_SERIALIZADO_ANTIGUO = 4;
+private static final byte TIPO_LISTA = 5;
+private static final byte TIPO_FLASH = 6;
+
+private CodecSesion() {
+}
+
+static byte[] codificarSesion(SesionCompartida sesion) {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+	try (DataOutputStream salida = new DataOutputStream(bytes)){
+		salida.writeByte(VERSION_FORMATO);
+		salida.writeUTF(sesion.getId());
+		salida.writeLong(sesion.getCreationTime().toEpochMilli());
+		salida.writeLong(sesion.getLastAccessedTime().toEpochMilli());
+		salida.writeLong(sesion.getMaxInactiveInterval().getSeconds());
+		Map<String, byte[]> crudos = sesion.getAtributosCrudos();
+		Map<String, Object> decodificados = sesion.getAtributos();
+		salida.writeInt(crudos.size() + decodificados.size());
+		for (Map.Entry<String, byte[]> atributo : crudos.entrySet()){
+			escribirAtributo(salida, atributo.getKey(), atributo.getValue());
+		}
+		for (Map.Entry<String, Object> atributo : decodificados.entrySet()){
+			escribirAtributo(salida, atributo.getKey(), codificarValor(atributo.getValue()));
+		}
+	} catch (IOException e){
+		throw new UncheckedIOException(e);
+	}
+	return bytes.toByteArray();
+}
+
+/**
+ * Lee la cabecera de la sesión y separa sus atributos, pero deja los valores sin decodificar.
+ */
+static SesionCompartida decodificarSesion(byte[] datos) {
+	try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))){
+		byte version = entrada.readByte();
+		if (version != VERSION_FORMATO){
+			throw new IllegalStateException("Versión de formato de sesión desconocida: " + version);
+		}
+		String id = entrada.readUTF();
+		Instant creacion = Instant.ofEpochMilli(entrada.readLong());
+		Instant ultimoAcceso = Instant.ofEpochMilli(entrada.readLong());
+		Duration inactividadMaxima = Duration.ofSeconds(entrada.readLong());
+		int totalAtributos = entrada.readInt();
+		Map<String, byte[]> crudos = new HashMap<>(Math.max(16, totalAtributos * 2));
+		for (int i = 0; i < totalAtributos; i++){
+			String nombre = entrada.readUTF();
+			byte[] valor = new byte[entrada.readInt()];
+			entrada.readFully(valor);
+			if (valor.length > 0 && valor[0] != TIPO_SERIALIZADO_ANTIGUO){
+				crudos.put(nombre, valor);
+			}
+		}
+		return new SesionCompartida(id, creacion, ultimoAcceso, inactividadMaxima, crudos);
+	} catch (IOException e){
+		throw new UncheckedIOException("Sesión corrupta en el almacén", e);
+	}
+}
+
+static byte[] codificarValor(Object valor) {
+	if (valor instanceof String texto){
+		byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+		return ByteBuffer.allocate(1 + utf8.length).put(TIPO_TEXTO).put(utf8).array();
+	}
+	if (valor instanceof Integer entero){
+		return ByteBuffer.allocate(5).put(TIPO_ENTERO).putInt(entero).array();
+	}
+	if (valor instanceof Long largo){
+		return ByteBuffer.allocate(9).put(TIPO_LARGO).putLong(largo).array();
+	}
+	if (valor instanceof Boolean booleano){
+		return new byte[] { TIPO_BOOLEANO, (byte) (booleano ? 1 : 0) };
+	}
+	if (valor instanceof List<?> lista){
+		return escribir(TIPO_LISTA, salida -> {
+			salida.writeInt(lista.size());
+			for (Object elemento : lista){
+				escribirValor(salida, elemento);
+			}
+		});
+	}
+	if (valor instanceof FlashMap flash){
+		return escribir(TIPO_FLASH, salida -> {
+			salida.writeBoolean(flash.getTargetRequestPath() != null);
+			if (flash.getTargetRequestPath() != null){
+				salida.writeUTF(flash.getTargetRequestPath());
+			}
+			salida.writeLong(flash.getExpirationTime());
+			salida.writeInt(flash.getTargetRequestParams().size());
+			for (Map.Entry<String, List<String>> parametro : flash.getTargetRequestParams().entrySet()){
+				salida.writeUTF(parametro.getKey());
+				escribirValor(salida, parametro.getValue());
+			}
+			salida.writeInt(flash.size());
+			for (Map.Entry<String, Object> atributo : flash.entrySet()){
+				salida.writeUTF(atributo.getKey());
+				escribirValor(salida, atributo.getValue());
+			}
+		});
+	}
+	throw new IllegalArgumentException("Tipo de atributo de sesión no admitido: "
+			+ (valor == null ? "null" : valor.getClass().getName()));
+}
+
+static Object decodificarValor(byte[] datos) {
+	ByteBuffer buffer = ByteBuffer.wrap(datos);
+	byte tipo = buffer.get();
+	switch (tipo){
+		case TIPO_TEXTO:
+			return new String(datos, 1, datos.length - 1, StandardCharsets.UTF_8);
+		case TIPO_ENTERO:
+			return buffer.getInt();
+		case TIPO_LARGO:
+			return buffer.getLong();
+		case TIPO_BOOLEANO:
+			return buffer.get() == 1;
+		case TIPO_LISTA:
+		case TIPO_FLASH:
+			try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos, 1, datos.length - 1))){
+				return tipo == TIPO_LISTA ? leerLista(entrada) : leerFlash(entrada);
+			} catch (IOException e){
+				throw new IllegalStateException("No se pudo leer un atributo de sesión", e);
+			}
+		default:
+			throw new IllegalStateException("Tipo de atributo de sesión desconocido: " + tipo);
+	}
+}
+
+private static List<Object> leerLista(DataInputStream entrada) throws IOException {
+	int tamanio = entrada.readInt();
+	List<Object> lista = new ArrayList<>(tamanio);
+	for (int i = 0; i < tamanio; i++){
+		lista.add(leerValor(entrada));
+	}
+	return lista;
+}
+
+@SuppressWarnings("unchecked")
+private static FlashMap leerFlash(DataInputStream entrada) throws IOException {
+	FlashMap flash = new FlashMap();
+	if (entrada.readBoolean()){
+		flash.setTargetRequestPath(entrada.readUTF());
+	}
+	flash.setExpirationTime(entrada.readLong());
+	int parametros = entrada.readInt();
+	for (int i = 0; i < parametros; i++){
+		String nombre = entrada.readUTF();
+		for (Object valor : (List<Object>) leerValor(entrada)){
+			flash.addTargetRequestParam(nombre, (String) valor);
+		}
+	}
+	int atributos = entrada.readInt();
+	for (int i = 0; i < atributos; i++){
+		String nombre = entrada.readUTF();
+		flash.put(nombre, leerValor(entrada));
+	}
+	return flash;
+}
+
+/**
+ * Un valor anidado (en una lista o un `FlashMap`): su longitud y sus bytes, igual que un atributo.
+ */
+private static void escribirValor(DataOutputStream salida, Object valor) throws IOException {
+	byte[] codificado = codificarValor(valor);
+	salida.writeInt(codificado.length);
+	salida.write(codificado);
+}
+
+private static Object leerValor(DataInputStream entrada) throws IOException {
+	byte[] codificado = new byte[entrada.readInt()];
+	entrada.readFully(codificado);
+	return decodificarValor(codificado);
+}
+
+private interface Escritura {
+
+	void escribir(DataOutputStream salida) throws IOException;
+}
+
+private static byte[] escribir(byte tipo, Escritura escritura) {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	bytes.write(tipo);
+	try (DataOutputStream salida = new DataOutputStream(bytes)){
+		escritura.escribir(salida);
+	} catch (IOException e){
+		throw new UncheckedIOException(e);
+	}
+	return bytes.toByteArray();
+}
+
+private static void escribirAtributo(DataOutputStream salida, String nombre, byte[] valor) throws IOException {
+	salida.writeUTF(nombre);
+	salida.writeInt(valor.length);
+	salida.write(valor);
+}
+}
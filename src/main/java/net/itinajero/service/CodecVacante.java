@@ -0,0 +1,130 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * ¿Qué es? Un codificador binario compacto para objetos `Vacante`. Convierte una vacante en un arreglo de bytes
+ * y viceversa.
+ * <p>
+ * ¿Cómo funciona? Escribe los atributos siempre en el mismo orden con `DataOutputStream`: los números en su
+ * forma binaria (4 u 8 bytes) y los textos como longitud + bytes UTF-8. Un valor `null` se marca con longitud
+ * `-1` (textos) o con un byte bandera (números).
+ * <p>
+ * ¿Por qué se usa? Para guardar vacantes en un almacén compartido entre nodos (caché L2) sin depender de la
+ * serialización estándar de Java, que es lenta, ocupa mucho y obligaría a `Vacante` a implementar
+ * `Serializable`.
+ */
+public final class CodecVacante {
+
+private static final int TEXTO_NULO = -1;
+
+private CodecVacante() {
+}
+
+/**
+ * Convierte una vacante en su representación binaria.
+ * @param vacante
+ * 		La vacante a codificar (no puede ser null).
+ * @return Los bytes que representan la vacante.
+ */
+public static byte[] codificar(Vacante vacante) {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+	try (DataOutputStream salida = new DataOutputStream(bytes)){
+		escribirEntero(salida, vacante.getId());
+		escribirTexto(salida, vacante.getNombre());
+		escribirTexto(salida, vacante.getCategoria());
+		escribirTexto(salida, vacante.getDescripcion());
+		salida.writeBoolean(vacante.getFecha() != null);
+		if (vacante.getFecha() != null){
+			salida.writeLong(vacante.getFecha().getTime());
+		}
+		salida.writeDouble(vacante.getSalario());
+		escribirEntero(salida, vacante.getDestacado());
+		escribirTexto(salida, vacante.getImagen());
+		escribirTexto(salida, vacante.getEstatus() == null ? null : vacante.getEstatus().name());
+		escribirTexto(salida, vacante.getDetalles());
+	} catch (IOException e){
+		// Un ByteArrayOutputStream nunca lanza IOException; se envuelve solo para cumplir con la firma.
+		throw new UncheckedIOException(e);
+	}
+	return bytes.toByteArray();
+}
+
+/**
+ * @return `true` si `vacante` existe y se codifica exactamente como `codificada`, es decir, si nadie la cambió
+ * desde que se codificó.
+ */
+public static boolean sinCambios(Vacante vacante, byte[] codificada) {
+	return vacante != null && codificada != null && Arrays.equals(codificar(vacante), codificada);
+}
+
+/**
+ * Reconstruye una vacante a partir de los bytes generados por {@link #codificar(Vacante)}.
+ * @param datos
+ * 		Los bytes de la vacante.
+ * @return Una nueva instancia de `Vacante` con los mismos valores.
+ */
+public static Vacante decodificar(byte[] datos) {
+	try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))){
+		Vacante vacante = new Vacante();
+		vacante.setId(leerEntero(entrada));
+		vacante.setNombre(leerTexto(entrada));
+		vacante.setCategoria(leerTexto(entrada));
+		vacante.setDescripcion(leerTexto(entrada));
+		if (entrada.readBoolean()){
+			vacante.setFecha(new Date(entrada.readLong()));
+		}
+		vacante.setSalario(entrada.readDouble());
+		vacante.setDestacado(leerEntero(entrada));
+		vacante.setImagen(leerTexto(entrada));
+		String estatus = leerTexto(entrada);
+		vacante.setEstatus(estatus == null ? null : Vacante.Estatus.valueOf(estatus));
+		vacante.setDetalles(leerTexto(entrada));
+		return vacante;
+	} catch (IOException e){
+		throw new UncheckedIOException("Bytes de vacante corruptos o incompletos", e);
+	}
+}
+
+private static void escribirEntero(DataOutputStream salida, Integer valor) throws IOException {
+	salida.writeBoolean(valor != null);
+	if (valor != null){
+		salida.writeInt(valor);
+	}
+}
+
+private static Integer leerEntero(DataInputStream entrada) throws IOException {
+	return entrada.readBoolean() ? entrada.readInt() : null;
+}
+
+private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+	if (texto == null){
+		salida.writeInt(TEXTO_NULO);
+		return;
+	}
+	// No se usa writeUTF() porque limita el texto a 64 KB y los "detalles" de TinyMCE pueden superarlo.
+	byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+	salida.writeInt(utf8.length);
+	salida.write(utf8);
+}
+
+private static String leerTexto(DataInputStream entrada) throws IOException {
+	int longitud = entrada.readInt();
+	if (longitud == TEXTO_NULO){
+		return null;
+	}
+	byte[] utf8 = new byte[longitud];
+	entrada.readFully(utf8);
+	return new String(utf8, StandardCharsets.UTF_8);
+}
+}
@@ -0,0 +1,22 @@
+package net.itinajero.service;
+
+/**
+ * Se lanza cuando la cola de escritura asíncrona de vacantes está llena y no admite más vacantes por ahora.
+ * <p>
+ * No es un error del usuario ni de la aplicación: es la forma de pedir al cliente que vuelva a intentarlo
+ * dentro de {@link #getSegundosReintento()} segundos (el controlador lo traduce en una respuesta 503 con la
+ * cabecera `Retry-After`).
+ */
+public class ColaEscrituraLlenaException extends RuntimeException {
+
+private final long segundosReintento;
+
+public ColaEscrituraLlenaException(int capacidad, long segundosReintento) {
+	super("La cola de escritura de vacantes está llena (" + capacidad + " pendientes)");
+	this.segundosReintento = segundosReintento;
+}
+
+public long getSegundosReintento() {
+	return segundosReintento;
+}
+}
@@ -0,0 +1,17 @@
+package net.itinajero.service;
+
+/**
+ * Cómo va una proyección de lectura, para `GET /proyecciones` y las métricas.
+ * @param nombre
+ * 		El de {@link Itf_ProyeccionVacantes#nombreProyeccion()}.
+ * @param aplicados
+ * 		La secuencia del último evento que ya aplicó.
+ * @param retraso
+ * 		Cuántos eventos del registro le faltan por aplicar.
+ * @param reconstrucciones
+ * 		Cuántas veces se reconstruyó desde cero.
+ * @param errores
+ * 		Cuántos eventos fallaron al aplicarse (se saltan; reconstruir la proyección la deja de nuevo completa).
+ */
+public record EstadoProyeccion(String nombre, long aplicados, long retraso, long reconstrucciones, long errores) {
+}
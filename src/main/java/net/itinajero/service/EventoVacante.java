@@ -0,0 +1,21 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+/**
+ * Un cambio del catálogo tal como queda anotado en el registro de eventos ({@link Itf_RegistroEventosVacantes}).
+ * @param secuencia
+ * 		Su posición en el registro: 1 para el primer evento, y cada uno, uno más que el anterior.
+ * @param tipo
+ * 		Si la vacante se guardó o se quitó del catálogo.
+ * @param anterior
+ * 		En un evento GUARDADA, la versión que reemplazó, o `null` si era nueva. En uno ELIMINADA, siempre `null`.
+ * @param vacante
+ * 		La versión guardada o, en un evento ELIMINADA, la última versión que había.
+ */
+public record EventoVacante(long secuencia, Tipo tipo, Vacante anterior, Vacante vacante) {
+
+public enum Tipo {
+	GUARDADA, ELIMINADA
+}
+}
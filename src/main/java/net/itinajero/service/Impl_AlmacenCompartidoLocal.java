@@ -0,0 +1,131 @@
+package net.itinajero.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * ¿Qué es? Una implementación "embebida" del almacén compartido que vive dentro de la misma JVM. Sustituye a un
+ * servidor Redis en desarrollo y en pruebas.
+ * <p>
+ * ¿Cómo funciona? Los datos se guardan en un `ConcurrentHashMap` y los suscriptores de cada canal en una
+ * `CopyOnWriteArrayList` (se leen en cada publicación y casi nunca cambian). `publicar()` entrega el mensaje de
+ * forma síncrona a todos los oyentes del canal. Una clave con caducidad guarda el instante en que caduca: al
+ * leerla ya caducada se da por inexistente, y cada cierto número de escrituras con caducidad se barren las
+ * caducadas para que no se acumulen.
+ * <p>
+ * ¿Por qué se implementa así? Varias instancias de {@link Impl_VacanteServiceCache} pueden compartir este mismo
+ * objeto para simular varios nodos detrás de un mismo Redis, lo que permite probar la invalidación entre nodos
+ * sin infraestructura externa.
+ */
+@Component
+public class Impl_AlmacenCompartidoLocal implements Itf_AlmacenCompartido {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_AlmacenCompartidoLocal.class);
+
+/**
+ * Cada cuántas escrituras con caducidad se barren las claves caducadas.
+ */
+private static final int BARRER_CADA = 1024;
+private static final long SIN_CADUCIDAD = Long.MAX_VALUE;
+
+/**
+ * Un valor y el instante (según `reloj`) en que caduca, o {@link #SIN_CADUCIDAD}.
+ */
+private record Entrada(byte[] valor, long caduca) {
+}
+
+private final Map<String, Entrada> datos = new ConcurrentHashMap<>();
+private final Map<String, Long> contadores = new ConcurrentHashMap<>();
+private final Map<String, List<Consumer<String>>> suscriptores = new ConcurrentHashMap<>();
+private final AtomicInteger escriturasConCaducidad = new AtomicInteger();
+private final LongSupplier reloj;
+
+@Autowired
+public Impl_AlmacenCompartidoLocal() {
+	this(System::nanoTime);
+}
+
+/**
+ * Para las pruebas: permite adelantar el reloj (en nanosegundos) sin esperar.
+ */
+Impl_AlmacenCompartidoLocal(LongSupplier reloj) {
+	this.reloj = reloj;
+}
+
+@Override
+public byte[] obtener(String clave) {
+	Entrada entrada = datos.get(clave);
+	return entrada == null || caducada(entrada, reloj.getAsLong()) ? null : entrada.valor();
+}
+
+@Override
+public void guardar(String clave, byte[] valor) {
+	datos.put(clave, new Entrada(valor, SIN_CADUCIDAD));
+}
+
+@Override
+public void guardar(String clave, byte[] valor, Duration caducidad) {
+	datos.put(clave, new Entrada(valor, reloj.getAsLong() + caducidad.toNanos()));
+	barrerSiToca();
+}
+
+@Override
+public boolean guardarSiNoExiste(String clave, byte[] valor, Duration caducidad) {
+	long ahora = reloj.getAsLong();
+	Entrada nueva = new Entrada(valor, ahora + caducidad.toNanos());
+	// compute() es atómico por clave: dos hilos no pueden ver a la vez la clave libre.
+	boolean guardada = datos.compute(clave,
+			(c, actual) -> actual == null || caducada(actual, ahora) ? nueva : actual) == nueva;
+	barrerSiToca();
+	return guardada;
+}
+
+@Override
+public void eliminar(String clave) {
+	datos.remove(clave);
+}
+
+@Override
+public long incrementar(String clave, long cantidad) {
+	return contadores.merge(clave, cantidad, Long::sum);
+}
+
+@Override
+public void publicar(String canal, String mensaje) {
+	for (Consumer<String> oyente : suscriptores.getOrDefault(canal, List.of())){
+		try{
+			oyente.accept(mensaje);
+		} catch (RuntimeException e){
+			// Un oyente defectuoso no debe impedir que el resto de nodos reciba el mensaje.
+			log.error("Error entregando el mensaje '{}' del canal '{}': ", mensaje, canal, e);
+		}
+	}
+}
+
+@Override
+public void suscribir(String canal, Consumer<String> oyente) {
+	suscriptores.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(oyente);
+}
+
+private static boolean caducada(Entrada entrada, long ahora) {
+	return entrada.caduca() != SIN_CADUCIDAD && ahora - entrada.caduca() >= 0;
+}
+
+private void barrerSiToca() {
+	if (escriturasConCaducidad.incrementAndGet() % BARRER_CADA == 0){
+		long ahora = reloj.getAsLong();
+		datos.values().removeIf(entrada -> caducada(entrada, ahora));
+	}
+}
+}
@@ -0,0 +1,196 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ============ ARCHIVO FRÍO DE VACANTES (UN ARCHIVO SOLO DE AÑADIR) ============
+ * <p>
+ * ¿Qué es esta clase? Guarda en disco las vacantes que salen del catálogo para que `/vacantes/view-path/{id}` las
+ * siga encontrando, sin que ocupen memoria ni aparezcan en listados, búsquedas o estadísticas.
+ * <p>
+ * ¿Cómo funciona? - Cada vacante archivada se añade al final del archivo como un registro `[id][longitud][bytes de
+ * CodecVacante]`. - En memoria solo se guarda un mapa id -> posición del último registro de esa vacante. - Leer
+ * una vacante es UNA lectura posicional del archivo. - Al arrancar, el mapa se reconstruye recorriendo las
+ * cabeceras de los registros; si el último quedó a medias (la aplicación se cayó escribiéndolo), se corta.
+ * <p>
+ * ¿Por qué se implementa así? Las vacantes archivadas casi nunca se consultan, pero no deben perderse: añadir al
+ * final y forzar el disco una vez por lote es la escritura más barata que lo garantiza, y el índice cuesta unos
+ * pocos bytes por vacante. No se reescribe ni se compacta nada: una versión nueva de la misma vacante solo deja
+ * la anterior como bytes sin usar.
+ * <p>
+ * El archivo se crea con el primer lote archivado (`empleos.archivo.ruta`).
+ */
+@Service
+public class Impl_ArchivoVacantes implements Itf_ArchivoVacantes, Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_ArchivoVacantes.class);
+
+/**
+ * Bytes de la cabecera de cada registro: el id y la longitud de la vacante codificada.
+ */
+private static final int TAMANIO_CABECERA = 8;
+
+private final Path ruta;
+private final Map<Integer, Long> posiciones = new ConcurrentHashMap<>();
+
+/**
+ * Abierto al arrancar si el archivo ya existía, o con el primer `archivar()`. Las lecturas posicionales no
+ * necesitan cerrojo; las escrituras se ordenan con el `synchronized` de `archivar()`.
+ */
+private volatile FileChannel canal;
+private volatile long tamanio;
+
+public Impl_ArchivoVacantes(@Value("${empleos.archivo.ruta:./datos/vacantes-archivadas}") String ruta) {
+	this.ruta = Path.of(ruta);
+	if (Files.exists(this.ruta)){
+		try{
+			canal = abrir();
+			reconstruirIndice();
+		} catch (IOException e){
+			throw new UncheckedIOException("No se pudo abrir el archivo de vacantes " + ruta, e);
+		}
+		log.info("-> Archivo de vacantes abierto en {}: {} vacantes.", ruta, posiciones.size());
+	}
+}
+
+@Override
+public synchronized void archivar(List<Vacante> vacantes) {
+	if (vacantes.isEmpty()){
+		return;
+	}
+	List<byte[]> codificadas = new ArrayList<>(vacantes.size());
+	int bytes = 0;
+	for (Vacante vacante : vacantes){
+		byte[] datos = CodecVacante.codificar(vacante);
+		codificadas.add(datos);
+		bytes += TAMANIO_CABECERA + datos.length;
+	}
+	ByteBuffer lote = ByteBuffer.allocate(bytes);
+	for (int i = 0; i < vacantes.size(); i++){
+		lote.putInt(vacantes.get(i).getId()).putInt(codificadas.get(i).length).put(codificadas.get(i));
+	}
+	lote.flip();
+	try{
+		if (canal == null){
+			if (ruta.getParent() != null){
+				Files.createDirectories(ruta.getParent());
+			}
+			canal = abrir();
+		}
+		long inicio = tamanio;
+		while (lote.hasRemaining()){
+			tamanio += canal.write(lote, tamanio);
+		}
+		canal.force(false);
+		// El índice se actualiza después de forzar el disco: nadie lee un registro que aún podría perderse.
+		long posicion = inicio;
+		for (int i = 0; i < vacantes.size(); i++){
+			posiciones.put(vacantes.get(i).getId(), posicion);
+			posicion += TAMANIO_CABECERA + codificadas.get(i).length;
+		}
+	} catch (IOException e){
+		throw new UncheckedIOException("No se pudieron archivar " + vacantes.size() + " vacantes en " + ruta, e);
+	}
+}
+
+@Override
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	Long posicion = idVacante == null ? null : posiciones.get(idVacante);
+	if (posicion == null){
+		return Optional.empty();
+	}
+	try{
+		ByteBuffer cabecera = leer(posicion, TAMANIO_CABECERA);
+		cabecera.getInt();
+		ByteBuffer datos = leer(posicion + TAMANIO_CABECERA, cabecera.getInt());
+		return Optional.of(CodecVacante.decodificar(datos.array()));
+	} catch (IOException e){
+		throw new UncheckedIOException("No se pudo leer la vacante archivada " + idVacante, e);
+	}
+}
+
+@Override
+public int tamanio() {
+	return posiciones.size();
+}
+
+@Override
+public String nombreMetricas() {
+	return "archivo";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	return Map.of("vacantes", posiciones.size(), "bytes", tamanio);
+}
+
+@PreDestroy
+public synchronized void cerrar() {
+	if (canal != null){
+		try{
+			canal.close();
+		} catch (IOException e){
+			log.error("Error al cerrar el archivo de vacantes", e);
+		}
+	}
+}
+
+private FileChannel abrir() throws IOException {
+	return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+}
+
+private void reconstruirIndice() throws IOException {
+	long total = canal.size();
+	long posicion = 0;
+	ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+	while (posicion + TAMANIO_CABECERA <= total){
+		cabecera.clear();
+		while (cabecera.hasRemaining()){
+			canal.read(cabecera, posicion + cabecera.position());
+		}
+		cabecera.flip();
+		int id = cabecera.getInt();
+		long siguiente = posicion + TAMANIO_CABECERA + cabecera.getInt();
+		if (siguiente > total){
+			break;
+		}
+		posiciones.put(id, posicion);
+		posicion = siguiente;
+	}
+	if (posicion < total){
+		log.warn("El archivo de vacantes {} terminaba en un registro incompleto; se descartan {} bytes.", ruta,
+				total - posicion);
+		canal.truncate(posicion);
+	}
+	tamanio = posicion;
+}
+
+private ByteBuffer leer(long posicion, int bytes) throws IOException {
+	ByteBuffer destino = ByteBuffer.allocate(bytes);
+	while (destino.hasRemaining()){
+		if (canal.read(destino, posicion + destino.position()) < 0){
+			throw new IOException("Registro incompleto en la posición " + posicion);
+		}
+	}
+	destino.flip();
+	return destino;
+}
+}
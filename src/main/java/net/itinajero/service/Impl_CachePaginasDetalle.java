@@ -0,0 +1,114 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ============ CACHÉ DEL HTML DE LAS PÁGINAS DE DETALLE ============
+ * <p>
+ * ¿Qué es esta clase? Guarda el HTML ya renderizado de `/vacantes/view-path/{id}` y `/vacantes/view-request`
+ * para responder sin volver a buscar la vacante ni a procesar la plantilla (lo usa `FiltroCacheDetalle`).
+ * <p>
+ * ¿Cómo funciona? - Las páginas se guardan en una {@link CacheTinyLFU} acotada: las vacantes que se consultan
+ * a menudo se quedan, y un recorrido de un robot por todas las vacantes no las expulsa. - Como
+ * {@link Itf_VacanteObservador}, cada vez que se guarda una vacante se borran SOLO sus páginas (las de las dos
+ * rutas y todos los idiomas); las del resto siguen sirviéndose desde la caché. Como los idiomas ya llegan
+ * reducidos a los admitidos, esas páginas son pocas y se conocen sus claves: se quitan una a una, sin recorrer
+ * la caché con el cerrojo tomado. - Un contador de versiones evita
+ * guardar una página renderizada con los datos de antes de un cambio que llegó mientras se renderizaba.
+ * <p>
+ * ¿Por qué se implementa así? Los buscadores dedican la mayor parte de su tráfico a estas páginas, y sus datos
+ * solo cambian cuando alguien edita la vacante. Servir bytes ya preparados cuesta mucho menos que Spring MVC más
+ * Thymeleaf en cada visita.
+ */
+@Service
+public class Impl_CachePaginasDetalle implements Itf_CachePaginasDetalle, Itf_VacanteObservador, Itf_FuenteMetricas {
+
+private final CacheTinyLFU<Clave, byte[]> paginas;
+
+/**
+ * Solo se modifica con el cerrojo de `paginas`, igual que la comprobación de `guardar()`.
+ */
+private volatile long version;
+
+/**
+ * Las combinaciones de ruta e idioma de las páginas guardadas (como mucho 2 rutas × los idiomas admitidos). Con
+ * el cerrojo de `paginas`.
+ */
+private final Set<Variante> variantes = new HashSet<>();
+
+private record Variante(String ruta, Locale idioma) {
+}
+
+public Impl_CachePaginasDetalle(@Value("${empleos.cache.detalle.capacidad:2000}") int capacidad) {
+	this.paginas = new CacheTinyLFU<>(capacidad);
+}
+
+@Override
+public byte[] obtener(Clave clave) {
+	return paginas.obtener(clave);
+}
+
+@Override
+public long version() {
+	return version;
+}
+
+@Override
+public void guardar(Clave clave, byte[] html, long versionLeida) {
+	synchronized (paginas){
+		if (version == versionLeida){
+			paginas.poner(clave, html);
+			variantes.add(new Variante(clave.ruta(), clave.idioma()));
+		}
+	}
+}
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	invalidar(nueva.getId());
+}
+
+/**
+ * La página de una vacante archivada se vuelve a renderizar desde el archivo la próxima vez que se pida.
+ */
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	invalidar(eliminada.getId());
+}
+
+private void invalidar(int id) {
+	synchronized (paginas){
+		version++;
+		for (Variante variante : variantes){
+			paginas.invalidar(new Clave(variante.ruta(), id, variante.idioma()));
+		}
+	}
+}
+
+@Override
+public String nombreMetricas() {
+	return "cacheDetalle";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	long aciertos = paginas.getAciertos();
+	long total = aciertos + paginas.getFallos();
+	Map<String, Number> metricas = new LinkedHashMap<>();
+	metricas.put("aciertos", aciertos);
+	metricas.put("fallos", paginas.getFallos());
+	metricas.put("tasaAciertos", total == 0 ? 0.0 : (double) aciertos / total);
+	metricas.put("paginas", paginas.tamanio());
+	metricas.put("admitidas", paginas.getAdmitidas());
+	metricas.put("rechazadas", paginas.getRechazadas());
+	return metricas;
+}
+}
@@ -0,0 +1,228 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * ============ CADUCIDAD PROGRAMADA: DEL CATÁLOGO AL ARCHIVO ============
+ * <p>
+ * ¿Qué es esta clase? Una tarea periódica que saca del catálogo las vacantes caducadas (publicadas hace más de
+ * `edad-maxima`) y las cerradas (estatus ELIMINADA desde hace más de `gracia`), y las pasa a
+ * {@link Itf_ArchivoVacantes}.
+ * <p>
+ * ¿Cómo funciona? - Como {@link Itf_VacanteObservador}, calcula al guardar cada vacante CUÁNDO vence y la anota
+ * en un {@link IndiceOrdenado} por ese instante. - En cada ejecución pide al índice las vacantes con vencimiento
+ * anterior a "ahora", de `lote` en `lote`: primero las archiva (con el disco ya forzado) y después las elimina
+ * del catálogo con un solo `eliminarTodasSi()`, que avisa a cachés, índices y estadísticas. - El borrado vuelve
+ * a comprobar el vencimiento dentro del cerrojo del almacén: si alguien alargó el plazo después de leerla, la
+ * vacante se queda (y su copia en el archivo la reemplaza la próxima vez que venza). - Toda vacante del lote que
+ * no se eliminó se quita del índice si su vencimiento anotado sigue siendo el viejo, así cada vuelta avanza
+ * aunque `buscarPorId()` encuentre en una caché algo que el almacén ya no tiene. - Si la aplicación se cae entre
+ * archivar y eliminar, la vacante queda en los dos sitios y la siguiente ejecución la vuelve a archivar: nunca se
+ * pierde.
+ * <p>
+ * ¿Por qué se implementa así? Revisar `buscarTodas()` en cada ejecución cuesta lo mismo haya o no vacantes
+ * vencidas, y crece con el catálogo. Con el índice por vencimiento, una ejecución sin nada que archivar es una
+ * sola consulta vacía, y una con `k` vencidas toca solo esas `k`. Sacarlas del catálogo mantiene pequeños los
+ * listados, las facetas y los índices que se recorren en cada petición.
+ * <p>
+ * Se activa con `empleos.caducidad.activa=true`. El momento en que una vacante se cerró no se guarda en la
+ * vacante: se toma el momento en que este servicio la ve cerrada (al guardarla o al arrancar la aplicación).
+ */
+@Service
+@EnableScheduling
+@ConditionalOnProperty(name = "empleos.caducidad.activa", havingValue = "true")
+public class Impl_CaducidadVacantes implements Itf_VacanteObservador, Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_CaducidadVacantes.class);
+
+private final Supplier<Itf_VacanteService> serviceVacantes;
+private final Itf_ArchivoVacantes archivo;
+private final long edadMaximaMs;
+private final long graciaMs;
+private final int tamanioLote;
+private final LongSupplier reloj;
+
+private final IndiceOrdenado<Long> porVencimiento = new IndiceOrdenado<>();
+/**
+ * El vencimiento con el que está anotada cada vacante en el índice, para poder quitarla al editarla.
+ */
+private final Map<Integer, Long> vencimientos = new ConcurrentHashMap<>();
+
+private final AtomicLong archivadas = new AtomicLong();
+private final AtomicLong ejecuciones = new AtomicLong();
+private volatile long ultimaDuracionMs;
+
+/**
+ * El servicio de vacantes se pide a través de un `ObjectProvider` por la misma razón que en
+ * {@link Impl_TrabajosLoteService}: este bean es observador del almacén.
+ */
+@Autowired
+public Impl_CaducidadVacantes(ObjectProvider<Itf_VacanteService> serviceVacantes, Itf_ArchivoVacantes archivo,
+		@Value("${empleos.caducidad.edad-maxima:90d}") Duration edadMaxima,
+		@Value("${empleos.caducidad.gracia:7d}") Duration gracia,
+		@Value("${empleos.caducidad.lote:500}") int tamanioLote) {
+	this(serviceVacantes::getObject, archivo, edadMaxima, gracia, tamanioLote, System::currentTimeMillis);
+}
+
+Impl_CaducidadVacantes(Supplier<Itf_VacanteService> serviceVacantes, Itf_ArchivoVacantes archivo,
+		Duration edadMaxima, Duration gracia, int tamanioLote, LongSupplier reloj) {
+	this.serviceVacantes = serviceVacantes;
+	this.archivo = archivo;
+	this.edadMaximaMs = edadMaxima.toMillis();
+	this.graciaMs = gracia.toMillis();
+	this.tamanioLote = Math.max(1, tamanioLote);
+	this.reloj = reloj;
+}
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	Long previo = quitar(nueva.getId());
+	long vence = nueva.getFecha() == null ? Long.MAX_VALUE : nueva.getFecha().getTime() + edadMaximaMs;
+	if (nueva.getEstatus() == Vacante.Estatus.ELIMINADA){
+		// Si ya estaba cerrada, conserva el plazo que se le dio al cerrarla; editarla no lo alarga.
+		boolean yaCerrada = previo != null && anterior != null && anterior.getEstatus() == Vacante.Estatus.ELIMINADA;
+		vence = Math.min(vence, yaCerrada ? previo : reloj.getAsLong() + graciaMs);
+	}
+	if (vence != Long.MAX_VALUE){
+		vencimientos.put(nueva.getId(), vence);
+		porVencimiento.agregar(vence, nueva.getId());
+	}
+}
+
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	quitar(eliminada.getId());
+}
+
+/**
+ * La ejecución periódica. `fixedDelay` cuenta el intervalo desde que termina la anterior, así que dos
+ * ejecuciones nunca se solapan.
+ */
+@Scheduled(initialDelayString = "${empleos.caducidad.retraso-inicial:1m}",
+		fixedDelayString = "${empleos.caducidad.intervalo:1h}")
+public void ejecutar() {
+	try{
+		int total = archivarVencidas();
+		if (total > 0){
+			log.info("Caducidad: {} vacantes archivadas en {} ms.", total, ultimaDuracionMs);
+		}
+	} catch (RuntimeException e){
+		// Las que no se archivaron siguen en el índice: se reintentan en la siguiente ejecución.
+		log.error("Falló la caducidad de vacantes", e);
+	}
+}
+
+/**
+ * Archiva y elimina del catálogo todas las vacantes vencidas ahora mismo.
+ * @return Cuántas se archivaron.
+ */
+int archivarVencidas() {
+	long inicio = System.nanoTime();
+	long ahora = reloj.getAsLong();
+	Itf_VacanteService vacantes = serviceVacantes.get();
+	int total = 0;
+	int[] ids;
+	do{
+		ids = porVencimiento.rango(null, true, ahora, true, false, tamanioLote);
+		List<Vacante> vencidas = new ArrayList<>(ids.length);
+		List<Integer> idsVencidas = new ArrayList<>(ids.length);
+		for (int id : ids){
+			Optional<Vacante> vacante = vacantes.buscarPorId(id);
+			if (vacante.isPresent()){
+				vencidas.add(vacante.get());
+				idsVencidas.add(id);
+			} else{
+				quitar(id); // Ya no está en el catálogo: no hay nada que archivar.
+			}
+		}
+		archivo.archivar(vencidas);
+		List<Vacante> eliminadas = vacantes.eliminarTodasSi(idsVencidas, vacante -> vencida(vacante.getId(), ahora));
+		archivarEditadas(vencidas, eliminadas);
+		olvidarNoEliminadas(idsVencidas, eliminadas, ahora);
+		total += eliminadas.size();
+	} while (ids.length == tamanioLote);
+
+	archivadas.addAndGet(total);
+	ejecuciones.incrementAndGet();
+	ultimaDuracionMs = (System.nanoTime() - inicio) / 1_000_000;
+	return total;
+}
+
+/**
+ * Si alguien editó una vacante entre la lectura y el `eliminarTodas()`, lo eliminado es más nuevo que lo
+ * archivado: se archiva otra vez la versión eliminada, que reemplaza a la anterior en el archivo.
+ */
+private void archivarEditadas(List<Vacante> leidas, List<Vacante> eliminadas) {
+	Map<Integer, byte[]> leidasPorId = new HashMap<>();
+	leidas.forEach(vacante -> leidasPorId.put(vacante.getId(), CodecVacante.codificar(vacante)));
+	List<Vacante> editadas = eliminadas.stream()
+			.filter(vacante -> !Arrays.equals(leidasPorId.get(vacante.getId()), CodecVacante.codificar(vacante)))
+			.toList();
+	archivo.archivar(editadas);
+}
+
+/**
+ * Se evalúa dentro del cerrojo del almacén, después de cualquier `alGuardarVacante()` que haya cambiado el plazo.
+ */
+private boolean vencida(Integer idVacante, long ahora) {
+	Long vence = vencimientos.get(idVacante);
+	return vence != null && vence <= ahora;
+}
+
+/**
+ * Las del lote que el almacén no eliminó: o no las tenía (solo seguían en una caché), o se les alargó el plazo.
+ * En el segundo caso `alGuardarVacante()` ya las anotó con su vencimiento nuevo y no se tocan; en el primero se
+ * quitan del índice, que si no las devolvería una y otra vez.
+ */
+private void olvidarNoEliminadas(List<Integer> idsVencidas, List<Vacante> eliminadas, long ahora) {
+	Set<Integer> idsEliminadas = new HashSet<>();
+	eliminadas.forEach(vacante -> idsEliminadas.add(vacante.getId()));
+	for (Integer id : idsVencidas){
+		if (!idsEliminadas.contains(id) && vencida(id, ahora)){
+			quitar(id);
+		}
+	}
+}
+
+private Long quitar(Integer idVacante) {
+	Long previo = vencimientos.remove(idVacante);
+	if (previo != null){
+		porVencimiento.quitar(previo, idVacante);
+	}
+	return previo;
+}
+
+@Override
+public String nombreMetricas() {
+	return "caducidad";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	return Map.of("pendientes", vencimientos.size(), "archivadas", archivadas.get(), "ejecuciones",
+			ejecuciones.get(), "ultimaDuracionMs", ultimaDuracionMs);
+}
+}
@@ -0,0 +1,178 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Categoria;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============ SERVICIO DE CATEGORÍAS CON CONTEO DE VACANTES ============
+ * <p>
+ * ¿Qué es esta clase? La implementación en memoria de {@link Itf_CategoriaService}. Igual que
+ * `Impl_VacanteService`, arranca con unos datos de ejemplo (las mismas categorías que ofrecía el formulario de
+ * vacantes).
+ * <p>
+ * ¿Cómo funciona? - Las categorías se guardan en un `ConcurrentHashMap` por id. - Además es un
+ * {@link Itf_VacanteObservador}: cada vez que se guarda una vacante suma 1 a su categoría y, si la vacante ya
+ * existía en otra categoría, resta 1 a la anterior. - La lista ordenada de categorías se guarda ya calculada y
+ * solo se rehace cuando se guarda una categoría.
+ * <p>
+ * ¿Por qué se implementa así? La página `/categorias/index` muestra cuántas vacantes tiene cada categoría. Con
+ * los contadores al día, pintarla cuesta lo mismo tenga la aplicación 10 o 100.000 vacantes: solo depende del
+ * número de categorías.
+ * <p>
+ * Cada nombre de categoría acaba en el diccionario de categorías de `Vacante`, que nunca olvida un texto. Por
+ * eso `guardar()` rechaza nombres vacíos, repetidos (sin distinguir mayúsculas) y más de
+ * {@link #MAXIMO_CATEGORIAS} categorías: lo que llega del formulario no puede llenar el diccionario.
+ */
+@Service
+public class Impl_CategoriaService implements Itf_CategoriaService, Itf_ProyeccionVacantes {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_CategoriaService.class);
+
+/**
+ * Muy por debajo del máximo del diccionario de categorías de `Vacante` (4096), que también recibe los nombres de
+ * las categorías que ya no existen.
+ */
+static final int MAXIMO_CATEGORIAS = 1000;
+
+private final Map<Integer, Categoria> categorias = new ConcurrentHashMap<>();
+
+/**
+ * Número de vacantes por nombre de categoría. Incluye también nombres que (todavía) no son una categoría
+ * registrada, para no perder la cuenta si la categoría se crea después.
+ */
+private volatile Map<String, AtomicInteger> vacantesPorCategoria = new ConcurrentHashMap<>();
+
+/**
+ * La categoría con la que se contó cada vacante. Al editarla o quitarla se resta de esta, no de la de `anterior`:
+ * si alguien editó el mismo objeto guardado y lo volvió a guardar, `anterior` ya trae la categoría nueva.
+ */
+private volatile Map<Integer, String> categoriaPorVacante = new ConcurrentHashMap<>();
+
+private volatile List<Categoria> categoriasOrdenadas = List.of();
+
+public Impl_CategoriaService() {
+	this(true);
+	log.info("-> Constructor de Impl_CategoriaService: {} categorías de ejemplo creadas.", categorias.size());
+}
+
+/**
+ * @param conEjemplos
+ * 		`false` para la copia de `crearVacia()`: de ella solo se usan los conteos.
+ */
+private Impl_CategoriaService(boolean conEjemplos) {
+	if (conEjemplos){
+		guardar(new Categoria(1, "Ventas", "Ofertas de trabajo relacionadas con ventas"));
+		guardar(new Categoria(2, "Contabilidad", "Ofertas de trabajo relacionadas con contabilidad"));
+		guardar(new Categoria(3, "Transporte", "Ofertas de trabajo relacionadas con transporte"));
+		guardar(new Categoria(4, "Informática", "Ofertas de trabajo relacionadas con informática"));
+		guardar(new Categoria(5, "Construcción", "Ofertas de trabajo relacionadas con construcción"));
+	}
+}
+
+@Override
+public List<Categoria> buscarTodas() {
+	return categoriasOrdenadas;
+}
+
+@Override
+public Categoria buscarPorId(Integer idCategoria) {
+	return categorias.get(idCategoria);
+}
+
+@Override
+public synchronized void guardar(Categoria categoria) {
+	String nombre = categoria.getNombre() == null ? "" : categoria.getNombre().trim();
+	if (nombre.isEmpty()){
+		throw new CategoriaInvalidaException("El nombre de la categoría no puede estar vacío.");
+	}
+	for (Categoria existente : categorias.values()){
+		if (existente.getNombre().equalsIgnoreCase(nombre) && !existente.getId().equals(categoria.getId())){
+			throw new CategoriaInvalidaException("Ya existe la categoría \"" + existente.getNombre() + "\".");
+		}
+	}
+	boolean nueva = categoria.getId() == null || !categorias.containsKey(categoria.getId());
+	if (nueva && categorias.size() >= MAXIMO_CATEGORIAS){
+		throw new CategoriaInvalidaException("No se admiten más de " + MAXIMO_CATEGORIAS + " categorías.");
+	}
+	categoria.setNombre(nombre);
+	if (categoria.getId() == null){
+		categoria.setId(categorias.keySet().stream().max(Integer::compare).orElse(0) + 1);
+	}
+	categorias.put(categoria.getId(), categoria);
+	categoriasOrdenadas = categorias.values()
+			.stream()
+			.sorted(Comparator.comparing(Categoria::getNombre, String.CASE_INSENSITIVE_ORDER))
+			.toList();
+	log.info("Categoría guardada: {}", categoria);
+}
+
+@Override
+public Map<String, Integer> contarVacantesPorCategoria() {
+	Map<String, Integer> conteos = new LinkedHashMap<>();
+	for (Categoria categoria : categoriasOrdenadas){
+		AtomicInteger contador = vacantesPorCategoria.get(categoria.getNombre());
+		conteos.put(categoria.getNombre(), contador == null ? 0 : contador.get());
+	}
+	return conteos;
+}
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	restar(nueva.getCategoria() == null ? categoriaPorVacante.remove(nueva.getId())
+			: categoriaPorVacante.put(nueva.getId(), nueva.getCategoria()));
+	if (nueva.getCategoria() != null){
+		// compute() y no computeIfAbsent(): así no puede sumar en un contador que restar() acaba de quitar.
+		vacantesPorCategoria.compute(nueva.getCategoria(), (categoria, contador) -> {
+			AtomicInteger actual = contador == null ? new AtomicInteger() : contador;
+			actual.incrementAndGet();
+			return actual;
+		});
+	}
+}
+
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	restar(categoriaPorVacante.remove(eliminada.getId()));
+}
+
+/**
+ * Resta solo si la categoría ya tiene cuenta: una categoría desconocida (o ya renombrada) no debe quedar en
+ * negativo. Al llegar a 0 se quita la entrada; `computeIfPresent()` hace las dos cosas de forma atómica.
+ */
+private void restar(String categoriaAnterior) {
+	if (categoriaAnterior != null){
+		vacantesPorCategoria.computeIfPresent(categoriaAnterior,
+				(categoria, contador) -> contador.decrementAndGet() <= 0 ? null : contador);
+	}
+}
+
+@Override
+public String nombreProyeccion() {
+	return "categorias";
+}
+
+@Override
+public Itf_ProyeccionVacantes crearVacia() {
+	return new Impl_CategoriaService(false);
+}
+
+/**
+ * Las categorías registradas no cambian: solo se sustituyen los conteos.
+ */
+@Override
+public void adoptar(Itf_ProyeccionVacantes reconstruida) {
+	Impl_CategoriaService copia = (Impl_CategoriaService) reconstruida;
+	categoriaPorVacante = copia.categoriaPorVacante;
+	vacantesPorCategoria = copia.vacantesPorCategoria;
+}
+}
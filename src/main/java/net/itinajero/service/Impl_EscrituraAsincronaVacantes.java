@@ -0,0 +1,215 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============ ESCRITURA ASÍNCRONA DE VACANTES CON COLA Y LOTES ============
+ * <p>
+ * ¿Qué es esta clase? Una forma de guardar vacantes en la que la petición web no espera a que la vacante quede
+ * guardada: solo la deja en una cola y vuelve con su id.
+ * <p>
+ * ¿Cómo funciona? - `guardar()` reserva el id (si la vacante no trae uno) y mete la vacante en una cola de
+ * tamaño fijo. - Un único hilo "escritor" saca de la cola todo lo que haya (hasta un máximo por lote) y lo guarda
+ * de una vez con `guardarTodas()`: almacén, índices y demás observadores. - Si la cola está llena, `guardar()` no
+ * espera: lanza {@link ColaEscrituraLlenaException} y el cliente recibe un 503 con `Retry-After`.
+ * <p>
+ * ¿Por qué se implementa así? - Las escrituras ya no ocupan los hilos de las peticiones mientras esperan el
+ * cerrojo del almacén: como mucho hay UN hilo escribiendo, así que una ráfaga de escrituras no deja sin hilos ni
+ * sin CPU a las lecturas. - Guardar por lotes reparte el coste fijo de cada escritura (cerrojo, invalidar la
+ * caché) entre varias vacantes. - La cola acotada pone un límite claro a la memoria y al retraso: si se llena,
+ * se avisa al cliente en lugar de acumular trabajo sin fin.
+ * <p>
+ * Si un lote falla, se reintenta vacante por vacante: un lote no se pierde entero por una vacante defectuosa. Las
+ * que vuelven a fallar pasan a una lista de "fallidas" (métrica `fallidas`, `getFallidas()`) y se registran con
+ * sus datos; al usuario ya se le dijo que estaban guardadas, así que nunca se descartan en silencio.
+ * <p>
+ * Se activa con `empleos.vacantes.escritura=asincrona`. Una vacante encolada aún no aparece en el listado hasta
+ * que el escritor la guarda (normalmente, milisegundos después).
+ */
+@Service
+@ConditionalOnProperty(name = "empleos.vacantes.escritura", havingValue = "asincrona")
+public class Impl_EscrituraAsincronaVacantes implements Itf_EscrituraVacantesService, Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_EscrituraAsincronaVacantes.class);
+
+private final Itf_VacanteService serviceVacantes;
+private final BlockingQueue<Vacante> cola;
+private final int capacidad;
+private final int tamanioLote;
+private final long segundosReintento;
+
+private final AtomicLong guardadas = new AtomicLong();
+private final AtomicLong rechazadas = new AtomicLong();
+private final AtomicLong lotes = new AtomicLong();
+private final AtomicLong fallidas = new AtomicLong();
+
+/**
+ * Una vacante que no se pudo guardar ni en su lote ni sola, con el motivo.
+ */
+public record EscrituraFallida(Vacante vacante, String error, Instant momento) {
+}
+
+/**
+ * Las últimas vacantes fallidas, como mucho `capacidad` (la misma que la cola). Todas se cuentan en `fallidas` y
+ * quedan en el registro de errores, también las que ya no caben aquí.
+ */
+private final Deque<EscrituraFallida> ultimasFallidas = new ConcurrentLinkedDeque<>();
+
+private volatile boolean activo = true;
+private final Thread escritor;
+
+public Impl_EscrituraAsincronaVacantes(Itf_VacanteService serviceVacantes,
+		@Value("${empleos.vacantes.escritura.capacidad-cola:1000}") int capacidad,
+		@Value("${empleos.vacantes.escritura.tamanio-lote:100}") int tamanioLote,
+		@Value("${empleos.vacantes.escritura.reintento:2s}") Duration reintento) {
+	this.serviceVacantes = serviceVacantes;
+	this.cola = new ArrayBlockingQueue<>(capacidad);
+	this.capacidad = capacidad;
+	this.tamanioLote = tamanioLote;
+	this.segundosReintento = Math.max(1, reintento.toSeconds());
+	this.escritor = new Thread(this::escribir, "escritor-vacantes");
+	this.escritor.setDaemon(true);
+	this.escritor.start();
+}
+
+@Override
+public int guardar(Vacante vacante) {
+	if (!activo){
+		throw new ColaEscrituraLlenaException(capacidad, segundosReintento);
+	}
+	if (vacante.getId() == null){
+		vacante.setId(serviceVacantes.reservarId());
+	}
+	if (!cola.offer(vacante)){
+		rechazadas.incrementAndGet();
+		throw new ColaEscrituraLlenaException(capacidad, segundosReintento);
+	}
+	return vacante.getId();
+}
+
+/**
+ * @return Cuántas vacantes esperan en la cola ahora mismo.
+ */
+public int getPendientes() {
+	return cola.size();
+}
+
+public long getGuardadas() {
+	return guardadas.get();
+}
+
+public long getRechazadas() {
+	return rechazadas.get();
+}
+
+public long getLotes() {
+	return lotes.get();
+}
+
+public long getFallidas() {
+	return fallidas.get();
+}
+
+/**
+ * @return Las últimas vacantes que no se pudieron guardar, de la más antigua a la más reciente.
+ */
+public List<EscrituraFallida> ultimasFallidas() {
+	return List.copyOf(ultimasFallidas);
+}
+
+@Override
+public String nombreMetricas() {
+	return "escrituraAsincrona";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	return Map.of("pendientes", getPendientes(), "guardadas", getGuardadas(), "rechazadas", getRechazadas(),
+			"lotes", getLotes(), "fallidas", getFallidas());
+}
+
+/**
+ * Deja de aceptar vacantes y espera a que el escritor guarde las que quedan en la cola.
+ */
+@PreDestroy
+public void detener() throws InterruptedException {
+	activo = false;
+	escritor.join(TimeUnit.SECONDS.toMillis(10));
+	if (!cola.isEmpty()){
+		log.warn("Se detuvo la escritura asíncrona con {} vacantes sin guardar.", cola.size());
+	}
+}
+
+/**
+ * Bucle del hilo escritor. Sigue mientras la aplicación esté activa o queden vacantes en la cola.
+ */
+private void escribir() {
+	List<Vacante> lote = new ArrayList<>(tamanioLote);
+	while (activo || !cola.isEmpty()){
+		try{
+			Vacante primera = cola.poll(200, TimeUnit.MILLISECONDS);
+			if (primera == null){
+				continue;
+			}
+			lote.add(primera);
+			cola.drainTo(lote, tamanioLote - 1);
+			guardarLote(lote);
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			return;
+		} finally{
+			lote.clear();
+		}
+	}
+}
+
+/**
+ * Guarda el lote de una vez y, si falla, una a una. Nunca lanza: el escritor debe seguir con el siguiente lote.
+ */
+private void guardarLote(List<Vacante> lote) {
+	try{
+		serviceVacantes.guardarTodas(lote);
+		guardadas.addAndGet(lote.size());
+		lotes.incrementAndGet();
+		log.debug("Lote de {} vacantes guardado ({} pendientes).", lote.size(), cola.size());
+		return;
+	} catch (RuntimeException e){
+		log.warn("Falló el lote de {} vacantes; se reintenta una a una: {}", lote.size(), e.getMessage());
+	}
+	for (Vacante vacante : lote){
+		try{
+			serviceVacantes.guardar(vacante);
+			guardadas.incrementAndGet();
+		} catch (RuntimeException e){
+			anotarFallida(vacante, e);
+		}
+	}
+}
+
+private void anotarFallida(Vacante vacante, RuntimeException e) {
+	fallidas.incrementAndGet();
+	ultimasFallidas.addLast(new EscrituraFallida(vacante, e.toString(), Instant.now()));
+	while (ultimasFallidas.size() > capacidad){
+		ultimasFallidas.pollFirst();
+	}
+	log.error("No se pudo guardar la vacante {} (ya aceptada): {}", vacante, e.getMessage(), e);
+}
+}
@@ -0,0 +1,26 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * La escritura de siempre: guarda la vacante en el mismo hilo de la petición y vuelve cuando ya está guardada.
+ * Es la opción por defecto (`empleos.vacantes.escritura=directa`).
+ */
+@Service
+@ConditionalOnProperty(name = "empleos.vacantes.escritura", havingValue = "directa", matchIfMissing = true)
+public class Impl_EscrituraDirectaVacantes implements Itf_EscrituraVacantesService {
+
+private final Itf_VacanteService serviceVacantes;
+
+public Impl_EscrituraDirectaVacantes(Itf_VacanteService serviceVacantes) {
+	this.serviceVacantes = serviceVacantes;
+}
+
+@Override
+public int guardar(Vacante vacante) {
+	serviceVacantes.guardar(vacante);
+	return vacante.getId();
+}
+}
@@ -0,0 +1,191 @@
+package net.itinajero.service;
+
+import net.itinajero.model.EstadisticasSalario;
+import net.itinajero.model.EstadisticasVacantes;
+import net.itinajero.model.Vacante;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ============ ESTADÍSTICAS DE SALARIOS MANTENIDAS AL GUARDAR ============
+ * <p>
+ * ¿Qué es esta clase? Los acumulados del panel de estadísticas: por cada categoría, cada nivel salarial y el
+ * total, cuántas vacantes hay, la suma de sus salarios y un {@link SketchCuantiles} con su reparto; y, por cada
+ * mes, cuántas vacantes se publicaron.
+ * <p>
+ * ¿Cómo funciona? - Como {@link Itf_VacanteObservador}, con cada vacante guardada resta la versión anterior de
+ * sus grupos y suma la nueva: unas pocas sumas y restas, sin recorrer nada. - `obtener()` arma el resultado a
+ * partir de los acumulados y lo guarda; las siguientes consultas devuelven ese mismo objeto hasta que se guarda
+ * otra vacante.
+ * <p>
+ * ¿Por qué se implementa así? Calcular promedios y percentiles con `buscarTodas()` cuesta, en cada visita al
+ * panel, lo mismo que el catálogo entero (y ordenar los salarios, algo más). Así, el coste de una visita no
+ * depende de cuántas vacantes haya: con el resultado guardado es leer un campo, y sin él, recorrer los grupos.
+ */
+@Service
+public class Impl_EstadisticasService implements Itf_EstadisticasService, Itf_ProyeccionVacantes {
+
+private static final ZoneId ZONA = ZoneId.systemDefault();
+
+private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+// No son `final`: adoptar() los sustituye por los de una copia reconstruida.
+private Acumulado general = new Acumulado();
+private Map<String, Acumulado> porCategoria = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+private Map<Vacante.NivelSalarial, Acumulado> porNivel = new EnumMap<>(Vacante.NivelSalarial.class);
+private Map<YearMonth, Long> porMes = new TreeMap<>();
+
+/**
+ * Con qué valores se sumó cada vacante. Para restarla se usan estos, no los de `anterior`: si alguien editó el
+ * mismo objeto guardado y lo volvió a guardar, `anterior` ya trae los nuevos.
+ */
+private Map<Integer, Valores> sumadas = new HashMap<>();
+
+private record Valores(double salario, String categoria, Vacante.NivelSalarial nivel, YearMonth mes) {
+
+	static Valores de(Vacante vacante) {
+		return new Valores(vacante.getSalario(), vacante.getCategoria(), vacante.getNivelSalarial(),
+				vacante.getFecha() == null ? null : YearMonth.from(vacante.getFecha().toInstant().atZone(ZONA)));
+	}
+}
+
+/**
+ * El último resultado armado por `obtener()`, o `null` si se guardó una vacante después.
+ */
+private volatile EstadisticasVacantes resultado;
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	cerrojo.writeLock().lock();
+	try{
+		Valores nuevos = Valores.de(nueva);
+		Valores previos = sumadas.put(nueva.getId(), nuevos);
+		if (previos != null){
+			acumular(previos, -1);
+		}
+		acumular(nuevos, 1);
+		resultado = null;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	cerrojo.writeLock().lock();
+	try{
+		Valores previos = sumadas.remove(eliminada.getId());
+		if (previos != null){
+			acumular(previos, -1);
+		}
+		resultado = null;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public String nombreProyeccion() {
+	return "estadisticas";
+}
+
+@Override
+public Itf_ProyeccionVacantes crearVacia() {
+	return new Impl_EstadisticasService();
+}
+
+@Override
+public void adoptar(Itf_ProyeccionVacantes reconstruida) {
+	Impl_EstadisticasService copia = (Impl_EstadisticasService) reconstruida;
+	cerrojo.writeLock().lock();
+	try{
+		general = copia.general;
+		porCategoria = copia.porCategoria;
+		porNivel = copia.porNivel;
+		porMes = copia.porMes;
+		sumadas = copia.sumadas;
+		resultado = null;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public EstadisticasVacantes obtener() {
+	EstadisticasVacantes actual = resultado;
+	if (actual != null){
+		return actual;
+	}
+	cerrojo.readLock().lock();
+	try{
+		List<EstadisticasSalario> categorias = new ArrayList<>(porCategoria.size());
+		porCategoria.forEach((categoria, acumulado) -> categorias.add(acumulado.resumir(categoria)));
+		List<EstadisticasSalario> niveles = new ArrayList<>(porNivel.size());
+		porNivel.forEach((nivel, acumulado) -> niveles.add(acumulado.resumir(nivel.getTextoDescriptivo())));
+		actual = new EstadisticasVacantes(general.resumir("Todas"), categorias, niveles, new LinkedHashMap<>(porMes));
+		// Se guarda dentro del cerrojo de lectura: un guardar() que espera el de escritura lo borrará después, nunca antes.
+		resultado = actual;
+		return actual;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * Suma (`signo = 1`) o resta (`signo = -1`) los valores de una vacante en todos sus grupos. Los grupos que se quedan sin
+ * vacantes se eliminan, para que el panel no muestre categorías vacías.
+ */
+private void acumular(Valores valores, int signo) {
+	double salario = valores.salario();
+	general.sumar(salario, signo);
+	if (valores.categoria() != null){
+		sumarEnGrupo(porCategoria, valores.categoria(), salario, signo);
+	}
+	sumarEnGrupo(porNivel, valores.nivel(), salario, signo);
+	if (valores.mes() != null){
+		porMes.merge(valores.mes(), (long) signo, (a, b) -> a + b == 0 ? null : a + b);
+	}
+}
+
+private static <K> void sumarEnGrupo(Map<K, Acumulado> grupos, K clave, double salario, int signo) {
+	Acumulado acumulado = grupos.computeIfAbsent(clave, k -> new Acumulado());
+	acumulado.sumar(salario, signo);
+	if (acumulado.cuantiles.total() == 0){
+		grupos.remove(clave);
+	}
+}
+
+/**
+ * Los acumulados de un grupo. La cantidad la lleva el propio sketch.
+ */
+private static final class Acumulado {
+
+	private final SketchCuantiles cuantiles = new SketchCuantiles();
+	private double suma;
+
+	void sumar(double salario, int signo) {
+		if (signo > 0){
+			cuantiles.agregar(salario);
+		} else{
+			cuantiles.quitar(salario);
+		}
+		suma += signo * salario;
+	}
+
+	EstadisticasSalario resumir(String etiqueta) {
+		long cantidad = cuantiles.total();
+		return new EstadisticasSalario(etiqueta, cantidad, cantidad == 0 ? 0 : suma / cantidad,
+				cuantiles.cuantil(0.25), cuantiles.cuantil(0.5), cuantiles.cuantil(0.9));
+	}
+}
+}
@@ -0,0 +1,204 @@
+package net.itinajero.service;
+
+import net.itinajero.model.ConteoFaceta;
+import net.itinajero.model.FiltroVacantes;
+import net.itinajero.model.Vacante;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * ============ ÍNDICES DE BITS PARA LAS FACETAS DEL LISTADO ============
+ * <p>
+ * ¿Qué es esta clase? Mantiene un {@link BitmapComprimido} de ids de vacantes por cada valor de categoría,
+ * estatus, destacado y nivel salarial. Por ejemplo, el bitmap de "Informática" contiene los ids de todas las
+ * vacantes de esa categoría.
+ * <p>
+ * ¿Cómo funciona? - Como {@link Itf_VacanteObservador}, con cada vacante guardada quita su id de los bitmaps de
+ * sus valores anteriores y lo pone en los de los nuevos. - Un filtro es la intersección (AND) de los bitmaps de
+ * los criterios elegidos. - El conteo de cada faceta es la cardinalidad de la intersección entre el filtro y el
+ * bitmap de ese valor, sin crear ningún objeto intermedio.
+ * <p>
+ * ¿Por qué se implementa así? Contar recorriendo `buscarTodas()` cuesta lo mismo que el catálogo entero en cada
+ * petición. Con los bitmaps, el coste depende de cuántos bloques de 65.536 ids hay que combinar: microsegundos
+ * incluso con un millón de vacantes.
+ */
+@Service
+public class Impl_FacetasService implements Itf_FacetasService, Itf_ProyeccionVacantes {
+
+private static final String CATEGORIA = "categoria";
+private static final String ESTATUS = "estatus";
+private static final String DESTACADO = "destacado";
+private static final String NIVEL_SALARIAL = "nivelSalarial";
+
+private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+// No son `final`: adoptar() los sustituye por los de una copia reconstruida.
+private BitmapComprimido todas = new BitmapComprimido();
+private Map<String, BitmapComprimido> porCategoria = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+private Map<Vacante.Estatus, BitmapComprimido> porEstatus = new EnumMap<>(Vacante.Estatus.class);
+private Map<Integer, BitmapComprimido> porDestacado = new TreeMap<>();
+private Map<Vacante.NivelSalarial, BitmapComprimido> porNivel = new EnumMap<>(Vacante.NivelSalarial.class);
+
+/**
+ * Los valores con los que se indexó cada vacante. Para sacarla de sus bitmaps se usan estos, no los de
+ * `anterior`: si alguien editó el mismo objeto guardado y lo volvió a guardar, `anterior` ya trae los nuevos.
+ */
+private Map<Integer, Valores> indexadas = new HashMap<>();
+
+private record Valores(String categoria, Vacante.Estatus estatus, Integer destacado, Vacante.NivelSalarial nivel) {
+
+	static Valores de(Vacante vacante) {
+		return new Valores(vacante.getCategoria(), vacante.getEstatus(), vacante.getDestacado(),
+				vacante.getNivelSalarial());
+	}
+}
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	cerrojo.writeLock().lock();
+	try{
+		Valores nuevos = Valores.de(nueva);
+		Valores previos = indexadas.put(nueva.getId(), nuevos);
+		if (previos != null){
+			indexar(nueva.getId(), previos, false);
+		}
+		indexar(nueva.getId(), nuevos, true);
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	cerrojo.writeLock().lock();
+	try{
+		Valores previos = indexadas.remove(eliminada.getId());
+		if (previos != null){
+			indexar(eliminada.getId(), previos, false);
+		}
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public String nombreProyeccion() {
+	return "facetas";
+}
+
+@Override
+public Itf_ProyeccionVacantes crearVacia() {
+	return new Impl_FacetasService();
+}
+
+@Override
+public void adoptar(Itf_ProyeccionVacantes reconstruida) {
+	Impl_FacetasService copia = (Impl_FacetasService) reconstruida;
+	cerrojo.writeLock().lock();
+	try{
+		todas = copia.todas;
+		porCategoria = copia.porCategoria;
+		porEstatus = copia.porEstatus;
+		porDestacado = copia.porDestacado;
+		porNivel = copia.porNivel;
+		indexadas = copia.indexadas;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Override
+public int[] buscarIds(FiltroVacantes filtro) {
+	cerrojo.readLock().lock();
+	try{
+		return filtrar(filtro).aArreglo();
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+@Override
+public Map<String, List<ConteoFaceta>> contarFacetas(FiltroVacantes filtro) {
+	cerrojo.readLock().lock();
+	try{
+		BitmapComprimido base = filtrar(filtro);
+		Map<String, List<ConteoFaceta>> facetas = new LinkedHashMap<>();
+		facetas.put(CATEGORIA, contar(base, porCategoria, categoria -> categoria, categoria -> categoria));
+		facetas.put(ESTATUS, contar(base, porEstatus, Vacante.Estatus::name, Vacante.Estatus::getTexto));
+		facetas.put(DESTACADO, contar(base, porDestacado, String::valueOf,
+				destacado -> destacado == 1 ? "Destacadas" : "No destacadas"));
+		facetas.put(NIVEL_SALARIAL, contar(base, porNivel, Vacante.NivelSalarial::name,
+				Vacante.NivelSalarial::getTextoDescriptivo));
+		return facetas;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+private void indexar(int id, Valores valores, boolean agregar) {
+	actualizar(todas, id, agregar);
+	if (valores.categoria() != null){
+		actualizar(porCategoria.computeIfAbsent(valores.categoria(), c -> new BitmapComprimido()), id, agregar);
+	}
+	if (valores.estatus() != null){
+		actualizar(porEstatus.computeIfAbsent(valores.estatus(), e -> new BitmapComprimido()), id, agregar);
+	}
+	if (valores.destacado() != null){
+		actualizar(porDestacado.computeIfAbsent(valores.destacado(), d -> new BitmapComprimido()), id, agregar);
+	}
+	actualizar(porNivel.computeIfAbsent(valores.nivel(), n -> new BitmapComprimido()), id, agregar);
+}
+
+private static void actualizar(BitmapComprimido bitmap, int id, boolean agregar) {
+	if (agregar){
+		bitmap.agregar(id);
+	} else{
+		bitmap.quitar(id);
+	}
+}
+
+/**
+ * Intersección de los bitmaps de los criterios del filtro. Sin criterios, todas las vacantes.
+ */
+private BitmapComprimido filtrar(FiltroVacantes filtro) {
+	BitmapComprimido resultado = todas;
+	if (filtro.getCategoria() != null){
+		resultado = intersecar(resultado, porCategoria.get(filtro.getCategoria()));
+	}
+	if (filtro.getEstatus() != null){
+		resultado = intersecar(resultado, porEstatus.get(filtro.getEstatus()));
+	}
+	if (filtro.getDestacado() != null){
+		resultado = intersecar(resultado, porDestacado.get(filtro.getDestacado()));
+	}
+	if (filtro.getNivelSalarial() != null){
+		resultado = intersecar(resultado, porNivel.get(filtro.getNivelSalarial()));
+	}
+	return resultado;
+}
+
+private static BitmapComprimido intersecar(BitmapComprimido a, BitmapComprimido b) {
+	return b == null ? new BitmapComprimido() : BitmapComprimido.y(a, b);
+}
+
+private static <T> List<ConteoFaceta> contar(BitmapComprimido base, Map<T, BitmapComprimido> indice,
+		Function<T, String> valor, Function<T, String> etiqueta) {
+	List<ConteoFaceta> conteos = new ArrayList<>();
+	indice.forEach((clave, bitmap) -> {
+		int cantidad = BitmapComprimido.cardinalidadY(base, bitmap);
+		if (cantidad > 0){
+			conteos.add(new ConteoFaceta(valor.apply(clave), etiqueta.apply(clave), cantidad));
+		}
+	});
+	return conteos;
+}
+}
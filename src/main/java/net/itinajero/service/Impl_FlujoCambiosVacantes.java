@@ -0,0 +1,141 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============ FLUJO DE CAMBIOS DEL CATÁLOGO PARA OTROS SISTEMAS ============
+ * <p>
+ * ¿Qué es esta clase? Publica cada vacante guardada o quitada como un cambio binario ({@link CodecCambios}), para
+ * que la analítica y las notificaciones se enteren leyendo `GET /cambios` en lugar de descargar y analizar
+ * `/vacantes/index` una y otra vez.
+ * <p>
+ * ¿Cómo funciona? - No es un observador más del almacén: se suscribe al registro de eventos
+ * ({@link Itf_RegistroEventosVacantes}), y el offset de cada cambio es la secuencia de su evento en el registro.
+ * - Codifica cada cambio una sola vez y lo guarda en un {@link AnilloDifusion} de bytes, que solo conserva los
+ * últimos `capacidad`. - Un consumidor nuevo, o uno que se quedó tan atrás que sus cambios ya se pisaron
+ * (`primerDisponible` mayor que su `desde`), empieza por `instantanea()`: el catálogo entero según el registro,
+ * con el offset desde el que seguir. Leer desde 0 NO da el estado completo: solo los cambios que aún quedan en el
+ * anillo. - Cada lectura junta los registros ya codificados desde el offset pedido, hasta `maximo` cambios o
+ * `bytes-maximos`, sin volver a codificar nada. - El servidor no guarda nada por consumidor: cada uno recuerda su
+ * `siguiente`.
+ * <p>
+ * ¿Por qué se implementa así? Leer un lote cuesta copiar unos pocos KB ya preparados, tenga el catálogo 100 o
+ * 100.000 vacantes, y un consumidor parado no ocupa nada en el servidor. Apoyarse en el registro evita un segundo
+ * orden de los cambios: la instantánea y los offsets salen de la misma secuencia, así que encajan sin huecos ni
+ * repetidos.
+ * <p>
+ * El flujo es de UN nodo: vive en memoria, los offsets son las secuencias del registro de esta instancia y la
+ * `generacion` identifica su arranque. Otra instancia tiene sus propios offsets, y al reiniciar empiezan de nuevo;
+ * un consumidor debe leer siempre del mismo nodo y, si la `generacion` cambia, volver a empezar por la instantánea.
+ */
+@Service
+public class Impl_FlujoCambiosVacantes implements Itf_FlujoCambiosVacantes, Itf_FuenteMetricas {
+
+private final Itf_RegistroEventosVacantes registro;
+private final AnilloDifusion<byte[]> anillo;
+/**
+ * La secuencia del registro justo antes del primer cambio del anillo: el cambio con offset `o` está en la
+ * secuencia `o - desplazamiento` del anillo.
+ */
+private final long desplazamiento;
+private final int loteMaximo;
+private final int bytesMaximos;
+private final long generacion = System.currentTimeMillis();
+
+private final LongAdder bytesPublicados = new LongAdder();
+private final LongAdder lecturas = new LongAdder();
+private final LongAdder cambiosLeidos = new LongAdder();
+private final LongAdder instantaneas = new LongAdder();
+
+public Impl_FlujoCambiosVacantes(Itf_RegistroEventosVacantes registro,
+		@Value("${empleos.cambios.capacidad:50000}") int capacidad,
+		@Value("${empleos.cambios.lote-maximo:1000}") int loteMaximo,
+		@Value("${empleos.cambios.bytes-maximos:1048576}") int bytesMaximos) {
+	this.registro = registro;
+	this.anillo = new AnilloDifusion<>(capacidad);
+	this.loteMaximo = loteMaximo;
+	this.bytesMaximos = bytesMaximos;
+	// El anillo ya existe: si llega un evento antes de que termine el constructor, se publica bien.
+	this.desplazamiento = registro.suscribir(this::publicar);
+}
+
+/**
+ * Lo llama el registro dentro de su cerrojo, un evento tras otro: el anillo los recibe en el mismo orden que sus
+ * secuencias.
+ */
+private void publicar(EventoVacante evento) {
+	byte[] cambio = CodecCambios.codificar(evento.secuencia(), evento.tipo(), System.currentTimeMillis(),
+			evento.vacante());
+	anillo.publicar(cambio);
+	bytesPublicados.add(cambio.length);
+}
+
+@Override
+public LoteCambios leer(long desde, int maximo) {
+	lecturas.increment();
+	long ultimo = anillo.ultimaSecuencia() + desplazamiento;
+	long primero = anillo.primeraDisponible() + desplazamiento;
+	long offset = Math.min(Math.max(desde, primero), ultimo + 1);
+	int limite = Math.min(Math.max(maximo, 1), loteMaximo);
+	ByteArrayOutputStream datos = new ByteArrayOutputStream();
+	int cantidad = 0;
+	while (offset <= ultimo && cantidad < limite && datos.size() < bytesMaximos){
+		AnilloDifusion.Evento<byte[]> cambio = anillo.leer(offset - desplazamiento);
+		if (cambio == null){
+			break; // Se pisó mientras se leía: la próxima lectura informará del salto con `primerDisponible`.
+		}
+		datos.writeBytes(cambio.dato());
+		cantidad++;
+		offset++;
+	}
+	cambiosLeidos.add(cantidad);
+	return new LoteCambios(generacion, primero, offset, cantidad, datos.toByteArray());
+}
+
+/**
+ * Cada vacante va como un cambio GUARDADA con el offset de la instantánea. No pasa por `bytes-maximos`: es el
+ * catálogo entero, una vez por consumidor.
+ */
+@Override
+public LoteCambios instantanea() {
+	instantaneas.increment();
+	InstantaneaRegistro estado = registro.instantanea();
+	long marcaTiempo = System.currentTimeMillis();
+	ByteArrayOutputStream datos = new ByteArrayOutputStream();
+	for (Vacante vacante : estado.vacantes()){
+		datos.writeBytes(
+				CodecCambios.codificar(estado.secuencia(), EventoVacante.Tipo.GUARDADA, marcaTiempo, vacante));
+	}
+	return new LoteCambios(generacion, anillo.primeraDisponible() + desplazamiento, estado.secuencia() + 1,
+			estado.vacantes().size(), datos.toByteArray());
+}
+
+@Override
+public long ultimoOffset() {
+	return anillo.ultimaSecuencia() + desplazamiento;
+}
+
+@Override
+public String nombreMetricas() {
+	return "cambios";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	Map<String, Number> metricas = new LinkedHashMap<>();
+	metricas.put("ultimoOffset", ultimoOffset());
+	metricas.put("primerDisponible", anillo.primeraDisponible() + desplazamiento);
+	metricas.put("bytesPublicados", bytesPublicados.sum());
+	metricas.put("lecturas", lecturas.sum());
+	metricas.put("cambiosLeidos", cambiosLeidos.sum());
+	metricas.put("instantaneas", instantaneas.sum());
+	return metricas;
+}
+}
@@ -0,0 +1,123 @@
+package net.itinajero.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * ============ CLAVES DE IDEMPOTENCIA EN EL ALMACÉN COMPARTIDO ============
+ * <p>
+ * ¿Qué es esta clase? Recuerda, durante un tiempo, qué claves de idempotencia usó cada sesión y con qué resultado.
+ * <p>
+ * ¿Cómo funciona? - Cada clave se guarda en {@link Itf_AlmacenCompartido} como "idempotencia:sesion:clave" con
+ * caducidad `duracion`. - El primer envío la reserva con `guardarSiNoExiste` (`SET NX PX`) y un valor vacío que
+ * significa "en curso"; ese es el único que ejecuta la operación, y al terminar sustituye el valor por el id
+ * resultante (4 bytes). Si la operación falla, borra la clave. - Un envío repetido encuentra la clave: si ya tiene
+ * el id lo devuelve; si sigue "en curso" mira de nuevo cada pocos milisegundos, hasta `espera-maxima`.
+ * <p>
+ * ¿Por qué se implementa así? Un doble clic en "Guardar" manda dos POST casi a la vez, y el balanceador puede
+ * llevar cada uno a un nodo distinto: la reserva tiene que ser atómica para todo el clúster, no para una JVM.
+ * Incluir la sesión en la clave evita que un cliente reciba el resultado de otro que (por error o a propósito)
+ * repita su clave. La caducidad la aplica el propio almacén, así que no hace falta purgar nada aquí.
+ */
+@Service
+public class Impl_IdempotenciaService implements Itf_IdempotenciaService, Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_IdempotenciaService.class);
+
+static final String PREFIJO_CLAVE = "idempotencia:";
+private static final byte[] EN_CURSO = new byte[0];
+private static final long PAUSA_MILISEGUNDOS = 5;
+
+private final Itf_AlmacenCompartido almacen;
+private final Duration duracion;
+private final long esperaMaxima;
+
+private final AtomicLong ejecutadas = new AtomicLong();
+private final AtomicLong repetidas = new AtomicLong();
+
+@Autowired
+public Impl_IdempotenciaService(Itf_AlmacenCompartido almacen,
+		@Value("${empleos.idempotencia.duracion:10m}") Duration duracion,
+		@Value("${empleos.idempotencia.espera-maxima:30s}") Duration esperaMaxima) {
+	this.almacen = almacen;
+	this.duracion = duracion;
+	this.esperaMaxima = esperaMaxima.toNanos();
+}
+
+@Override
+public int ejecutarUnaVez(String ambito, String clave, IntSupplier operacion) {
+	if (clave == null || clave.isBlank()){
+		return operacion.getAsInt();
+	}
+	String claveAlmacen = PREFIJO_CLAVE + ambito + ":" + clave;
+	long limite = System.nanoTime() + esperaMaxima;
+	while (true){
+		if (almacen.guardarSiNoExiste(claveAlmacen, EN_CURSO, duracion)){
+			ejecutadas.incrementAndGet();
+			int resultado;
+			try{
+				resultado = operacion.getAsInt();
+			} catch (RuntimeException e){
+				almacen.eliminar(claveAlmacen);
+				throw e;
+			}
+			almacen.guardar(claveAlmacen, ByteBuffer.allocate(Integer.BYTES).putInt(resultado).array(), duracion);
+			return resultado;
+		}
+		byte[] valor = almacen.obtener(claveAlmacen);
+		if (valor != null && valor.length == Integer.BYTES){
+			repetidas.incrementAndGet();
+			log.info("Envío repetido con la clave {}: se devuelve el resultado original.", clave);
+			return ByteBuffer.wrap(valor).getInt();
+		}
+		// Sigue en curso (aquí o en otro nodo), o el primer envío falló y la clave acaba de quedar libre: en la
+		// siguiente vuelta se vuelve a intentar reservarla.
+		esperar(clave, limite);
+	}
+}
+
+@Override
+public String nuevaClave() {
+	return UUID.randomUUID().toString();
+}
+
+public long getEjecutadas() {
+	return ejecutadas.get();
+}
+
+public long getRepetidas() {
+	return repetidas.get();
+}
+
+@Override
+public String nombreMetricas() {
+	return "idempotencia";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	return Map.of("ejecutadas", getEjecutadas(), "repetidas", getRepetidas());
+}
+
+private static void esperar(String clave, long limite) {
+	if (System.nanoTime() - limite >= 0){
+		throw new IllegalStateException("El envío con la clave " + clave + " sigue en curso; reinténtelo más tarde.");
+	}
+	try{
+		Thread.sleep(PAUSA_MILISEGUNDOS);
+	} catch (InterruptedException e){
+		Thread.currentThread().interrupt();
+		throw new IllegalStateException("Interrumpido esperando el envío con la clave " + clave, e);
+	}
+}
+}
@@ -0,0 +1,97 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ============ ÍNDICES ORDENADOS POR SALARIO Y POR FECHA ============
+ * <p>
+ * ¿Qué es esta clase? Mantiene dos {@link IndiceOrdenado}: uno por salario y otro por fecha de publicación.
+ * <p>
+ * ¿Cómo funciona? Es un {@link Itf_VacanteObservador}: cada vez que se guarda una vacante, quita del índice su
+ * salario y su fecha anteriores (si la vacante ya existía) y añade los nuevos. Las consultas por rango, por
+ * nivel salarial o de "los k primeros" leen directamente del índice.
+ * <p>
+ * ¿Por qué se implementa así? Ordenar `buscarTodas()` en cada petición cuesta O(n log n). Con el índice al día,
+ * encontrar el principio del rango cuesta O(log n) y después solo se recorre lo que se devuelve.
+ */
+@Service
+public class Impl_IndicesOrdenadosService implements Itf_IndicesOrdenadosService, Itf_ProyeccionVacantes {
+
+// `volatile` y no `final`: adoptar() los sustituye por los de una copia reconstruida, y las consultas no se
+// sincronizan.
+private volatile IndiceOrdenado<Double> porSalario = new IndiceOrdenado<>();
+private volatile IndiceOrdenado<Long> porFecha = new IndiceOrdenado<>();
+
+/**
+ * El salario y la fecha con que se indexó cada vacante. Para quitar sus entradas se usan estos, no los de
+ * `anterior`: si alguien editó el mismo objeto guardado y lo volvió a guardar, `anterior` ya trae los nuevos y
+ * las entradas viejas se quedarían en el índice.
+ */
+private Map<Integer, Claves> indexadas = new HashMap<>();
+
+private record Claves(double salario, Long fecha) {
+}
+
+@Override
+public synchronized void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	Claves nuevas = new Claves(nueva.getSalario(), nueva.getFecha() == null ? null : nueva.getFecha().getTime());
+	quitar(nueva.getId(), indexadas.put(nueva.getId(), nuevas));
+	porSalario.agregar(nuevas.salario(), nueva.getId());
+	if (nuevas.fecha() != null){
+		porFecha.agregar(nuevas.fecha(), nueva.getId());
+	}
+}
+
+@Override
+public synchronized void alEliminarVacante(Vacante eliminada) {
+	quitar(eliminada.getId(), indexadas.remove(eliminada.getId()));
+}
+
+private void quitar(int id, Claves claves) {
+	if (claves != null){
+		porSalario.quitar(claves.salario(), id);
+		if (claves.fecha() != null){
+			porFecha.quitar(claves.fecha(), id);
+		}
+	}
+}
+
+@Override
+public String nombreProyeccion() {
+	return "indices";
+}
+
+@Override
+public Itf_ProyeccionVacantes crearVacia() {
+	return new Impl_IndicesOrdenadosService();
+}
+
+@Override
+public synchronized void adoptar(Itf_ProyeccionVacantes reconstruida) {
+	Impl_IndicesOrdenadosService copia = (Impl_IndicesOrdenadosService) reconstruida;
+	porSalario = copia.porSalario;
+	porFecha = copia.porFecha;
+	indexadas = copia.indexadas;
+}
+
+@Override
+public int[] idsPorSalario(double minimo, double maximo, boolean descendente, int limite) {
+	return porSalario.rango(minimo, true, maximo, true, descendente, limite);
+}
+
+@Override
+public int[] idsPorNivelSalarial(Vacante.NivelSalarial nivel, boolean descendente, int limite) {
+	// Las bandas son (desde, hasta]: el límite inferior pertenece al nivel anterior.
+	return porSalario.rango(nivel.getSalarioDesde(), false, nivel.getSalarioHasta(), true, descendente, limite);
+}
+
+@Override
+public int[] idsPublicadasDesde(Date desde, boolean masRecientesPrimero, int limite) {
+	return porFecha.rango(desde == null ? null : desde.getTime(), true, null, true, masRecientesPrimero, limite);
+}
+}
@@ -0,0 +1,180 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.ResumenVacante;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ============ AVISO DE VACANTES NUEVAS (SERVER-SENT EVENTS) ============
+ * <p>
+ * ¿Qué es esta clase? Envía a los navegadores que tienen abierto el listado un evento por cada vacante nueva,
+ * para que la añadan a la tabla sin recargar la página.
+ * <p>
+ * ¿Cómo funciona? - Como {@link Itf_VacanteObservador}, cada vacante nueva se convierte en un
+ * {@link ResumenVacante} y se publica UNA vez en un {@link AnilloDifusion}. - Cada conexión es un
+ * `SseEmitter` más un cursor (la última secuencia que recibió). - Un único hilo "repartidor" despierta cuando hay
+ * eventos nuevos, recorre las conexiones y envía a cada una lo que le falta. Si nadie publica, el hilo duerme y
+ * solo despierta para mandar un latido que descubre las conexiones muertas.
+ * <p>
+ * ¿Por qué se implementa así? Una conexión inactiva no ocupa un hilo ni una cola: solo el emisor y un número.
+ * Así miles de pestañas abiertas cuestan casi nada, y guardar una vacante no espera a que se envíe nada (solo
+ * publica en el anillo y despierta al repartidor).
+ * <p>
+ * Limitación: el repartidor escribe en las conexiones de una en una; un cliente muy lento retrasa a los
+ * siguientes hasta que su conexión falla o caduca.
+ */
+@Service
+public class Impl_NovedadesVacantesService implements Itf_NovedadesVacantesService, Itf_VacanteObservador {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_NovedadesVacantesService.class);
+
+static final String EVENTO_VACANTE = "vacante";
+
+private final AnilloDifusion<ResumenVacante> anillo;
+private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+private final long tiempoMaximoConexion;
+private final long intervaloLatido;
+
+private final Object senal = new Object();
+private boolean hayEventos;
+private volatile boolean activo = true;
+private final Thread repartidor;
+
+public Impl_NovedadesVacantesService(@Value("${empleos.novedades.capacidad:1024}") int capacidad,
+		@Value("${empleos.novedades.latido:25s}") Duration latido,
+		@Value("${empleos.novedades.tiempo-maximo-conexion:30m}") Duration tiempoMaximoConexion) {
+	this.anillo = new AnilloDifusion<>(capacidad);
+	this.intervaloLatido = latido.toMillis();
+	this.tiempoMaximoConexion = tiempoMaximoConexion.toMillis();
+	this.repartidor = new Thread(this::repartir, "repartidor-novedades");
+	this.repartidor.setDaemon(true);
+	this.repartidor.start();
+}
+
+/**
+ * Solo se avisan las vacantes NUEVAS (`anterior == null`); las ediciones no añaden filas a la tabla. Las
+ * vacantes que el almacén "reproduce" al registrar al observador también entran al anillo, pero ninguna conexión
+ * las recibe: una conexión nueva empieza en la última secuencia.
+ */
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	if (anterior == null){
+		anillo.publicar(new ResumenVacante(nueva));
+		despertarRepartidor();
+	}
+}
+
+@Override
+public SseEmitter suscribir(Long ultimoEventoRecibido) {
+	SseEmitter emisor = new SseEmitter(tiempoMaximoConexion);
+	long cursor = ultimoEventoRecibido == null ? anillo.ultimaSecuencia()
+			: Math.min(ultimoEventoRecibido, anillo.ultimaSecuencia());
+	Suscriptor suscriptor = new Suscriptor(emisor, cursor);
+	emisor.onCompletion(() -> suscriptores.remove(suscriptor));
+	emisor.onTimeout(() -> suscriptores.remove(suscriptor));
+	emisor.onError(error -> suscriptores.remove(suscriptor));
+	suscriptores.add(suscriptor);
+	if (cursor < anillo.ultimaSecuencia()){
+		despertarRepartidor(); // Se reconectó y tiene eventos pendientes.
+	}
+	return emisor;
+}
+
+@Override
+public int conexionesAbiertas() {
+	return suscriptores.size();
+}
+
+@PreDestroy
+public void detener() {
+	activo = false;
+	repartidor.interrupt();
+	suscriptores.forEach(suscriptor -> suscriptor.emisor.complete());
+	suscriptores.clear();
+}
+
+private void despertarRepartidor() {
+	synchronized (senal){
+		hayEventos = true;
+		senal.notifyAll();
+	}
+}
+
+/**
+ * Bucle del hilo repartidor.
+ */
+private void repartir() {
+	long ultimoLatido = System.currentTimeMillis();
+	while (activo){
+		try{
+			synchronized (senal){
+				if (!hayEventos){
+					senal.wait(intervaloLatido);
+				}
+				hayEventos = false;
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			return;
+		}
+		boolean tocaLatido = System.currentTimeMillis() - ultimoLatido >= intervaloLatido;
+		if (tocaLatido){
+			ultimoLatido = System.currentTimeMillis();
+		}
+		long ultima = anillo.ultimaSecuencia();
+		for (Suscriptor suscriptor : suscriptores){
+			enviarPendientes(suscriptor, ultima, tocaLatido);
+		}
+	}
+}
+
+private void enviarPendientes(Suscriptor suscriptor, long ultima, boolean tocaLatido) {
+	try{
+		if (suscriptor.cursor < anillo.primeraDisponible() - 1){
+			suscriptor.cursor = anillo.primeraDisponible() - 1; // Se quedó atrás: los eventos más viejos se perdieron.
+		}
+		while (suscriptor.cursor < ultima){
+			AnilloDifusion.Evento<ResumenVacante> evento = anillo.leer(suscriptor.cursor + 1);
+			if (evento != null){
+				suscriptor.emisor.send(SseEmitter.event()
+						.id(Long.toString(evento.secuencia()))
+						.name(EVENTO_VACANTE)
+						.data(evento.dato(), MediaType.APPLICATION_JSON));
+			}
+			suscriptor.cursor++;
+		}
+		if (tocaLatido){
+			suscriptor.emisor.send(SseEmitter.event().comment("latido"));
+		}
+	} catch (IOException | IllegalStateException e){
+		// La conexión se cerró (el navegador se fue) o el emisor ya estaba completado.
+		suscriptores.remove(suscriptor);
+		log.debug("Conexión de novedades cerrada: {}", e.getMessage());
+	}
+}
+
+/**
+ * Una conexión abierta: su emisor y la última secuencia que se le envió. Solo el repartidor modifica el cursor.
+ */
+private static final class Suscriptor {
+
+	private final SseEmitter emisor;
+	private long cursor;
+
+	Suscriptor(SseEmitter emisor, long cursor) {
+		this.emisor = emisor;
+		this.cursor = cursor;
+	}
+}
+}
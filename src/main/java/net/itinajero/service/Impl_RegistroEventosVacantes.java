@@ -0,0 +1,339 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * ============ REGISTRO DE EVENTOS Y PROYECCIONES DE LECTURA ============
+ * <p>
+ * ¿Qué es esta clase? Separa las escrituras del catálogo de las estructuras que sirven las lecturas. El almacén
+ * solo anota cada cambio como un {@link EventoVacante} al final de este registro; cada proyección
+ * ({@link Itf_ProyeccionVacantes}: facetas, índices ordenados, estadísticas, conteos por categoría) lo lee en su
+ * propio hilo y se pone al día por su cuenta.
+ * <p>
+ * ¿Cómo funciona? - Es un {@link Itf_VacanteObservador} más del almacén: anotar un evento es añadirlo a una lista
+ * y despertar a los hilos, nada más. - Cada proyección tiene un hilo "proyeccion-nombre" y un cursor (la
+ * secuencia del último evento que aplicó); el hilo duerme mientras no haya eventos nuevos y, cuando los hay, los
+ * aplica por lotes. - Para no crecer sin límite, los eventos que TODAS las proyecciones ya aplicaron se compactan
+ * en `base`: la última versión de cada vacante viva. - Reconstruir una proyección es aplicar `base` (como
+ * vacantes nuevas) y después los eventos que quedan a una copia vacía ({@link Itf_ProyeccionVacantes#crearVacia()})
+ * y, al terminar, sustituir con ella lo que tenía; el resultado es el mismo que si hubiera leído el registro desde
+ * el principio. - Además de las proyecciones, el flujo de cambios para otros sistemas
+ * ({@link Impl_FlujoCambiosVacantes}) se suscribe para recibir cada evento con su secuencia, y arranca a sus
+ * consumidores con `instantanea()`.
+ * <p>
+ * ¿Por qué se implementa así? Antes, cada `guardar()` actualizaba todas las estructuras de lectura dentro del
+ * cerrojo del almacén: cuantas más había, más tardaba cada escritura, y una proyección que fallaba hacía fallar
+ * el guardado. Ahora la escritura cuesta lo mismo haya una proyección o diez, y cada una avanza a su ritmo.
+ * <p>
+ * El precio es la consistencia eventual: justo después de guardar, todo lo que se resuelve con una proyección
+ * puede tardar unos milisegundos en reflejar el cambio. Eso incluye el listado con filtros u orden
+ * (`orden=salario|fecha`, `dias`, facetas) y sus conteos, las estadísticas y los conteos por categoría: al volver
+ * de guardar, la vacante nueva puede no aparecer todavía en un listado filtrado. Solo el listado sin filtros y el
+ * detalle leen directamente del almacén y la ven enseguida. Mientras una proyección se reconstruye, sigue
+ * respondiendo con lo que tenía (completo, pero sin los cambios de ese rato) hasta que adopta la copia nueva.
+ */
+@Service
+public class Impl_RegistroEventosVacantes
+		implements Itf_RegistroEventosVacantes, Itf_VacanteObservador, Itf_FuenteMetricas {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_RegistroEventosVacantes.class);
+
+/**
+ * Cuántos eventos aplica un hilo antes de volver a mirar el registro (y soltar las vacantes ya aplicadas).
+ */
+private static final int LOTE = 256;
+
+private final int compactarCada;
+
+/**
+ * Protege todo el estado del registro y sirve de señal para los hilos: `anotar()` los despierta con
+ * `notifyAll()`.
+ */
+private final Object cerrojo = new Object();
+/**
+ * La última versión de cada vacante viva según los eventos hasta `secuenciaBase` (inclusive), en el orden en
+ * que aparecieron.
+ */
+private final Map<Integer, Vacante> base = new LinkedHashMap<>();
+private long secuenciaBase;
+/**
+ * Los eventos posteriores a `secuenciaBase`: el de la posición `i` tiene la secuencia `secuenciaBase + 1 + i`.
+ */
+private final List<EventoVacante> eventos = new ArrayList<>();
+private long ultima;
+
+private final List<Consumidor> consumidores = new CopyOnWriteArrayList<>();
+private final List<Consumer<EventoVacante>> oyentes = new CopyOnWriteArrayList<>();
+private volatile boolean activo = true;
+
+public Impl_RegistroEventosVacantes(@Value("${empleos.proyecciones.compactar-cada:10000}") int compactarCada) {
+	this.compactarCada = compactarCada;
+}
+
+/**
+ * Crea un hilo por cada proyección. Pueden haber llegado eventos antes (el almacén se construye primero): el
+ * hilo empieza desde la secuencia 0, o reconstruyendo si esos eventos ya se compactaron.
+ */
+@Autowired(required = false)
+public void setProyecciones(List<Itf_ProyeccionVacantes> proyecciones) {
+	proyecciones.forEach(this::registrarProyeccion);
+}
+
+void registrarProyeccion(Itf_ProyeccionVacantes proyeccion) {
+	Consumidor consumidor = new Consumidor(proyeccion);
+	consumidores.add(consumidor);
+	consumidor.hilo.start();
+}
+
+@Override
+public void alGuardarVacante(Vacante anterior, Vacante nueva) {
+	anotar(EventoVacante.Tipo.GUARDADA, anterior, nueva);
+}
+
+@Override
+public void alEliminarVacante(Vacante eliminada) {
+	anotar(EventoVacante.Tipo.ELIMINADA, null, eliminada);
+}
+
+private void anotar(EventoVacante.Tipo tipo, Vacante anterior, Vacante vacante) {
+	synchronized (cerrojo){
+		EventoVacante evento = new EventoVacante(++ultima, tipo, anterior, vacante);
+		eventos.add(evento);
+		for (Consumer<EventoVacante> oyente : oyentes){
+			try{
+				oyente.accept(evento);
+			} catch (RuntimeException e){
+				// Igual que con las proyecciones: un oyente que falla no debe hacer fallar el guardado.
+				log.warn("Un oyente del registro no pudo recibir el evento {}: {}", evento.secuencia(), e.getMessage());
+			}
+		}
+		if (eventos.size() >= compactarCada){
+			compactar();
+		}
+		cerrojo.notifyAll();
+	}
+}
+
+/**
+ * Pasa a `base` los eventos que todas las proyecciones ya aplicaron. Si alguna va muy atrás, el registro crece
+ * hasta que se ponga al día (su `retraso` en las métricas lo muestra).
+ */
+private void compactar() {
+	long hasta = ultima;
+	for (Consumidor consumidor : consumidores){
+		hasta = Math.min(hasta, consumidor.aplicados);
+	}
+	int cuantos = (int) (hasta - secuenciaBase);
+	if (cuantos <= 0){
+		return;
+	}
+	List<EventoVacante> compactados = eventos.subList(0, cuantos);
+	for (EventoVacante evento : compactados){
+		resumir(base, evento);
+	}
+	compactados.clear();
+	secuenciaBase = hasta;
+}
+
+private static void resumir(Map<Integer, Vacante> vacantes, EventoVacante evento) {
+	if (evento.tipo() == EventoVacante.Tipo.GUARDADA){
+		vacantes.put(evento.vacante().getId(), evento.vacante());
+	} else{
+		vacantes.remove(evento.vacante().getId());
+	}
+}
+
+@Override
+public long ultimaSecuencia() {
+	synchronized (cerrojo){
+		return ultima;
+	}
+}
+
+/**
+ * `base` más los eventos aún sin compactar, aplicados sobre una copia.
+ */
+@Override
+public InstantaneaRegistro instantanea() {
+	synchronized (cerrojo){
+		Map<Integer, Vacante> vacantes = new LinkedHashMap<>(base);
+		for (EventoVacante evento : eventos){
+			resumir(vacantes, evento);
+		}
+		return new InstantaneaRegistro(ultima, new ArrayList<>(vacantes.values()));
+	}
+}
+
+@Override
+public long suscribir(Consumer<EventoVacante> oyente) {
+	synchronized (cerrojo){
+		oyentes.add(oyente);
+		return ultima;
+	}
+}
+
+@Override
+public List<EstadoProyeccion> proyecciones() {
+	long ultimaSecuencia = ultimaSecuencia();
+	List<EstadoProyeccion> estados = new ArrayList<>(consumidores.size());
+	for (Consumidor consumidor : consumidores){
+		long aplicados = consumidor.aplicados;
+		estados.add(new EstadoProyeccion(consumidor.proyeccion.nombreProyeccion(), aplicados,
+				Math.max(0, ultimaSecuencia - aplicados), consumidor.reconstrucciones, consumidor.errores));
+	}
+	return estados;
+}
+
+@Override
+public boolean reconstruir(String nombreProyeccion) {
+	for (Consumidor consumidor : consumidores){
+		if (consumidor.proyeccion.nombreProyeccion().equals(nombreProyeccion)){
+			synchronized (cerrojo){
+				consumidor.reconstruir = true;
+				cerrojo.notifyAll();
+			}
+			return true;
+		}
+	}
+	return false;
+}
+
+@Override
+public String nombreMetricas() {
+	return "proyecciones";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	Map<String, Number> metricas = new LinkedHashMap<>();
+	synchronized (cerrojo){
+		metricas.put("ultimaSecuencia", ultima);
+		metricas.put("eventosPendientesDeCompactar", eventos.size());
+		metricas.put("vacantesCompactadas", base.size());
+	}
+	for (EstadoProyeccion estado : proyecciones()){
+		metricas.put(estado.nombre() + ".retraso", estado.retraso());
+		metricas.put(estado.nombre() + ".errores", estado.errores());
+	}
+	return metricas;
+}
+
+@PreDestroy
+public void detener() {
+	activo = false;
+	consumidores.forEach(consumidor -> consumidor.hilo.interrupt());
+}
+
+/**
+ * Bucle del hilo de una proyección: toma del registro lo que le falta (bajo el cerrojo) y lo aplica fuera de él,
+ * para que `anotar()` nunca espere a una proyección.
+ */
+private void consumir(Consumidor consumidor) {
+	while (activo){
+		List<Vacante> inicial = null;
+		List<EventoVacante> pendientes;
+		long secuenciaInicial = 0;
+		try{
+			synchronized (cerrojo){
+				while (!consumidor.reconstruir && consumidor.aplicados >= ultima){
+					cerrojo.wait();
+				}
+				if (consumidor.reconstruir || consumidor.aplicados < secuenciaBase){
+					consumidor.reconstruir = false;
+					inicial = new ArrayList<>(base.values());
+					secuenciaInicial = secuenciaBase;
+					pendientes = new ArrayList<>(eventos);
+				} else{
+					int desde = (int) (consumidor.aplicados - secuenciaBase);
+					pendientes = new ArrayList<>(eventos.subList(desde, Math.min(eventos.size(), desde + LOTE)));
+				}
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			return;
+		}
+		if (inicial != null){
+			reconstruir(consumidor, inicial, secuenciaInicial, pendientes);
+		} else{
+			for (EventoVacante evento : pendientes){
+				aplicar(consumidor, consumidor.proyeccion, evento);
+				consumidor.aplicados = evento.secuencia();
+			}
+		}
+	}
+}
+
+/**
+ * Llena una copia vacía y solo al final la adopta la proyección en uso, que mientras tanto sigue respondiendo con
+ * lo que tenía. El cursor no se mueve hasta entonces: `retraso` muestra lo que la proyección en uso aún no ve.
+ * @param inicial
+ * 		`base` tal como estaba al empezar, que resume los eventos hasta `desde`; `pendientes` son los que siguen.
+ */
+private void reconstruir(Consumidor consumidor, List<Vacante> inicial, long desde, List<EventoVacante> pendientes) {
+	log.info("Reconstruyendo la proyección '{}' desde {} vacantes y {} eventos.",
+			consumidor.proyeccion.nombreProyeccion(), inicial.size(), pendientes.size());
+	Itf_ProyeccionVacantes copia = consumidor.proyeccion.crearVacia();
+	for (Vacante vacante : inicial){
+		aplicar(consumidor, copia, new EventoVacante(desde, EventoVacante.Tipo.GUARDADA, null, vacante));
+	}
+	long hasta = desde;
+	for (EventoVacante evento : pendientes){
+		aplicar(consumidor, copia, evento);
+		hasta = evento.secuencia();
+	}
+	consumidor.proyeccion.adoptar(copia);
+	consumidor.aplicados = hasta;
+	consumidor.reconstrucciones++;
+}
+
+/**
+ * Un evento que falla se cuenta y se salta: la proyección queda incompleta para esa vacante, pero las demás
+ * siguen al día. Reconstruirla la deja de nuevo completa.
+ */
+private void aplicar(Consumidor consumidor, Itf_ProyeccionVacantes destino, EventoVacante evento) {
+	try{
+		if (evento.tipo() == EventoVacante.Tipo.GUARDADA){
+			destino.alGuardarVacante(evento.anterior(), evento.vacante());
+		} else{
+			destino.alEliminarVacante(evento.vacante());
+		}
+	} catch (RuntimeException e){
+		consumidor.errores++;
+		log.warn("La proyección '{}' no pudo aplicar el evento {}: {}", consumidor.proyeccion.nombreProyeccion(),
+				evento.secuencia(), e.getMessage());
+	}
+}
+
+/**
+ * Una proyección, su hilo y su cursor. Solo el hilo modifica `aplicados`, `reconstrucciones` y `errores`;
+ * `reconstruir` se modifica con el cerrojo del registro.
+ */
+private final class Consumidor {
+
+	private final Itf_ProyeccionVacantes proyeccion;
+	private final Thread hilo;
+	private volatile long aplicados;
+	private volatile long reconstrucciones;
+	private volatile long errores;
+	private boolean reconstruir;
+
+	Consumidor(Itf_ProyeccionVacantes proyeccion) {
+		this.proyeccion = proyeccion;
+		this.hilo = new Thread(() -> consumir(this), "proyeccion-" + proyeccion.nombreProyeccion());
+		this.hilo.setDaemon(true);
+	}
+}
+}
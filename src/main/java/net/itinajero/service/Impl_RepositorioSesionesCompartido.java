@@ -0,0 +1,74 @@
+package net.itinajero.service;
+
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * ¿Qué es? Un repositorio de sesiones de Spring Session que guarda cada sesión HTTP en el
+ * {@link Itf_AlmacenCompartido}, bajo la clave `sesion:{id}`.
+ * <p>
+ * ¿Cómo funciona? Spring Session instala un filtro que, en cada petición, lee la cookie `SESSION`, llama a
+ * `findById()` y, al terminar la petición, llama a `save()`. Las sesiones se codifican con {@link CodecSesion}.
+ * Cada `save()` la guarda con su inactividad máxima como caducidad (`SET ... PX`): cada petición la renueva, y
+ * una sesión abandonada desaparece sola del almacén. Si se lee una ya expirada (el reloj del nodo va por delante
+ * del almacén), se borra en ese momento.
+ * <p>
+ * ¿Por qué se implementa así? Porque así ningún nodo guarda estado del usuario en su memoria: se pueden añadir
+ * nodos detrás de un balanceador "round-robin" simple y cada petición puede caer en cualquiera de ellos.
+ */
+public class Impl_RepositorioSesionesCompartido implements SessionRepository<SesionCompartida> {
+
+private static final String PREFIJO_CLAVE = "sesion:";
+
+private final Itf_AlmacenCompartido almacen;
+private final Duration inactividadMaxima;
+
+public Impl_RepositorioSesionesCompartido(Itf_AlmacenCompartido almacen, Duration inactividadMaxima) {
+	this.almacen = almacen;
+	this.inactividadMaxima = inactividadMaxima;
+}
+
+@Override
+public SesionCompartida createSession() {
+	return new SesionCompartida(inactividadMaxima);
+}
+
+@Override
+public void save(SesionCompartida sesion) {
+	String idOriginal = sesion.getIdOriginal();
+	if (idOriginal != null && !idOriginal.equals(sesion.getId())){
+		// El id cambió (por ejemplo, tras iniciar sesión): la clave vieja no debe seguir siendo válida.
+		almacen.eliminar(PREFIJO_CLAVE + idOriginal);
+	}
+	byte[] datos = CodecSesion.codificarSesion(sesion);
+	Duration inactividad = sesion.getMaxInactiveInterval();
+	if (inactividad.isNegative()){
+		almacen.guardar(PREFIJO_CLAVE + sesion.getId(), datos); // Sin límite de inactividad: no caduca.
+	} else{
+		almacen.guardar(PREFIJO_CLAVE + sesion.getId(), datos, inactividad);
+	}
+	sesion.marcarGuardada();
+}
+
+@Override
+public SesionCompartida findById(String id) {
+	byte[] datos = almacen.obtener(PREFIJO_CLAVE + id);
+	if (datos == null){
+		return null;
+	}
+	SesionCompartida sesion = CodecSesion.decodificarSesion(datos);
+	if (sesion.isExpired()){
+		deleteById(id);
+		return null;
+	}
+	sesion.setLastAccessedTime(Instant.now());
+	return sesion;
+}
+
+@Override
+public void deleteById(String id) {
+	almacen.eliminar(PREFIJO_CLAVE + id);
+}
+}
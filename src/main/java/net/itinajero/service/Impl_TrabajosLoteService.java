@@ -0,0 +1,217 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * ============ TRABAJOS POR LOTES SOBRE TODO EL CATÁLOGO (FORK/JOIN) ============
+ * <p>
+ * ¿Qué es esta clase? Ejecuta en segundo plano los trabajos que tienen que revisar TODAS las vacantes, como
+ * caducar las publicadas hace más de N días.
+ * <p>
+ * ¿Cómo funciona? - El trabajo toma una foto del catálogo (`buscarTodas()` copiado a un arreglo) y la parte en
+ * mitades una y otra vez hasta llegar a bloques de `tamanio-bloque` vacantes (un {@link RecursiveTask}). - Los
+ * bloques se reparten entre los hilos de un `ForkJoinPool` propio; un hilo que acaba sus bloques "roba" bloques
+ * pendientes de los demás, así que todos los núcleos trabajan hasta el final. - Cada bloque devuelve las COPIAS
+ * modificadas de sus vacantes afectadas y suma su avance al {@link TrabajoLote}. - Al final, todas las copias se
+ * guardan con UN `guardarTodasSiNoCambiaron()`.
+ * <p>
+ * ¿Por qué se implementa así? - Mientras se revisa, no se toma ningún cerrojo ni se modifica ninguna vacante
+ * guardada: quien consulta el catálogo sigue viendo las vacantes de antes, completas. - Si el trabajo falla a
+ * medias, no se guarda nada. - Publicar de una vez toma el cerrojo del almacén una sola vez (las escrituras
+ * esperan a que termine; las lecturas no lo usan), y los índices y estadísticas reciben los cambios como
+ * cualquier otra edición. - Un pool propio evita que un trabajo largo ocupe el `ForkJoinPool.commonPool()`, que
+ * comparten los `parallelStream()` de toda la aplicación.
+ * <p>
+ * Conflictos: si alguien edita o elimina una vacante mientras el trabajo corre, la copia del trabajo está basada
+ * en datos viejos. Cada bloque guarda los bytes de la vacante tal como la leyó, y
+ * {@link Itf_VacanteService#guardarTodasSiNoCambiaron} los compara con la guardada dentro del cerrojo de
+ * escritura del almacén: las que cambiaron NO se publican (se cuentan en `conflictos`), sin hueco entre comprobar
+ * y guardar. Basta con volver a lanzar el trabajo. Solo hay un trabajo en curso a la vez.
+ */
+@Service
+public class Impl_TrabajosLoteService implements Itf_TrabajosLoteService {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_TrabajosLoteService.class);
+
+private static final int TRABAJOS_RECORDADOS = 20;
+
+private final Supplier<Itf_VacanteService> serviceVacantes;
+private final ForkJoinPool pool;
+private final int tamanioBloque;
+
+private final AtomicLong secuencia = new AtomicLong();
+private final AtomicReference<Ejecucion> enCurso = new AtomicReference<>();
+private final ConcurrentLinkedDeque<TrabajoLote> recientes = new ConcurrentLinkedDeque<>();
+
+/**
+ * ¿Por qué un `ObjectProvider`? El servicio de vacantes solo hace falta al lanzar un trabajo: el proveedor lo
+ * busca entonces, y este servicio no obliga a crear el almacén (que carga y replica el catálogo) antes de tiempo.
+ */
+@Autowired
+public Impl_TrabajosLoteService(ObjectProvider<Itf_VacanteService> serviceVacantes,
+		@Value("${empleos.trabajos.paralelismo:0}") int paralelismo,
+		@Value("${empleos.trabajos.tamanio-bloque:1000}") int tamanioBloque) {
+	this(serviceVacantes::getObject, paralelismo, tamanioBloque);
+}
+
+Impl_TrabajosLoteService(Supplier<Itf_VacanteService> serviceVacantes, int paralelismo, int tamanioBloque) {
+	this.serviceVacantes = serviceVacantes;
+	this.tamanioBloque = Math.max(1, tamanioBloque);
+	this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors(),
+			pool -> {
+				ForkJoinWorkerThread hilo = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				hilo.setName("trabajos-lote-" + hilo.getPoolIndex());
+				return hilo;
+			}, null, false);
+}
+
+@Override
+public TrabajoLote lanzar(String nombre, Predicate<Vacante> afectada, Consumer<Vacante> cambio) {
+	Ejecucion ejecucion = new Ejecucion(new TrabajoLote(Long.toString(secuencia.incrementAndGet()), nombre));
+	if (!enCurso.compareAndSet(null, ejecucion)){
+		throw new IllegalStateException("Ya hay un trabajo en curso: " + enCurso.get().trabajo);
+	}
+	recientes.addFirst(ejecucion.trabajo);
+	while (recientes.size() > TRABAJOS_RECORDADOS){
+		recientes.pollLast();
+	}
+	pool.execute(() -> ejecutar(ejecucion, afectada, cambio));
+	return ejecucion.trabajo;
+}
+
+@Override
+public TrabajoLote caducarAnterioresA(int dias) {
+	if (dias <= 0){
+		throw new IllegalArgumentException("Los días deben ser positivos: " + dias);
+	}
+	Date limite = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(dias));
+	return lanzar("Caducar vacantes publicadas hace más de " + dias + " días",
+			vacante -> vacante.getEstatus() != Vacante.Estatus.ELIMINADA && vacante.getFecha() != null
+					&& vacante.getFecha().before(limite),
+			vacante -> vacante.setEstatus(Vacante.Estatus.ELIMINADA));
+}
+
+@Override
+public Optional<TrabajoLote> buscar(String idTrabajo) {
+	return recientes.stream().filter(trabajo -> trabajo.getId().equals(idTrabajo)).findFirst();
+}
+
+@Override
+public List<TrabajoLote> recientes() {
+	return List.copyOf(recientes);
+}
+
+@PreDestroy
+public void detener() {
+	pool.shutdownNow();
+}
+
+private void ejecutar(Ejecucion ejecucion, Predicate<Vacante> afectada, Consumer<Vacante> cambio) {
+	TrabajoLote trabajo = ejecucion.trabajo;
+	try{
+		Itf_VacanteService vacantes = serviceVacantes.get();
+		Vacante[] foto = vacantes.buscarTodas().toArray(new Vacante[0]);
+		trabajo.empezar(foto.length);
+		List<Vacante> modificadas = new Bloque(ejecucion, foto, 0, foto.length, afectada, cambio).invoke();
+
+		trabajo.publicar();
+		List<Vacante> publicadas = modificadas.isEmpty() ? modificadas
+				: vacantes.guardarTodasSiNoCambiaron(modificadas, ejecucion.leidas);
+		trabajo.terminar(publicadas.size(), modificadas.size() - publicadas.size());
+		log.info("Trabajo terminado en {} ms: {} ({} modificadas, {} conflictos)", trabajo.getDuracionMs(), trabajo,
+				trabajo.getModificadas(), trabajo.getConflictos());
+	} catch (RuntimeException e){
+		trabajo.fallar(e);
+		log.error("Falló el trabajo {}", trabajo, e);
+	} finally{
+		enCurso.set(null);
+	}
+}
+
+/**
+ * El trabajo en curso y, por id, los bytes de cada vacante afectada tal como se leyó de la foto.
+ */
+private static final class Ejecucion {
+
+	private final TrabajoLote trabajo;
+	private final Map<Integer, byte[]> leidas = new ConcurrentHashMap<>();
+
+	Ejecucion(TrabajoLote trabajo) {
+		this.trabajo = trabajo;
+	}
+}
+
+/**
+ * Un tramo `[desde, hasta)` de la foto del catálogo. Si es más grande que un bloque, se parte en dos: la mitad
+ * izquierda queda disponible para otro hilo (`fork()`) y la derecha la resuelve este mismo.
+ */
+private final class Bloque extends RecursiveTask<List<Vacante>> {
+
+	private final Ejecucion ejecucion;
+	private final Vacante[] foto;
+	private final int desde;
+	private final int hasta;
+	private final Predicate<Vacante> afectada;
+	private final Consumer<Vacante> cambio;
+
+	Bloque(Ejecucion ejecucion, Vacante[] foto, int desde, int hasta, Predicate<Vacante> afectada,
+			Consumer<Vacante> cambio) {
+		this.ejecucion = ejecucion;
+		this.foto = foto;
+		this.desde = desde;
+		this.hasta = hasta;
+		this.afectada = afectada;
+		this.cambio = cambio;
+	}
+
+	@Override
+	protected List<Vacante> compute() {
+		if (hasta - desde <= tamanioBloque){
+			List<Vacante> modificadas = new ArrayList<>();
+			for (int i = desde; i < hasta; i++){
+				if (afectada.test(foto[i])){
+					// La vacante guardada no se toca: los observadores necesitan sus valores como "anterior".
+					byte[] leida = CodecVacante.codificar(foto[i]);
+					Vacante copia = CodecVacante.decodificar(leida);
+					cambio.accept(copia);
+					ejecucion.leidas.put(copia.getId(), leida);
+					modificadas.add(copia);
+				}
+			}
+			ejecucion.trabajo.avanzar(hasta - desde);
+			return modificadas;
+		}
+		int mitad = (desde + hasta) >>> 1;
+		Bloque izquierda = new Bloque(ejecucion, foto, desde, mitad, afectada, cambio);
+		izquierda.fork();
+		List<Vacante> derecha = new Bloque(ejecucion, foto, mitad, hasta, afectada, cambio).compute();
+		List<Vacante> modificadas = izquierda.join();
+		modificadas.addAll(derecha);
+		return modificadas;
+	}
+}
+}
@@ -16,13 +16,21 @@ package net.itinajero.service;
 import net.itinajero.model.Vacante;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 /**
  * ============ SECCIÓN 3: LA DECLARACIÓN DE LA CLASE (EL MOTOR DE LA APLICACIÓN) ============ ¿Qué es esta
@@ -43,23 +51,28 @@ import java.util.Objects;
  * nos lo proporcione. - **Programación orientada a interfaces**: Al depender de la interfaz
  * `Itf_VacanteService` y no de la clase concreta, podríamos cambiar fácilmente esta implementación por una que
  * use una base de datos real sin tener que modificar los controladores.
+ * <p>
+ * Es el almacén por defecto (`empleos.vacantes.almacen=lista`). Con `columnar` o `mapeado` Spring crea en su
+ * lugar {@link Impl_VacanteServiceColumnar} o {@link Impl_VacanteServiceMapeado}.
  */
 @Service
-public class Impl_VacanteService implements Itf_VacanteService {
+@ConditionalOnProperty(name = "empleos.vacantes.almacen", havingValue = "lista", matchIfMissing = true)
+public class Impl_VacanteService implements Itf_AlmacenVacantes {
 
 /*
  * ============ SECCIÓN 4: LOS ATRIBUTOS (LA MEMORIA INTERNA DE LA CLASE) ============
  */
 
 /**
- * ¿Qué es? Es un atributo que almacenará la lista de todas las vacantes. Actúa como nuestra base de datos en
- * memoria. ¿Cómo funciona? - `private`: Solo se puede acceder a esta lista desde dentro de esta misma clase.
- * Protege los datos. - `List<Vacante>`: Declara que es una lista que solo puede contener objetos de tipo
- * `Vacante`. - `listaVacantes`: Es el nombre que le damos a la variable. ¿Por qué se declara aquí? Al ser un
- * atributo de la instancia, la lista persistirá y mantendrá su estado mientras la aplicación esté en ejecución.
- * Cada vez que un método en esta clase la modifique o la lea, estará trabajando sobre la misma lista.
+ * ¿Qué es? La versión actual de todas las vacantes: nuestra base de datos en memoria. ¿Cómo funciona? - Es una
+ * {@link InstantaneaVacantes}, que NUNCA se modifica: cada escritura crea la versión siguiente (compartiendo casi
+ * toda la estructura con esta) y la publica reemplazando la referencia. - `volatile` garantiza que un hilo que lee
+ * el campo ve la instantánea completa, tal como la dejó el hilo que la publicó. ¿Por qué se declara así? Las
+ * lecturas no toman ningún cerrojo y nunca esperan a una escritura: quien tiene una instantánea en la mano puede
+ * seguir leyéndola aunque mientras tanto se guarden otras vacantes. Antes era una `LinkedList` que se modificaba
+ * en el sitio, y quien la recorría podía encontrarla a medio cambiar.
  */
-private List<Vacante> listaVacantes = null;
+private volatile InstantaneaVacantes actual;
 
 /**
  * ¿Qué es? Un objeto para registrar mensajes de log (informativos, de error, etc.). ¿Cómo funciona? - `private
@@ -70,6 +83,19 @@ private List<Vacante> listaVacantes = null;
  */
 private static final Logger log = LoggerFactory.getLogger(Impl_VacanteService.class);
 
+/**
+ * ¿Qué es? La lista de componentes que quieren enterarse de cada `guardar()` (ver `Itf_VacanteObservador`).
+ * ¿Por qué `CopyOnWriteArrayList`? Se recorre en cada escritura y casi nunca cambia, que es justo el caso para
+ * el que está pensada.
+ */
+private final List<Itf_VacanteObservador> observadores = new CopyOnWriteArrayList<>();
+
+/**
+ * El mayor id guardado, entregado por `reservarId()` o eliminado. `siguienteId()` devuelve el siguiente, así que
+ * nunca repite uno, aunque la vacante reservada todavía no esté guardada o la eliminada siga en el archivo.
+ */
+private int mayorIdUsado;
+
 /**
  * ============ SECCIÓN 5: EL CONSTRUCTOR (EL MOMENTO DE LA CREACIÓN) ============ ¿Qué es? El constructor es un
  * método especial que se ejecuta UNA SOLA VEZ, justo cuando Spring crea la instancia de esta clase. ¿Cómo
@@ -81,16 +107,31 @@ private static final Logger log = LoggerFactory.getLogger(Impl_VacanteService.cl
  */
 public Impl_VacanteService() {
 
+	// ¿Qué es? Es la inicialización de nuestro catálogo.
+	// ¿Cómo funciona? `InstantaneaVacantes.de(...)` crea la primera versión (la 1) con las vacantes de ejemplo ya dentro.
+	// ¿Por qué se usa? Aquí se "da vida" a la variable `actual` que declaramos antes. A partir de este punto, cada escritura publica una versión nueva.
+	List<Vacante> ejemplos = crearVacantesDeEjemplo();
+	actual = InstantaneaVacantes.de(1, ejemplos);
+	ejemplos.forEach(vacante -> mayorIdUsado = Math.max(mayorIdUsado, vacante.getId()));
+
+	// Se registra en el log que la inicialización de datos ha terminado.
+	log.info("-> Constructor de Impl_VacanteService: Creación de lista de vacantes en memoria completada.");
+}
+
+/**
+ * Crea las vacantes de ejemplo con las que arranca la aplicación (nuestra "base de datos" simulada). Es
+ * estático y de paquete para que cualquier otro almacén de vacantes (por ejemplo
+ * {@link Impl_VacanteServiceColumnar}) arranque exactamente con los mismos datos.
+ */
+static List<Vacante> crearVacantesDeEjemplo() {
+
+	List<Vacante> vacantes = new ArrayList<>();
+
 	// ¿Qué es? Un objeto que nos ayudará a convertir texto (String) en fechas (Date).
 	// ¿Cómo funciona? Se le da un patrón ("dd-MM-yyyy") y sabrá cómo interpretar un texto como "01-02-2025".
 	// ¿Por qué se usa? Las fechas en Java son objetos, no simple texto. Necesitamos una forma de "parsear" o interpretar el texto para crear estos objetos.
 	final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd-MM-yyyy");
 
-	// ¿Qué es? Es la inicialización de nuestra lista.
-	// ¿Cómo funciona? `new LinkedList<>()` crea un objeto de tipo lista enlazada, que es una implementación concreta de la interfaz `List`.
-	// ¿Por qué se usa? Aquí se "da vida" a la variable `listaVacantes` que declaramos antes. A partir de este punto, ya podemos agregarle elementos.
-	listaVacantes = new LinkedList<>();
-
 	// ¿Qué es? Un bloque de control de errores.
 	// ¿Cómo funciona? El código que puede fallar (en este caso, `DATE_FORMAT.parse()`) se pone en el bloque `try`. Si ocurre un error (una `ParseException`), la ejecución salta al bloque `catch` en lugar de detener la aplicación.
 	// ¿Por qué se usa? Para hacer la aplicación robusta. Si una de las fechas estuviera mal escrita, la aplicación no se "caería", simplemente registraría el error y continuaría.
@@ -102,47 +143,55 @@ public Impl_VacanteService() {
 		// Paso 2: Asignar valores a sus atributos usando sus métodos "set".
 		vacante1.setId(1);
 		vacante1.setNombre("Ingeniero Civil");
+		vacante1.setEstatus(Vacante.Estatus.APROBADA);
 		vacante1.setDescripcion("Solicitamos para el equipo de construcción de puente peatonal");
 		// Aquí se usa el formateador para crear el objeto Date.
 		vacante1.setFecha(DATE_FORMAT.parse("01-01-2025"));
 		vacante1.setSalario(14000.0);
 		vacante1.setDestacado(1);
 		vacante1.setImagen("logo1.png");
+		vacante1.setCategoria("Construcción");
 
 		Vacante vacante2 = new Vacante();
 		vacante2.setId(2);
 		vacante2.setNombre("Contador Público");
+		vacante2.setEstatus(Vacante.Estatus.APROBADA);
 		vacante2.setDescripcion("Contador titulado con experiencia en contabilidades de costo");
 		vacante2.setFecha(DATE_FORMAT.parse("01-02-2025"));
 		vacante2.setSalario(12000.0);
 		vacante2.setDestacado(0);
 		vacante2.setImagen("logo2.png");
+		vacante2.setCategoria("Contabilidad");
 
 		Vacante vacante3 = new Vacante();
 		vacante3.setId(3);
 		vacante3.setNombre("Ingeniero Eléctrico");
+		vacante3.setEstatus(Vacante.Estatus.APROBADA);
 		vacante3.setDescripcion("Ingeniero eléctrico con experiencia en instalaciones industriales");
 		vacante3.setFecha(DATE_FORMAT.parse("01-03-2025"));
 		vacante3.setSalario(10500.0);
 		vacante3.setDestacado(0);
+		vacante3.setCategoria("Construcción");
 		// A esta vacante no se le asigna imagen, por lo que usará la imagen por defecto definida en el modelo.
 
 		Vacante vacante4 = new Vacante();
 		vacante4.setId(4);
 		vacante4.setNombre("Diseñador Gráfico");
+		vacante4.setEstatus(Vacante.Estatus.APROBADA);
 		vacante4.setDescripcion("Diseñador gráfico con experiencia en diseño digital y branding");
 		vacante4.setFecha(DATE_FORMAT.parse("01-04-2025"));
 		vacante4.setSalario(7900.0);
 		vacante4.setDestacado(1);
 		vacante4.setImagen("logo4.png");
+		vacante4.setCategoria("Informática");
 
 		// ¿Qué es? Agregar los objetos ya creados a nuestra lista en memoria.
 		// ¿Cómo funciona? El método `add()` de la lista se encarga de añadir el elemento al final.
 		// ¿Por qué se usa? Para poblar nuestra "base de datos".
-		listaVacantes.add(vacante1);
-		listaVacantes.add(vacante2);
-		listaVacantes.add(vacante3);
-		listaVacantes.add(vacante4);
+		vacantes.add(vacante1);
+		vacantes.add(vacante2);
+		vacantes.add(vacante3);
+		vacantes.add(vacante4);
 
 	} catch (ParseException e){
 		// ¿Qué es? El bloque que se ejecuta si algo sale mal en el `try`.
@@ -150,9 +199,7 @@ public Impl_VacanteService() {
 		// ¿Por qué se usa? Aquí registramos el error para que el desarrollador pueda investigarlo, en lugar de dejar que la aplicación falle silenciosamente o se detenga.
 		log.error("Error en el constructor de Impl_VacanteService al parsear una fecha: ", e);
 	}
-
-	// Se registra en el log que la inicialización de datos ha terminado.
-	log.info("-> Constructor de Impl_VacanteService: Creación de lista de vacantes en memoria completada.");
+	return vacantes;
 }
 
 /*
@@ -164,42 +211,165 @@ public Impl_VacanteService() {
  * la lista completa de vacantes que tiene almacenada. ¿Cómo lo logra? - `@Override`: Es una anotación que le
  * indica al compilador (y a otros programadores) que este método está sobrescribiendo un método de su interfaz
  * o clase padre. Ayuda a evitar errores. - `public List<Vacante> buscarTodas()`: La firma del método es
- * idéntica a la de la interfaz. - `return listaVacantes;`: Devuelve la referencia al atributo de la clase que
- * contiene todas las vacantes. ¿Por qué se implementa así? Es la forma más directa de cumplir con la solicitud.
- * Como el servicio es un singleton y la lista es un atributo, cualquier controlador que llame a este método
- * recibirá siempre la misma lista actualizada.
+ * idéntica a la de la interfaz. - `return actual.buscarTodas();`: Devuelve la lista de la versión actual.
+ * ¿Por qué se implementa así? La lista es de solo lectura y no cambia nunca: quien la recorre ve siempre las
+ * mismas vacantes, aunque mientras tanto se guarden otras (esas aparecen en la lista de la versión siguiente).
  */
 @Override
 public List<Vacante> buscarTodas() {
-	return listaVacantes;
+	return actual.buscarTodas();
+}
+
+/**
+ * ¿Qué hace este método? Busca una única vacante por su `id`. ¿Cómo lo logra? Consulta el índice por id de la
+ * versión actual en lugar de recorrer la lista, así que tarda lo mismo encuentre o no la vacante. ¿Por qué
+ * devuelve un `Optional`? Porque "no existe" es un resultado normal (un enlace viejo, un id escrito a mano) y el
+ * que llama debe decidir qué hacer con él; con una lista, `get(0)` sobre una lista vacía terminaba en una
+ * excepción.
+ */
+@Override
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	return actual.buscarPorId(idVacante);
+}
+
+/**
+ * La versión actual entera, para quien necesita hacer varias lecturas que vean los mismos datos.
+ */
+@Override
+public Optional<InstantaneaVacantes> instantanea() {
+	return Optional.of(actual);
+}
+
+/**
+ * ¿Qué hace este método? Guarda una vacante en memoria. ¿Cómo lo logra? - Si la vacante no trae `id` (viene de
+ * un formulario nuevo), se le asigna el siguiente número disponible. - Si ya existe una vacante con ese `id`, se
+ * reemplaza en su misma posición; si no, se agrega al final. - La versión nueva se publica en `actual` y DESPUÉS
+ * se avisa a los observadores. ¿Por qué se implementa así? Para que volver a guardar una vacante (por ejemplo, la
+ * réplica que llega desde otro nodo) la actualice en lugar de duplicarla. Está sincronizado para que dos
+ * peticiones simultáneas no reciban el mismo `id` ni publiquen dos versiones basadas en la misma anterior; las
+ * lecturas no usan ese cerrojo.
+ */
+@Override
+public synchronized void guardar(Vacante vacante) {
+	if (vacante.getId() == null){
+		vacante.setId(siguienteId());
+	}
+	mayorIdUsado = Math.max(mayorIdUsado, vacante.getId());
+	Vacante anterior = actual.obtener(vacante.getId());
+	actual = actual.conVacante(vacante);
+	if (anterior != null){
+		log.info("Valor Vacante actualizada: {}", vacante);
+	} else{
+		log.info("Valor Vacante agregada   : {}", vacante);
+	}
+	for (Itf_VacanteObservador observador : observadores){
+		observador.alGuardarVacante(anterior, vacante);
+	}
+
+}
+
+/**
+ * ¿Qué hace? Recibe de Spring todos los beans que implementan `Itf_VacanteObservador` y los registra. ¿Por qué
+ * `required = false`? Para que el servicio funcione igual aunque no exista ningún observador.
+ * <p>
+ * Las proyecciones de lectura ({@link Itf_ProyeccionVacantes}) no se registran aquí: las alimenta
+ * {@link Impl_RegistroEventosVacantes} en sus propios hilos.
+ */
+@Autowired(required = false)
+public void setObservadores(List<Itf_VacanteObservador> observadores) {
+	observadores.stream()
+			.filter(observador -> !(observador instanceof Itf_ProyeccionVacantes))
+			.forEach(this::registrarObservador);
 }
 
 /**
- * ¿Qué hace este método? Busca una única vacante dentro de la lista basándose en su `id`. ¿Cómo lo logra? -
- * Recorre cada objeto `Vacante` en la `listaVacantes` usando un bucle "for-each". - Para cada vacante, compara
- * su ID (`vacante.getId()`) con el ID que se pasó como parámetro (`idVacante`). - Se usa `Objects.equals()`
- * para la comparación. Esto es más seguro que `==` porque evita errores si alguno de los valores fuera `null`.
- * - Si encuentra una coincidencia, devuelve inmediatamente una lista que contiene únicamente esa vacante
- * (`List.of(vacante)`). - Si el bucle termina y no se encontró ninguna coincidencia, devuelve una lista vacía
- * (`List.of()`). ¿Por qué se implementa así? Es un algoritmo de búsqueda lineal simple y efectivo para una
- * cantidad pequeña de datos en memoria. Devolver siempre una lista (aunque esté vacía) puede simplificar el
- * código que llama a este método, ya que no tiene que preocuparse por manejar un valor `null`.
+ * Registra un observador y le "reproduce" las vacantes que ya existían, para que empiece con los datos
+ * completos (las vacantes de ejemplo se crean en el constructor, antes de que Spring inyecte a nadie).
+ */
+public synchronized void registrarObservador(Itf_VacanteObservador observador) {
+	for (Vacante vacante : actual.buscarTodas()){
+		observador.alGuardarVacante(null, vacante);
+	}
+	observadores.add(observador);
+}
+
+/**
+ * Guarda todo el lote con una sola adquisición del cerrojo (el de `synchronized`), en lugar de una por vacante,
+ * y lo publica como UNA sola versión: ningún lector ve el lote a medias.
  */
 @Override
-public List<Vacante> buscarPorId(Integer idVacante) {
-	for (Vacante vacante : listaVacantes){
-		if (Objects.equals(vacante.getId(), idVacante)){
-			return List.of(vacante); // Devuelve una lista inmutable con la vacante encontrada
+public synchronized void guardarTodas(List<Vacante> vacantes) {
+	for (Vacante vacante : vacantes){
+		if (vacante.getId() == null){
+			vacante.setId(siguienteId());
+		}
+		mayorIdUsado = Math.max(mayorIdUsado, vacante.getId());
+	}
+	Vacante[] anteriores = new Vacante[vacantes.size()];
+	InstantaneaVacantes nueva = actual.conVacantes(vacantes, anteriores);
+	actual = nueva;
+	log.info("{} vacantes guardadas en la versión {}.", vacantes.size(), nueva.getVersion());
+	for (int i = 0; i < vacantes.size(); i++){
+		for (Itf_VacanteObservador observador : observadores){
+			observador.alGuardarVacante(anteriores[i], vacantes.get(i));
 		}
 	}
-	// Si no se encuentra la vacante, se devuelve una lista inmutable vacía.
-	return List.of();
 }
 
+/**
+ * Publica UNA versión sin todas las vacantes del lote, que se construye en una sola pasada: quitarlas de una en
+ * una recorrería el catálogo una vez por vacante.
+ */
 @Override
-public void guardar(Vacante vacante) {
-	listaVacantes.add(vacante);
-	log.info("Valor Vacante agregada   : {}", vacante);
+public synchronized List<Vacante> guardarTodasSiNoCambiaron(List<Vacante> vacantes, Map<Integer, byte[]> leidas) {
+	List<Vacante> sinConflicto = new ArrayList<>(vacantes.size());
+	for (Vacante vacante : vacantes){
+		if (CodecVacante.sinCambios(actual.obtener(vacante.getId()), leidas.get(vacante.getId()))){
+			sinConflicto.add(vacante);
+		}
+	}
+	if (!sinConflicto.isEmpty()){
+		guardarTodas(sinConflicto);
+	}
+	return sinConflicto;
+}
+
+@Override
+public synchronized List<Vacante> eliminarTodasSi(Collection<Integer> idsVacantes, Predicate<Vacante> condicion) {
+	List<Vacante> eliminadas = new ArrayList<>(idsVacantes.size());
+	Set<Integer> idsEliminados = new HashSet<>();
+	for (Integer id : idsVacantes){
+		Vacante eliminada = id == null || idsEliminados.contains(id) ? null : actual.obtener(id);
+		if (eliminada != null && condicion.test(eliminada)){
+			eliminadas.add(eliminada);
+			idsEliminados.add(id);
+			mayorIdUsado = Math.max(mayorIdUsado, id);
+		}
+	}
+	if (!eliminadas.isEmpty()){
+		actual = actual.sinVacantes(idsEliminados);
+		for (Vacante eliminada : eliminadas){
+			for (Itf_VacanteObservador observador : observadores){
+				observador.alEliminarVacante(eliminada);
+			}
+		}
+		log.info("{} vacantes eliminadas del catálogo.", eliminadas.size());
+	}
+	return eliminadas;
+}
+
+@Override
+public synchronized int mayorIdUsado() {
+	return mayorIdUsado;
+}
+
+@Override
+public synchronized int reservarId() {
+	mayorIdUsado = siguienteId();
+	return mayorIdUsado;
+}
 
+private int siguienteId() {
+	return mayorIdUsado + 1;
 }
 }
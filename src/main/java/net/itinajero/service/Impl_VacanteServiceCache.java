@@ -0,0 +1,425 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * ============ CACHÉ DE DOS NIVELES DELANTE DEL SERVICIO DE VACANTES ============
+ * <p>
+ * ¿Qué es esta clase? Un "decorador" de {@link Itf_VacanteService}: cumple el mismo contrato, pero antes de
+ * llegar al almacén real ({@link Itf_AlmacenVacantes}) consulta dos cachés:
+ * <ol>
+ * <li>L1: una {@link CacheLRU} dentro de este proceso, con un tamaño máximo configurable.</li>
+ * <li>L2: un {@link Itf_AlmacenCompartido} que comparten todos los nodos (Redis en producción).</li>
+ * </ol>
+ * <p>
+ * ¿Cómo funciona? - `buscarPorId()` mira primero en L1, después en L2 y solo al final en el servicio real,
+ * rellenando los niveles superiores a la vuelta. - `guardar()` escribe en el servicio real, actualiza L2 y
+ * publica un mensaje de invalidación en el canal {@value #CANAL_INVALIDACION}. - Cada nodo escucha ese canal:
+ * cuando el mensaje viene de OTRO nodo, descarta su copia en L1 y copia la versión de L2 a su lista local, de
+ * modo que todos los nodos acaban sirviendo los mismos datos.
+ * <p>
+ * ¿Por qué se implementa así? - `@Primary` hace que los controladores, que piden un `Itf_VacanteService`,
+ * reciban este decorador sin cambiar ni una línea de su código. - Las lecturas repetidas se resuelven con la
+ * latencia de la memoria local y solo las escrituras generan tráfico entre nodos.
+ * <p>
+ * Ids que no existen: también se recuerdan, en una segunda {@link CacheLRU} ("caché negativa"). Un robot que
+ * prueba ids al azar repite muchos; sin ella, cada intento bajaría hasta L2 y el almacén para volver sin nada.
+ * <p>
+ * Lecturas dentro de una petición HTTP: si el almacén publica versiones ({@link Itf_VacanteService#instantanea()}),
+ * las lecturas de la petición se resuelven sobre la versión que fijó la primera ({@link VersionPeticion}). Qué
+ * camino sigue cada una: - `buscarTodas()` y las búsquedas por rango leen solo la versión fijada. -
+ * `buscarPorId()` que encuentra la vacante en la versión fijada la devuelve sin pasar por L1 ni L2 (ya está en la
+ * memoria de este nodo). - `buscarPorId()` que NO la encuentra consulta la caché negativa: un robot que repite
+ * ids inexistentes se frena en `ausentes`. Si el id no estaba anotado, se comprueba en la versión actual del
+ * almacén y, si tampoco existe, se anota; la respuesta sigue siendo "no existe", para no mezclar versiones. Fuera
+ * de una petición (o con un almacén sin versiones, como el columnar) las lecturas usan L1, `ausentes` y L2.
+ * <p>
+ * La L1 guarda copias: nunca el objeto que pasó quien llamó a `guardar()`, que podría seguir modificándolo.
+ * <p>
+ * Llamadas repetidas en una misma petición: la portada, el menú y los bloques de destacadas pueden pedir lo mismo
+ * varias veces. Cada lectura se anota con sus argumentos en la petición ({@link VersionPeticion#memorizar}) y las
+ * repeticiones devuelven el resultado anotado sin llegar al almacén. Las métricas `memo.llamadas` y
+ * `memo.ahorradas` cuentan cuántas lecturas se pidieron y cuántas de ellas no hizo falta hacer.
+ */
+@Service
+@Primary
+public class Impl_VacanteServiceCache implements Itf_VacanteService, Itf_FuenteMetricas {
+
+static final String CANAL_INVALIDACION = "vacantes:invalidacion";
+static final String CANAL_ELIMINACION = "vacantes:eliminacion";
+private static final String PREFIJO_CLAVE = "vacante:";
+/**
+ * El contador compartido del que salen los ids de las vacantes nuevas de TODOS los nodos.
+ */
+static final String CLAVE_ULTIMO_ID = "vacantes:ultimo-id";
+private static final String SEPARADOR = "|";
+
+private static final Logger log = LoggerFactory.getLogger(Impl_VacanteServiceCache.class);
+
+private final Itf_AlmacenVacantes origen;
+private final Itf_AlmacenCompartido almacenCompartido;
+private final CacheLRU<Integer, Vacante> cacheLocal;
+
+/**
+ * Ids buscados que no existían. Se borra el id en cuanto se guarda una vacante con él, aquí o en otro nodo.
+ */
+private final CacheLRU<Integer, Boolean> ausentes;
+
+/**
+ * Cuenta las escrituras. Una búsqueda fallida solo se anota en `ausentes` si no hubo ninguna escritura mientras
+ * buscaba; si no, podría anotar como ausente una vacante que se acaba de guardar.
+ */
+private final AtomicLong escrituras = new AtomicLong();
+
+/**
+ * Identificador de este nodo. Viaja en cada mensaje de invalidación para que el nodo que publica no se
+ * invalide a sí mismo.
+ */
+private final String idNodo = UUID.randomUUID().toString();
+
+/**
+ * Lecturas pedidas a este decorador y, de ellas, las que se calcularon de verdad (no estaban anotadas en la
+ * petición). La diferencia son las llamadas ahorradas.
+ */
+private final LongAdder llamadas = new LongAdder();
+private final LongAdder calculadas = new LongAdder();
+
+/**
+ * Copia inmutable de `buscarTodas()`. Se descarta (`null`) con cualquier escritura local o remota.
+ */
+private volatile List<Vacante> todasEnCache;
+
+public Impl_VacanteServiceCache(Itf_AlmacenVacantes origen, Itf_AlmacenCompartido almacenCompartido,
+		@Value("${empleos.cache.l1.capacidad:1000}") int capacidadL1,
+		@Value("${empleos.cache.ausentes.capacidad:10000}") int capacidadAusentes) {
+	this.origen = origen;
+	this.almacenCompartido = almacenCompartido;
+	this.cacheLocal = new CacheLRU<>(capacidadL1);
+	this.ausentes = new CacheLRU<>(capacidadAusentes);
+	almacenCompartido.suscribir(CANAL_INVALIDACION, this::alRecibirInvalidacion);
+	almacenCompartido.suscribir(CANAL_ELIMINACION, this::alRecibirEliminacion);
+	adelantarContadorDeIds();
+	log.info("-> Caché de vacantes iniciada en el nodo {} (L1 = {} entradas).", idNodo, capacidadL1);
+}
+
+@Override
+public List<Vacante> buscarTodas() {
+	return memorizar(new Llamada("buscarTodas", null), this::leerTodas);
+}
+
+@Override
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	if (idVacante == null){
+		return Optional.empty();
+	}
+	return memorizar(new Llamada("buscarPorId", idVacante), () -> leerPorId(idVacante));
+}
+
+/**
+ * Las búsquedas por rango no se guardan en caché (cada rango es distinto); se resuelven directamente en el
+ * almacén, que puede tener una forma rápida de hacerlas. Con una versión fijada se filtra esa versión. La lista
+ * devuelta es de solo lectura: dentro de una petición, la misma lista puede llegar a varios que la pidan.
+ */
+@Override
+public List<Vacante> buscarPorRangoSalario(double minimo, double maximo) {
+	return memorizar(new Llamada("buscarPorRangoSalario", List.of(minimo, maximo)),
+			() -> Collections.unmodifiableList(leerPorRangoSalario(minimo, maximo)));
+}
+
+private List<Vacante> leerTodas() {
+	InstantaneaVacantes fijada = VersionPeticion.fijar(this::versionActual);
+	if (fijada != null){
+		return fijada.buscarTodas();
+	}
+	List<Vacante> todas = todasEnCache;
+	if (todas == null){
+		synchronized (this){
+			// Se copia bajo el mismo cerrojo que usa invalidarTodas() para no publicar una copia ya obsoleta.
+			// La lista de una versión ya es inmutable: solo hay que copiar la de un almacén sin versiones.
+			if (todasEnCache == null){
+				todasEnCache = origen.instantanea().map(InstantaneaVacantes::buscarTodas)
+						.orElseGet(() -> List.copyOf(origen.buscarTodas()));
+			}
+			todas = todasEnCache;
+		}
+	}
+	return todas;
+}
+
+private Optional<Vacante> leerPorId(Integer idVacante) {
+	InstantaneaVacantes fijada = VersionPeticion.fijar(this::versionActual);
+	if (fijada != null){
+		Optional<Vacante> enVersion = fijada.buscarPorId(idVacante);
+		if (enVersion.isEmpty() && ausentes.obtener(idVacante) == null){
+			long escriturasAntes = escrituras.get();
+			if (origen.buscarPorId(idVacante).isEmpty()){
+				anotarAusente(idVacante, escriturasAntes);
+			}
+		}
+		return enVersion;
+	}
+	Vacante vacante = cacheLocal.obtener(idVacante);
+	if (vacante == null){
+		if (ausentes.obtener(idVacante) != null){
+			return Optional.empty();
+		}
+		long escriturasAntes = escrituras.get();
+		byte[] enL2 = almacenCompartido.obtener(PREFIJO_CLAVE + idVacante);
+		if (enL2 != null){
+			vacante = CodecVacante.decodificar(enL2);
+		} else{
+			Optional<Vacante> enOrigen = origen.buscarPorId(idVacante);
+			if (enOrigen.isEmpty()){
+				anotarAusente(idVacante, escriturasAntes);
+				return Optional.empty();
+			}
+			vacante = enOrigen.get();
+			almacenCompartido.guardar(PREFIJO_CLAVE + idVacante, CodecVacante.codificar(vacante));
+		}
+		cacheLocal.poner(idVacante, vacante);
+	}
+	return Optional.of(vacante);
+}
+
+private List<Vacante> leerPorRangoSalario(double minimo, double maximo) {
+	if (VersionPeticion.fijar(this::versionActual) != null){
+		return Itf_VacanteService.super.buscarPorRangoSalario(minimo, maximo);
+	}
+	return origen.buscarPorRangoSalario(minimo, maximo);
+}
+
+@Override
+public Optional<InstantaneaVacantes> instantanea() {
+	return origen.instantanea();
+}
+
+@Override
+public void guardar(Vacante vacante) {
+	if (vacante.getId() == null){
+		vacante.setId(reservarId());
+	}
+	origen.guardar(vacante);
+	Integer id = vacante.getId();
+	olvidarAusente(id);
+	ponerEnCaches(vacante);
+	invalidarTodas();
+	VersionPeticion.soltar();
+	almacenCompartido.publicar(CANAL_INVALIDACION, idNodo + SEPARADOR + id);
+}
+
+/**
+ * Igual que `guardar()`, pero el almacén recibe el lote entero de una vez y la copia de `buscarTodas()` se
+ * descarta una sola vez.
+ */
+@Override
+public void guardarTodas(List<Vacante> vacantes) {
+	for (Vacante vacante : vacantes){
+		if (vacante.getId() == null){
+			vacante.setId(reservarId());
+		}
+	}
+	origen.guardarTodas(vacantes);
+	difundirGuardadas(vacantes);
+}
+
+/**
+ * La comprobación de conflictos la hace el almacén bajo su cerrojo; aquí solo se difunden las que guardó.
+ */
+@Override
+public List<Vacante> guardarTodasSiNoCambiaron(List<Vacante> vacantes, Map<Integer, byte[]> leidas) {
+	List<Vacante> guardadas = origen.guardarTodasSiNoCambiaron(vacantes, leidas);
+	if (!guardadas.isEmpty()){
+		difundirGuardadas(guardadas);
+	}
+	return guardadas;
+}
+
+/**
+ * Lleva a la L2, a la L1 y a los demás nodos unas vacantes que el almacén de este nodo acaba de guardar.
+ */
+private void difundirGuardadas(List<Vacante> vacantes) {
+	for (Vacante vacante : vacantes){
+		olvidarAusente(vacante.getId());
+		ponerEnCaches(vacante);
+	}
+	invalidarTodas();
+	VersionPeticion.soltar();
+	for (Vacante vacante : vacantes){
+		almacenCompartido.publicar(CANAL_INVALIDACION, idNodo + SEPARADOR + vacante.getId());
+	}
+}
+
+/**
+ * La L1 recibe una copia decodificada de los mismos bytes que van a la L2, no el objeto de quien guarda.
+ */
+private void ponerEnCaches(Vacante vacante) {
+	byte[] codificada = CodecVacante.codificar(vacante);
+	almacenCompartido.guardar(PREFIJO_CLAVE + vacante.getId(), codificada);
+	cacheLocal.poner(vacante.getId(), CodecVacante.decodificar(codificada));
+}
+
+/**
+ * El id sale del contador compartido (`INCR`), no del almacén de este nodo: dos nodos que crean vacantes a la vez
+ * nunca reciben el mismo id, ni se pisan la clave `vacante:{id}` de la L2.
+ */
+@Override
+public int reservarId() {
+	return Math.toIntExact(almacenCompartido.incrementar(CLAVE_ULTIMO_ID, 1));
+}
+
+/**
+ * Al arrancar, el contador compartido debe quedar al menos en el mayor id que ya usó este nodo: no el de sus
+ * vacantes vivas, sino el que lleva el almacén, que también cuenta las eliminadas (un almacén persistente lo
+ * recuerda tras reiniciar). Si no, un id archivado por la caducidad se volvería a entregar y la vacante nueva
+ * taparía la archivada. Si dos nodos lo adelantan a la vez, el contador puede pasarse un poco: solo se saltan
+ * unos ids.
+ */
+private void adelantarContadorDeIds() {
+	int mayorLocal = origen.mayorIdUsado();
+	long actual = almacenCompartido.incrementar(CLAVE_ULTIMO_ID, 0);
+	if (actual < mayorLocal){
+		almacenCompartido.incrementar(CLAVE_ULTIMO_ID, mayorLocal - actual);
+	}
+}
+
+/**
+ * Quita las vacantes del almacén, de la L1 y de la L2, y avisa a los demás nodos por un canal propio. ¿Por qué
+ * no por el de invalidación? Porque allí un id que ya no está en la L2 no distingue "eliminada" de "expulsada de
+ * la L2 por falta de sitio".
+ */
+@Override
+public List<Vacante> eliminarTodasSi(Collection<Integer> idsVacantes, Predicate<Vacante> condicion) {
+	List<Vacante> eliminadas = origen.eliminarTodasSi(idsVacantes, condicion);
+	for (Vacante vacante : eliminadas){
+		almacenCompartido.eliminar(PREFIJO_CLAVE + vacante.getId());
+		cacheLocal.invalidar(vacante.getId());
+	}
+	if (!eliminadas.isEmpty()){
+		invalidarTodas();
+		VersionPeticion.soltar();
+		for (Vacante vacante : eliminadas){
+			almacenCompartido.publicar(CANAL_ELIMINACION, idNodo + SEPARADOR + vacante.getId());
+		}
+	}
+	return eliminadas;
+}
+
+/**
+ * Procesa un mensaje `idNodo|idVacante` del canal de invalidación.
+ */
+private void alRecibirInvalidacion(String mensaje) {
+	Integer id = idRemoto(mensaje);
+	if (id == null){
+		return;
+	}
+	cacheLocal.invalidar(id);
+	byte[] enL2 = almacenCompartido.obtener(PREFIJO_CLAVE + id);
+	if (enL2 != null){
+		origen.guardar(CodecVacante.decodificar(enL2));
+	}
+	olvidarAusente(id);
+	invalidarTodas();
+	log.debug("Nodo {}: vacante {} invalidada por otro nodo.", idNodo, id);
+}
+
+/**
+ * Procesa un mensaje `idNodo|idVacante` del canal de eliminación: la vacante se quita también de este nodo.
+ */
+private void alRecibirEliminacion(String mensaje) {
+	Integer id = idRemoto(mensaje);
+	if (id == null){
+		return;
+	}
+	cacheLocal.invalidar(id);
+	origen.eliminarTodas(List.of(id));
+	invalidarTodas();
+	log.debug("Nodo {}: vacante {} eliminada por otro nodo.", idNodo, id);
+}
+
+/**
+ * @return El id de vacante de un mensaje `idNodo|idVacante`, o `null` si está mal formado o lo publicó este mismo
+ * nodo.
+ */
+private Integer idRemoto(String mensaje) {
+	int separador = mensaje.indexOf(SEPARADOR);
+	if (separador < 0 || mensaje.substring(0, separador).equals(idNodo)){
+		return null;
+	}
+	return Integer.valueOf(mensaje.substring(separador + 1));
+}
+
+/**
+ * Anota `id` como inexistente, salvo que alguien haya escrito desde `escriturasAntes`. La comprobación y la
+ * anotación van juntas bajo el cerrojo de `ausentes`, el mismo que usa `olvidarAusente()`.
+ */
+private void anotarAusente(Integer id, long escriturasAntes) {
+	synchronized (ausentes){
+		if (escrituras.get() == escriturasAntes){
+			ausentes.poner(id, Boolean.TRUE);
+		}
+	}
+}
+
+private void olvidarAusente(Integer id) {
+	synchronized (ausentes){
+		escrituras.incrementAndGet();
+		ausentes.invalidar(id);
+	}
+}
+
+/**
+ * Una lectura con sus argumentos: la clave con la que se anota su resultado en la petición.
+ */
+private record Llamada(String metodo, Object argumentos) {
+}
+
+private <T> T memorizar(Llamada llamada, Supplier<T> lectura) {
+	llamadas.increment();
+	return VersionPeticion.memorizar(llamada, () -> {
+		calculadas.increment();
+		return lectura.get();
+	});
+}
+
+private InstantaneaVacantes versionActual() {
+	return origen.instantanea().orElse(null);
+}
+
+private synchronized void invalidarTodas() {
+	todasEnCache = null;
+}
+
+public CacheLRU<Integer, Vacante> getCacheLocal() {
+	return cacheLocal;
+}
+
+@Override
+public String nombreMetricas() {
+	return "cacheVacantes";
+}
+
+@Override
+public Map<String, Number> metricas() {
+	return Map.of("l1.aciertos", cacheLocal.getAciertos(), "l1.fallos", cacheLocal.getFallos(),
+			"l1.tamanio", cacheLocal.tamanio(), "ausentes.aciertos", ausentes.getAciertos(),
+			"ausentes.tamanio", ausentes.tamanio(), "version",
+			origen.instantanea().map(InstantaneaVacantes::getVersion).orElse(-1L), "memo.llamadas", llamadas.sum(),
+			"memo.ahorradas", llamadas.sum() - calculadas.sum());
+}
+}
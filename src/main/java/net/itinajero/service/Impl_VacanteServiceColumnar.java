@@ -0,0 +1,351 @@
+package net.itinajero.service;
+
+import net.itinajero.model.DiccionarioTextos;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * ============ ALMACÉN DE VACANTES POR COLUMNAS ============
+ * <p>
+ * ¿Qué es esta clase? Un almacén de vacantes alternativo a {@link Impl_VacanteService}. En lugar de guardar una
+ * lista de objetos `Vacante`, guarda cada atributo en su propio arreglo ("columna"): todos los salarios juntos
+ * en un `double[]`, todas las fechas en un `long[]`, etc. La vacante de la fila `i` es la posición `i` de cada
+ * columna.
+ * <p>
+ * ¿Cómo funciona? - Los números van en arreglos de tipos primitivos (`int[]`, `double[]`, `long[]`), sin
+ * `Integer` ni `Date` de por medio. - La categoría se guarda como su código en el {@link DiccionarioTextos} de
+ * `Vacante`; el estatus, como el ordinal del enum. - La imagen va en un `String[]` como el nombre: cada vacante
+ * puede subir la suya, así que un diccionario, que nunca olvida un texto, crecería con cada archivo subido. - Un mapa id → fila permite buscar por id sin
+ * recorrer nada. - Los objetos `Vacante` solo se crean ("materializan") para las filas que se devuelven.
+ * <p>
+ * ¿Por qué se implementa así? Cada `Vacante` en una lista cuesta sus cabeceras de objeto y un puntero por cada
+ * `Integer`, `Date` y `String`. Una consulta como "salario entre X e Y" sobre una lista salta de objeto en
+ * objeto por toda la memoria; sobre la columna de salarios recorre un único arreglo contiguo, en un bucle sin
+ * saltos que el compilador JIT puede desenrollar y vectorizar.
+ * <p>
+ * Se activa con `empleos.vacantes.almacen=columnar`. La caché {@link Impl_VacanteServiceCache} lo usa igual que
+ * al almacén por defecto, porque ambos son un {@link Itf_AlmacenVacantes}.
+ */
+@Service
+@ConditionalOnProperty(name = "empleos.vacantes.almacen", havingValue = "columnar")
+public class Impl_VacanteServiceColumnar implements Itf_AlmacenVacantes {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_VacanteServiceColumnar.class);
+
+private static final int CAPACIDAD_INICIAL = 64;
+
+/**
+ * Marcas para los atributos que en `Vacante` pueden ser null y aquí se guardan como primitivos.
+ */
+private static final long SIN_FECHA = Long.MIN_VALUE;
+private static final int SIN_DESTACADO = Integer.MIN_VALUE;
+private static final byte SIN_ESTATUS = -1;
+
+private static final Vacante.Estatus[] ESTATUS = Vacante.Estatus.values();
+
+/**
+ * Protege las columnas: muchas lecturas a la vez, o una sola escritura.
+ */
+private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+private final Map<Integer, Integer> filaPorId = new HashMap<>();
+private final List<Itf_VacanteObservador> observadores = new CopyOnWriteArrayList<>();
+
+private int filas;
+private int maximoId;
+
+// Columnas. Todas tienen la misma longitud (la capacidad); solo las `filas` primeras posiciones tienen datos.
+private int[] ids = new int[CAPACIDAD_INICIAL];
+private double[] salarios = new double[CAPACIDAD_INICIAL];
+private long[] fechas = new long[CAPACIDAD_INICIAL];
+private int[] destacados = new int[CAPACIDAD_INICIAL];
+private int[] categorias = new int[CAPACIDAD_INICIAL];
+private byte[] estatus = new byte[CAPACIDAD_INICIAL];
+private String[] nombres = new String[CAPACIDAD_INICIAL];
+private String[] imagenes = new String[CAPACIDAD_INICIAL];
+private String[] descripciones = new String[CAPACIDAD_INICIAL];
+private String[] detalles = new String[CAPACIDAD_INICIAL];
+
+public Impl_VacanteServiceColumnar() {
+	Impl_VacanteService.crearVacantesDeEjemplo().forEach(this::guardar);
+	log.info("-> Constructor de Impl_VacanteServiceColumnar: {} vacantes de ejemplo en columnas.", filas);
+}
+
+@Override
+public List<Vacante> buscarTodas() {
+	cerrojo.readLock().lock();
+	try{
+		List<Vacante> todas = new ArrayList<>(filas);
+		for (int fila = 0; fila < filas; fila++){
+			todas.add(materializar(fila));
+		}
+		return todas;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+@Override
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	cerrojo.readLock().lock();
+	try{
+		Integer fila = filaPorId.get(idVacante);
+		return fila == null ? Optional.empty() : Optional.of(materializar(fila));
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * Recorre solo la columna de salarios. El bucle no tiene saltos condicionales: escribe siempre la fila en la
+ * siguiente posición libre y solo avanza esa posición si la fila cumple el filtro. Después se materializan
+ * únicamente las filas que cumplieron.
+ */
+@Override
+public List<Vacante> buscarPorRangoSalario(double minimo, double maximo) {
+	cerrojo.readLock().lock();
+	try{
+		double[] columna = salarios;
+		int total = filas;
+		int[] coincidencias = new int[total + 1]; // +1: la última escritura ocurre aunque la fila no cumpla.
+		int encontradas = 0;
+		for (int fila = 0; fila < total; fila++){
+			double salario = columna[fila];
+			coincidencias[encontradas] = fila;
+			encontradas += (salario >= minimo & salario <= maximo) ? 1 : 0;
+		}
+		List<Vacante> resultado = new ArrayList<>(encontradas);
+		for (int i = 0; i < encontradas; i++){
+			resultado.add(materializar(coincidencias[i]));
+		}
+		return resultado;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+@Override
+public void guardar(Vacante vacante) {
+	Vacante anterior;
+	cerrojo.writeLock().lock();
+	try{
+		if (vacante.getId() == null){
+			vacante.setId(maximoId + 1);
+		}
+		Integer fila = filaPorId.get(vacante.getId());
+		if (fila == null){
+			anterior = null;
+			fila = filas++;
+			asegurarCapacidad(filas);
+			filaPorId.put(vacante.getId(), fila);
+		} else{
+			anterior = materializar(fila);
+		}
+		escribir(fila, vacante);
+		maximoId = Math.max(maximoId, vacante.getId());
+		// Se notifica dentro del cerrojo para que los observadores reciban los cambios en el mismo orden en que
+		// se aplicaron, igual que en Impl_VacanteService.
+		for (Itf_VacanteObservador observador : observadores){
+			observador.alGuardarVacante(anterior, vacante);
+		}
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	log.info("Vacante {} en fila columnar: {}", anterior == null ? "agregada" : "actualizada", vacante);
+}
+
+@Override
+public List<Vacante> guardarTodasSiNoCambiaron(List<Vacante> vacantes, Map<Integer, byte[]> leidas) {
+	List<Vacante> sinConflicto = new ArrayList<>(vacantes.size());
+	cerrojo.writeLock().lock();
+	try{
+		for (Vacante vacante : vacantes){
+			Integer fila = filaPorId.get(vacante.getId());
+			if (fila != null && CodecVacante.sinCambios(materializar(fila), leidas.get(vacante.getId()))){
+				sinConflicto.add(vacante);
+			}
+		}
+		sinConflicto.forEach(this::guardar); // El cerrojo de escritura es reentrante.
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	return sinConflicto;
+}
+
+/**
+ * Quitar una vacante deja su fila libre; la última fila se mueve a ese hueco. Así las columnas siguen sin huecos
+ * (los recorridos por rango no tienen que saltarse filas borradas) y quitar cuesta lo mismo esté donde esté la
+ * vacante. `maximoId` no baja: un id eliminado no se vuelve a asignar.
+ */
+@Override
+public List<Vacante> eliminarTodasSi(Collection<Integer> idsVacantes, Predicate<Vacante> condicion) {
+	List<Vacante> eliminadas = new ArrayList<>();
+	cerrojo.writeLock().lock();
+	try{
+		for (Integer id : idsVacantes){
+			Integer fila = filaPorId.get(id);
+			if (fila == null){
+				continue;
+			}
+			Vacante eliminada = materializar(fila);
+			if (!condicion.test(eliminada)){
+				continue;
+			}
+			filaPorId.remove(id);
+			eliminadas.add(eliminada);
+			int ultima = --filas;
+			if (fila != ultima){
+				moverFila(ultima, fila);
+				filaPorId.put(ids[fila], fila);
+			}
+			// La fila libre no debe retener textos.
+			nombres[ultima] = null;
+			imagenes[ultima] = null;
+			descripciones[ultima] = null;
+			detalles[ultima] = null;
+		}
+		for (Vacante eliminada : eliminadas){
+			for (Itf_VacanteObservador observador : observadores){
+				observador.alEliminarVacante(eliminada);
+			}
+		}
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	if (!eliminadas.isEmpty()){
+		log.info("{} vacantes eliminadas del almacén columnar.", eliminadas.size());
+	}
+	return eliminadas;
+}
+
+@Override
+public int mayorIdUsado() {
+	cerrojo.readLock().lock();
+	try{
+		return maximoId;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * `maximoId` también cuenta los ids reservados, así que el próximo `guardar()` sin id no reutiliza este.
+ */
+@Override
+public int reservarId() {
+	cerrojo.writeLock().lock();
+	try{
+		return ++maximoId;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Autowired(required = false)
+public void setObservadores(List<Itf_VacanteObservador> observadores) {
+	observadores.stream()
+			.filter(observador -> !(observador instanceof Itf_ProyeccionVacantes))
+			.forEach(this::registrarObservador);
+}
+
+/**
+ * Igual que en {@link Impl_VacanteService}: el observador recibe primero las vacantes que ya existían.
+ */
+public void registrarObservador(Itf_VacanteObservador observador) {
+	cerrojo.writeLock().lock();
+	try{
+		for (int fila = 0; fila < filas; fila++){
+			observador.alGuardarVacante(null, materializar(fila));
+		}
+		observadores.add(observador);
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+/**
+ * @return Cuántas vacantes hay en el almacén.
+ */
+public int tamanio() {
+	cerrojo.readLock().lock();
+	try{
+		return filas;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+private void escribir(int fila, Vacante vacante) {
+	ids[fila] = vacante.getId();
+	nombres[fila] = vacante.getNombre();
+	categorias[fila] = vacante.getCodigoCategoria();
+	descripciones[fila] = vacante.getDescripcion();
+	fechas[fila] = vacante.getFecha() == null ? SIN_FECHA : vacante.getFecha().getTime();
+	salarios[fila] = vacante.getSalario();
+	destacados[fila] = vacante.getDestacado() == null ? SIN_DESTACADO : vacante.getDestacado();
+	imagenes[fila] = vacante.getImagen();
+	estatus[fila] = vacante.getEstatus() == null ? SIN_ESTATUS : (byte) vacante.getEstatus().ordinal();
+	detalles[fila] = vacante.getDetalles();
+}
+
+private void moverFila(int origen, int destino) {
+	ids[destino] = ids[origen];
+	nombres[destino] = nombres[origen];
+	categorias[destino] = categorias[origen];
+	descripciones[destino] = descripciones[origen];
+	fechas[destino] = fechas[origen];
+	salarios[destino] = salarios[origen];
+	destacados[destino] = destacados[origen];
+	imagenes[destino] = imagenes[origen];
+	estatus[destino] = estatus[origen];
+	detalles[destino] = detalles[origen];
+}
+
+private Vacante materializar(int fila) {
+	Vacante vacante = new Vacante();
+	vacante.setId(ids[fila]);
+	vacante.setNombre(nombres[fila]);
+	vacante.setCategoria(Vacante.diccionarioCategorias().texto(categorias[fila]));
+	vacante.setDescripcion(descripciones[fila]);
+	vacante.setFecha(fechas[fila] == SIN_FECHA ? null : new Date(fechas[fila]));
+	vacante.setSalario(salarios[fila]);
+	vacante.setDestacado(destacados[fila] == SIN_DESTACADO ? null : destacados[fila]);
+	vacante.setImagen(imagenes[fila]);
+	vacante.setEstatus(estatus[fila] == SIN_ESTATUS ? null : ESTATUS[estatus[fila]]);
+	vacante.setDetalles(detalles[fila]);
+	return vacante;
+}
+
+private void asegurarCapacidad(int minima) {
+	if (minima <= ids.length){
+		return;
+	}
+	int capacidad = Math.max(minima, ids.length * 2);
+	ids = Arrays.copyOf(ids, capacidad);
+	salarios = Arrays.copyOf(salarios, capacidad);
+	fechas = Arrays.copyOf(fechas, capacidad);
+	destacados = Arrays.copyOf(destacados, capacidad);
+	categorias = Arrays.copyOf(categorias, capacidad);
+	imagenes = Arrays.copyOf(imagenes, capacidad);
+	estatus = Arrays.copyOf(estatus, capacidad);
+	nombres = Arrays.copyOf(nombres, capacidad);
+	descripciones = Arrays.copyOf(descripciones, capacidad);
+	detalles = Arrays.copyOf(detalles, capacidad);
+}
+}
@@ -0,0 +1,599 @@
+package net.itinajero.service;
+
+import jakarta.annotation.PreDestroy;
+import net.itinajero.model.Vacante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * ============ ALMACÉN DE VACANTES EN ARCHIVOS MAPEADOS A MEMORIA ============
+ * <p>
+ * ¿Qué es esta clase? Un almacén de vacantes que NO guarda los datos en el heap de Java, sino en dos archivos
+ * mapeados a memoria:
+ * <ul>
+ * <li>`*.registros`: una cabecera y después un registro de {@value #TAMANIO_REGISTRO} bytes por vacante, siempre
+ * con la misma disposición (ver las constantes `POS_*`).</li>
+ * <li>`*.textos`: un "montón" de textos donde cada texto es `longitud + bytes UTF-8`. Los registros guardan la
+ * posición de sus textos en este archivo.</li>
+ * </ul>
+ * <p>
+ * ¿Cómo funciona? - El sistema operativo carga las páginas de los archivos en su caché de páginas; leer un
+ * registro es leer memoria, sin llamadas de E/S. - En el heap solo queda un índice id → número de registro
+ * ({@link MapaEnteros}), que se reconstruye al arrancar recorriendo la columna de ids. - Guardar una vacante
+ * existente sobrescribe su registro; un texto que no cambió conserva su posición y uno que cambió se añade al
+ * final del montón, dejando el antiguo como espacio muerto. - Cuando los bytes muertos superan a los vivos, el
+ * montón se compacta (ver `compactarTextos()`), así que volver a guardar o reproducir el catálogo no lo hace
+ * crecer sin fin. - Cuando un archivo se llena, se vuelve a mapear con el doble de tamaño.
+ * <p>
+ * ¿Por qué se implementa así? Con millones de vacantes en el heap, cada recolección de basura tiene que revisar
+ * millones de objetos. Aquí el heap apenas crece con el catálogo y, al reiniciar la aplicación, los datos ya
+ * están en el archivo (y normalmente en la caché del sistema operativo): no hay que volver a cargarlos.
+ * <p>
+ * Límites: la API `MemorySegment` (FFM) todavía es "preview" en Java 21, así que cada archivo se mapea en un
+ * único `MappedByteBuffer`, con posiciones `int`: 2 GB por archivo. Para los registros son unos 29 millones de
+ * vacantes (2 GB / {@value #TAMANIO_REGISTRO} B). Para los textos, la compactación copia los vivos al final antes
+ * de devolverlos al principio, así que solo cabe mientras usados + vivos no pasen de 2 GB: en la práctica, unos
+ * 600 MB de textos vivos. Pasado eso, `guardar()` falla con `IllegalStateException` en lugar de corromper nada. Los
+ * registros ya guardan las posiciones como `long`: pasar a varias regiones mapeadas o a `MemorySegment` solo
+ * cambiaría los métodos de lectura/escritura de esta clase, no el formato de los archivos.
+ * <p>
+ * Se activa con `empleos.vacantes.almacen=mapeado`; la ruta de los archivos se configura con
+ * `empleos.vacantes.archivo`.
+ */
+@Service
+@ConditionalOnProperty(name = "empleos.vacantes.almacen", havingValue = "mapeado")
+public class Impl_VacanteServiceMapeado implements Itf_AlmacenVacantes {
+
+private static final Logger log = LoggerFactory.getLogger(Impl_VacanteServiceMapeado.class);
+
+private static final int MAGICO = 0x56414331; // "VAC1"
+private static final int VERSION = 1;
+
+// Cabecera de `*.registros`: mágico, versión, número de registros y mayor id eliminado (para no reutilizarlo).
+private static final int POS_CABECERA_FILAS = 8;
+private static final int POS_CABECERA_MAXIMO_ELIMINADO = 12;
+private static final int TAMANIO_CABECERA = 16;
+
+// Disposición de cada registro.
+private static final int POS_ID = 0;
+private static final int POS_DESTACADO = 4;
+private static final int POS_FECHA = 8;
+private static final int POS_SALARIO = 16;
+private static final int POS_ESTATUS = 24;
+private static final int POS_NOMBRE = 32;
+private static final int POS_CATEGORIA = 40;
+private static final int POS_DESCRIPCION = 48;
+private static final int POS_IMAGEN = 56;
+private static final int POS_DETALLES = 64;
+static final int TAMANIO_REGISTRO = 72;
+
+// Cabecera de `*.textos`: bytes usados del montón (incluida la propia cabecera).
+private static final int TAMANIO_CABECERA_TEXTOS = 8;
+
+private static final long SIN_FECHA = Long.MIN_VALUE;
+private static final int SIN_DESTACADO = Integer.MIN_VALUE;
+private static final byte SIN_ESTATUS = -1;
+private static final long SIN_TEXTO = -1;
+
+private static final int[] CAMPOS_TEXTO = {POS_NOMBRE, POS_CATEGORIA, POS_DESCRIPCION, POS_IMAGEN, POS_DETALLES};
+
+private static final int REGISTROS_INICIALES = 1024;
+private static final int BYTES_TEXTOS_INICIALES = 256 * 1024;
+/**
+ * Por debajo de esto no se compacta: no compensa recorrer todos los registros para recuperar unos pocos KB.
+ */
+private static final int MINIMO_MUERTOS_COMPACTAR = 64 * 1024;
+
+private static final Vacante.Estatus[] ESTATUS = Vacante.Estatus.values();
+
+private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+private final List<Itf_VacanteObservador> observadores = new CopyOnWriteArrayList<>();
+
+private final FileChannel canalRegistros;
+private final FileChannel canalTextos;
+private MappedByteBuffer registros;
+private MappedByteBuffer textos;
+
+private final MapaEnteros filaPorId;
+private int filas;
+private int maximoId;
+private int textosUsados;
+/**
+ * Bytes del montón que alguna vacante aún referencia (longitud + texto). No se guarda en el archivo: se recalcula
+ * al abrirlo.
+ */
+private long textosVivos;
+
+public Impl_VacanteServiceMapeado(@Value("${empleos.vacantes.archivo:./datos/vacantes}") String rutaBase) {
+	try{
+		Path archivoRegistros = Path.of(rutaBase + ".registros");
+		Path archivoTextos = Path.of(rutaBase + ".textos");
+		if (archivoRegistros.getParent() != null){
+			Files.createDirectories(archivoRegistros.getParent());
+		}
+		boolean nuevo = !Files.exists(archivoRegistros) || Files.size(archivoRegistros) == 0;
+		canalRegistros = FileChannel.open(archivoRegistros, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		canalTextos = FileChannel.open(archivoTextos, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		registros = mapear(canalRegistros, Math.max(canalRegistros.size(),
+				TAMANIO_CABECERA + (long) REGISTROS_INICIALES * TAMANIO_REGISTRO));
+		textos = mapear(canalTextos, Math.max(canalTextos.size(), BYTES_TEXTOS_INICIALES));
+
+		if (nuevo){
+			registros.putInt(0, MAGICO);
+			registros.putInt(4, VERSION);
+			registros.putInt(POS_CABECERA_FILAS, 0);
+			textos.putLong(0, TAMANIO_CABECERA_TEXTOS);
+		} else if (registros.getInt(0) != MAGICO || registros.getInt(4) != VERSION){
+			throw new IllegalStateException("El archivo " + archivoRegistros + " no es un almacén de vacantes v" + VERSION);
+		}
+		filas = registros.getInt(POS_CABECERA_FILAS);
+		textosUsados = Math.toIntExact(textos.getLong(0));
+
+		filaPorId = new MapaEnteros(Math.max(filas, REGISTROS_INICIALES));
+		maximoId = registros.getInt(POS_CABECERA_MAXIMO_ELIMINADO);
+		for (int fila = 0; fila < filas; fila++){
+			int id = registros.getInt(posicion(fila) + POS_ID);
+			if (fila == filas - 1 && filaPorId.obtener(id) != MapaEnteros.AUSENTE){
+				// Un eliminarTodas() se interrumpió después de mover la última fila a su hueco: sobra la original.
+				filas--;
+				registros.putInt(POS_CABECERA_FILAS, filas);
+				break;
+			}
+			filaPorId.poner(id, fila);
+			maximoId = Math.max(maximoId, id);
+		}
+		for (int fila = 0; fila < filas; fila++){
+			textosVivos += bytesTextos(fila);
+		}
+	} catch (IOException e){
+		throw new UncheckedIOException("No se pudo abrir el almacén de vacantes en " + rutaBase, e);
+	}
+
+	if (filas == 0){
+		Impl_VacanteService.crearVacantesDeEjemplo().forEach(this::guardar);
+	}
+	log.info("-> Almacén mapeado de vacantes abierto en {}: {} vacantes.", rutaBase, filas);
+}
+
+@Override
+public List<Vacante> buscarTodas() {
+	cerrojo.readLock().lock();
+	try{
+		List<Vacante> todas = new ArrayList<>(filas);
+		for (int fila = 0; fila < filas; fila++){
+			todas.add(leer(fila));
+		}
+		return todas;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+@Override
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	if (idVacante == null){
+		return Optional.empty();
+	}
+	cerrojo.readLock().lock();
+	try{
+		int fila = filaPorId.obtener(idVacante);
+		return fila == MapaEnteros.AUSENTE ? Optional.empty() : Optional.of(leer(fila));
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * Lee solo el salario de cada registro (8 bytes cada {@value #TAMANIO_REGISTRO}) y crea la `Vacante` únicamente
+ * para los registros que cumplen el filtro.
+ */
+@Override
+public List<Vacante> buscarPorRangoSalario(double minimo, double maximo) {
+	cerrojo.readLock().lock();
+	try{
+		List<Vacante> resultado = new ArrayList<>();
+		for (int fila = 0; fila < filas; fila++){
+			double salario = registros.getDouble(posicion(fila) + POS_SALARIO);
+			if (salario >= minimo && salario <= maximo){
+				resultado.add(leer(fila));
+			}
+		}
+		return resultado;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+@Override
+public void guardar(Vacante vacante) {
+	Vacante anterior;
+	cerrojo.writeLock().lock();
+	try{
+		if (vacante.getId() == null){
+			vacante.setId(maximoId + 1);
+		}
+		int fila = filaPorId.obtener(vacante.getId());
+		if (fila == MapaEnteros.AUSENTE){
+			anterior = null;
+			fila = filas;
+			asegurarCapacidadRegistros(filas + 1);
+		} else{
+			anterior = leer(fila);
+		}
+		escribir(fila, vacante, anterior != null);
+		if (anterior == null){
+			// El contador de la cabecera se actualiza después del registro: si el proceso muere a mitad, el
+			// registro a medio escribir queda fuera del almacén.
+			filas++;
+			registros.putInt(POS_CABECERA_FILAS, filas);
+			filaPorId.poner(vacante.getId(), fila);
+		}
+		// Después de contar la fila nueva: la compactación solo conserva los textos de las filas del almacén.
+		compactarTextosSiConviene();
+		maximoId = Math.max(maximoId, vacante.getId());
+		for (Itf_VacanteObservador observador : observadores){
+			observador.alGuardarVacante(anterior, vacante);
+		}
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	log.info("Vacante {} en el almacén mapeado: {}", anterior == null ? "agregada" : "actualizada", vacante);
+}
+
+@Override
+public List<Vacante> guardarTodasSiNoCambiaron(List<Vacante> vacantes, Map<Integer, byte[]> leidas) {
+	List<Vacante> sinConflicto = new ArrayList<>(vacantes.size());
+	cerrojo.writeLock().lock();
+	try{
+		for (Vacante vacante : vacantes){
+			int fila = vacante.getId() == null ? MapaEnteros.AUSENTE : filaPorId.obtener(vacante.getId());
+			if (fila != MapaEnteros.AUSENTE && CodecVacante.sinCambios(leer(fila), leidas.get(vacante.getId()))){
+				sinConflicto.add(vacante);
+			}
+		}
+		sinConflicto.forEach(this::guardar); // El cerrojo de escritura es reentrante.
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	return sinConflicto;
+}
+
+/**
+ * Igual que en el almacén columnar: la última fila se copia al hueco de la eliminada y después se descuenta de la
+ * cabecera. Los textos de la vacante eliminada quedan como espacio muerto hasta la próxima compactación.
+ */
+@Override
+public List<Vacante> eliminarTodasSi(Collection<Integer> idsVacantes, Predicate<Vacante> condicion) {
+	List<Vacante> eliminadas = new ArrayList<>();
+	cerrojo.writeLock().lock();
+	try{
+		for (Integer id : idsVacantes){
+			int fila = id == null ? MapaEnteros.AUSENTE : filaPorId.obtener(id);
+			if (fila == MapaEnteros.AUSENTE){
+				continue;
+			}
+			Vacante eliminada = leer(fila);
+			if (!condicion.test(eliminada)){
+				continue;
+			}
+			eliminadas.add(eliminada);
+			textosVivos -= bytesTextos(fila);
+			int ultima = filas - 1;
+			if (fila != ultima){
+				registros.put(posicion(fila), registros, posicion(ultima), TAMANIO_REGISTRO);
+				filaPorId.poner(registros.getInt(posicion(fila) + POS_ID), fila);
+			}
+			filas--;
+			registros.putInt(POS_CABECERA_FILAS, filas);
+			filaPorId.quitar(id);
+			if (id > registros.getInt(POS_CABECERA_MAXIMO_ELIMINADO)){
+				registros.putInt(POS_CABECERA_MAXIMO_ELIMINADO, id);
+			}
+		}
+		compactarTextosSiConviene();
+		for (Vacante eliminada : eliminadas){
+			for (Itf_VacanteObservador observador : observadores){
+				observador.alEliminarVacante(eliminada);
+			}
+		}
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+	if (!eliminadas.isEmpty()){
+		log.info("{} vacantes eliminadas del almacén mapeado.", eliminadas.size());
+	}
+	return eliminadas;
+}
+
+@Override
+public int mayorIdUsado() {
+	cerrojo.readLock().lock();
+	try{
+		return maximoId;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * `maximoId` también cuenta los ids reservados, así que el próximo `guardar()` sin id no reutiliza este.
+ */
+@Override
+public int reservarId() {
+	cerrojo.writeLock().lock();
+	try{
+		return ++maximoId;
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+@Autowired(required = false)
+public void setObservadores(List<Itf_VacanteObservador> observadores) {
+	observadores.stream()
+			.filter(observador -> !(observador instanceof Itf_ProyeccionVacantes))
+			.forEach(this::registrarObservador);
+}
+
+/**
+ * Igual que en {@link Impl_VacanteService}: el observador recibe primero las vacantes que ya existían.
+ */
+public void registrarObservador(Itf_VacanteObservador observador) {
+	cerrojo.writeLock().lock();
+	try{
+		for (int fila = 0; fila < filas; fila++){
+			observador.alGuardarVacante(null, leer(fila));
+		}
+		observadores.add(observador);
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+/**
+ * @return Cuántas vacantes hay en el almacén.
+ */
+public int tamanio() {
+	cerrojo.readLock().lock();
+	try{
+		return filas;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * @return Los bytes ocupados del montón de textos, vivos y muertos, incluida su cabecera.
+ */
+long bytesTextosUsados() {
+	cerrojo.readLock().lock();
+	try{
+		return textosUsados;
+	} finally{
+		cerrojo.readLock().unlock();
+	}
+}
+
+/**
+ * Obliga al sistema operativo a escribir en disco las páginas modificadas y cierra los archivos. Spring lo llama
+ * al detener la aplicación.
+ */
+@PreDestroy
+public void cerrar() {
+	cerrojo.writeLock().lock();
+	try{
+		registros.force();
+		textos.force();
+		canalRegistros.close();
+		canalTextos.close();
+	} catch (IOException e){
+		log.error("Error al cerrar el almacén mapeado de vacantes", e);
+	} finally{
+		cerrojo.writeLock().unlock();
+	}
+}
+
+/**
+ * @param existente
+ * 		Si la fila ya tiene una vacante: sus textos sin cambios se reutilizan y los demás pasan a ser espacio muerto.
+ */
+private void escribir(int fila, Vacante vacante, boolean existente) {
+	int base = posicion(fila);
+	// Los textos primero: pueden volver a mapear `textos`, pero nunca `registros`.
+	long nombre = escribirTexto(vacante.getNombre(), existente ? registros.getLong(base + POS_NOMBRE) : SIN_TEXTO);
+	long categoria = escribirTexto(vacante.getCategoria(),
+			existente ? registros.getLong(base + POS_CATEGORIA) : SIN_TEXTO);
+	long descripcion = escribirTexto(vacante.getDescripcion(),
+			existente ? registros.getLong(base + POS_DESCRIPCION) : SIN_TEXTO);
+	long imagen = escribirTexto(vacante.getImagen(), existente ? registros.getLong(base + POS_IMAGEN) : SIN_TEXTO);
+	long detalles = escribirTexto(vacante.getDetalles(),
+			existente ? registros.getLong(base + POS_DETALLES) : SIN_TEXTO);
+
+	registros.putInt(base + POS_ID, vacante.getId());
+	registros.putInt(base + POS_DESTACADO, vacante.getDestacado() == null ? SIN_DESTACADO : vacante.getDestacado());
+	registros.putLong(base + POS_FECHA, vacante.getFecha() == null ? SIN_FECHA : vacante.getFecha().getTime());
+	registros.putDouble(base + POS_SALARIO, vacante.getSalario());
+	registros.put(base + POS_ESTATUS,
+			vacante.getEstatus() == null ? SIN_ESTATUS : (byte) vacante.getEstatus().ordinal());
+	registros.putLong(base + POS_NOMBRE, nombre);
+	registros.putLong(base + POS_CATEGORIA, categoria);
+	registros.putLong(base + POS_DESCRIPCION, descripcion);
+	registros.putLong(base + POS_IMAGEN, imagen);
+	registros.putLong(base + POS_DETALLES, detalles);
+}
+
+private Vacante leer(int fila) {
+	int base = posicion(fila);
+	Vacante vacante = new Vacante();
+	vacante.setId(registros.getInt(base + POS_ID));
+	int destacado = registros.getInt(base + POS_DESTACADO);
+	vacante.setDestacado(destacado == SIN_DESTACADO ? null : destacado);
+	long fecha = registros.getLong(base + POS_FECHA);
+	vacante.setFecha(fecha == SIN_FECHA ? null : new Date(fecha));
+	vacante.setSalario(registros.getDouble(base + POS_SALARIO));
+	byte estatus = registros.get(base + POS_ESTATUS);
+	vacante.setEstatus(estatus == SIN_ESTATUS ? null : ESTATUS[estatus]);
+	vacante.setNombre(leerTexto(registros.getLong(base + POS_NOMBRE)));
+	vacante.setCategoria(leerTexto(registros.getLong(base + POS_CATEGORIA)));
+	vacante.setDescripcion(leerTexto(registros.getLong(base + POS_DESCRIPCION)));
+	vacante.setImagen(leerTexto(registros.getLong(base + POS_IMAGEN)));
+	vacante.setDetalles(leerTexto(registros.getLong(base + POS_DETALLES)));
+	return vacante;
+}
+
+/**
+ * @param anterior
+ * 		La posición del texto que tenía el campo, o {@link #SIN_TEXTO}.
+ * @return La posición de `texto`: la de `anterior` si no cambió, o una nueva al final del montón.
+ */
+private long escribirTexto(String texto, long anterior) {
+	if (anterior != SIN_TEXTO && texto != null && texto.equals(leerTexto(anterior))){
+		return anterior;
+	}
+	textosVivos -= bytesTexto(anterior);
+	if (texto == null){
+		return SIN_TEXTO;
+	}
+	byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+	int posicion = textosUsados;
+	asegurarCapacidadTextos((long) posicion + Integer.BYTES + utf8.length);
+	textos.putInt(posicion, utf8.length);
+	textos.put(posicion + Integer.BYTES, utf8);
+	textosUsados = posicion + Integer.BYTES + utf8.length;
+	textos.putLong(0, textosUsados);
+	textosVivos += Integer.BYTES + utf8.length;
+	return posicion;
+}
+
+private String leerTexto(long posicion) {
+	if (posicion == SIN_TEXTO){
+		return null;
+	}
+	int inicio = Math.toIntExact(posicion);
+	byte[] utf8 = new byte[textos.getInt(inicio)];
+	textos.get(inicio + Integer.BYTES, utf8);
+	return new String(utf8, StandardCharsets.UTF_8);
+}
+
+private long bytesTexto(long posicion) {
+	return posicion == SIN_TEXTO ? 0 : Integer.BYTES + textos.getInt(Math.toIntExact(posicion));
+}
+
+private long bytesTextos(int fila) {
+	long bytes = 0;
+	for (int campo : CAMPOS_TEXTO){
+		bytes += bytesTexto(registros.getLong(posicion(fila) + campo));
+	}
+	return bytes;
+}
+
+/**
+ * Compacta cuando hay más bytes muertos que vivos, así que cada byte escrito paga como mucho una copia: el coste
+ * total sigue siendo proporcional a lo escrito. Solo si la copia cabe en lo ya mapeado; si no, será tras la
+ * próxima ampliación.
+ */
+private void compactarTextosSiConviene() {
+	long muertos = textosUsados - TAMANIO_CABECERA_TEXTOS - textosVivos;
+	if (muertos >= MINIMO_MUERTOS_COMPACTAR && muertos > textosVivos
+			&& textosUsados + textosVivos <= textos.capacity()){
+		compactarTextos();
+	}
+}
+
+/**
+ * ¿Cómo compacta sin perder nada si el proceso muere a mitad? En dos fases, sin escribir nunca sobre un texto que
+ * algún registro aún referencia: 1) copia cada texto vivo detrás de lo usado (después de subir `textosUsados` en
+ * la cabecera, para que nadie escriba ahí) y apunta su registro a la copia; 2) con todo el principio del montón
+ * ya muerto, los copia de vuelta desde la cabecera y solo al final baja `textosUsados`. Cada registro apunta en
+ * todo momento a una copia completa: un corte deja, como mucho, espacio muerto que se recupera la próxima vez.
+ */
+private void compactarTextos() {
+	int antes = textosUsados;
+	int finCopias = Math.toIntExact(textosUsados + textosVivos);
+	textos.putLong(0, finCopias);
+	moverTextosVivos(textosUsados);
+	textosUsados = moverTextosVivos(TAMANIO_CABECERA_TEXTOS);
+	textos.putLong(0, textosUsados);
+	log.info("Montón de textos compactado: de {} a {} bytes.", antes, textosUsados);
+}
+
+/**
+ * Copia los textos vivos, uno tras otro, a partir de `destino` y apunta cada registro a su copia.
+ * @return La posición siguiente al último texto copiado.
+ */
+private int moverTextosVivos(int destino) {
+	for (int fila = 0; fila < filas; fila++){
+		int base = posicion(fila);
+		for (int campo : CAMPOS_TEXTO){
+			long origen = registros.getLong(base + campo);
+			if (origen != SIN_TEXTO){
+				int bytes = Math.toIntExact(bytesTexto(origen));
+				textos.put(destino, textos, Math.toIntExact(origen), bytes);
+				registros.putLong(base + campo, destino);
+				destino += bytes;
+			}
+		}
+	}
+	return destino;
+}
+
+private static int posicion(int fila) {
+	return TAMANIO_CABECERA + fila * TAMANIO_REGISTRO;
+}
+
+private void asegurarCapacidadRegistros(int filasNecesarias) {
+	long necesario = TAMANIO_CABECERA + (long) filasNecesarias * TAMANIO_REGISTRO;
+	if (necesario > registros.capacity()){
+		registros = ampliar(canalRegistros, registros.capacity(), necesario);
+	}
+}
+
+private void asegurarCapacidadTextos(long necesario) {
+	if (necesario > textos.capacity()){
+		textos = ampliar(canalTextos, textos.capacity(), necesario);
+	}
+}
+
+private static MappedByteBuffer ampliar(FileChannel canal, long actual, long necesario) {
+	long nuevo = Math.min(Math.max(necesario, actual * 2), Integer.MAX_VALUE);
+	if (necesario > nuevo){
+		throw new IllegalStateException("El almacén mapeado no admite archivos de más de 2 GB");
+	}
+	try{
+		return mapear(canal, nuevo);
+	} catch (IOException e){
+		throw new UncheckedIOException("No se pudo ampliar el almacén mapeado de vacantes", e);
+	}
+}
+
+/**
+ * Mapea los primeros `bytes` del archivo. Si el archivo es más pequeño, el sistema lo amplía.
+ */
+private static MappedByteBuffer mapear(FileChannel canal, long bytes) throws IOException {
+	return canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+}
+}
@@ -0,0 +1,81 @@
+package net.itinajero.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * ¿Qué es? Un índice que mantiene los ids de las vacantes ordenados por un valor (el salario, la fecha...).
+ * <p>
+ * ¿Cómo funciona? Guarda pares `(valor, id)` en un `ConcurrentSkipListSet`, ordenados primero por el valor y,
+ * a igualdad de valor, por el id (así dos vacantes con el mismo salario no chocan). Una consulta por rango pide
+ * al skip-list la "vista" entre dos pares límite y la recorre: cuesta O(log n) encontrar el inicio y luego un
+ * paso por cada resultado. Los "k mejores" son los k primeros de la vista en orden descendente.
+ * <p>
+ * ¿Por qué se usa? Para que "ordenar por salario" o "publicadas en los últimos 30 días" no tengan que ordenar
+ * todo el catálogo en cada petición. El skip-list admite lecturas y escrituras concurrentes sin cerrojos.
+ * <p>
+ * Un cambio de valor se aplica como quitar + agregar: durante ese instante una lectura concurrente puede no ver
+ * la vacante.
+ * @param <K>
+ * 		El tipo del valor por el que se ordena.
+ */
+final class IndiceOrdenado<K extends Comparable<K>> {
+
+/**
+ * Sin límite de resultados.
+ */
+static final int SIN_LIMITE = Integer.MAX_VALUE;
+
+private record Entrada<K>(K valor, int id) {
+}
+
+private final NavigableSet<Entrada<K>> entradas = new ConcurrentSkipListSet<>(
+		Comparator.comparing((Entrada<K> entrada) -> entrada.valor()).thenComparingInt(Entrada::id));
+
+void agregar(K valor, int id) {
+	entradas.add(new Entrada<>(valor, id));
+}
+
+void quitar(K valor, int id) {
+	entradas.remove(new Entrada<>(valor, id));
+}
+
+int tamanio() {
+	return entradas.size();
+}
+
+/**
+ * Ids cuyo valor está en el rango pedido. Un límite `null` significa "sin límite por ese lado".
+ * @param descendente
+ * 		`true` para devolver primero los valores más altos.
+ * @param limite
+ * 		Máximo de ids a devolver ({@link #SIN_LIMITE} para todos).
+ */
+int[] rango(K desde, boolean incluirDesde, K hasta, boolean incluirHasta, boolean descendente, int limite) {
+	NavigableSet<Entrada<K>> vista = entradas;
+	if (desde != null){
+		// Con el id más bajo (o más alto) posible el par límite queda justo antes (o después) de todos los de ese valor.
+		vista = vista.tailSet(new Entrada<>(desde, incluirDesde ? Integer.MIN_VALUE : Integer.MAX_VALUE), incluirDesde);
+	}
+	if (hasta != null){
+		vista = vista.headSet(new Entrada<>(hasta, incluirHasta ? Integer.MAX_VALUE : Integer.MIN_VALUE), incluirHasta);
+	}
+	if (descendente){
+		vista = vista.descendingSet();
+	}
+	int[] ids = new int[Math.min(limite, 16)];
+	int encontrados = 0;
+	for (Entrada<K> entrada : vista){
+		if (encontrados == limite){
+			break;
+		}
+		if (encontrados == ids.length){
+			ids = Arrays.copyOf(ids, (int) Math.min((long) limite, ids.length * 2L));
+		}
+		ids[encontrados++] = entrada.id();
+	}
+	return Arrays.copyOf(ids, encontrados);
+}
+}
@@ -0,0 +1,16 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.util.List;
+
+/**
+ * El catálogo tal como lo deja el registro de eventos ({@link Itf_RegistroEventosVacantes#instantanea()}) tras
+ * aplicar todo hasta una secuencia.
+ * @param secuencia
+ * 		El último evento que incluye: quien siga con los eventos debe empezar por `secuencia + 1`.
+ * @param vacantes
+ * 		Las vacantes vivas, en el orden en que aparecieron por primera vez.
+ */
+public record InstantaneaRegistro(long secuencia, List<Vacante> vacantes) {
+}
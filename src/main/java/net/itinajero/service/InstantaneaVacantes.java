@@ -0,0 +1,131 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ============ UNA VERSIÓN INMUTABLE DEL CATÁLOGO DE VACANTES ============
+ * <p>
+ * ¿Qué es esta clase? Todas las vacantes del catálogo tal como estaban después de una escritura concreta,
+ * numerada con su `version`. Nunca cambia: cada `guardar()` publica una instantánea NUEVA.
+ * <p>
+ * ¿Cómo funciona? - Las vacantes, en el orden en que se agregaron, están en un {@link VectorPersistente}, y la
+ * posición de cada id en un {@link MapaEnterosPersistente}. - `conVacante()` y `sinVacantes()` devuelven la
+ * siguiente versión: la nueva comparte con esta casi toda su estructura, así que crearla cuesta unos pocos
+ * arreglos pequeños y no una copia del catálogo.
+ * <p>
+ * ¿Por qué se usa? Quien tiene una instantánea puede hacer varias lecturas seguidas (`buscarTodas()` y después
+ * `buscarPorId()`) y todas ven los mismos datos, aunque entre medias se guarden vacantes, sin tomar ningún
+ * cerrojo. Ver {@link VersionPeticion}.
+ * <p>
+ * Las vacantes son los mismos objetos que se guardaron: quien las lee no debe modificarlas (para editar una se
+ * guarda una copia, como hace {@link Impl_TrabajosLoteService}).
+ */
+public final class InstantaneaVacantes {
+
+private final long version;
+private final VectorPersistente<Vacante> vacantes;
+private final MapaEnterosPersistente<Integer> posiciones;
+private final List<Vacante> lista;
+
+private InstantaneaVacantes(long version, VectorPersistente<Vacante> vacantes,
+		MapaEnterosPersistente<Integer> posiciones) {
+	this.version = version;
+	this.vacantes = vacantes;
+	this.posiciones = posiciones;
+	this.lista = vacantes.comoLista();
+}
+
+/**
+ * @return Un número que crece con cada escritura del almacén: dos instantáneas con la misma versión tienen los
+ * mismos datos.
+ */
+public long getVersion() {
+	return version;
+}
+
+/**
+ * @return Todas las vacantes, en una lista de solo lectura que no cambia nunca.
+ */
+public List<Vacante> buscarTodas() {
+	return lista;
+}
+
+public Optional<Vacante> buscarPorId(Integer idVacante) {
+	return Optional.ofNullable(idVacante == null ? null : obtener(idVacante));
+}
+
+public int tamanio() {
+	return vacantes.tamanio();
+}
+
+/**
+ * @return La vacante con ese id, o `null`.
+ */
+Vacante obtener(int idVacante) {
+	Integer posicion = posiciones.obtener(idVacante);
+	return posicion == null ? null : vacantes.obtener(posicion);
+}
+
+/**
+ * @return La versión siguiente, con la vacante agregada al final o, si su id ya estaba, en la posición de la
+ * anterior.
+ */
+InstantaneaVacantes conVacante(Vacante vacante) {
+	return conVacantes(List.of(vacante), new Vacante[1]);
+}
+
+/**
+ * Como `conVacante()` para un lote entero, que queda en UNA sola versión.
+ * @param anteriores
+ * 		Del mismo tamaño que `nuevas`; recibe la vacante que cada una reemplazó, o `null` si era nueva.
+ */
+InstantaneaVacantes conVacantes(List<Vacante> nuevas, Vacante[] anteriores) {
+	VectorPersistente<Vacante> vector = vacantes;
+	MapaEnterosPersistente<Integer> posicionesNuevas = posiciones;
+	for (int i = 0; i < nuevas.size(); i++){
+		Vacante vacante = nuevas.get(i);
+		Integer posicion = posicionesNuevas.obtener(vacante.getId());
+		if (posicion != null){
+			anteriores[i] = vector.obtener(posicion);
+			vector = vector.reemplazar(posicion, vacante);
+		} else{
+			posicionesNuevas = posicionesNuevas.poner(vacante.getId(), vector.tamanio());
+			vector = vector.agregar(vacante);
+		}
+	}
+	return new InstantaneaVacantes(version + 1, vector, posicionesNuevas);
+}
+
+/**
+ * @return La versión siguiente sin las vacantes de esos ids. Quitar deja huecos en medio del vector, así que se
+ * reconstruye en una pasada para todo el lote; las eliminaciones llegan por lotes y son poco frecuentes.
+ */
+InstantaneaVacantes sinVacantes(Set<Integer> idsVacantes) {
+	List<Vacante> quedan = new ArrayList<>(Math.max(0, tamanio() - idsVacantes.size()));
+	for (Vacante vacante : lista){
+		if (!idsVacantes.contains(vacante.getId())){
+			quedan.add(vacante);
+		}
+	}
+	return de(version + 1, quedan);
+}
+
+/**
+ * @return Una instantánea con esas vacantes, que deben tener id y no repetirlo.
+ */
+static InstantaneaVacantes de(long version, Collection<Vacante> vacantes) {
+	VectorPersistente<Vacante> vector = VectorPersistente.vacio();
+	MapaEnterosPersistente<Integer> posiciones = MapaEnterosPersistente.vacio();
+	for (Vacante vacante : vacantes){
+		posiciones = posiciones.poner(vacante.getId(), vector.tamanio());
+		vector = vector.agregar(vacante);
+	}
+	return new InstantaneaVacantes(version, vector, posiciones);
+}
+}
@@ -0,0 +1,63 @@
+package net.itinajero.service;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Contrato de un almacén clave/valor compartido entre todos los nodos de la aplicación (la caché de segundo
+ * nivel o "L2").
+ * <p>
+ * Sus operaciones imitan el subconjunto del protocolo de Redis que necesitamos: `GET`, `SET`, `DEL` e `INCRBY`
+ * para los datos y `PUBLISH`/`SUBSCRIBE` para los mensajes entre nodos. Así, la implementación local
+ * ({@link Impl_AlmacenCompartidoLocal}) que se usa en desarrollo y en pruebas puede sustituirse por un cliente
+ * de Redis real sin tocar a quien depende de esta interfaz.
+ */
+public interface Itf_AlmacenCompartido {
+
+/**
+ * Equivale a `GET clave`.
+ * @param clave
+ * 		La clave a leer.
+ * @return Los bytes guardados o `null` si la clave no existe.
+ */
+byte[] obtener(String clave);
+
+/**
+ * Equivale a `SET clave valor`.
+ */
+void guardar(String clave, byte[] valor);
+
+/**
+ * Equivale a `SET clave valor PX caducidad`: pasado ese tiempo, la clave desaparece sola.
+ */
+void guardar(String clave, byte[] valor, Duration caducidad);
+
+/**
+ * Equivale a `SET clave valor NX PX caducidad`: solo guarda si la clave no existe (o ya caducó), de forma atómica
+ * para todos los nodos.
+ * @return `true` si la guardó; `false` si ya existía.
+ */
+boolean guardarSiNoExiste(String clave, byte[] valor, Duration caducidad);
+
+/**
+ * Equivale a `DEL clave`.
+ */
+void eliminar(String clave);
+
+/**
+ * Equivale a `INCRBY clave cantidad`: suma `cantidad` al contador de forma atómica para todos los nodos (una
+ * clave que no existe vale 0) y devuelve el resultado. Con `cantidad = 0` solo lo lee.
+ */
+long incrementar(String clave, long cantidad);
+
+/**
+ * Equivale a `PUBLISH canal mensaje`: entrega el mensaje a todos los suscriptores del canal, incluido el propio
+ * nodo que publica.
+ */
+void publicar(String canal, String mensaje);
+
+/**
+ * Equivale a `SUBSCRIBE canal`: registra un oyente que recibirá cada mensaje publicado en el canal.
+ */
+void suscribir(String canal, Consumer<String> oyente);
+}
@@ -0,0 +1,19 @@
+package net.itinajero.service;
+
+/**
+ * Contrato del almacén "real" de vacantes, el que de verdad guarda los datos y al que llama la caché
+ * {@link Impl_VacanteServiceCache}.
+ * <p>
+ * Distingue a los almacenes ({@link Impl_VacanteService}, {@link Impl_VacanteServiceColumnar},
+ * {@link Impl_VacanteServiceMapeado}) del decorador, que también es un `Itf_VacanteService`. Así la caché puede
+ * pedir "el almacén que esté configurado" sin ambigüedad y sin depender de una clase concreta.
+ */
+public interface Itf_AlmacenVacantes extends Itf_VacanteService {
+
+/**
+ * @return El mayor id que este almacén ha guardado, reservado o eliminado alguna vez (0 si ninguno). Puede ser
+ * mayor que el de cualquier vacante viva: un id eliminado (por ejemplo, archivado por la caducidad) no se debe
+ * volver a entregar. La caché adelanta con él el contador de ids compartido.
+ */
+int mayorIdUsado();
+}
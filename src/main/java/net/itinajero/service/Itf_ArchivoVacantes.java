@@ -0,0 +1,29 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Contrato del archivo "frío" de vacantes: las que ya salieron del catálogo (caducadas o cerradas) pero que se
+ * siguen pudiendo consultar por id, por ejemplo desde un enlace antiguo.
+ */
+public interface Itf_ArchivoVacantes {
+
+/**
+ * Añade las vacantes al archivo. Cuando vuelve, ya están escritas en disco: se pueden borrar del catálogo sin
+ * riesgo de perderlas. Archivar otra vez una vacante con el mismo id reemplaza la versión anterior.
+ */
+void archivar(List<Vacante> vacantes);
+
+/**
+ * @return La última versión archivada de la vacante, o vacío si nunca se archivó.
+ */
+Optional<Vacante> buscarPorId(Integer idVacante);
+
+/**
+ * @return Cuántas vacantes distintas hay archivadas.
+ */
+int tamanio();
+}
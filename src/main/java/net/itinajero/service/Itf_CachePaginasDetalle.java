@@ -0,0 +1,37 @@
+package net.itinajero.service;
+
+import java.util.Locale;
+
+/**
+ * Contrato de la caché de páginas de detalle de vacante ya renderizadas (el HTML final, listo para enviar).
+ * <p>
+ * Cada página se identifica por la ruta que la pidió (`view-path` o `view-request`, que usan plantillas
+ * distintas), el id de la vacante y el idioma del cliente (la plantilla formatea el salario como moneda local).
+ */
+public interface Itf_CachePaginasDetalle {
+
+/**
+ * La clave de una página: qué ruta, qué vacante y en qué idioma. El idioma debe ser uno de los admitidos (el que
+ * da el `LocaleResolver` de la aplicación), no el `Accept-Language` tal cual: la caché invalida una vacante
+ * recorriendo las combinaciones de ruta e idioma que ha visto.
+ */
+record Clave(String ruta, int idVacante, Locale idioma) {
+}
+
+/**
+ * @return El HTML de la página, o `null` si no está en caché.
+ */
+byte[] obtener(Clave clave);
+
+/**
+ * @return Un número que cambia cada vez que se invalida alguna página. Se lee ANTES de renderizar y se pasa a
+ * `guardar()`.
+ */
+long version();
+
+/**
+ * Guarda una página recién renderizada, salvo que alguna vacante se haya guardado desde que se leyó
+ * `versionLeida` (la página podría mostrar datos ya cambiados).
+ */
+void guardar(Clave clave, byte[] html, long versionLeida);
+}
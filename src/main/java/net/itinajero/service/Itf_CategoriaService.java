@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Categoria;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contrato del servicio de categorías. Sigue el mismo patrón que {@link Itf_VacanteService}: los controladores
+ * dependen de esta interfaz y Spring les inyecta la implementación disponible ({@link Impl_CategoriaService}).
+ */
+public interface Itf_CategoriaService {
+
+/**
+ * @return Todas las categorías ordenadas por nombre. Nunca devuelve null.
+ */
+List<Categoria> buscarTodas();
+
+Categoria buscarPorId(Integer idCategoria);
+
+/**
+ * Guarda la categoría; si no tiene id, le asigna uno nuevo.
+ * @throws CategoriaInvalidaException
+ * 		Si el nombre está vacío, ya lo usa otra categoría (sin distinguir mayúsculas) o no caben más categorías.
+ */
+void guardar(Categoria categoria);
+
+/**
+ * Número de vacantes publicadas en cada categoría, indexado por el nombre de la categoría.
+ * <p>
+ * Los conteos se mantienen al día con cada vacante guardada, así que esta consulta solo recorre las categorías
+ * (no las vacantes).
+ * @return Un mapa nombre de categoría → número de vacantes, con una entrada (quizá 0) por categoría.
+ */
+Map<String, Integer> contarVacantesPorCategoria();
+}
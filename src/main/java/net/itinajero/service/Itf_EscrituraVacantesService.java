@@ -0,0 +1,19 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+/**
+ * Contrato de la escritura de vacantes desde el formulario. Separa el "recibir" del "guardar": la implementación
+ * puede guardar en el momento ({@link Impl_EscrituraDirectaVacantes}) o encolar la vacante y guardarla un poco
+ * después ({@link Impl_EscrituraAsincronaVacantes}).
+ */
+public interface Itf_EscrituraVacantesService {
+
+/**
+ * Recibe una vacante para guardarla. Si no trae id, se le asigna antes de volver.
+ * @return El id de la vacante.
+ * @throws ColaEscrituraLlenaException
+ * 		si la vacante no se puede aceptar ahora mismo y hay que reintentar más tarde.
+ */
+int guardar(Vacante vacante);
+}
@@ -0,0 +1,16 @@
+package net.itinajero.service;
+
+import net.itinajero.model.EstadisticasVacantes;
+
+/**
+ * Contrato del panel de estadísticas de vacantes: salarios por categoría y por nivel salarial, y publicaciones
+ * por mes.
+ */
+public interface Itf_EstadisticasService {
+
+/**
+ * @return Las estadísticas de todas las vacantes guardadas hasta ahora. No recorre las vacantes: los datos se
+ * mantienen al día con cada `guardar()`.
+ */
+EstadisticasVacantes obtener();
+}
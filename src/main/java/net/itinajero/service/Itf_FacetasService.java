@@ -0,0 +1,26 @@
+package net.itinajero.service;
+
+import net.itinajero.model.ConteoFaceta;
+import net.itinajero.model.FiltroVacantes;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contrato de la búsqueda por facetas del listado de vacantes: qué vacantes cumplen un filtro y cuántas hay de
+ * cada categoría, estatus, destacado y nivel salarial dentro de ese filtro.
+ */
+public interface Itf_FacetasService {
+
+/**
+ * @return Los ids de las vacantes que cumplen todos los criterios del filtro, en orden ascendente.
+ */
+int[] buscarIds(FiltroVacantes filtro);
+
+/**
+ * Cuenta, para cada criterio, cuántas vacantes del filtro actual tienen cada valor.
+ * @return Un mapa nombre del parámetro ("categoria", "estatus", "destacado", "nivelSalarial") → conteos de sus
+ * valores. Solo incluye valores con al menos una vacante.
+ */
+Map<String, List<ConteoFaceta>> contarFacetas(FiltroVacantes filtro);
+}
@@ -0,0 +1,32 @@
+package net.itinajero.service;
+
+/**
+ * Contrato del flujo de cambios del catálogo para sistemas externos (analítica, notificaciones): cada vacante
+ * guardada o quitada se publica como un cambio binario con un offset, y cada consumidor lo lee por lotes a su
+ * ritmo, recordando él mismo por qué offset va. Los offsets son de la instancia que los sirve (ver
+ * {@link LoteCambios#generacion()}).
+ */
+public interface Itf_FlujoCambiosVacantes {
+
+/**
+ * @param desde
+ * 		El offset del primer cambio que se quiere (0 para empezar por el más antiguo disponible, que no tiene por
+ * 		qué ser el primero: para el estado completo, ver `instantanea()`).
+ * @param maximo
+ * 		Cuántos cambios como mucho; la implementación puede devolver menos.
+ * @return Los cambios a partir de `desde`. Si no hay cambios nuevos, un lote vacío.
+ */
+LoteCambios leer(long desde, int maximo);
+
+/**
+ * @return Todas las vacantes actuales, como cambios GUARDADA con el mismo offset, y en `siguiente` el `desde` con
+ * el que seguir leyendo sin perder ni repetir nada. Es el punto de partida de un consumidor nuevo o de uno que se
+ * quedó sin sus cambios (`primerDisponible` mayor que su `desde`).
+ */
+LoteCambios instantanea();
+
+/**
+ * @return El offset del último cambio publicado (0 si aún no hay ninguno).
+ */
+long ultimoOffset();
+}
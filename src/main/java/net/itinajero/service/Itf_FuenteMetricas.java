@@ -0,0 +1,20 @@
+package net.itinajero.service;
+
+import java.util.Map;
+
+/**
+ * Un componente que publica contadores propios (peticiones rechazadas, aciertos de caché...). El controlador de
+ * métricas reúne los de todos los beans que implementan esta interfaz y los muestra en `/metricas`.
+ */
+public interface Itf_FuenteMetricas {
+
+/**
+ * @return El nombre del grupo de métricas, por ejemplo "admision".
+ */
+String nombreMetricas();
+
+/**
+ * @return Los valores actuales, por nombre. Se llama en cada consulta, así que debe ser barato.
+ */
+Map<String, Number> metricas();
+}
@@ -0,0 +1,31 @@
+package net.itinajero.service;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Contrato de la protección contra envíos repetidos (doble clic, reintentos del navegador o de un cliente HTTP).
+ * <p>
+ * Cada envío trae una "clave de idempotencia": un texto aleatorio que el formulario genera una sola vez. Si la
+ * misma clave llega dos veces desde la misma sesión, la operación se ejecuta solo la primera y el segundo envío
+ * recibe el mismo resultado, aunque cada envío lo atienda un nodo distinto.
+ */
+public interface Itf_IdempotenciaService {
+
+/**
+ * Ejecuta `operacion` si es la primera vez que `ambito` usa `clave`; si no, devuelve el resultado de la primera
+ * vez (esperándolo si aún se está ejecutando). Si la primera vez falló, la clave se olvida para que se pueda
+ * reintentar.
+ * @param ambito
+ * 		De dónde sale la clave (p. ej. "formulario" o "cabecera"): la misma clave en dos ámbitos son dos envíos
+ * 		distintos.
+ * @param clave
+ * 		La clave de idempotencia. Si es null o está vacía, la operación se ejecuta siempre.
+ * @return El id que devolvió la operación.
+ */
+int ejecutarUnaVez(String ambito, String clave, IntSupplier operacion);
+
+/**
+ * @return Una clave nueva para un formulario.
+ */
+String nuevaClave();
+}
@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.util.Date;
+
+/**
+ * Contrato de los índices ordenados de vacantes: por salario y por fecha de publicación. Todas las consultas
+ * devuelven ids de vacantes en el orden pedido; el controlador busca después solo las vacantes que va a mostrar.
+ */
+public interface Itf_IndicesOrdenadosService {
+
+/**
+ * Para pedir todos los resultados en los parámetros `limite`.
+ */
+int SIN_LIMITE = IndiceOrdenado.SIN_LIMITE;
+
+/**
+ * @return Los ids de las vacantes con salario entre `minimo` y `maximo` (incluidos), ordenados por salario.
+ */
+int[] idsPorSalario(double minimo, double maximo, boolean descendente, int limite);
+
+/**
+ * @return Los ids de las vacantes de un nivel salarial, ordenados por salario. El nivel se traduce directamente
+ * en su banda de salarios dentro del índice.
+ */
+int[] idsPorNivelSalarial(Vacante.NivelSalarial nivel, boolean descendente, int limite);
+
+/**
+ * @param desde
+ * 		Fecha mínima de publicación (incluida), o `null` para no poner límite.
+ * @return Los ids de las vacantes con fecha, ordenados por fecha de publicación. Las vacantes sin fecha no
+ * aparecen.
+ */
+int[] idsPublicadasDesde(Date desde, boolean masRecientesPrimero, int limite);
+}
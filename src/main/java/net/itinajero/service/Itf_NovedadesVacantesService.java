@@ -0,0 +1,23 @@
+package net.itinajero.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Contrato del aviso en tiempo real de vacantes nuevas (Server-Sent Events).
+ */
+public interface Itf_NovedadesVacantesService {
+
+/**
+ * Abre una conexión que recibirá un evento `vacante` por cada vacante nueva que se guarde.
+ * @param ultimoEventoRecibido
+ * 		El valor de la cabecera `Last-Event-ID` que envía el navegador al reconectarse, o `null` en la primera
+ * 		conexión. Si se indica, se reenvían los eventos posteriores que aún estén en memoria.
+ * @return El emisor que el controlador devuelve a Spring MVC.
+ */
+SseEmitter suscribir(Long ultimoEventoRecibido);
+
+/**
+ * @return Cuántas conexiones hay abiertas ahora mismo.
+ */
+int conexionesAbiertas();
+}
@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+/**
+ * Una "proyección" de lectura: un observador que mantiene una estructura pensada para UNA forma de consultar
+ * (facetas, índices ordenados, estadísticas, conteos...) y que se alimenta del registro de eventos
+ * ({@link Itf_RegistroEventosVacantes}) en su propio hilo, en lugar de hacerlo dentro del `guardar()` del almacén.
+ * <p>
+ * Recibe los mismos avisos que cualquier {@link Itf_VacanteObservador}, en el mismo orden, pero unos milisegundos
+ * después de cada escritura. A cambio, guardar no espera a que se actualice ninguna proyección, y una proyección
+ * se puede reconstruir desde cero en cualquier momento: el registro aplica todo el catálogo a una copia vacía
+ * (`crearVacia()`) y, cuando termina, la proyección en uso la adopta de una vez (`adoptar()`).
+ * <p>
+ * Como sigue siendo un observador, se puede registrar directamente en un almacén (por ejemplo, en las pruebas) y
+ * entonces se actualiza en el mismo `guardar()`, como antes. Los almacenes no registran las proyecciones que
+ * reciben de Spring: de esas se encarga el registro.
+ */
+public interface Itf_ProyeccionVacantes extends Itf_VacanteObservador {
+
+/**
+ * @return Un nombre corto y único ("facetas", "indices"...), que se usa en las métricas y para pedir que se
+ * reconstruya.
+ */
+String nombreProyeccion();
+
+/**
+ * @return Una proyección del mismo tipo, sin ninguna vacante, que nadie consulta: el registro la llena aparte
+ * mientras esta sigue respondiendo con lo que ya tenía.
+ */
+Itf_ProyeccionVacantes crearVacia();
+
+/**
+ * Sustituye todo lo calculado por lo de `reconstruida` (creada con `crearVacia()`), de una vez: las consultas ven
+ * el estado anterior o el nuevo, nunca uno a medias. Después, `reconstruida` no se debe volver a usar.
+ */
+void adoptar(Itf_ProyeccionVacantes reconstruida);
+}
@@ -0,0 +1,41 @@
+package net.itinajero.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Contrato del registro de eventos del catálogo: la secuencia ordenada de cambios (vacante guardada, vacante
+ * eliminada) de la que se alimentan las proyecciones de lectura ({@link Itf_ProyeccionVacantes}).
+ */
+public interface Itf_RegistroEventosVacantes {
+
+/**
+ * @return La secuencia del último evento anotado (0 si aún no hay ninguno).
+ */
+long ultimaSecuencia();
+
+/**
+ * @return El estado de cada proyección, en el orden en que se registraron.
+ */
+List<EstadoProyeccion> proyecciones();
+
+/**
+ * Pide que la proyección vuelva a aplicar todo el registro, en una copia que sustituye a la actual al terminar.
+ * Vuelve enseguida: la reconstrucción ocurre en el hilo de la proyección.
+ * @return `false` si no hay ninguna proyección con ese nombre.
+ */
+boolean reconstruir(String nombreProyeccion);
+
+/**
+ * @return Todas las vacantes vivas según el registro, junto con la secuencia hasta la que llegan. Copia el
+ * catálogo entero dentro del cerrojo del registro: es para arrancar consumidores, no para cada petición.
+ */
+InstantaneaRegistro instantanea();
+
+/**
+ * Avisa a `oyente` de cada evento que se anote a partir de ahora, en orden y con su secuencia, dentro del propio
+ * `anotar()` (y por tanto del guardado en el almacén): debe ser rápido y no puede llamar al registro.
+ * @return La secuencia del último evento anotado antes de suscribirse; el primer aviso será el siguiente.
+ */
+long suscribir(Consumer<EventoVacante> oyente);
+}
@@ -0,0 +1,43 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Contrato de los trabajos que revisan TODAS las vacantes del catálogo (caducar las antiguas, corregir datos...)
+ * sin bloquear a quien las consulta mientras tanto.
+ */
+public interface Itf_TrabajosLoteService {
+
+/**
+ * Lanza un trabajo en segundo plano y vuelve enseguida.
+ * @param nombre
+ * 		Texto descriptivo que se muestra en el estado del trabajo.
+ * @param afectada
+ * 		Decide si una vacante hay que modificarla. Recibe la vacante guardada: no debe modificarla.
+ * @param cambio
+ * 		Modifica una COPIA de cada vacante afectada; las copias se guardan todas juntas al final.
+ * @return El estado del trabajo, que se irá actualizando.
+ * @throws IllegalStateException
+ * 		Si ya hay otro trabajo en curso.
+ */
+TrabajoLote lanzar(String nombre, Predicate<Vacante> afectada, Consumer<Vacante> cambio);
+
+/**
+ * Marca como eliminadas las vacantes publicadas hace más de `dias` días.
+ * @throws IllegalArgumentException
+ * 		Si `dias` no es positivo: con 0 o menos se caducaría el catálogo entero.
+ */
+TrabajoLote caducarAnterioresA(int dias);
+
+Optional<TrabajoLote> buscar(String idTrabajo);
+
+/**
+ * @return Los últimos trabajos, del más reciente al más antiguo.
+ */
+List<TrabajoLote> recientes();
+}
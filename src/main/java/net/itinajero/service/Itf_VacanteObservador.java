@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+
+/**
+ * Contrato para los componentes que necesitan enterarse de cada vacante que se guarda (contadores, índices,
+ * estadísticas...).
+ * <p>
+ * Cada almacén ({@link Impl_VacanteService} y sus alternativas) llama a {@link #alGuardarVacante(Vacante, Vacante)} dentro de su propio
+ * `guardar()`, de una en una y en el mismo orden en que se guardan, así que el observador puede mantener sus
+ * datos de forma incremental en lugar de recorrer todas las vacantes en cada consulta. Al registrarse, recibe
+ * también todas las vacantes que ya existían (con `anterior == null`), de modo que nunca parte de un estado
+ * incompleto.
+ */
+public interface Itf_VacanteObservador {
+
+/**
+ * Se invoca después de guardar una vacante.
+ * @param anterior
+ * 		La versión que había antes con el mismo id, o `null` si la vacante es nueva. Si quien guarda modificó
+ * 		el MISMO objeto que estaba almacenado (en lugar de enviar uno nuevo, como hace el formulario), `anterior` y
+ * 		`nueva` son el mismo objeto y los valores antiguos ya no se pueden consultar.
+ * @param nueva
+ * 		La versión que se acaba de guardar.
+ */
+void alGuardarVacante(Vacante anterior, Vacante nueva);
+
+/**
+ * Se invoca después de quitar una vacante del catálogo, también dentro del cerrojo del almacén. Por defecto no
+ * hace nada: solo lo implementan los observadores que guardan algo por cada vacante.
+ * @param eliminada
+ * 		La última versión guardada de la vacante.
+ */
+default void alEliminarVacante(Vacante eliminada) {
+}
+}
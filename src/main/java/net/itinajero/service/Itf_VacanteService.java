@@ -2,7 +2,12 @@ package net.itinajero.service;
 
 import net.itinajero.model.Vacante;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Esta es una interfaz de servicio. En la programación orientada a objetos y en arquitecturas como la de
@@ -39,10 +44,88 @@ public interface Itf_VacanteService {
  */
 List<Vacante> buscarTodas();
 
-List<Vacante> buscarPorId(Integer idVacante);
+/**
+ * Busca una vacante por su id.
+ * @return La vacante, o `Optional.empty()` si no existe ninguna con ese id (nunca null). Las implementaciones la
+ * buscan en un índice, no recorriendo todas las vacantes.
+ */
+Optional<Vacante> buscarPorId(Integer idVacante);
+
+/**
+ * La versión actual del catálogo como una {@link InstantaneaVacantes} inmutable: todas las lecturas que se hagan
+ * sobre ella ven los mismos datos, aunque mientras tanto se guarden vacantes.
+ * <p>
+ * Por defecto devuelve vacío: solo los almacenes que publican versiones (hoy {@link Impl_VacanteService}) pueden
+ * entregarla sin copiar el catálogo.
+ */
+default Optional<InstantaneaVacantes> instantanea() {
+	return Optional.empty();
+}
 
 void guardar(Vacante vacante);
 
+/**
+ * Guarda varias vacantes seguidas. Un almacén puede sobrescribirlo para hacerlo de una vez (por ejemplo, tomando
+ * su cerrojo una sola vez para todo el lote).
+ */
+default void guardarTodas(List<Vacante> vacantes) {
+	for (Vacante vacante : vacantes){
+		guardar(vacante);
+	}
+}
+
+/**
+ * Como `guardarTodas()`, pero cada vacante solo se guarda si la que está guardada con su id sigue siendo la que
+ * se leyó: `leidas` tiene, por id, los bytes de {@link CodecVacante} de la vacante leída, y la comparación se
+ * hace DENTRO del cerrojo de escritura del almacén, de modo que ninguna edición puede colarse entre comprobar y
+ * guardar. Una vacante editada o eliminada desde la lectura se salta.
+ * @return Las vacantes que se guardaron.
+ */
+List<Vacante> guardarTodasSiNoCambiaron(List<Vacante> vacantes, Map<Integer, byte[]> leidas);
+
+/**
+ * Reserva un id para una vacante que se guardará más tarde (por ejemplo, cuando la escritura es asíncrona y hay
+ * que decirle al usuario el id antes de guardarla). Ningún `guardar()` posterior asignará ese mismo id a otra
+ * vacante.
+ * @return El id reservado.
+ */
+int reservarId();
+
+/**
+ * Quita del catálogo las vacantes con esos ids (por ejemplo, para pasarlas al archivo). Los ids que no existen se
+ * ignoran. Los observadores reciben `alEliminarVacante()` por cada vacante quitada.
+ * @return Las vacantes quitadas, tal como estaban guardadas.
+ */
+default List<Vacante> eliminarTodas(Collection<Integer> idsVacantes) {
+	return eliminarTodasSi(idsVacantes, vacante -> true);
+}
+
+/**
+ * Como `eliminarTodas()`, pero cada vacante solo se quita si cumple `condicion`. La condición se evalúa DENTRO
+ * del cerrojo de escritura del almacén y sobre la versión guardada, así que una edición que llegó después de
+ * decidir borrarla se tiene en cuenta.
+ * @return Las vacantes quitadas, tal como estaban guardadas.
+ */
+List<Vacante> eliminarTodasSi(Collection<Integer> idsVacantes, Predicate<Vacante> condicion);
+
+/**
+ * Busca las vacantes cuyo salario está entre `minimo` y `maximo` (ambos incluidos).
+ * <p>
+ * La implementación por defecto recorre `buscarTodas()`. Un almacén que guarde los salarios de otra forma (por
+ * ejemplo {@link Impl_VacanteServiceColumnar}, en un `double[]`) puede sobrescribirlo con un recorrido más
+ * rápido.
+ * @return Las vacantes encontradas, en el orden en que están almacenadas. Nunca devuelve null.
+ */
+default List<Vacante> buscarPorRangoSalario(double minimo, double maximo) {
+	List<Vacante> encontradas = new ArrayList<>();
+	for (Vacante vacante : buscarTodas()){
+		if (vacante.getSalario() >= minimo && vacante.getSalario() <= maximo){
+			encontradas.add(vacante);
+		}
+	}
+	return encontradas;
+}
+
 
 
 
@@ -0,0 +1,168 @@
+package net.itinajero.service;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ============ LIMITADOR DE PETICIONES POR CLIENTE ("CUBETA DE FICHAS") ============
+ * <p>
+ * ¿Qué es esta clase? Decide si un cliente (por ejemplo, una IP) puede hacer una petición más o si ya superó su
+ * ritmo permitido: `porSegundo` peticiones por segundo de media, con ráfagas de hasta `rafaga` seguidas.
+ * <p>
+ * ¿Cómo funciona? Es una cubeta de fichas guardada en UN solo número por cliente: el instante en que la cubeta
+ * volvería a estar llena (el "tiempo teórico de llegada" del algoritmo GCRA). Cada petición adelanta ese instante
+ * un `intervalo` (1 / porSegundo); si queda más de `rafaga` intervalos por delante del reloj, la cubeta está
+ * vacía y la petición se rechaza. Avanzar el instante es un `compareAndSet` sobre un `AtomicLong`.
+ * <p>
+ * ¿Por qué se implementa así? - No hay cerrojos: dos peticiones del mismo cliente compiten con un CAS y la que
+ * pierde simplemente lo reintenta; peticiones de clientes distintos no se tocan. - No hace falta un hilo que
+ * "rellene" las cubetas: el relleno se deduce del reloj. - Una cubeta llena equivale a no tener cubeta, así que
+ * las de clientes inactivos se pueden borrar sin perder nada.
+ * <p>
+ * Nunca hay más de `maximoClientes` cubetas: cada hueco se reserva antes de crear la cubeta. Con el mapa lleno, un
+ * cliente nuevo revisa las cubetas más antiguas (una cola en orden de creación) y libera la primera que ya esté
+ * llena; las que siguen activas vuelven al final de la cola. Si en unas pocas no encuentra ninguna, el cliente
+ * nuevo se rechaza como si su cubeta estuviera vacía: una avalancha de IPs distintas no puede desalojar a los
+ * clientes que están pidiendo, ni obligar a recorrer el mapa entero en cada petición.
+ */
+public class LimitadorTasa {
+
+/**
+ * Cuántas cubetas antiguas revisa, como mucho, un cliente nuevo que encuentra el mapa lleno.
+ */
+private static final int REVISAR_AL_LLENARSE = 8;
+
+private final ConcurrentHashMap<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+private final Queue<Cubeta> porAntiguedad = new ConcurrentLinkedQueue<>();
+private final AtomicInteger ocupadas = new AtomicInteger();
+private final long intervalo;
+private final long tolerancia;
+private final int maximoClientes;
+private final LongSupplier reloj;
+
+private final AtomicLong admitidas = new AtomicLong();
+private final AtomicLong rechazadas = new AtomicLong();
+
+public LimitadorTasa(double porSegundo, int rafaga, int maximoClientes) {
+	this(porSegundo, rafaga, maximoClientes, System::nanoTime);
+}
+
+/**
+ * Para las pruebas: el reloj (en nanosegundos) se puede adelantar a mano.
+ */
+LimitadorTasa(double porSegundo, int rafaga, int maximoClientes, LongSupplier reloj) {
+	if (porSegundo <= 0 || rafaga < 1){
+		throw new IllegalArgumentException("El ritmo y la ráfaga deben ser positivos");
+	}
+	this.intervalo = (long) (Duration.ofSeconds(1).toNanos() / porSegundo);
+	this.tolerancia = intervalo * rafaga;
+	this.maximoClientes = maximoClientes;
+	this.reloj = reloj;
+}
+
+/**
+ * Intenta gastar una ficha de la cubeta de `cliente`.
+ * @return 0 si la petición se admite; si no, cuántos nanosegundos faltan para que haya una ficha.
+ */
+public long intentar(String cliente) {
+	long ahora = reloj.getAsLong();
+	Cubeta cubeta = cubetas.get(cliente);
+	if (cubeta == null && (cubeta = crear(cliente, ahora)) == null){
+		rechazadas.incrementAndGet();
+		return intervalo;
+	}
+	while (true){
+		long llena = cubeta.llena.get();
+		long nueva = Math.max(llena, ahora) + intervalo;
+		long exceso = nueva - ahora - tolerancia;
+		if (exceso > 0){
+			rechazadas.incrementAndGet();
+			return exceso;
+		}
+		if (cubeta.llena.compareAndSet(llena, nueva)){
+			admitidas.incrementAndGet();
+			return 0;
+		}
+	}
+}
+
+public long getAdmitidas() {
+	return admitidas.get();
+}
+
+public long getRechazadas() {
+	return rechazadas.get();
+}
+
+/**
+ * @return Cuántos clientes tienen una cubeta ahora mismo.
+ */
+public int clientes() {
+	return cubetas.size();
+}
+
+/**
+ * @return La cubeta de `cliente` (la nueva, o la que otro hilo acaba de crear), o null si no hay hueco para ella.
+ */
+private Cubeta crear(String cliente, long ahora) {
+	if (!reservarHueco(ahora)){
+		return null;
+	}
+	Cubeta nueva = new Cubeta(cliente, ahora);
+	Cubeta existente = cubetas.putIfAbsent(cliente, nueva);
+	if (existente != null){
+		ocupadas.decrementAndGet();
+		return existente;
+	}
+	porAntiguedad.add(nueva);
+	return nueva;
+}
+
+/**
+ * Reserva un hueco en el mapa; si está lleno, intenta liberar una de las cubetas más antiguas que ya esté llena.
+ */
+private boolean reservarHueco(long ahora) {
+	for (int revisadas = 0; ; revisadas++){
+		int actuales = ocupadas.get();
+		if (actuales < maximoClientes){
+			if (ocupadas.compareAndSet(actuales, actuales + 1)){
+				return true;
+			}
+			continue;
+		}
+		if (revisadas >= REVISAR_AL_LLENARSE){
+			return false;
+		}
+		Cubeta antigua = porAntiguedad.poll();
+		if (antigua == null){
+			return false; // Las demás se están creando ahora mismo.
+		}
+		if (antigua.llena.get() <= ahora){
+			cubetas.remove(antigua.cliente, antigua);
+			ocupadas.decrementAndGet();
+		} else{
+			porAntiguedad.add(antigua); // Sigue activa: vuelve al final.
+		}
+	}
+}
+
+/**
+ * El instante en que la cubeta de un cliente volvería a estar llena. Guarda también el cliente para poder
+ * quitarla del mapa al sacarla de la cola.
+ */
+private static final class Cubeta {
+
+	private final String cliente;
+	private final AtomicLong llena;
+
+	Cubeta(String cliente, long ahora) {
+		this.cliente = cliente;
+		this.llena = new AtomicLong(ahora);
+	}
+}
+}
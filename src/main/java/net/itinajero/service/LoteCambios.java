@@ -0,0 +1,21 @@
+package net.itinajero.service;
+
+/**
+ * Lo que devuelve una lectura del flujo de cambios ({@link Itf_FlujoCambiosVacantes#leer(long, int)}) o su
+ * instantánea ({@link Itf_FlujoCambiosVacantes#instantanea()}).
+ * @param generacion
+ * 		Identifica el arranque de la instancia que responde. El flujo vive en memoria y es de un solo nodo: otra
+ * 		instancia, o esta tras reiniciarse, tiene otros offsets. Si cambia, el consumidor debe volver a empezar por
+ * 		la instantánea.
+ * @param primerDisponible
+ * 		El offset más antiguo que aún se puede leer. Si es mayor que el `desde` pedido, los cambios de en medio se
+ * 		perdieron porque el consumidor se quedó demasiado atrás: debe volver a empezar por la instantánea.
+ * @param siguiente
+ * 		El `desde` de la próxima lectura.
+ * @param cantidad
+ * 		Cuántos cambios hay en `datos`.
+ * @param datos
+ * 		Los cambios codificados uno tras otro (ver {@link CodecCambios}).
+ */
+public record LoteCambios(long generacion, long primerDisponible, long siguiente, int cantidad, byte[] datos) {
+}
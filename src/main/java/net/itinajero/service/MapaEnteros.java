@@ -0,0 +1,122 @@
+package net.itinajero.service;
+
+import java.util.Arrays;
+
+/**
+ * ¿Qué es? Un mapa `int → int` de direccionamiento abierto: las claves y los valores viven en dos arreglos de
+ * `int`, sin un objeto `Integer` ni un nodo por entrada.
+ * <p>
+ * ¿Cómo funciona? Cada clave va a la posición que indica su hash; si está ocupada prueba la siguiente (sondeo
+ * lineal). Cuando el mapa se llena hasta la mitad, duplica su tamaño y vuelve a colocar todas las claves.
+ * <p>
+ * ¿Por qué se usa? Para el índice id → registro de un catálogo con millones de vacantes. Un
+ * `HashMap<Integer, Integer>` gastaría unos 50 bytes por entrada en el heap; este, unos 16.
+ * <p>
+ * No es seguro para hilos: quien lo use debe protegerlo con su propio cerrojo. Eliminar una clave libera de
+ * verdad su posición: las claves que venían detrás en la misma cadena de sondeo se corren hacia atrás para
+ * cubrir el hueco (borrado por desplazamiento), así no quedan "lápidas" que ocupen sitio para siempre en un
+ * catálogo que crea y archiva vacantes sin parar.
+ */
+final class MapaEnteros {
+
+/**
+ * Valor que devuelve {@link #obtener(int)} cuando la clave no existe.
+ */
+static final int AUSENTE = -1;
+
+private static final int LIBRE = Integer.MIN_VALUE;
+
+private int[] claves;
+private int[] valores;
+private int tamanio;
+
+MapaEnteros(int capacidadInicial) {
+	int capacidad = Integer.highestOneBit(Math.max(16, capacidadInicial * 2 - 1)) << 1;
+	claves = new int[capacidad];
+	valores = new int[capacidad];
+	Arrays.fill(claves, LIBRE);
+}
+
+/**
+ * @param clave
+ * 		Cualquier `int` salvo `Integer.MIN_VALUE`, que se reserva para marcar posiciones libres.
+ */
+void poner(int clave, int valor) {
+	if (clave == LIBRE){
+		throw new IllegalArgumentException("Clave no admitida: " + clave);
+	}
+	int posicion = buscarPosicion(claves, clave);
+	if (claves[posicion] == LIBRE){
+		claves[posicion] = clave;
+		tamanio++;
+	}
+	valores[posicion] = valor;
+	if (tamanio * 2 > claves.length){
+		ampliar();
+	}
+}
+
+void quitar(int clave) {
+	int hueco = buscarPosicion(claves, clave);
+	if (claves[hueco] == LIBRE){
+		return;
+	}
+	int mascara = claves.length - 1;
+	int siguiente = hueco;
+	while (true){
+		siguiente = (siguiente + 1) & mascara;
+		int otra = claves[siguiente];
+		if (otra == LIBRE){
+			break;
+		}
+		// `otra` puede ocupar el hueco si su posición ideal no está entre el hueco (excluido) y donde está ahora:
+		// si lo estuviera, al buscarla se llegaría a ella sin pasar por el hueco.
+		int ideal = posicionIdeal(otra, mascara);
+		if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)){
+			claves[hueco] = otra;
+			valores[hueco] = valores[siguiente];
+			hueco = siguiente;
+		}
+	}
+	claves[hueco] = LIBRE;
+	tamanio--;
+}
+
+int obtener(int clave) {
+	int posicion = buscarPosicion(claves, clave);
+	return claves[posicion] == LIBRE ? AUSENTE : valores[posicion];
+}
+
+int tamanio() {
+	return tamanio;
+}
+
+private static int posicionIdeal(int clave, int mascara) {
+	int mezcla = clave * 0x9E3779B9; // Mezcla los bits: los ids suelen ser consecutivos.
+	return (mezcla ^ mezcla >>> 16) & mascara;
+}
+
+private static int buscarPosicion(int[] claves, int clave) {
+	int mascara = claves.length - 1;
+	int posicion = posicionIdeal(clave, mascara);
+	while (claves[posicion] != LIBRE && claves[posicion] != clave){
+		posicion = (posicion + 1) & mascara;
+	}
+	return posicion;
+}
+
+private void ampliar() {
+	int[] clavesAnteriores = claves;
+	int[] valoresAnteriores = valores;
+	claves = new int[clavesAnteriores.length * 2];
+	valores = new int[clavesAnteriores.length * 2];
+	Arrays.fill(claves, LIBRE);
+	for (int i = 0; i < clavesAnteriores.length; i++){
+		if (clavesAnteriores[i] != LIBRE){
+			int posicion = buscarPosicion(claves, clavesAnteriores[i]);
+			claves[posicion] = clavesAnteriores[i];
+			valores[posicion] = valoresAnteriores[i];
+		}
+	}
+}
+}
@@ -0,0 +1,143 @@
+package net.itinajero.service;
+
+/**
+ * ¿Qué es? Un mapa INMUTABLE de claves `int` a valores: `poner()` y `quitar()` devuelven un mapa nuevo y dejan el
+ * original como estaba. Es la pareja de {@link VectorPersistente} para buscar por id.
+ * <p>
+ * ¿Cómo funciona? Es un "hash array mapped trie": la clave se lee de 5 en 5 bits y cada grupo elige uno de los
+ * 32 hijos posibles de un nodo. Un nodo no reserva las 32 posiciones: guarda un `int` con un bit por hijo
+ * presente y un arreglo con solo esos hijos; la posición de un hijo en el arreglo es cuántos bits hay encendidos
+ * antes del suyo (`Integer.bitCount`). Cambiar una clave copia los nodos del camino hasta ella (como mucho 7) y
+ * comparte todo lo demás con la versión anterior.
+ * <p>
+ * ¿Por qué no un `HashMap` copiado? Copiar el mapa en cada `guardar()` cuesta lo mismo que el catálogo entero;
+ * aquí cuesta unos pocos arreglos pequeños, y las búsquedas siguen sin recorrer nada.
+ * @param <V>
+ * 		El tipo de los valores. No admite `null`.
+ */
+final class MapaEnterosPersistente<V> {
+
+private static final int BITS = 5;
+private static final int MASCARA = (1 << BITS) - 1;
+
+private static final MapaEnterosPersistente<?> VACIO = new MapaEnterosPersistente<>(null, 0);
+
+private record Hoja(int clave, Object valor) {
+}
+
+/**
+ * Un nodo interior: `mapa` tiene encendido el bit `b` si hay un hijo para el grupo de bits `b`.
+ */
+private record Rama(int mapa, Object[] hijos) {
+}
+
+/**
+ * `null` (vacío), una {@link Hoja} (una sola clave) o una {@link Rama}.
+ */
+private final Object raiz;
+private final int tamanio;
+
+private MapaEnterosPersistente(Object raiz, int tamanio) {
+	this.raiz = raiz;
+	this.tamanio = tamanio;
+}
+
+@SuppressWarnings("unchecked")
+static <V> MapaEnterosPersistente<V> vacio() {
+	return (MapaEnterosPersistente<V>) VACIO;
+}
+
+int tamanio() {
+	return tamanio;
+}
+
+/**
+ * @return El valor de la clave, o `null` si no está.
+ */
+@SuppressWarnings("unchecked")
+V obtener(int clave) {
+	Object nodo = raiz;
+	for (int desplazamiento = 0; nodo instanceof Rama rama; desplazamiento += BITS){
+		int bit = 1 << ((clave >>> desplazamiento) & MASCARA);
+		if ((rama.mapa() & bit) == 0){
+			return null;
+		}
+		nodo = rama.hijos()[Integer.bitCount(rama.mapa() & (bit - 1))];
+	}
+	return nodo instanceof Hoja hoja && hoja.clave() == clave ? (V) hoja.valor() : null;
+}
+
+MapaEnterosPersistente<V> poner(int clave, V valor) {
+	boolean nueva = obtener(clave) == null;
+	return new MapaEnterosPersistente<>(poner(raiz, 0, new Hoja(clave, valor)), nueva ? tamanio + 1 : tamanio);
+}
+
+MapaEnterosPersistente<V> quitar(int clave) {
+	if (obtener(clave) == null){
+		return this;
+	}
+	return new MapaEnterosPersistente<>(quitar(raiz, 0, clave), tamanio - 1);
+}
+
+private static Object poner(Object nodo, int desplazamiento, Hoja nueva) {
+	if (nodo == null){
+		return nueva;
+	}
+	if (nodo instanceof Hoja hoja){
+		return hoja.clave() == nueva.clave() ? nueva : separar(hoja, nueva, desplazamiento);
+	}
+	Rama rama = (Rama) nodo;
+	int bit = 1 << ((nueva.clave() >>> desplazamiento) & MASCARA);
+	int posicion = Integer.bitCount(rama.mapa() & (bit - 1));
+	Object[] hijos;
+	if ((rama.mapa() & bit) != 0){
+		hijos = rama.hijos().clone();
+		hijos[posicion] = poner(hijos[posicion], desplazamiento + BITS, nueva);
+	} else{
+		hijos = new Object[rama.hijos().length + 1];
+		System.arraycopy(rama.hijos(), 0, hijos, 0, posicion);
+		hijos[posicion] = nueva;
+		System.arraycopy(rama.hijos(), posicion, hijos, posicion + 1, rama.hijos().length - posicion);
+	}
+	return new Rama(rama.mapa() | bit, hijos);
+}
+
+/**
+ * Dos hojas con claves distintas que caen en el mismo sitio: se bajan a una rama nueva hasta el primer grupo de
+ * bits en que las claves se diferencian.
+ */
+private static Object separar(Hoja a, Hoja b, int desplazamiento) {
+	int grupoA = (a.clave() >>> desplazamiento) & MASCARA;
+	int grupoB = (b.clave() >>> desplazamiento) & MASCARA;
+	if (grupoA == grupoB){
+		return new Rama(1 << grupoA, new Object[] {separar(a, b, desplazamiento + BITS)});
+	}
+	return new Rama((1 << grupoA) | (1 << grupoB), grupoA < grupoB ? new Object[] {a, b} : new Object[] {b, a});
+}
+
+/**
+ * Solo se llama si la clave está en el mapa.
+ */
+private static Object quitar(Object nodo, int desplazamiento, int clave) {
+	if (nodo instanceof Hoja){
+		return null;
+	}
+	Rama rama = (Rama) nodo;
+	int bit = 1 << ((clave >>> desplazamiento) & MASCARA);
+	int posicion = Integer.bitCount(rama.mapa() & (bit - 1));
+	Object hijo = quitar(rama.hijos()[posicion], desplazamiento + BITS, clave);
+	if (hijo != null){
+		Object[] hijos = rama.hijos().clone();
+		hijos[posicion] = hijo;
+		return new Rama(rama.mapa(), hijos);
+	}
+	if (rama.hijos().length == 1){
+		return null;
+	}
+	Object[] hijos = new Object[rama.hijos().length - 1];
+	System.arraycopy(rama.hijos(), 0, hijos, 0, posicion);
+	System.arraycopy(rama.hijos(), posicion + 1, hijos, posicion, hijos.length - posicion);
+	// Si solo queda una hoja, sube en lugar de la rama: una búsqueda compara la clave al llegar a una hoja.
+	return hijos.length == 1 && hijos[0] instanceof Hoja ? hijos[0] : new Rama(rama.mapa() & ~bit, hijos);
+}
+}
@@ -0,0 +1,158 @@
+package net.itinajero.service;
+
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * ¿Qué es? La sesión HTTP de un usuario tal como se guarda en el almacén compartido. Implementa la interfaz
+ * `Session` de Spring Session, que es la que usa el filtro que sustituye al `HttpSession` del servidor.
+ * <p>
+ * ¿Cómo funciona? Los atributos llegan del almacén como bytes sin interpretar ({@link #atributosCrudos}) y solo
+ * se decodifican la primera vez que alguien los pide con `getAttribute()` (carga perezosa). Así, una petición
+ * que solo necesita, por ejemplo, el usuario autenticado no paga por decodificar los mensajes flash u otros
+ * atributos grandes. Al guardar, los atributos que nadie leyó se copian tal cual, sin volver a codificarlos.
+ * <p>
+ * ¿Por qué se implementa así? Para que la sesión no viva en la memoria de un único nodo: cualquier nodo detrás
+ * del balanceador puede reconstruirla desde el almacén, sin "sesiones pegajosas".
+ */
+public class SesionCompartida implements Session {
+
+private String id;
+/**
+ * Id con el que se leyó la sesión del almacén. Si `changeSessionId()` lo cambia, el repositorio debe borrar la
+ * clave antigua.
+ */
+private String idOriginal;
+private final Instant creacion;
+private Instant ultimoAcceso;
+private Duration inactividadMaxima;
+private final Map<String, Object> atributos = new HashMap<>();
+private final Map<String, byte[]> atributosCrudos;
+
+/**
+ * Crea una sesión nueva, todavía no guardada.
+ */
+SesionCompartida(Duration inactividadMaxima) {
+	this.id = UUID.randomUUID().toString();
+	this.creacion = Instant.now();
+	this.ultimoAcceso = this.creacion;
+	this.inactividadMaxima = inactividadMaxima;
+	this.atributosCrudos = new HashMap<>();
+}
+
+/**
+ * Reconstruye una sesión leída del almacén. Los atributos quedan codificados hasta que se usen.
+ */
+SesionCompartida(String id, Instant creacion, Instant ultimoAcceso, Duration inactividadMaxima,
+		Map<String, byte[]> atributosCrudos) {
+	this.id = id;
+	this.idOriginal = id;
+	this.creacion = creacion;
+	this.ultimoAcceso = ultimoAcceso;
+	this.inactividadMaxima = inactividadMaxima;
+	this.atributosCrudos = atributosCrudos;
+}
+
+@Override
+public String getId() {
+	return id;
+}
+
+@Override
+public String changeSessionId() {
+	this.id = UUID.randomUUID().toString();
+	return id;
+}
+
+@Override
+@SuppressWarnings("unchecked")
+public <T> T getAttribute(String nombre) {
+	byte[] crudo = atributosCrudos.remove(nombre);
+	if (crudo != null){
+		atributos.put(nombre, CodecSesion.decodificarValor(crudo));
+	}
+	return (T) atributos.get(nombre);
+}
+
+@Override
+public Set<String> getAttributeNames() {
+	Set<String> nombres = new HashSet<>(atributos.keySet());
+	nombres.addAll(atributosCrudos.keySet());
+	return nombres;
+}
+
+@Override
+public void setAttribute(String nombre, Object valor) {
+	if (valor == null){
+		removeAttribute(nombre);
+		return;
+	}
+	atributosCrudos.remove(nombre);
+	atributos.put(nombre, valor);
+}
+
+@Override
+public void removeAttribute(String nombre) {
+	atributosCrudos.remove(nombre);
+	atributos.remove(nombre);
+}
+
+@Override
+public Instant getCreationTime() {
+	return creacion;
+}
+
+@Override
+public void setLastAccessedTime(Instant ultimoAcceso) {
+	this.ultimoAcceso = ultimoAcceso;
+}
+
+@Override
+public Instant getLastAccessedTime() {
+	return ultimoAcceso;
+}
+
+@Override
+public void setMaxInactiveInterval(Duration inactividadMaxima) {
+	this.inactividadMaxima = inactividadMaxima;
+}
+
+@Override
+public Duration getMaxInactiveInterval() {
+	return inactividadMaxima;
+}
+
+@Override
+public boolean isExpired() {
+	return !inactividadMaxima.isNegative() && Instant.now().isAfter(ultimoAcceso.plus(inactividadMaxima));
+}
+
+String getIdOriginal() {
+	return idOriginal;
+}
+
+void marcarGuardada() {
+	idOriginal = id;
+}
+
+/**
+ * Atributos ya decodificados: los únicos que pueden haber cambiado en esta petición.
+ */
+Map<String, Object> getAtributos() {
+	return atributos;
+}
+
+/**
+ * Atributos que nadie ha leído en esta petición; se vuelven a escribir tal cual, sin decodificar.
+ */
+Map<String, byte[]> getAtributosCrudos() {
+	return atributosCrudos;
+}
+}
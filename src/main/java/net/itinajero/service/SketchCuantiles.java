@@ -0,0 +1,117 @@
+package net.itinajero.service;
+
+import java.util.Arrays;
+
+/**
+ * ¿Qué es? Un resumen de una serie de salarios que permite estimar sus percentiles (mediana, percentil 90...)
+ * sin guardar los salarios uno por uno.
+ * <p>
+ * ¿Cómo funciona? - Los salarios se reparten en "cubetas" de anchura geométrica: la cubeta `i` recoge los
+ * salarios entre `γ^(i-1)` y `γ^i`, con `γ = (1 + e) / (1 - e)`. De cada cubeta solo se guarda cuántos salarios
+ * contiene. - Para el percentil `q` se recorren las cubetas en orden hasta llegar a la posición `q × (n - 1)` y
+ * se devuelve el centro de esa cubeta, que está a menos de un {@value #ERROR_RELATIVO} (1 %) del salario real. -
+ * Los salarios menores o iguales que cero (y `NaN`) van a una cubeta aparte. - Los índices se limitan a los de
+ * {@value #SALARIO_MINIMO} y {@value #SALARIO_MAXIMO}: un salario fuera de ese rango (incluido `Infinity`) cuenta
+ * en la cubeta del extremo, así el arreglo nunca pasa de unas 1.600 cubetas por mucho que se aleje un valor.
+ * <p>
+ * ¿Por qué así y no con una lista ordenada? Con la lista, cada vacante nueva cuesta una inserción ordenada y la
+ * memoria crece con el catálogo. Aquí agregar o quitar un salario es sumar o restar 1 en un arreglo, y el número
+ * de cubetas solo depende del rango de salarios (unas 800 entre 1 y 10 millones), no de cuántas vacantes haya.
+ * Además, a diferencia de otros resúmenes aproximados, admite QUITAR un salario: una vacante editada sale de su
+ * cubeta antigua y entra en la nueva.
+ * <p>
+ * No es seguro para hilos: quien lo use debe protegerlo con su propio cerrojo.
+ */
+final class SketchCuantiles {
+
+static final double ERROR_RELATIVO = 0.01;
+
+private static final double GAMMA = (1 + ERROR_RELATIVO) / (1 - ERROR_RELATIVO);
+private static final double LOG_GAMMA = Math.log(GAMMA);
+
+static final double SALARIO_MINIMO = 0.01;
+static final double SALARIO_MAXIMO = 1e12;
+private static final int INDICE_MINIMO = (int) Math.ceil(Math.log(SALARIO_MINIMO) / LOG_GAMMA);
+private static final int INDICE_MAXIMO = (int) Math.ceil(Math.log(SALARIO_MAXIMO) / LOG_GAMMA);
+
+/**
+ * `contadores[i]` es la cubeta de índice `i + primerIndice`. Crece por los dos extremos según llegan salarios.
+ */
+private int[] contadores = new int[0];
+private int primerIndice;
+private long noPositivos;
+private long total;
+
+void agregar(double salario) {
+	if (!(salario > 0)){
+		noPositivos++;
+	} else{
+		int indice = indice(salario);
+		asegurarCubeta(indice);
+		contadores[indice - primerIndice]++;
+	}
+	total++;
+}
+
+/**
+ * Quita un salario agregado antes. Quitar uno que no se agregó deja el resumen inconsistente.
+ */
+void quitar(double salario) {
+	if (!(salario > 0)){
+		noPositivos--;
+	} else{
+		contadores[indice(salario) - primerIndice]--;
+	}
+	total--;
+}
+
+long total() {
+	return total;
+}
+
+/**
+ * @param q
+ * 		Entre 0 (el mínimo) y 1 (el máximo). 0.5 es la mediana.
+ * @return El salario aproximado del percentil `q`, o `NaN` si no hay salarios.
+ */
+double cuantil(double q) {
+	if (total == 0){
+		return Double.NaN;
+	}
+	long posicion = (long) (q * (total - 1));
+	if (posicion < noPositivos){
+		return 0;
+	}
+	long acumulado = noPositivos;
+	for (int i = 0; i < contadores.length; i++){
+		acumulado += contadores[i];
+		if (acumulado > posicion){
+			return 2 * Math.pow(GAMMA, i + primerIndice) / (GAMMA + 1);
+		}
+	}
+	return Double.NaN; // No se alcanza si agregar() y quitar() se usaron bien.
+}
+
+/**
+ * La misma cubeta al agregar y al quitar: los dos pasan por aquí, también para los salarios recortados.
+ */
+private static int indice(double salario) {
+	double indice = Math.ceil(Math.log(salario) / LOG_GAMMA);
+	return (int) Math.max(INDICE_MINIMO, Math.min(INDICE_MAXIMO, indice));
+}
+
+private void asegurarCubeta(int indice) {
+	if (contadores.length == 0){
+		contadores = new int[16];
+		primerIndice = indice - 8;
+	} else if (indice < primerIndice){
+		int nuevoPrimero = Math.min(indice, primerIndice - contadores.length / 2);
+		int[] ampliado = new int[contadores.length + (primerIndice - nuevoPrimero)];
+		System.arraycopy(contadores, 0, ampliado, primerIndice - nuevoPrimero, contadores.length);
+		contadores = ampliado;
+		primerIndice = nuevoPrimero;
+	} else if (indice - primerIndice >= contadores.length){
+		contadores = Arrays.copyOf(contadores, Math.max(indice - primerIndice + 1, contadores.length * 3 / 2));
+	}
+}
+}
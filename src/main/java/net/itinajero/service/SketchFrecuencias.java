@@ -0,0 +1,90 @@
+package net.itinajero.service;
+
+/**
+ * ¿Qué es? Un contador aproximado de cuántas veces se ha visto cada clave ("count-min sketch"), usado por
+ * {@link CacheTinyLFU} para decidir qué entra en la caché.
+ * <p>
+ * ¿Cómo funciona? - Hay {@value #FILAS} filas de contadores de 4 bits (valen de 0 a 15; dos por byte). Cada clave
+ * cae en un contador de cada fila según un hash distinto por fila. - Contar suma 1 en los {@value #FILAS}
+ * contadores; la frecuencia es el MENOR de ellos, porque las colisiones solo pueden sumar de más. - Tras
+ * `10 × capacidad` incrementos, todos los contadores se dividen entre dos ("envejecimiento"), para que lo que fue
+ * popular hace mucho no ocupe la caché para siempre.
+ * <p>
+ * ¿Por qué se usa? Guardar un contador exacto por clave costaría un mapa con TODAS las claves vistas, también
+ * las que solo aparecieron una vez. El sketch ocupa lo mismo se vean diez claves o diez millones. No es seguro
+ * para varios hilos: la caché lo usa siempre dentro de su propio `synchronized`.
+ */
+class SketchFrecuencias {
+
+private static final int FILAS = 4;
+private static final int MAXIMO = 15;
+private static final int[] SEMILLAS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+private final byte[][] contadores = new byte[FILAS][];
+private final int mascara;
+private final int muestra;
+private int incrementos;
+
+SketchFrecuencias(int capacidad) {
+	int columnas = Integer.highestOneBit(Math.max(16, capacidad) * 2 - 1); // Potencia de dos >= capacidad.
+	for (int fila = 0; fila < FILAS; fila++){
+		contadores[fila] = new byte[columnas / 2];
+	}
+	this.mascara = columnas - 1;
+	this.muestra = 10 * Math.max(16, capacidad);
+}
+
+void incrementar(Object clave) {
+	int hash = clave.hashCode();
+	boolean cambio = false;
+	for (int fila = 0; fila < FILAS; fila++){
+		int columna = columna(hash, fila);
+		int valor = leer(fila, columna);
+		if (valor < MAXIMO){
+			escribir(fila, columna, valor + 1);
+			cambio = true;
+		}
+	}
+	if (cambio && ++incrementos >= muestra){
+		envejecer();
+	}
+}
+
+int frecuencia(Object clave) {
+	int hash = clave.hashCode();
+	int minimo = MAXIMO;
+	for (int fila = 0; fila < FILAS; fila++){
+		minimo = Math.min(minimo, leer(fila, columna(hash, fila)));
+	}
+	return minimo;
+}
+
+/**
+ * Divide todos los contadores entre dos. Cada byte tiene dos contadores de 4 bits: desplazar el byte un bit a
+ * la derecha y borrar el bit que pasa del contador alto al bajo los divide a la vez.
+ */
+private void envejecer() {
+	for (byte[] fila : contadores){
+		for (int i = 0; i < fila.length; i++){
+			fila[i] = (byte) ((fila[i] & 0xFF) >>> 1 & 0x77);
+		}
+	}
+	incrementos /= 2;
+}
+
+private int columna(int hash, int fila) {
+	int mezcla = (hash ^ SEMILLAS[fila]) * SEMILLAS[(fila + 1) % FILAS];
+	return (mezcla ^ mezcla >>> 16) & mascara;
+}
+
+private int leer(int fila, int columna) {
+	int desplazamiento = (columna & 1) << 2;
+	return contadores[fila][columna >>> 1] >>> desplazamiento & 0xF;
+}
+
+private void escribir(int fila, int columna, int valor) {
+	int desplazamiento = (columna & 1) << 2;
+	byte[] bytes = contadores[fila];
+	bytes[columna >>> 1] = (byte) (bytes[columna >>> 1] & ~(0xF << desplazamiento) | valor << desplazamiento);
+}
+}
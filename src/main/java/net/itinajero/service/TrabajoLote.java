@@ -0,0 +1,138 @@
+package net.itinajero.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * El estado de un trabajo por lotes lanzado con {@link Itf_TrabajosLoteService}: en qué fase está y cuántas
+ * vacantes lleva revisadas. Los hilos del trabajo lo actualizan mientras `GET /trabajos/{id}` lo lee, así que
+ * todos sus campos se pueden leer en cualquier momento sin cerrojos.
+ */
+public class TrabajoLote {
+
+public enum Estado {
+	/** Revisando vacantes en paralelo; aún no se ha guardado nada. */
+	EN_CURSO,
+	/** Guardando de una vez las vacantes modificadas. */
+	PUBLICANDO,
+	TERMINADO,
+	/** Falló. Si fue antes de publicar, no se guardó ninguna vacante. */
+	FALLIDO
+}
+
+private final String id;
+private final String nombre;
+private final Instant inicio = Instant.now();
+/**
+ * Cada bloque suma aquí sus vacantes al terminar. Un `LongAdder` reparte las sumas entre celdas, así que los
+ * hilos del trabajo no compiten por un único contador.
+ */
+private final LongAdder procesadas = new LongAdder();
+
+private volatile Estado estado = Estado.EN_CURSO;
+private volatile int total;
+private volatile int modificadas;
+private volatile int conflictos;
+private volatile Instant fin;
+private volatile String error;
+
+TrabajoLote(String id, String nombre) {
+	this.id = id;
+	this.nombre = nombre;
+}
+
+public String getId() {
+	return id;
+}
+
+public String getNombre() {
+	return nombre;
+}
+
+public Estado getEstado() {
+	return estado;
+}
+
+/**
+ * @return Cuántas vacantes había en el catálogo al empezar el trabajo.
+ */
+public int getTotal() {
+	return total;
+}
+
+public long getProcesadas() {
+	return procesadas.sum();
+}
+
+/**
+ * @return De 0 a 100.
+ */
+public int getPorcentaje() {
+	return total == 0 ? 100 : (int) (getProcesadas() * 100 / total);
+}
+
+/**
+ * @return Cuántas vacantes se guardaron modificadas (se conoce al publicar).
+ */
+public int getModificadas() {
+	return modificadas;
+}
+
+/**
+ * @return Cuántas vacantes modificadas NO se guardaron porque alguien las editó mientras el trabajo corría.
+ */
+public int getConflictos() {
+	return conflictos;
+}
+
+public Instant getInicio() {
+	return inicio;
+}
+
+public Instant getFin() {
+	return fin;
+}
+
+public long getDuracionMs() {
+	return Duration.between(inicio, fin == null ? Instant.now() : fin).toMillis();
+}
+
+public String getError() {
+	return error;
+}
+
+public boolean isTerminado() {
+	return estado == Estado.TERMINADO || estado == Estado.FALLIDO;
+}
+
+void empezar(int total) {
+	this.total = total;
+}
+
+void avanzar(int vacantes) {
+	procesadas.add(vacantes);
+}
+
+void publicar() {
+	estado = Estado.PUBLICANDO;
+}
+
+void terminar(int modificadas, int conflictos) {
+	this.modificadas = modificadas;
+	this.conflictos = conflictos;
+	this.fin = Instant.now();
+	this.estado = Estado.TERMINADO;
+}
+
+void fallar(Throwable causa) {
+	this.error = String.valueOf(causa);
+	this.fin = Instant.now();
+	this.estado = Estado.FALLIDO;
+}
+
+@Override
+public String toString() {
+	return "TrabajoLote{" + id + " '" + nombre + "' " + estado + " " + getProcesadas() + "/" + total + "}";
+}
+}
@@ -0,0 +1,189 @@
+package net.itinajero.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * ¿Qué es? Una lista INMUTABLE en la que "agregar" o "reemplazar" un elemento devuelve una lista nueva y deja la
+ * original intacta, sin copiarla entera.
+ * <p>
+ * ¿Cómo funciona? - Los elementos viven en un árbol de arreglos de 32 posiciones: las hojas guardan los
+ * elementos y los nodos interiores guardan hojas o nodos. La posición `i` se encuentra tomando sus bits de 5 en 5
+ * (`(i >>> nivel) & 31`) desde la raíz, así que con 3 niveles caben 32 768 elementos. - Reemplazar copia
+ * solamente el camino de la raíz a la hoja (unos pocos arreglos de 32); todos los demás nodos se COMPARTEN con la
+ * versión anterior. - Los últimos elementos (hasta 32) se guardan aparte, en la `cola`: agregar al final casi
+ * siempre es copiar un arreglo pequeño, y solo cada 32 elementos la cola llena se cuelga del árbol.
+ * <p>
+ * ¿Por qué se usa? Para que {@link InstantaneaVacantes} pueda publicar una versión nueva del catálogo en cada
+ * `guardar()` sin tocar la que están leyendo otras peticiones, y sin el coste de copiar el catálogo entero.
+ * @param <T>
+ * 		El tipo de los elementos.
+ */
+final class VectorPersistente<T> {
+
+private static final int BITS = 5;
+private static final int ANCHO = 1 << BITS;
+private static final int MASCARA = ANCHO - 1;
+
+private static final VectorPersistente<?> VACIO = new VectorPersistente<>(0, BITS, new Object[ANCHO], new Object[0]);
+
+private final int tamanio;
+/**
+ * Cuántos bits hay que desplazar el índice para elegir el hijo de la raíz (5 con un nivel bajo la raíz, 10 con
+ * dos...).
+ */
+private final int nivel;
+private final Object[] raiz;
+private final Object[] cola;
+
+private VectorPersistente(int tamanio, int nivel, Object[] raiz, Object[] cola) {
+	this.tamanio = tamanio;
+	this.nivel = nivel;
+	this.raiz = raiz;
+	this.cola = cola;
+}
+
+@SuppressWarnings("unchecked")
+static <T> VectorPersistente<T> vacio() {
+	return (VectorPersistente<T>) VACIO;
+}
+
+static <T> VectorPersistente<T> de(Iterable<? extends T> elementos) {
+	VectorPersistente<T> vector = vacio();
+	for (T elemento : elementos){
+		vector = vector.agregar(elemento);
+	}
+	return vector;
+}
+
+int tamanio() {
+	return tamanio;
+}
+
+@SuppressWarnings("unchecked")
+T obtener(int indice) {
+	return (T) hoja(indice)[indice & MASCARA];
+}
+
+/**
+ * @return Un vector con `elemento` al final. Este no cambia.
+ */
+VectorPersistente<T> agregar(T elemento) {
+	if (tamanio - inicioCola() < ANCHO){
+		Object[] nuevaCola = Arrays.copyOf(cola, cola.length + 1);
+		nuevaCola[cola.length] = elemento;
+		return new VectorPersistente<>(tamanio + 1, nivel, raiz, nuevaCola);
+	}
+	// La cola está llena: pasa al árbol y se empieza una nueva.
+	Object[] nuevaRaiz;
+	int nuevoNivel = nivel;
+	if ((tamanio >>> BITS) > (1 << nivel)){
+		// Tampoco cabe en el árbol: se añade un nivel por encima de la raíz actual.
+		nuevaRaiz = new Object[ANCHO];
+		nuevaRaiz[0] = raiz;
+		nuevaRaiz[1] = camino(nivel, cola);
+		nuevoNivel += BITS;
+	} else{
+		nuevaRaiz = colgarCola(nivel, raiz);
+	}
+	return new VectorPersistente<>(tamanio + 1, nuevoNivel, nuevaRaiz, new Object[] {elemento});
+}
+
+/**
+ * @return Un vector con `elemento` en la posición `indice`. Este no cambia.
+ */
+VectorPersistente<T> reemplazar(int indice, T elemento) {
+	comprobar(indice);
+	if (indice >= inicioCola()){
+		Object[] nuevaCola = cola.clone();
+		nuevaCola[indice & MASCARA] = elemento;
+		return new VectorPersistente<>(tamanio, nivel, raiz, nuevaCola);
+	}
+	return new VectorPersistente<>(tamanio, nivel, reemplazar(nivel, raiz, indice, elemento), cola);
+}
+
+/**
+ * @return Una vista de solo lectura. Como el vector no cambia nunca, se puede recorrer desde cualquier hilo.
+ */
+List<T> comoLista() {
+	return new Vista<>(this);
+}
+
+private Object[] hoja(int indice) {
+	comprobar(indice);
+	if (indice >= inicioCola()){
+		return cola;
+	}
+	Object[] nodo = raiz;
+	for (int n = nivel; n > 0; n -= BITS){
+		nodo = (Object[]) nodo[(indice >>> n) & MASCARA];
+	}
+	return nodo;
+}
+
+private void comprobar(int indice) {
+	if (indice < 0 || indice >= tamanio){
+		throw new IndexOutOfBoundsException("Índice " + indice + " fuera de un vector de " + tamanio);
+	}
+}
+
+/**
+ * El índice del primer elemento de la cola: todos los anteriores están en el árbol.
+ */
+private int inicioCola() {
+	return tamanio < ANCHO ? 0 : ((tamanio - 1) >>> BITS) << BITS;
+}
+
+private Object[] colgarCola(int nivelNodo, Object[] padre) {
+	int hijo = ((tamanio - 1) >>> nivelNodo) & MASCARA;
+	Object[] copia = padre.clone();
+	if (nivelNodo == BITS){
+		copia[hijo] = cola;
+	} else{
+		Object[] nodo = (Object[]) padre[hijo];
+		copia[hijo] = nodo != null ? colgarCola(nivelNodo - BITS, nodo) : camino(nivelNodo - BITS, cola);
+	}
+	return copia;
+}
+
+private static Object[] camino(int nivelNodo, Object[] hoja) {
+	if (nivelNodo == 0){
+		return hoja;
+	}
+	Object[] nodo = new Object[ANCHO];
+	nodo[0] = camino(nivelNodo - BITS, hoja);
+	return nodo;
+}
+
+private static Object[] reemplazar(int nivelNodo, Object[] nodo, int indice, Object elemento) {
+	Object[] copia = nodo.clone();
+	if (nivelNodo == 0){
+		copia[indice & MASCARA] = elemento;
+	} else{
+		int hijo = (indice >>> nivelNodo) & MASCARA;
+		copia[hijo] = reemplazar(nivelNodo - BITS, (Object[]) nodo[hijo], indice, elemento);
+	}
+	return copia;
+}
+
+private static final class Vista<T> extends AbstractList<T> implements RandomAccess {
+
+	private final VectorPersistente<T> vector;
+
+	Vista(VectorPersistente<T> vector) {
+		this.vector = vector;
+	}
+
+	@Override
+	public T get(int indice) {
+		return vector.obtener(indice);
+	}
+
+	@Override
+	public int size() {
+		return vector.tamanio;
+	}
+}
+}
@@ -0,0 +1,108 @@
+package net.itinajero.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ¿Qué es? La versión del catálogo ({@link InstantaneaVacantes}) que está usando la petición HTTP en curso.
+ * <p>
+ * ¿Cómo funciona? - Un filtro llama a `abrir()` al empezar la petición y a `cerrar()` al terminar. - La primera
+ * lectura de vacantes de la petición FIJA la versión actual; las siguientes lecturas de esa misma petición
+ * reciben esa misma versión, aunque otra petición haya guardado vacantes entre medias. - Si la propia petición
+ * guarda algo, `soltar()` olvida la versión fijada y la siguiente lectura fija la nueva, que ya incluye lo
+ * guardado.
+ * <p>
+ * ¿Por qué se usa? Una página que llama a `buscarTodas()` y después a `buscarPorId()` podía mostrar una vacante
+ * en la lista con unos datos y en el detalle con otros. Con la versión fijada todas sus lecturas son coherentes
+ * entre sí, y no hace falta ningún cerrojo: la instantánea no cambia nunca.
+ * <p>
+ * Además guarda los resultados de las lecturas ya hechas en la petición (`memorizar()`): una segunda llamada
+ * idéntica devuelve el mismo resultado sin volver al almacén. Es correcto por la misma razón: la versión fijada no
+ * cambia, y `soltar()` olvida también los resultados.
+ * <p>
+ * Qué es coherente y qué no: solo las lecturas del almacén (`buscarTodas()`, `buscarPorId()`, `instantanea()`)
+ * usan la versión fijada. Las proyecciones (facetas, índices ordenados, estadísticas, conteos por categoría) se
+ * ponen al día en sus propios hilos ({@link Impl_RegistroEventosVacantes}) y NO tienen versión: pueden ir unos
+ * eventos por detrás o por delante de la versión fijada. Quien combine las dos debe volver a comprobar en la
+ * versión fijada lo que le dé una proyección, como hace el listado filtrado de vacantes.
+ * <p>
+ * Se guarda en un `ThreadLocal` porque una petición se atiende entera en un mismo hilo. Fuera de una petición
+ * (tareas programadas, pruebas) no hay nada abierto y las lecturas siguen el camino de siempre.
+ */
+public final class VersionPeticion {
+
+private static final ThreadLocal<VersionPeticion> ACTUAL = new ThreadLocal<>();
+
+private InstantaneaVacantes fijada;
+/**
+ * Llamada -> resultado. Se crea con la primera lectura: muchas peticiones (recursos estáticos, formularios) no
+ * leen vacantes.
+ */
+private Map<Object, Object> resultados;
+
+private VersionPeticion() {
+}
+
+public static void abrir() {
+	ACTUAL.set(new VersionPeticion());
+}
+
+public static void cerrar() {
+	ACTUAL.remove();
+}
+
+/**
+ * @param actual
+ * 		Da la versión más reciente del almacén, o `null` si el almacén no publica versiones.
+ * @return La versión fijada por esta petición (fijando `actual` si aún no había ninguna), o `null` si no hay una
+ * petición abierta o el almacén no publica versiones.
+ */
+static InstantaneaVacantes fijar(Supplier<InstantaneaVacantes> actual) {
+	VersionPeticion peticion = ACTUAL.get();
+	if (peticion == null){
+		return null;
+	}
+	if (peticion.fijada == null){
+		peticion.fijada = actual.get();
+	}
+	return peticion.fijada;
+}
+
+/**
+ * Devuelve el resultado de `llamada` si ya se calculó en esta petición; si no, lo calcula y lo guarda. Fuera de
+ * una petición siempre lo calcula.
+ * @param llamada
+ * 		Identifica la lectura y sus argumentos (con `equals()` y `hashCode()`).
+ * @param lectura
+ * 		Calcula el resultado; no debe devolver `null`. Puede memorizar a su vez otras lecturas.
+ */
+@SuppressWarnings("unchecked")
+static <T> T memorizar(Object llamada, Supplier<T> lectura) {
+	VersionPeticion peticion = ACTUAL.get();
+	if (peticion == null){
+		return lectura.get();
+	}
+	if (peticion.resultados == null){
+		peticion.resultados = new HashMap<>();
+	}
+	T resultado = (T) peticion.resultados.get(llamada);
+	if (resultado == null){
+		// No computeIfAbsent(): la lectura puede memorizar otras y modificar el mapa mientras tanto.
+		resultado = lectura.get();
+		peticion.resultados.put(llamada, resultado);
+	}
+	return resultado;
+}
+
+/**
+ * Olvida la versión fijada y los resultados memorizados, después de que la petición guardó o eliminó vacantes.
+ */
+static void soltar() {
+	VersionPeticion peticion = ACTUAL.get();
+	if (peticion != null){
+		peticion.fijada = null;
+		peticion.resultados = null;
+	}
+}
+}
@@ -0,0 +1,93 @@
+package net.itinajero;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de humo del ejecutable nativo: lo arranca como un proceso más y comprueba que responde.
+ * <p>
+ * Solo la ejecuta el perfil Maven `native` (failsafe, fase `verify`), que pasa la ruta del ejecutable en la
+ * propiedad `empleos.binario`. Si esa ruta es un `.jar`, se arranca con la misma JVM que ejecuta la prueba: así la
+ * prueba se puede comprobar sin GraalVM, por ejemplo contra el jar de `-Pproduccion`:
+ * `./mvnw failsafe:integration-test failsafe:verify -Dit.test=EmpleosNativoIT -Dempleos.binario=target/aplicacion/empleos-0.0.1-SNAPSHOT.jar`
+ */
+class EmpleosNativoIT {
+
+private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(30);
+
+private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+private Process aplicacion;
+
+@AfterEach
+void detener() throws InterruptedException {
+	if (aplicacion != null){
+		aplicacion.destroy();
+		aplicacion.waitFor(10, TimeUnit.SECONDS);
+	}
+}
+
+@Test
+void elEjecutableNativoSirveLaPortadaYElListado() throws Exception {
+	Path binario = Path.of(System.getProperty("empleos.binario", "target/empleos"));
+	boolean esJar = binario.toString().endsWith(".jar");
+	assertTrue(esJar ? Files.isRegularFile(binario) : Files.isExecutable(binario),
+			"No se encontró el ejecutable nativo " + binario);
+	int puerto = puertoLibre();
+	List<String> comando = esJar
+			? new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar",
+			binario.toString()))
+			: new ArrayList<>(List.of(binario.toString()));
+	comando.add("--server.port=" + puerto);
+	aplicacion = new ProcessBuilder(comando)
+			.redirectErrorStream(true)
+			.redirectOutput(Path.of(binario + ".log").toFile())
+			.start();
+
+	HttpResponse<String> portada = esperarRespuesta(URI.create("http://localhost:" + puerto + "/"));
+	assertEquals(200, portada.statusCode());
+
+	HttpResponse<String> listado = cliente.send(HttpRequest.newBuilder(
+			URI.create("http://localhost:" + puerto + "/vacantes/index")).build(), HttpResponse.BodyHandlers.ofString());
+	assertEquals(200, listado.statusCode());
+	assertTrue(listado.body().contains("Ingeniero Civil"), "El listado no muestra las vacantes de ejemplo");
+}
+
+/**
+ * Reintenta hasta que la aplicación acepta conexiones (o se agota {@link #ESPERA_MAXIMA}).
+ */
+private HttpResponse<String> esperarRespuesta(URI uri) throws Exception {
+	long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+	while (true){
+		try{
+			return cliente.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e){
+			if (!aplicacion.isAlive() || System.nanoTime() > limite){
+				throw new AssertionError("La aplicación nativa no respondió en " + uri, e);
+			}
+			Thread.sleep(50);
+		}
+	}
+}
+
+private static int puertoLibre() throws IOException {
+	try (ServerSocket socket = new ServerSocket(0)){
+		return socket.getLocalPort();
+	}
+}
+}
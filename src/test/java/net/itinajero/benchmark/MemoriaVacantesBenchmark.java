@@ -0,0 +1,79 @@
+package net.itinajero.benchmark;
+
+import net.itinajero.model.Vacante;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide cuánta memoria ocupan N vacantes con `categoria`/`estatus` codificados (la `Vacante` actual) frente a la
+ * representación anterior, en la que cada vacante guardaba sus propios `String`.
+ * <p>
+ * No es una prueba de JUnit: se ejecuta a mano con {@code java ... MemoriaVacantesBenchmark [N]}. Cada texto se
+ * crea con `new String(...)` para imitar lo que ocurre al enlazar un formulario: Spring crea un `String` nuevo en
+ * cada petición aunque el valor se repita.
+ */
+public class MemoriaVacantesBenchmark {
+
+private static final String[] CATEGORIAS = { "Ventas", "Contabilidad", "Transporte", "Informática", "Construcción" };
+private static final String[] ESTATUS = { "Creada", "Aprobada", "Eliminada" };
+
+/**
+ * Copia de los atributos que tenía `Vacante` antes de codificar `categoria` y `estatus`.
+ */
+@SuppressWarnings("unused")
+static class VacanteConTextos {
+	Integer id;
+	String nombre;
+	String categoria;
+	String descripcion;
+	java.util.Date fecha;
+	double salario;
+	Integer destacado;
+	String imagen = "no-image.png";
+	String estatus;
+	String detalles;
+}
+
+public static void main(String[] args) {
+	int total = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+	long antes = memoriaUsada();
+	List<VacanteConTextos> conTextos = new ArrayList<>(total);
+	for (int i = 0; i < total; i++){
+		VacanteConTextos vacante = new VacanteConTextos();
+		vacante.categoria = new String(CATEGORIAS[i % CATEGORIAS.length]);
+		vacante.estatus = new String(ESTATUS[i % ESTATUS.length]);
+		conTextos.add(vacante);
+	}
+	long bytesConTextos = memoriaUsada() - antes;
+	// Se usa la lista DESPUÉS de medir para que la JVM no la considere basura antes de tiempo.
+	long bytesPorVacanteConTextos = bytesConTextos / conTextos.size();
+	conTextos = null;
+
+	antes = memoriaUsada();
+	List<Vacante> codificadas = new ArrayList<>(total);
+	for (int i = 0; i < total; i++){
+		Vacante vacante = new Vacante();
+		vacante.setCategoria(new String(CATEGORIAS[i % CATEGORIAS.length]));
+		vacante.setEstatus(Vacante.Estatus.desdeTexto(new String(ESTATUS[i % ESTATUS.length])));
+		codificadas.add(vacante);
+	}
+	long bytesCodificadas = memoriaUsada() - antes;
+
+	System.out.printf("Vacantes: %,d%n", total);
+	System.out.printf("Antes (un String por vacante):   %,d bytes, %d bytes/vacante%n", bytesConTextos,
+			bytesPorVacanteConTextos);
+	System.out.printf("Ahora (diccionario + enum):      %,d bytes, %d bytes/vacante%n", bytesCodificadas,
+			bytesCodificadas / codificadas.size());
+	System.out.printf("Reducción: %.1f %%%n", 100.0 * (bytesConTextos - bytesCodificadas) / bytesConTextos);
+}
+
+private static long memoriaUsada() {
+	Runtime runtime = Runtime.getRuntime();
+	for (int i = 0; i < 3; i++){
+		System.gc();
+	}
+	return runtime.totalMemory() - runtime.freeMemory();
+}
+}
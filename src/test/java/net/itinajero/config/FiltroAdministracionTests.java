@@ -0,0 +1,40 @@
+package net.itinajero.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las operaciones de administración piden el token aunque la ruta llegue codificada o con `;parámetros`: Spring MVC
+ * las lleva al mismo controlador. Las URI se pasan con `URI.create` para que MockMvc no vuelva a codificar el `%`.
+ */
+@SpringBootTest(properties = {"empleos.administracion.token=secreto", "empleos.admision.administracion.rafaga=20"})
+@AutoConfigureMockMvc
+class FiltroAdministracionTests {
+
+@Autowired
+private MockMvc mvc;
+
+@Test
+void lasVariantesDeUnTrabajoNoPasanSinToken() throws Exception {
+	mvc.perform(post(URI.create("/%74rabajos/caducar?dias=100000"))).andExpect(status().isForbidden());
+	mvc.perform(post(URI.create("/trabajos;x=1/caducar?dias=100000"))).andExpect(status().isForbidden());
+	mvc.perform(post(URI.create("/trabajos;x=1/caducar?dias=100000")).header(FiltroAdministracion.CABECERA, "secreto"))
+			.andExpect(status().isAccepted());
+}
+
+@Test
+void lasVariantesDeUnaReconstruccionNoPasanSinToken() throws Exception {
+	mvc.perform(post(URI.create("/%70royecciones/facetas/reconstruir"))).andExpect(status().isForbidden());
+	mvc.perform(post(URI.create("/proyecciones;x=1/facetas/reconstruir"))).andExpect(status().isForbidden());
+	mvc.perform(post(URI.create("/%70royecciones/facetas/reconstruir")).header(FiltroAdministracion.CABECERA, "secreto"))
+			.andExpect(status().isAccepted());
+}
+}
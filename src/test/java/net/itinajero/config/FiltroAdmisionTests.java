@@ -0,0 +1,59 @@
+package net.itinajero.config;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Una ruta escrita de otra forma (codificada, con `;parámetros`, con barras repetidas) llega al mismo controlador:
+ * debe gastar las fichas del mismo grupo.
+ */
+class FiltroAdmisionTests {
+
+/**
+ * Una sola ficha por grupo y casi ninguna recarga: la segunda petición del mismo grupo ya se rechaza.
+ */
+private static FiltroAdmision filtroConUnaFicha() {
+	return new FiltroAdmision(10, 100, 0.001, 1, 0.001, 1, 0.001, 1, 0.001, 1);
+}
+
+private static int estado(FiltroAdmision filtro, String metodo, String uri) throws ServletException, IOException {
+	MockHttpServletResponse respuesta = new MockHttpServletResponse();
+	filtro.doFilter(new MockHttpServletRequest(metodo, uri), respuesta, new MockFilterChain());
+	return respuesta.getStatus();
+}
+
+@Test
+void lasVariantesDeUnaEscrituraCompartenGrupo() throws Exception {
+	for (String variante : new String[]{"/vacantes/save;x", "/%76acantes/save", "//vacantes/save"}){
+		FiltroAdmision filtro = filtroConUnaFicha();
+		assertEquals(200, estado(filtro, "POST", "/vacantes/save"));
+		assertEquals(429, estado(filtro, "POST", variante), variante);
+	}
+}
+
+@Test
+void lasVariantesDelDetalleCompartenGrupo() throws Exception {
+	for (String variante : new String[]{"/vacantes/view-path;x/3", "/vacantes/%76iew-path/4",
+			"/vacantes/view-request;jsessionid=1"}){
+		FiltroAdmision filtro = filtroConUnaFicha();
+		assertEquals(200, estado(filtro, "GET", "/vacantes/view-path/1"));
+		assertEquals(429, estado(filtro, "GET", variante), variante);
+	}
+}
+
+@Test
+void lasVariantesDeAdministracionYDelListadoCompartenGrupo() throws Exception {
+	FiltroAdmision filtro = filtroConUnaFicha();
+	assertEquals(200, estado(filtro, "POST", "/trabajos/caducar"));
+	assertEquals(429, estado(filtro, "POST", "/%74rabajos/caducar"));
+	assertEquals(200, estado(filtro, "GET", "/vacantes/index"));
+	assertEquals(429, estado(filtro, "GET", "/vacantes/index;v=2"));
+}
+}
@@ -0,0 +1,38 @@
+package net.itinajero.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CategoriaControllerTests {
+
+@Autowired
+private MockMvc mvc;
+
+@Test
+void unNombreRepetidoVuelveAlFormularioConElError() throws Exception {
+	mvc.perform(post("/categorias/save").param("var_nombre", "ventas").param("var_descripcion", "Otra vez"))
+			.andExpect(status().isOk())
+			.andExpect(view().name("categorias/formCategoria"))
+			.andExpect(model().attribute("error", containsString("Ventas")))
+			.andExpect(content().string(containsString("Otra vez")));
+}
+
+@Test
+void unNombreVacioVuelveAlFormularioConElError() throws Exception {
+	mvc.perform(post("/categorias/save").param("var_nombre", "  ").param("var_descripcion", "Sin nombre"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeExists("error"));
+}
+}
@@ -0,0 +1,67 @@
+package net.itinajero.controller;
+
+import net.itinajero.service.Impl_CachePaginasDetalle;
+import net.itinajero.service.Impl_VacanteServiceCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Peticiones HTTP completas, con los filtros: cada una fija su versión del catálogo igual que en producción.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class VacantesControllerTests {
+
+@Autowired
+private MockMvc mvc;
+
+@Autowired
+private Impl_VacanteServiceCache serviceVacantes;
+
+@Autowired
+private Impl_CachePaginasDetalle cacheDetalle;
+
+@Test
+void unIdInexistenteRepetidoLoResuelveLaCacheNegativa() throws Exception {
+	long aciertosAntes = serviceVacantes.metricas().get("ausentes.aciertos").longValue();
+
+	mvc.perform(get("/vacantes/view-path/987654")).andExpect(status().isNotFound());
+	mvc.perform(get("/vacantes/view-path/987654")).andExpect(status().isNotFound());
+
+	assertEquals(aciertosAntes + 1, serviceVacantes.metricas().get("ausentes.aciertos").longValue());
+}
+
+@Test
+void unNumeroDeDiasNoPositivoSeIgnoraYSeAvisa() throws Exception {
+	mvc.perform(get("/vacantes/index").param("dias", "0"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeExists("erroresFiltro"));
+	mvc.perform(get("/vacantes/index").param("dias", "-30"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeExists("erroresFiltro"));
+	mvc.perform(get("/vacantes/index").param("dias", "30"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeDoesNotExist("erroresFiltro"));
+}
+
+@Test
+void losIdiomasNoAdmitidosCompartenLaPaginaEnCache() throws Exception {
+	mvc.perform(get("/vacantes/view-path/2").header("Accept-Language", "es-MX")).andExpect(status().isOk());
+	long aciertosAntes = cacheDetalle.metricas().get("aciertos").longValue();
+
+	for (String idioma : new String[]{"es-AR", "es-CO", "fr-FR"}){
+		mvc.perform(get("/vacantes/view-path/2").header("Accept-Language", idioma)).andExpect(status().isOk());
+	}
+
+	// Los tres se reducen a es-MX y salen de la caché.
+	assertEquals(aciertosAntes + 3, cacheDetalle.metricas().get("aciertos").longValue());
+}
+}
@@ -0,0 +1,24 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AnilloDifusionTests {
+
+@Test
+void losEventosPisadosYaNoSePuedenLeer() {
+	AnilloDifusion<String> anillo = new AnilloDifusion<>(3);
+	for (int i = 1; i <= 5; i++){
+		anillo.publicar("evento " + i);
+	}
+
+	assertEquals(5, anillo.ultimaSecuencia());
+	assertEquals(3, anillo.primeraDisponible());
+	assertNull(anillo.leer(2)); // Pisado por el evento 5.
+	assertEquals("evento 3", anillo.leer(3).dato());
+	assertEquals("evento 5", anillo.leer(5).dato());
+	assertNull(anillo.leer(6)); // Todavía no publicado.
+}
+}
@@ -0,0 +1,66 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara {@link BitmapComprimido} con un `BitSet` en los dos tipos de contenedor (arreglo y mapa de bits) y
+ * al pasar de uno a otro.
+ */
+class BitmapComprimidoTests {
+
+@Test
+void lasOperacionesCoincidenConUnBitSet() {
+	BitmapComprimido pares = new BitmapComprimido();
+	BitmapComprimido multiplosDeTres = new BitmapComprimido();
+	BitSet paresEsperados = new BitSet();
+	BitSet multiplosEsperados = new BitSet();
+	// 0..200.000 abarca varios contenedores; los pares llenan mapas de bits, los múltiplos de 3 también.
+	for (int i = 0; i < 200_000; i += 2){
+		pares.agregar(i);
+		paresEsperados.set(i);
+	}
+	for (int i = 0; i < 200_000; i += 3){
+		multiplosDeTres.agregar(i);
+		multiplosEsperados.set(i);
+	}
+	// Un contenedor poco poblado (arreglo) al final.
+	pares.agregar(1_000_000);
+	paresEsperados.set(1_000_000);
+
+	BitSet y = (BitSet) paresEsperados.clone();
+	y.and(multiplosEsperados);
+	BitSet o = (BitSet) paresEsperados.clone();
+	o.or(multiplosEsperados);
+
+	assertEquals(paresEsperados.cardinality(), pares.cardinalidad());
+	assertArrayEquals(y.stream().toArray(), BitmapComprimido.y(pares, multiplosDeTres).aArreglo());
+	assertEquals(y.cardinality(), BitmapComprimido.cardinalidadY(pares, multiplosDeTres));
+	assertArrayEquals(o.stream().toArray(), BitmapComprimido.o(pares, multiplosDeTres).aArreglo());
+}
+
+@Test
+void quitarVuelveAlArregloYVaciaElContenedor() {
+	BitmapComprimido bitmap = new BitmapComprimido();
+	for (int i = 0; i < 5000; i++){
+		bitmap.agregar(i);
+	}
+	for (int i = 0; i < 5000; i += 2){
+		bitmap.quitar(i);
+	}
+	assertEquals(2500, bitmap.cardinalidad());
+	assertTrue(bitmap.contiene(4999));
+	assertFalse(bitmap.contiene(4998));
+
+	for (int i = 1; i < 5000; i += 2){
+		bitmap.quitar(i);
+	}
+	assertTrue(bitmap.estaVacio());
+}
+}
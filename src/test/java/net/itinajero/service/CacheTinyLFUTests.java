@@ -0,0 +1,59 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheTinyLFUTests {
+
+@Test
+void unRecorridoDeClavesNuevasNoExpulsaALasPopulares() {
+	CacheTinyLFU<Integer, String> cache = new CacheTinyLFU<>(100);
+	for (int vuelta = 0; vuelta < 5; vuelta++){
+		for (int id = 0; id < 50; id++){
+			if (cache.obtener(id) == null){
+				cache.poner(id, "vacante " + id);
+			}
+		}
+	}
+	// Un robot pide 10.000 páginas distintas una sola vez.
+	for (int id = 1000; id < 11_000; id++){
+		if (cache.obtener(id) == null){
+			cache.poner(id, "vacante " + id);
+		}
+	}
+
+	int siguen = 0;
+	for (int id = 0; id < 50; id++){
+		siguen += cache.obtener(id) != null ? 1 : 0;
+	}
+	assertTrue(siguen >= 45, "Solo siguen " + siguen + " de 50 páginas populares");
+	assertTrue(cache.tamanio() <= 100);
+	// La gran mayoría del recorrido no llega a la zona principal.
+	assertTrue(cache.getRechazadas() > 8000, "Rechazadas: " + cache.getRechazadas());
+}
+
+@Test
+void guardarUnaVacanteBorraSoloSusPaginas() {
+	Impl_CachePaginasDetalle cache = new Impl_CachePaginasDetalle(100);
+	Itf_CachePaginasDetalle.Clave pagina1 = new Itf_CachePaginasDetalle.Clave("/vacantes/view-path/", 1, Locale.US);
+	Itf_CachePaginasDetalle.Clave pagina2 = new Itf_CachePaginasDetalle.Clave("/vacantes/view-path/", 2, Locale.US);
+	long version = cache.version();
+	cache.guardar(pagina1, new byte[]{1}, version);
+	cache.guardar(pagina2, new byte[]{2}, version);
+
+	long versionAntesDeRenderizar = cache.version();
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	cache.alGuardarVacante(almacen.buscarPorId(1).get(), almacen.buscarPorId(1).get());
+	cache.guardar(pagina1, new byte[]{9}, versionAntesDeRenderizar); // Renderizada con datos viejos: se ignora.
+
+	assertNull(cache.obtener(pagina1));
+	assertArrayEquals(new byte[]{2}, cache.obtener(pagina2));
+	assertEquals(0.5, cache.metricas().get("tasaAciertos"));
+}
+}
@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import net.itinajero.service.Itf_CachePaginasDetalle.Clave;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class Impl_CachePaginasDetalleTests {
+
+private static final Locale ES_MX = Locale.forLanguageTag("es-MX");
+
+@Test
+void guardarUnaVacanteSoloQuitaSusPaginasEnTodasLasRutasEIdiomas() {
+	Impl_CachePaginasDetalle cache = new Impl_CachePaginasDetalle(100);
+	for (int id = 1; id <= 2; id++){
+		for (String ruta : new String[]{"/vacantes/view-path/", "/vacantes/view-request"}){
+			for (Locale idioma : new Locale[]{ES_MX, Locale.US}){
+				cache.guardar(new Clave(ruta, id, idioma), new byte[]{1}, cache.version());
+			}
+		}
+	}
+
+	Vacante editada = new Vacante();
+	editada.setId(1);
+	cache.alGuardarVacante(null, editada);
+
+	assertNull(cache.obtener(new Clave("/vacantes/view-path/", 1, ES_MX)));
+	assertNull(cache.obtener(new Clave("/vacantes/view-request", 1, Locale.US)));
+	assertNotNull(cache.obtener(new Clave("/vacantes/view-path/", 2, ES_MX)));
+	assertNotNull(cache.obtener(new Clave("/vacantes/view-request", 2, Locale.US)));
+}
+}
@@ -0,0 +1,105 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_CaducidadVacantesTests {
+
+private static final long DIA = Duration.ofDays(1).toMillis();
+
+@Test
+void archivaLasVencidasYLasCerradasTrasLaGracia() throws IOException {
+	String ruta = Files.createTempDirectory("archivo").resolve("vacantes-archivadas").toString();
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	almacen.eliminarTodas(almacen.buscarTodas().stream().map(Vacante::getId).toList());
+	Impl_ArchivoVacantes archivo = new Impl_ArchivoVacantes(ruta);
+	long[] ahora = {System.currentTimeMillis()};
+	Impl_CaducidadVacantes caducidad = new Impl_CaducidadVacantes(() -> almacen, archivo, Duration.ofDays(90),
+			Duration.ofDays(7), 2, () -> ahora[0]);
+	almacen.registrarObservador(caducidad);
+
+	for (int i = 0; i < 5; i++){
+		almacen.guardar(vacante("Antigua " + i, ahora[0] - 100 * DIA, Vacante.Estatus.APROBADA));
+	}
+	Vacante reciente = vacante("Reciente", ahora[0] - DIA, Vacante.Estatus.APROBADA);
+	Vacante cerrada = vacante("Cerrada", ahora[0] - DIA, Vacante.Estatus.ELIMINADA);
+	almacen.guardar(reciente);
+	almacen.guardar(cerrada);
+
+	assertEquals(5, caducidad.archivarVencidas());
+	assertEquals(2, almacen.buscarTodas().size());
+	assertEquals(5, archivo.tamanio());
+
+	ahora[0] += 8 * DIA;
+	assertEquals(1, caducidad.archivarVencidas());
+	assertTrue(almacen.buscarPorId(cerrada.getId()).isEmpty());
+	assertTrue(almacen.buscarPorId(reciente.getId()).isPresent());
+	assertEquals(0, caducidad.archivarVencidas());
+
+	// Al reabrir el archivo, su índice se reconstruye desde el disco.
+	archivo.cerrar();
+	Impl_ArchivoVacantes reabierto = new Impl_ArchivoVacantes(ruta);
+	assertEquals(6, reabierto.tamanio());
+	assertEquals("Cerrada", reabierto.buscarPorId(cerrada.getId()).get().getNombre());
+	assertTrue(reabierto.buscarPorId(reciente.getId()).isEmpty());
+	reabierto.cerrar();
+}
+
+@Test
+void unaEdicionQueAlargaElPlazoOUnaVacanteSoloEnCacheNoSeQuedanDandoVueltas() throws IOException {
+	String ruta = Files.createTempDirectory("archivo").resolve("vacantes-archivadas").toString();
+	long ahora = System.currentTimeMillis();
+	// Simula una edición que llega entre la lectura de la caducidad y su borrado (alarga el plazo) y una caché que
+	// aún devuelve vacantes que el almacén ya no tiene (los ids desde 1001).
+	Impl_VacanteService almacen = new Impl_VacanteService() {
+		@Override
+		public Optional<Vacante> buscarPorId(Integer idVacante) {
+			if (idVacante > 1000){
+				Vacante enCache = vacante("Solo en caché", ahora - 100 * DIA, Vacante.Estatus.APROBADA);
+				enCache.setId(idVacante);
+				return Optional.of(enCache);
+			}
+			Optional<Vacante> leida = super.buscarPorId(idVacante);
+			leida.ifPresent(vacante -> {
+				Vacante editada = CodecVacante.decodificar(CodecVacante.codificar(vacante));
+				editada.setFecha(new Date(ahora));
+				guardar(editada);
+			});
+			return leida;
+		}
+	};
+	almacen.eliminarTodas(almacen.buscarTodas().stream().map(Vacante::getId).toList());
+	Impl_ArchivoVacantes archivo = new Impl_ArchivoVacantes(ruta);
+	Impl_CaducidadVacantes caducidad = new Impl_CaducidadVacantes(() -> almacen, archivo, Duration.ofDays(90),
+			Duration.ofDays(7), 2, () -> ahora);
+	almacen.registrarObservador(caducidad);
+	Vacante editada = vacante("Editada a tiempo", ahora - 100 * DIA, Vacante.Estatus.APROBADA);
+	almacen.guardar(editada);
+	for (int id = 1001; id <= 1003; id++){
+		caducidad.alGuardarVacante(null, almacen.buscarPorId(id).get());
+	}
+
+	assertEquals(0, caducidad.archivarVencidas());
+	assertTrue(almacen.buscarPorId(editada.getId()).isPresent());
+	assertEquals(1, caducidad.metricas().get("pendientes").intValue()); // Solo la editada, con su plazo nuevo.
+	archivo.cerrar();
+}
+
+private static Vacante vacante(String nombre, long fecha, Vacante.Estatus estatus) {
+	Vacante vacante = new Vacante();
+	vacante.setNombre(nombre);
+	vacante.setFecha(new Date(fecha));
+	vacante.setEstatus(estatus);
+	vacante.setSalario(1000);
+	return vacante;
+}
+}
@@ -0,0 +1,38 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Categoria;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Impl_CategoriaServiceTests {
+
+@Test
+void rechazaNombresVaciosYRepetidosSinDistinguirMayusculas() {
+	Impl_CategoriaService categorias = new Impl_CategoriaService();
+	int antes = categorias.buscarTodas().size();
+
+	assertThrows(CategoriaInvalidaException.class, () -> categorias.guardar(new Categoria(null, "   ", "")));
+	assertThrows(CategoriaInvalidaException.class, () -> categorias.guardar(new Categoria(null, " ventas ", "")));
+	assertThrows(CategoriaInvalidaException.class, () -> categorias.guardar(new Categoria(null, "INFORMÁTICA", "")));
+	assertEquals(antes, categorias.buscarTodas().size());
+
+	// Guardar otra vez la misma categoría (mismo id) no es un nombre repetido.
+	categorias.guardar(new Categoria(1, "VENTAS", "Renombrada"));
+	assertEquals("VENTAS", categorias.buscarPorId(1).getNombre());
+	categorias.guardar(new Categoria(null, "  Diseño  ", "Nueva"));
+	assertEquals("Diseño", categorias.buscarPorId(antes + 1).getNombre());
+}
+
+@Test
+void noAdmiteMasCategoriasQueElMaximo() {
+	Impl_CategoriaService categorias = new Impl_CategoriaService();
+	while (categorias.buscarTodas().size() < Impl_CategoriaService.MAXIMO_CATEGORIAS){
+		categorias.guardar(new Categoria(null, "Categoría " + categorias.buscarTodas().size(), ""));
+	}
+
+	assertThrows(CategoriaInvalidaException.class, () -> categorias.guardar(new Categoria(null, "Una más", "")));
+	categorias.guardar(new Categoria(1, "Ventas", "Editar una existente sigue permitido"));
+}
+}
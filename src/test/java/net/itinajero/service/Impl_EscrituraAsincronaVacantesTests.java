@@ -0,0 +1,101 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Impl_EscrituraAsincronaVacantesTests {
+
+@Test
+void conLaColaLlenaSeRechazaYLoEncoladoSeGuardaDespues() throws Exception {
+	CountDownLatch liberarEscritor = new CountDownLatch(1);
+	// Un almacén cuyo guardado por lotes se queda esperando, para llenar la cola a voluntad.
+	Impl_VacanteService almacen = new Impl_VacanteService() {
+		@Override
+		public void guardarTodas(List<Vacante> vacantes) {
+			try{
+				liberarEscritor.await();
+			} catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			super.guardarTodas(vacantes);
+		}
+	};
+	Impl_EscrituraAsincronaVacantes escritura = new Impl_EscrituraAsincronaVacantes(almacen, 1, 10, Duration.ofSeconds(3));
+
+	int primera = escritura.guardar(nueva("Primera"));
+	esperarHasta(() -> escritura.getPendientes() == 0); // El escritor la tomó y está bloqueado.
+	int segunda = escritura.guardar(nueva("Segunda")); // Ocupa el único hueco de la cola.
+	ColaEscrituraLlenaException rechazo = assertThrows(ColaEscrituraLlenaException.class,
+			() -> escritura.guardar(nueva("Tercera")));
+
+	assertEquals(3, rechazo.getSegundosReintento());
+	assertEquals(5, primera);
+	assertEquals(6, segunda);
+
+	liberarEscritor.countDown();
+	esperarHasta(() -> escritura.getGuardadas() == 2);
+	assertEquals("Segunda", almacen.buscarPorId(6).get().getNombre());
+	assertEquals(1, escritura.getRechazadas());
+	escritura.detener();
+}
+
+@Test
+void unLoteQueFallaSeReintentaUnaAUnaYLaMalaQuedaEnFallidas() throws Exception {
+	// Un almacén que rechaza la vacante "Mala", sola o dentro de un lote.
+	Impl_VacanteService almacen = new Impl_VacanteService() {
+		@Override
+		public void guardar(Vacante vacante) {
+			if ("Mala".equals(vacante.getNombre())){
+				throw new IllegalArgumentException("Vacante rechazada por el almacén");
+			}
+			super.guardar(vacante);
+		}
+
+		@Override
+		public void guardarTodas(List<Vacante> vacantes) {
+			if (vacantes.stream().anyMatch(vacante -> "Mala".equals(vacante.getNombre()))){
+				throw new IllegalArgumentException("Lote rechazado por el almacén");
+			}
+			super.guardarTodas(vacantes);
+		}
+	};
+	Impl_EscrituraAsincronaVacantes escritura = new Impl_EscrituraAsincronaVacantes(almacen, 10, 10, Duration.ofSeconds(1));
+
+	int antes = escritura.guardar(nueva("Antes"));
+	int mala = escritura.guardar(nueva("Mala"));
+	int despues = escritura.guardar(nueva("Después"));
+	esperarHasta(() -> escritura.getGuardadas() + escritura.getFallidas() == 3);
+
+	assertEquals(2, escritura.getGuardadas());
+	assertEquals(1, escritura.getFallidas());
+	assertEquals(mala, escritura.ultimasFallidas().get(0).vacante().getId());
+	assertEquals("Antes", almacen.buscarPorId(antes).get().getNombre());
+	assertEquals("Después", almacen.buscarPorId(despues).get().getNombre());
+	escritura.detener();
+}
+
+private static Vacante nueva(String nombre) {
+	Vacante vacante = new Vacante();
+	vacante.setNombre(nombre);
+	return vacante;
+}
+
+private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+	long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	while (!condicion.getAsBoolean()){
+		if (System.nanoTime() > limite){
+			throw new AssertionError("La condición no se cumplió a tiempo");
+		}
+		Thread.sleep(5);
+	}
+}
+}
@@ -0,0 +1,83 @@
+package net.itinajero.service;
+
+import net.itinajero.model.EstadisticasSalario;
+import net.itinajero.model.EstadisticasVacantes;
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_EstadisticasServiceTests {
+
+@Test
+void losPercentilesQuedanAMenosDeUnoPorCiento() {
+	Impl_EstadisticasService estadisticas = new Impl_EstadisticasService();
+	for (int id = 1; id <= 1000; id++){
+		estadisticas.alGuardarVacante(null, vacante(id, "Informática", 1000 + id * 10, null));
+	}
+	EstadisticasSalario general = estadisticas.obtener().getGeneral();
+	assertEquals(1000, general.getCantidad());
+	assertEquals(6005, general.getPromedio(), 1e-6);
+	// Exactos: mediana 6000 (posición 499), percentil 90 10000 (posición 899).
+	assertEquals(6000, general.getMediana(), 6000 * SketchCuantiles.ERROR_RELATIVO);
+	assertEquals(10_000, general.getPercentil90(), 10_000 * SketchCuantiles.ERROR_RELATIVO);
+}
+
+@Test
+void losSalariosExtremosNoDesbordanLasCubetas() {
+	Impl_EstadisticasService estadisticas = new Impl_EstadisticasService();
+	Vacante infinita = vacante(1, "Informática", Double.POSITIVE_INFINITY, null);
+	Vacante diminuta = vacante(2, "Informática", 1e-300, null);
+	estadisticas.alGuardarVacante(null, infinita);
+	estadisticas.alGuardarVacante(null, diminuta);
+	estadisticas.alGuardarVacante(infinita, vacante(1, "Informática", 4000, null));
+	estadisticas.alGuardarVacante(diminuta, vacante(2, "Informática", 4000, null));
+
+	EstadisticasSalario general = estadisticas.obtener().getGeneral();
+	assertEquals(2, general.getCantidad());
+	assertEquals(4000, general.getMediana(), 4000 * SketchCuantiles.ERROR_RELATIVO);
+}
+
+@Test
+void editarUnaVacanteLaCambiaDeGrupoYDeMes() {
+	Impl_EstadisticasService estadisticas = new Impl_EstadisticasService();
+	Date enero = fecha(2025, 1);
+	Vacante original = vacante(1, "Diseño", 1500, enero);
+	estadisticas.alGuardarVacante(null, original);
+	estadisticas.alGuardarVacante(null, vacante(2, "Diseño", 9000, enero));
+	EstadisticasVacantes antes = estadisticas.obtener();
+	assertSame(antes, estadisticas.obtener()); // Sin escrituras, la misma instancia.
+
+	estadisticas.alGuardarVacante(original, vacante(1, "Ventas", 3000, fecha(2025, 2)));
+	EstadisticasVacantes despues = estadisticas.obtener();
+
+	assertEquals(2, despues.getPorCategoria().size());
+	assertEquals("Diseño", despues.getPorCategoria().get(0).getEtiqueta());
+	assertEquals(1, despues.getPorCategoria().get(0).getCantidad());
+	assertEquals(9000, despues.getPorCategoria().get(0).getPromedio(), 1e-6);
+	assertEquals(1, despues.getPublicadasPorMes().get(YearMonth.of(2025, 1)).longValue());
+	assertEquals(1, despues.getPublicadasPorMes().get(YearMonth.of(2025, 2)).longValue());
+	assertTrue(despues.getPorNivelSalarial().stream().noneMatch(nivel -> nivel.getEtiqueta().equals(
+			Vacante.NivelSalarial.BAJO.getTextoDescriptivo())));
+}
+
+private static Vacante vacante(int id, String categoria, double salario, Date fecha) {
+	Vacante vacante = new Vacante();
+	vacante.setId(id);
+	vacante.setNombre("Vacante " + id);
+	vacante.setCategoria(categoria);
+	vacante.setSalario(salario);
+	vacante.setFecha(fecha);
+	return vacante;
+}
+
+private static Date fecha(int anio, int mes) {
+	return Date.from(YearMonth.of(anio, mes).atDay(15).atStartOfDay(ZoneId.systemDefault()).toInstant());
+}
+}
@@ -0,0 +1,103 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_FlujoCambiosVacantesTests {
+
+@Test
+void unConsumidorEmpiezaPorLaInstantaneaYSigueDesdeSuOffset() {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	Impl_RegistroEventosVacantes registro = new Impl_RegistroEventosVacantes(1000);
+	almacen.registrarObservador(registro); // Las 4 vacantes de ejemplo: secuencias 1 a 4, antes del flujo.
+	Impl_FlujoCambiosVacantes flujo = new Impl_FlujoCambiosVacantes(registro, 100, 2, 1 << 20);
+
+	// Leer desde 0 no da el catálogo: solo lo publicado desde que existe el flujo. El estado está en la instantánea.
+	LoteCambios vacio = flujo.leer(0, 10);
+	assertEquals(0, vacio.cantidad());
+	assertEquals(5, vacio.primerDisponible());
+	LoteCambios instantanea = flujo.instantanea();
+	assertEquals(4, instantanea.cantidad());
+	assertEquals(5, instantanea.siguiente());
+	assertTrue(CodecCambios.leerLote(instantanea.datos()).stream().allMatch(cambio -> cambio.offset() == 4));
+
+	Vacante nueva = vacante("Nueva");
+	almacen.guardar(nueva);
+	Vacante editada = vacante("Editada");
+	editada.setId(2);
+	almacen.guardar(editada);
+	almacen.eliminarTodas(List.of(3));
+
+	List<CambioVacante> cambios = new ArrayList<>();
+	long desde = instantanea.siguiente();
+	int lotes = 0;
+	for (LoteCambios lote = flujo.leer(desde, 10); lote.cantidad() > 0; lote = flujo.leer(desde, 10)){
+		assertEquals(Math.min(2, 3 - cambios.size()), lote.cantidad()); // El servidor limita el lote a 2.
+		cambios.addAll(CodecCambios.leerLote(lote.datos()));
+		desde = lote.siguiente();
+		lotes++;
+	}
+
+	assertEquals(2, lotes);
+	assertEquals(8, desde);
+	assertEquals(List.of(5L, 6L, 7L), cambios.stream().map(CambioVacante::offset).toList());
+	assertEquals("Nueva", cambios.get(0).vacante().getNombre());
+	assertEquals(nueva.getId().intValue(), cambios.get(0).idVacante());
+	assertEquals("Editada", cambios.get(1).vacante().getNombre());
+	assertEquals(EventoVacante.Tipo.ELIMINADA, cambios.get(2).tipo());
+	assertEquals(3, cambios.get(2).idVacante());
+	assertNull(cambios.get(2).vacante());
+
+	// Una instantánea posterior ya trae esos cambios y sigue justo después de ellos.
+	LoteCambios despues = flujo.instantanea();
+	assertEquals(8, despues.siguiente());
+	List<CambioVacante> estado = CodecCambios.leerLote(despues.datos());
+	assertEquals(4, estado.size());
+	assertTrue(estado.stream().noneMatch(cambio -> cambio.idVacante() == 3));
+	assertTrue(estado.stream().anyMatch(cambio -> "Editada".equals(cambio.vacante().getNombre())));
+
+	// Sin cambios nuevos, un lote vacío; el siguiente guardado aparece a partir del mismo offset.
+	assertEquals(0, flujo.leer(desde, 10).cantidad());
+	almacen.guardar(vacante("Otra"));
+	LoteCambios ultimo = flujo.leer(desde, 10);
+	assertEquals(1, ultimo.cantidad());
+	assertEquals("Otra", CodecCambios.leerLote(ultimo.datos()).get(0).vacante().getNombre());
+}
+
+@Test
+void unConsumidorDemasiadoAtrasadoVeDondeEmpiezaLoDisponible() {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	Impl_RegistroEventosVacantes registro = new Impl_RegistroEventosVacantes(1000);
+	almacen.registrarObservador(registro);
+	Impl_FlujoCambiosVacantes flujo = new Impl_FlujoCambiosVacantes(registro, 5, 100, 1 << 20);
+	for (int i = 0; i < 6; i++){
+		almacen.guardar(vacante("Vacante " + i));
+	}
+
+	LoteCambios lote = flujo.leer(1, 100);
+	assertEquals(6, lote.primerDisponible()); // Van 10 eventos y solo caben 5.
+	assertEquals(5, lote.cantidad());
+	assertEquals(11, lote.siguiente());
+	assertEquals(6, CodecCambios.leerLote(lote.datos()).get(0).offset());
+
+	// Al ver el salto, vuelve a empezar por la instantánea: todo el catálogo, y sigue en el mismo punto.
+	LoteCambios instantanea = flujo.instantanea();
+	assertEquals(10, instantanea.cantidad());
+	assertEquals(11, instantanea.siguiente());
+}
+
+private static Vacante vacante(String nombre) {
+	Vacante vacante = new Vacante();
+	vacante.setNombre(nombre);
+	vacante.setCategoria("Ventas");
+	vacante.setSalario(1000);
+	return vacante;
+}
+}
@@ -0,0 +1,71 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Impl_IdempotenciaServiceTests {
+
+@Test
+void dosEnviosSimultaneosEnDosNodosConLaMismaClaveGuardanUnaSolaVez() throws Exception {
+	Impl_AlmacenCompartidoLocal almacen = new Impl_AlmacenCompartidoLocal();
+	Impl_IdempotenciaService nodoA = new Impl_IdempotenciaService(almacen, Duration.ofMinutes(10), Duration.ofSeconds(10));
+	Impl_IdempotenciaService nodoB = new Impl_IdempotenciaService(almacen, Duration.ofMinutes(10), Duration.ofSeconds(10));
+	AtomicInteger guardados = new AtomicInteger();
+	CountDownLatch dentro = new CountDownLatch(1);
+	CountDownLatch terminar = new CountDownLatch(1);
+	ExecutorService hilos = Executors.newFixedThreadPool(2);
+	try{
+		Future<Integer> primero = hilos.submit(() -> nodoA.ejecutarUnaVez("sesion", "abc", () -> {
+			dentro.countDown();
+			await(terminar);
+			return 40 + guardados.incrementAndGet();
+		}));
+		dentro.await();
+		Future<Integer> segundo = hilos.submit(() -> nodoB.ejecutarUnaVez("sesion", "abc", guardados::incrementAndGet));
+		terminar.countDown();
+
+		assertEquals(41, (int) primero.get());
+		assertEquals(41, (int) segundo.get());
+		assertEquals(1, guardados.get());
+		assertEquals(1, (int) nodoB.getRepetidas());
+	} finally{
+		hilos.shutdownNow();
+	}
+}
+
+@Test
+void lasClavesSonPorAmbitoCaducanYSeOlvidanSiFallan() {
+	AtomicLong reloj = new AtomicLong();
+	Impl_IdempotenciaService idempotencia = new Impl_IdempotenciaService(new Impl_AlmacenCompartidoLocal(reloj::get),
+			Duration.ofSeconds(10), Duration.ofSeconds(1));
+	AtomicInteger guardados = new AtomicInteger();
+
+	assertThrows(IllegalStateException.class, () -> idempotencia.ejecutarUnaVez("s1", "falla", () -> {
+		throw new IllegalStateException("error al guardar");
+	}));
+	assertEquals(1, idempotencia.ejecutarUnaVez("s1", "falla", guardados::incrementAndGet)); // Se puede reintentar.
+	assertEquals(1, idempotencia.ejecutarUnaVez("s1", "falla", guardados::incrementAndGet));
+	assertEquals(2, idempotencia.ejecutarUnaVez("s2", "falla", guardados::incrementAndGet)); // Otro ámbito.
+
+	reloj.addAndGet(Duration.ofSeconds(11).toNanos());
+	assertEquals(3, idempotencia.ejecutarUnaVez("s1", "falla", guardados::incrementAndGet)); // Caducó.
+}
+
+private static void await(CountDownLatch latch) {
+	try{
+		latch.await();
+	} catch (InterruptedException e){
+		Thread.currentThread().interrupt();
+	}
+}
+}
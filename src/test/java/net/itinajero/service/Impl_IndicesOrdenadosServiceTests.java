@@ -0,0 +1,55 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Usa las vacantes de ejemplo (salarios 14000, 12000, 10500 y 7900; fechas de enero a abril de 2025).
+ */
+class Impl_IndicesOrdenadosServiceTests {
+
+private final Impl_VacanteService vacantes = new Impl_VacanteService();
+private final Impl_IndicesOrdenadosService indices = new Impl_IndicesOrdenadosService();
+
+Impl_IndicesOrdenadosServiceTests() {
+	vacantes.registrarObservador(indices);
+}
+
+@Test
+void rangosNivelesYLosKMejores() {
+	assertArrayEquals(new int[] { 3, 2 }, indices.idsPorSalario(10500, 12000, false, Itf_IndicesOrdenadosService.SIN_LIMITE));
+	assertArrayEquals(new int[] { 1, 2 }, indices.idsPorSalario(0, Double.MAX_VALUE, true, 2));
+	assertArrayEquals(new int[] { 4 }, indices.idsPorNivelSalarial(Vacante.NivelSalarial.NORMAL, false,
+			Itf_IndicesOrdenadosService.SIN_LIMITE));
+	assertArrayEquals(new int[] { 4, 3 }, indices.idsPublicadasDesde(new Date(1740700800000L), true,
+			Itf_IndicesOrdenadosService.SIN_LIMITE)); // desde el 28-02-2025
+}
+
+@Test
+void actualizarUnaVacanteLaMueveEnElIndice() {
+	// Una copia, como la que crea Spring al enviar el formulario de edición.
+	Vacante vacante = CodecVacante.decodificar(CodecVacante.codificar(vacantes.buscarPorId(4).get()));
+	vacante.setSalario(20000.0);
+	vacantes.guardar(vacante);
+
+	assertArrayEquals(new int[] { 4 }, indices.idsPorSalario(0, Double.MAX_VALUE, true, 1));
+	assertArrayEquals(new int[0], indices.idsPorNivelSalarial(Vacante.NivelSalarial.NORMAL, false,
+			Itf_IndicesOrdenadosService.SIN_LIMITE));
+}
+
+@Test
+void editarElMismoObjetoGuardadoNoDejaEntradasViejas() {
+	// El objeto que devuelve el almacén, modificado en el sitio: `anterior` y `nueva` son el mismo.
+	Vacante vacante = vacantes.buscarPorId(4).get();
+	vacante.setSalario(20000.0);
+	vacantes.guardar(vacante);
+
+	assertArrayEquals(new int[] { 4 }, indices.idsPorSalario(15000, Double.MAX_VALUE, false,
+			Itf_IndicesOrdenadosService.SIN_LIMITE));
+	assertArrayEquals(new int[0], indices.idsPorSalario(7000, 8000, false, Itf_IndicesOrdenadosService.SIN_LIMITE));
+}
+}
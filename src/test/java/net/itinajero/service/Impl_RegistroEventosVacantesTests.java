@@ -0,0 +1,96 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_RegistroEventosVacantesTests {
+
+@Test
+void lasProyeccionesSePonenAlDiaYSeReconstruyenIgual() throws InterruptedException {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	Impl_RegistroEventosVacantes registro = new Impl_RegistroEventosVacantes(10);
+	Impl_CategoriaService categorias = new Impl_CategoriaService();
+	Impl_IndicesOrdenadosService indices = new Impl_IndicesOrdenadosService();
+	registro.registrarProyeccion(categorias);
+	registro.registrarProyeccion(indices);
+	try{
+		almacen.registrarObservador(registro);
+		almacen.guardarTodas(IntStream.range(0, 40)
+				.mapToObj(i -> vacante(i % 2 == 0 ? "Ventas" : "Informática", 1000 + i))
+				.toList());
+		Vacante editada = vacante("Transporte", 5000);
+		editada.setId(7);
+		almacen.guardar(editada);
+		almacen.eliminarTodas(List.of(8, 9, 10));
+
+		// 44 vacantes iniciales y guardadas, una edición y tres eliminaciones.
+		esperarAlDia(registro, 0);
+		assertEquals(48, registro.ultimaSecuencia());
+
+		// Con todas las proyecciones al día, el siguiente evento compacta lo que quede: la reconstrucción parte de base.
+		almacen.guardar(vacante("Ventas", 800));
+		esperarAlDia(registro, 0);
+		assertTrue(registro.metricas().get("eventosPendientesDeCompactar").intValue() < 10);
+		assertTrue(registro.metricas().get("vacantesCompactadas").intValue() > 0);
+		Map<String, Integer> conteos = categorias.contarVacantesPorCategoria();
+		assertEquals(esperados(almacen, categorias), conteos);
+		int[] porSalario = indices.idsPorSalario(0, Double.MAX_VALUE, false, Itf_IndicesOrdenadosService.SIN_LIMITE);
+		assertEquals(almacen.buscarTodas().size(), porSalario.length);
+
+		registro.reconstruir("categorias");
+		registro.reconstruir("indices");
+		esperarAlDia(registro, 1);
+		assertEquals(conteos, categorias.contarVacantesPorCategoria());
+		assertArrayEquals(porSalario,
+				indices.idsPorSalario(0, Double.MAX_VALUE, false, Itf_IndicesOrdenadosService.SIN_LIMITE));
+		for (EstadoProyeccion estado : registro.proyecciones()){
+			assertEquals(1, estado.reconstrucciones());
+			assertEquals(0, estado.retraso());
+		}
+	} finally{
+		registro.detener();
+	}
+}
+
+/**
+ * Espera (como mucho 5 s) a que todas las proyecciones hayan hecho `reconstrucciones` reconstrucciones y no les
+ * falte ningún evento.
+ */
+private static void esperarAlDia(Impl_RegistroEventosVacantes registro, long reconstrucciones)
+		throws InterruptedException {
+	long limite = System.currentTimeMillis() + 5000;
+	while (!registro.proyecciones()
+			.stream()
+			.allMatch(estado -> estado.retraso() == 0 && estado.reconstrucciones() >= reconstrucciones)){
+		assertTrue(System.currentTimeMillis() < limite,
+				"Las proyecciones no se pusieron al día: " + registro.proyecciones());
+		Thread.sleep(1);
+	}
+}
+
+private static Map<String, Integer> esperados(Impl_VacanteService almacen, Impl_CategoriaService categorias) {
+	Map<String, Integer> esperados = new LinkedHashMap<>();
+	categorias.buscarTodas().forEach(categoria -> esperados.put(categoria.getNombre(), (int) almacen.buscarTodas()
+			.stream()
+			.filter(vacante -> categoria.getNombre().equals(vacante.getCategoria()))
+			.count()));
+	return esperados;
+}
+
+private static Vacante vacante(String categoria, double salario) {
+	Vacante vacante = new Vacante();
+	vacante.setNombre("Vacante de " + categoria);
+	vacante.setCategoria(categoria);
+	vacante.setSalario(salario);
+	return vacante;
+}
+}
@@ -0,0 +1,93 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.FlashMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_RepositorioSesionesCompartidoTests {
+
+@Test
+void unaSesionGuardadaEnUnNodoSeLeeDesdeOtro() {
+	Itf_AlmacenCompartido almacen = new Impl_AlmacenCompartidoLocal();
+	Impl_RepositorioSesionesCompartido nodoA = new Impl_RepositorioSesionesCompartido(almacen, Duration.ofMinutes(30));
+	Impl_RepositorioSesionesCompartido nodoB = new Impl_RepositorioSesionesCompartido(almacen, Duration.ofMinutes(30));
+
+	SesionCompartida sesion = nodoA.createSession();
+	sesion.setAttribute("usuario", "ivor");
+	sesion.setAttribute("visitas", 3);
+	sesion.setAttribute("mensajes", new ArrayList<>(List.of("Registro Guardado")));
+	nodoA.save(sesion);
+
+	SesionCompartida leida = nodoB.findById(sesion.getId());
+	assertEquals(3, leida.getAttributeNames().size());
+	// Carga perezosa: nada se decodifica hasta que se pide.
+	assertEquals(3, leida.getAtributosCrudos().size());
+	assertEquals("ivor", leida.<String>getAttribute("usuario"));
+	assertEquals(2, leida.getAtributosCrudos().size());
+	assertEquals(3, leida.<Integer>getAttribute("visitas"));
+	assertEquals(List.of("Registro Guardado"), leida.getAttribute("mensajes"));
+}
+
+@Test
+void cambiarElIdBorraLaClaveAntigua() {
+	Itf_AlmacenCompartido almacen = new Impl_AlmacenCompartidoLocal();
+	Impl_RepositorioSesionesCompartido repositorio = new Impl_RepositorioSesionesCompartido(almacen, Duration.ofMinutes(30));
+	SesionCompartida sesion = repositorio.createSession();
+	repositorio.save(sesion);
+	String idAntiguo = sesion.getId();
+
+	sesion.changeSessionId();
+	repositorio.save(sesion);
+
+	assertNull(repositorio.findById(idAntiguo));
+	assertTrue(repositorio.findById(sesion.getId()) != null);
+}
+
+@Test
+void unaSesionSinUsoCaducaEnElAlmacen() {
+	AtomicLong reloj = new AtomicLong();
+	Itf_AlmacenCompartido almacen = new Impl_AlmacenCompartidoLocal(reloj::get);
+	Impl_RepositorioSesionesCompartido repositorio = new Impl_RepositorioSesionesCompartido(almacen, Duration.ofMinutes(30));
+	SesionCompartida sesion = repositorio.createSession();
+	repositorio.save(sesion);
+
+	reloj.addAndGet(Duration.ofMinutes(29).toNanos());
+	assertNotNull(almacen.obtener("sesion:" + sesion.getId()));
+	reloj.addAndGet(Duration.ofMinutes(2).toNanos());
+	assertNull(almacen.obtener("sesion:" + sesion.getId()));
+}
+
+@Test
+void losMensajesFlashSobrevivenAlAlmacenYLosTiposDesconocidosSeRechazan() {
+	Impl_RepositorioSesionesCompartido repositorio = new Impl_RepositorioSesionesCompartido(
+			new Impl_AlmacenCompartidoLocal(), Duration.ofMinutes(30));
+	FlashMap flash = new FlashMap();
+	flash.put("msg", "Registro Guardado (id 7)");
+	flash.setTargetRequestPath("/vacantes/index");
+	flash.addTargetRequestParam("pagina", "2");
+	flash.startExpirationPeriod(180);
+	SesionCompartida sesion = repositorio.createSession();
+	sesion.setAttribute("flash", new ArrayList<>(List.of(flash)));
+	repositorio.save(sesion);
+
+	List<FlashMap> leidos = repositorio.findById(sesion.getId()).getAttribute("flash");
+	FlashMap leido = leidos.get(0);
+	assertEquals("Registro Guardado (id 7)", leido.get("msg"));
+	assertEquals("/vacantes/index", leido.getTargetRequestPath());
+	assertEquals(List.of("2"), leido.getTargetRequestParams().get("pagina"));
+	assertEquals(flash.getExpirationTime(), leido.getExpirationTime());
+
+	sesion.setAttribute("otro", new StringBuilder("no admitido"));
+	assertThrows(IllegalArgumentException.class, () -> repositorio.save(sesion));
+}
+}
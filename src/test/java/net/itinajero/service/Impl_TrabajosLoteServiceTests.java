@@ -0,0 +1,89 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Impl_TrabajosLoteServiceTests {
+
+@Test
+void modificaEnParaleloYPublicaTodoAlFinal() throws InterruptedException {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	for (int i = 0; i < 2000; i++){
+		Vacante vacante = new Vacante();
+		vacante.setNombre("Vacante de lote " + i);
+		vacante.setSalario(1000 + i);
+		almacen.guardar(vacante);
+	}
+	long porDebajo = almacen.buscarTodas().stream().filter(vacante -> vacante.getSalario() < 2000).count();
+	Impl_TrabajosLoteService trabajos = new Impl_TrabajosLoteService(() -> almacen, 4, 100);
+
+	TrabajoLote trabajo = trabajos.lanzar("Salario mínimo", vacante -> vacante.getSalario() < 2000,
+			vacante -> vacante.setSalario(2000));
+	esperar(trabajo);
+
+	assertEquals(TrabajoLote.Estado.TERMINADO, trabajo.getEstado());
+	assertEquals(almacen.buscarTodas().size(), trabajo.getTotal());
+	assertEquals(100, trabajo.getPorcentaje());
+	assertEquals(porDebajo, trabajo.getModificadas());
+	assertTrue(almacen.buscarTodas().stream().allMatch(vacante -> vacante.getSalario() >= 2000));
+}
+
+@Test
+void unaEdicionDuranteElTrabajoNoSeSobrescribe() throws InterruptedException {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	Impl_TrabajosLoteService trabajos = new Impl_TrabajosLoteService(() -> almacen, 2, 1);
+	CountDownLatch revisandoLaPrimera = new CountDownLatch(1);
+	CountDownLatch continuar = new CountDownLatch(1);
+
+	TrabajoLote trabajo = trabajos.lanzar("Renombrar", vacante -> {
+		if (vacante.getId() == 1){
+			revisandoLaPrimera.countDown();
+			esperarSinInterrupcion(continuar);
+		}
+		return true;
+	}, vacante -> vacante.setNombre("Renombrada"));
+	assertTrue(revisandoLaPrimera.await(10, TimeUnit.SECONDS));
+	assertThrows(IllegalStateException.class, () -> trabajos.caducarAnterioresA(30));
+
+	Vacante editada = CodecVacante.decodificar(CodecVacante.codificar(almacen.buscarPorId(1).get()));
+	editada.setNombre("Editada por el usuario");
+	almacen.guardar(editada);
+	continuar.countDown();
+	esperar(trabajo);
+
+	assertEquals(1, trabajo.getConflictos());
+	assertEquals("Editada por el usuario", almacen.buscarPorId(1).get().getNombre());
+	assertEquals("Renombrada", almacen.buscarPorId(2).get().getNombre());
+}
+
+@Test
+void caducarExigeDiasPositivos() {
+	Impl_TrabajosLoteService trabajos = new Impl_TrabajosLoteService(Impl_VacanteService::new, 1, 100);
+	assertThrows(IllegalArgumentException.class, () -> trabajos.caducarAnterioresA(0));
+	assertThrows(IllegalArgumentException.class, () -> trabajos.caducarAnterioresA(-30));
+	assertTrue(trabajos.recientes().isEmpty());
+}
+
+private static void esperar(TrabajoLote trabajo) throws InterruptedException {
+	long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+	while (!trabajo.isTerminado() && System.nanoTime() < limite){
+		Thread.sleep(10);
+	}
+	assertTrue(trabajo.isTerminado(), "El trabajo no terminó: " + trabajo);
+}
+
+private static void esperarSinInterrupcion(CountDownLatch senal) {
+	try{
+		senal.await(10, TimeUnit.SECONDS);
+	} catch (InterruptedException e){
+		Thread.currentThread().interrupt();
+	}
+}
+}
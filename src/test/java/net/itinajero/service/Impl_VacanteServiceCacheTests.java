@@ -0,0 +1,169 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simula dos nodos de la aplicación que comparten el mismo almacén L2 (el "Redis embebido").
+ */
+class Impl_VacanteServiceCacheTests {
+
+@Test
+void guardarEnUnNodoSeVeEnElOtro() {
+	Itf_AlmacenCompartido redis = new Impl_AlmacenCompartidoLocal();
+	Impl_VacanteServiceCache nodoA = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+	Impl_VacanteServiceCache nodoB = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+
+	// El nodo B calienta su caché L1 con la versión original de la vacante 1.
+	assertEquals("Ingeniero Civil", nodoB.buscarPorId(1).get().getNombre());
+
+	Vacante editada = CodecVacante.decodificar(CodecVacante.codificar(nodoA.buscarPorId(1).get()));
+	editada.setNombre("Ingeniero Civil Senior");
+	nodoA.guardar(editada);
+
+	assertEquals("Ingeniero Civil Senior", nodoB.buscarPorId(1).get().getNombre());
+	assertTrue(nodoB.buscarTodas().stream().anyMatch(v -> "Ingeniero Civil Senior".equals(v.getNombre())));
+}
+
+@Test
+void unaVacanteNuevaSeReplicaConElMismoId() {
+	Itf_AlmacenCompartido redis = new Impl_AlmacenCompartidoLocal();
+	Impl_VacanteServiceCache nodoA = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+	Impl_VacanteServiceCache nodoB = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+
+	Vacante nueva = new Vacante();
+	nueva.setNombre("Programador Java");
+	nueva.setSalario(9000.0);
+	nodoA.guardar(nueva);
+
+	assertEquals(5, nueva.getId());
+	assertEquals(5, nodoB.buscarTodas().size());
+	assertEquals("Programador Java", nodoB.buscarPorId(5).get().getNombre());
+}
+
+@Test
+void dosNodosQueCreanALaVezNoRepitenId() {
+	Itf_AlmacenCompartido redis = new Impl_AlmacenCompartidoLocal();
+	Impl_VacanteServiceCache nodoA = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+	Impl_VacanteServiceCache nodoB = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+
+	Vacante enA = new Vacante();
+	enA.setNombre("Creada en A");
+	int reservadoEnB = nodoB.reservarId(); // Como hace la escritura asíncrona antes de guardar.
+	nodoA.guardar(enA);
+
+	assertEquals(5, reservadoEnB);
+	assertEquals(6, enA.getId());
+	assertEquals("Creada en A", nodoB.buscarPorId(6).get().getNombre());
+}
+
+@Test
+void unIdAusenteSeRecuerdaHastaQueOtroNodoLoGuarda() {
+	Itf_AlmacenCompartido redis = new Impl_AlmacenCompartidoLocal();
+	Impl_VacanteServiceCache nodoA = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+	Impl_VacanteServiceCache nodoB = new Impl_VacanteServiceCache(new Impl_VacanteService(), redis, 10, 100);
+
+	assertTrue(nodoA.buscarPorId(5).isEmpty());
+	assertTrue(nodoA.buscarPorId(5).isEmpty());
+	assertEquals(1L, nodoA.metricas().get("ausentes.aciertos"));
+
+	Vacante nueva = new Vacante();
+	nueva.setNombre("Programador Java");
+	nodoB.guardar(nueva);
+
+	assertEquals("Programador Java", nodoA.buscarPorId(5).get().getNombre());
+}
+
+@Test
+void laCacheLocalGuardaUnaCopiaYNoElObjetoDeQuienGuarda() {
+	Impl_VacanteServiceCache vacantes = new Impl_VacanteServiceCache(new Impl_VacanteService(),
+			new Impl_AlmacenCompartidoLocal(), 10, 100);
+	Vacante nueva = new Vacante();
+	nueva.setNombre("Programador Java");
+	vacantes.guardar(nueva);
+
+	nueva.setNombre("Modificada después de guardar");
+	assertEquals("Programador Java", vacantes.getCacheLocal().obtener(nueva.getId()).getNombre());
+}
+
+@Test
+void trasReiniciarNoSeReutilizaElIdDeUnaVacanteEliminada() throws IOException {
+	String rutaBase = Files.createTempDirectory("vacantes").resolve("catalogo").toString();
+	Impl_VacanteServiceMapeado almacen = new Impl_VacanteServiceMapeado(rutaBase);
+	almacen.eliminarTodas(List.of(4)); // La más alta, como la archiva la caducidad.
+	almacen.cerrar();
+
+	// El nodo arranca con el contador compartido vacío (por ejemplo, Redis también se reinició).
+	Impl_VacanteServiceMapeado reabierto = new Impl_VacanteServiceMapeado(rutaBase);
+	try{
+		Impl_VacanteServiceCache vacantes = new Impl_VacanteServiceCache(reabierto, new Impl_AlmacenCompartidoLocal(),
+				10, 100);
+		assertEquals(5, vacantes.reservarId());
+	} finally{
+		reabierto.cerrar();
+		Files.deleteIfExists(Path.of(rutaBase + ".registros"));
+		Files.deleteIfExists(Path.of(rutaBase + ".textos"));
+	}
+}
+
+@Test
+void lasLlamadasRepetidasEnUnaPeticionLleganUnaVezAlAlmacen() {
+	int[] rangosEnAlmacen = {0};
+	// Un almacén sin versiones, como el columnar: sin memorizar, cada búsqueda por rango llegaría hasta él.
+	Impl_VacanteService almacen = new Impl_VacanteService() {
+		@Override
+		public Optional<InstantaneaVacantes> instantanea() {
+			return Optional.empty();
+		}
+
+		@Override
+		public List<Vacante> buscarPorRangoSalario(double minimo, double maximo) {
+			rangosEnAlmacen[0]++;
+			return super.buscarPorRangoSalario(minimo, maximo);
+		}
+	};
+	Impl_VacanteServiceCache vacantes = new Impl_VacanteServiceCache(almacen, new Impl_AlmacenCompartidoLocal(), 10, 100);
+	VersionPeticion.abrir();
+	try{
+		for (int i = 0; i < 3; i++){
+			vacantes.buscarTodas();
+			vacantes.buscarPorId(1);
+			vacantes.buscarPorRangoSalario(10000, 15000);
+		}
+		assertEquals(1, rangosEnAlmacen[0]);
+		assertEquals(6L, vacantes.metricas().get("memo.ahorradas"));
+
+		// Guardar olvida lo memorizado: la siguiente lectura ya incluye la vacante nueva.
+		Vacante nueva = new Vacante();
+		nueva.setNombre("Jefe de Obra");
+		nueva.setSalario(12500.0);
+		vacantes.guardar(nueva);
+		assertEquals(4, vacantes.buscarPorRangoSalario(10000, 15000).size());
+		assertEquals(2, rangosEnAlmacen[0]);
+	} finally{
+		VersionPeticion.cerrar();
+	}
+}
+
+@Test
+void laCacheLocalExpulsaLaMenosUsada() {
+	CacheLRU<Integer, String> cache = new CacheLRU<>(2);
+	cache.poner(1, "uno");
+	cache.poner(2, "dos");
+	cache.obtener(1);
+	cache.poner(3, "tres");
+
+	assertEquals(2, cache.tamanio());
+	assertEquals("uno", cache.obtener(1));
+	assertEquals(null, cache.obtener(2));
+}
+}
@@ -0,0 +1,57 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Comprueba que el almacén por columnas devuelve lo mismo que se guardó y que el filtro por salario coincide
+ * con el del almacén por defecto.
+ */
+class Impl_VacanteServiceColumnarTests {
+
+@Test
+void unaVacanteGuardadaSeRecuperaIgual() {
+	Impl_VacanteServiceColumnar almacen = new Impl_VacanteServiceColumnar();
+	Vacante nueva = new Vacante();
+	nueva.setNombre("Chofer");
+	nueva.setCategoria("Transporte");
+	nueva.setFecha(new Date(1_700_000_000_000L));
+	nueva.setSalario(6500.0);
+	nueva.setEstatus(Vacante.Estatus.CREADA);
+	nueva.setImagen("logo-chofer.png");
+	almacen.guardar(nueva);
+
+	Vacante leida = almacen.buscarPorId(nueva.getId()).get();
+	assertEquals(5, leida.getId());
+	assertEquals("Chofer", leida.getNombre());
+	assertEquals("Transporte", leida.getCategoria());
+	assertEquals(nueva.getFecha(), leida.getFecha());
+	assertEquals(6500.0, leida.getSalario());
+	assertEquals(Vacante.Estatus.CREADA, leida.getEstatus());
+	assertNull(leida.getDestacado());
+	assertEquals("logo-chofer.png", leida.getImagen());
+
+	leida.setSalario(7000.0);
+	almacen.guardar(leida);
+	assertEquals(5, almacen.tamanio());
+	assertEquals(7000.0, almacen.buscarPorId(5).get().getSalario());
+}
+
+@Test
+void elRangoDeSalarioCoincideConElAlmacenPorDefecto() {
+	Itf_VacanteService porColumnas = new Impl_VacanteServiceColumnar();
+	Itf_VacanteService porLista = new Impl_VacanteService();
+
+	List<Integer> esperados = porLista.buscarPorRangoSalario(10000, 12000).stream().map(Vacante::getId).toList();
+	List<Integer> obtenidos = porColumnas.buscarPorRangoSalario(10000, 12000).stream().map(Vacante::getId).toList();
+
+	assertEquals(List.of(2, 3), obtenidos);
+	assertEquals(esperados, obtenidos);
+}
+}
@@ -0,0 +1,80 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que las vacantes sobreviven a un reinicio: se guardan, se cierra el almacén y se vuelve a abrir sobre
+ * los mismos archivos.
+ */
+class Impl_VacanteServiceMapeadoTests {
+
+@Test
+void lasVacantesSobrevivenAUnReinicio() throws IOException {
+	String rutaBase = Files.createTempDirectory("vacantes").resolve("catalogo").toString();
+
+	Impl_VacanteServiceMapeado almacen = new Impl_VacanteServiceMapeado(rutaBase);
+	Vacante nueva = new Vacante();
+	nueva.setNombre("Técnico en redes");
+	nueva.setCategoria("Informática");
+	nueva.setSalario(8800.0);
+	nueva.setImagen(null);
+	almacen.guardar(nueva);
+	Vacante editada = almacen.buscarPorId(1).get();
+	editada.setNombre("Ingeniero Civil Senior");
+	almacen.guardar(editada);
+	almacen.cerrar();
+
+	Impl_VacanteServiceMapeado reabierto = new Impl_VacanteServiceMapeado(rutaBase);
+	assertEquals(5, reabierto.tamanio());
+	assertEquals("Ingeniero Civil Senior", reabierto.buscarPorId(1).get().getNombre());
+	Vacante leida = reabierto.buscarPorId(5).get();
+	assertEquals("Técnico en redes", leida.getNombre());
+	assertEquals("Informática", leida.getCategoria());
+	assertNull(leida.getImagen());
+	assertNull(leida.getFecha());
+	assertEquals(1, reabierto.buscarPorRangoSalario(8000, 9000).size());
+	reabierto.cerrar();
+
+	Files.deleteIfExists(Path.of(rutaBase + ".registros"));
+	Files.deleteIfExists(Path.of(rutaBase + ".textos"));
+}
+
+@Test
+void volverAGuardarNoHaceCrecerElMontonDeTextos() throws IOException {
+	String rutaBase = Files.createTempDirectory("vacantes").resolve("catalogo").toString();
+	Impl_VacanteServiceMapeado almacen = new Impl_VacanteServiceMapeado(rutaBase);
+
+	// Sin cambios en los textos (como al reproducir el catálogo): se reutilizan sus posiciones.
+	long antes = almacen.bytesTextosUsados();
+	almacen.buscarTodas().forEach(almacen::guardar);
+	assertEquals(antes, almacen.bytesTextosUsados());
+
+	// Cada edición deja muerto el texto anterior: la compactación los recupera.
+	List<String> descripciones = almacen.buscarTodas().stream().map(Vacante::getDescripcion).toList();
+	Vacante editada = almacen.buscarPorId(1).get();
+	for (int version = 0; version < 2000; version++){
+		editada.setDetalles(version + " " + "x".repeat(1000));
+		almacen.guardar(editada);
+	}
+	assertTrue(almacen.bytesTextosUsados() < 256 * 1024, "El montón no se compactó");
+	almacen.cerrar();
+
+	Impl_VacanteServiceMapeado reabierto = new Impl_VacanteServiceMapeado(rutaBase);
+	assertEquals("1999 " + "x".repeat(1000), reabierto.buscarPorId(1).get().getDetalles());
+	assertEquals(descripciones, reabierto.buscarTodas().stream().map(Vacante::getDescripcion).toList());
+	reabierto.cerrar();
+
+	Files.deleteIfExists(Path.of(rutaBase + ".registros"));
+	Files.deleteIfExists(Path.of(rutaBase + ".textos"));
+}
+}
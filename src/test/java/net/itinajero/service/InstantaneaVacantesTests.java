@@ -0,0 +1,94 @@
+package net.itinajero.service;
+
+import net.itinajero.model.Vacante;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstantaneaVacantesTests {
+
+@Test
+void lasVersionesAnterioresNoCambian() {
+	Impl_VacanteService almacen = new Impl_VacanteService();
+	InstantaneaVacantes inicial = almacen.instantanea().get();
+	// Más de 32 × 32 vacantes: el vector necesita dos niveles bajo la raíz.
+	almacen.guardarTodas(IntStream.range(0, 2000).mapToObj(i -> vacante("Vacante " + i)).toList());
+	InstantaneaVacantes conLote = almacen.instantanea().get();
+
+	Vacante editada = vacante("Editada");
+	editada.setId(1500);
+	almacen.guardar(editada);
+	almacen.eliminarTodas(List.of(2, 1000));
+	InstantaneaVacantes ultima = almacen.instantanea().get();
+
+	assertEquals(4, inicial.tamanio());
+	assertEquals(inicial.getVersion() + 1, conLote.getVersion());
+	assertEquals(2004, conLote.tamanio());
+	assertEquals("Vacante 1495", conLote.buscarPorId(1500).get().getNombre());
+	assertTrue(conLote.buscarPorId(1000).isPresent());
+
+	assertEquals(2002, ultima.tamanio());
+	assertEquals("Editada", ultima.buscarPorId(1500).get().getNombre());
+	assertTrue(ultima.buscarPorId(1000).isEmpty());
+	List<Integer> ids = ultima.buscarTodas().stream().map(Vacante::getId).toList();
+	assertEquals(IntStream.rangeClosed(1, 2004).filter(id -> id != 2 && id != 1000).boxed().toList(), ids);
+}
+
+@Test
+void elMapaPersistenteSeparaClavesConLosMismosBitsBajos() {
+	int[] claves = {1, 33, 1025, 1 << 30 | 1, -31, Integer.MIN_VALUE + 1};
+	MapaEnterosPersistente<String> mapa = MapaEnterosPersistente.vacio();
+	for (int clave : claves){
+		mapa = mapa.poner(clave, "v" + clave);
+	}
+	MapaEnterosPersistente<String> sinDos = mapa.quitar(33).quitar(-31);
+
+	assertEquals(6, mapa.tamanio());
+	for (int clave : claves){
+		assertEquals("v" + clave, mapa.obtener(clave));
+	}
+	assertEquals(4, sinDos.tamanio());
+	assertNull(sinDos.obtener(33));
+	assertEquals("v1025", sinDos.obtener(1025));
+	assertEquals("v" + (Integer.MIN_VALUE + 1), sinDos.obtener(Integer.MIN_VALUE + 1));
+	assertNull(sinDos.obtener(65));
+}
+
+@Test
+void unaPeticionLeeSiempreLaMismaVersion() throws InterruptedException {
+	Impl_VacanteServiceCache vacantes = new Impl_VacanteServiceCache(new Impl_VacanteService(),
+			new Impl_AlmacenCompartidoLocal(), 10, 100);
+	VersionPeticion.abrir();
+	try{
+		assertEquals(4, vacantes.buscarTodas().size());
+
+		// Otra petición guarda una vacante mientras esta sigue leyendo.
+		Thread otra = new Thread(() -> vacantes.guardar(vacante("De otra petición")));
+		otra.start();
+		otra.join();
+
+		assertEquals(4, vacantes.buscarTodas().size());
+		assertTrue(vacantes.buscarPorId(5).isEmpty());
+
+		// Lo que guarda la propia petición sí lo ve a continuación, junto con todo lo anterior.
+		vacantes.guardar(vacante("De esta petición"));
+		assertEquals(6, vacantes.buscarTodas().size());
+		assertEquals("De otra petición", vacantes.buscarPorId(5).get().getNombre());
+	} finally{
+		VersionPeticion.cerrar();
+	}
+	assertEquals(6, vacantes.buscarTodas().size());
+}
+
+private static Vacante vacante(String nombre) {
+	Vacante vacante = new Vacante();
+	vacante.setNombre(nombre);
+	vacante.setSalario(1000);
+	return vacante;
+}
+}
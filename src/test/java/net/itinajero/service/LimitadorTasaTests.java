@@ -0,0 +1,46 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorTasaTests {
+
+@Test
+void admiteLaRafagaRechazaElExcesoYSeRellenaConElTiempo() {
+	AtomicLong reloj = new AtomicLong(1_000_000_000L);
+	LimitadorTasa limitador = new LimitadorTasa(2, 3, 100, reloj::get); // 2 por segundo, ráfagas de 3.
+
+	for (int i = 0; i < 3; i++){
+		assertEquals(0, limitador.intentar("10.0.0.1"));
+	}
+	long espera = limitador.intentar("10.0.0.1");
+	assertTrue(espera > 0 && espera <= Duration.ofMillis(500).toNanos(), "espera: " + espera);
+	assertEquals(0, limitador.intentar("10.0.0.2")); // Otra IP tiene su propia cubeta.
+
+	reloj.addAndGet(Duration.ofMillis(500).toNanos()); // Medio segundo: una ficha nueva.
+	assertEquals(0, limitador.intentar("10.0.0.1"));
+	assertTrue(limitador.intentar("10.0.0.1") > 0);
+	assertEquals(5, limitador.getAdmitidas());
+	assertEquals(2, limitador.getRechazadas());
+}
+
+@Test
+void conElMapaLlenoSeLiberanCubetasLlenasOSeRechazaAlClienteNuevo() {
+	AtomicLong reloj = new AtomicLong();
+	LimitadorTasa limitador = new LimitadorTasa(1, 1, 2, reloj::get);
+	limitador.intentar("a");
+	limitador.intentar("b");
+	assertTrue(limitador.intentar("c") > 0); // "a" y "b" siguen activas: no hay hueco.
+	assertEquals(2, limitador.clientes());
+
+	reloj.addAndGet(Duration.ofSeconds(5).toNanos());
+	assertEquals(0, limitador.intentar("c")); // Ahora "a" ya está llena y deja su hueco.
+	assertEquals(0, limitador.intentar("d"));
+	assertEquals(2, limitador.clientes());
+}
+}
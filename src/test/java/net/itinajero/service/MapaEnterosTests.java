@@ -0,0 +1,36 @@
+package net.itinajero.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara {@link MapaEnteros} con un `HashMap` bajo altas y bajas mezcladas, como un catálogo que crea vacantes y
+ * archiva las viejas.
+ */
+class MapaEnterosTests {
+
+@Test
+void quitarLiberaLaPosicionYNoRompeLasCadenas() {
+	MapaEnteros mapa = new MapaEnteros(16);
+	Map<Integer, Integer> esperado = new HashMap<>();
+	Random azar = new Random(46);
+	for (int id = 1; id <= 200_000; id++){
+		mapa.poner(id, id * 2);
+		esperado.put(id, id * 2);
+		if (esperado.size() > 500){
+			int quitado = id - 500 + azar.nextInt(100); // Casi siempre uno viejo; a veces ya quitado.
+			mapa.quitar(quitado);
+			esperado.remove(quitado);
+		}
+	}
+	assertEquals(esperado.size(), mapa.tamanio());
+	for (int id = 1; id <= 200_000; id++){
+		assertEquals((int) esperado.getOrDefault(id, MapaEnteros.AUSENTE), mapa.obtener(id), "id " + id);
+	}
+}
+}